@@ -0,0 +1,86 @@
+package com.example.dropbox.benchmarks;
+
+import com.example.rollingChunks.chunking.FastCdcChunker;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chunking throughput over 64 MiB of random bytes. One operation is one byte
+ * ({@code @OperationsPerInvocation}), so the score in ops/s is bytes/s: 1.0E9 ops/s = 1 GB/s.
+ *
+ * <p>{@code sha256} is the per-chunk hashing every chunk needs anyway, for scale.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FastCdcBenchmark {
+
+    private static final int DATA_BYTES = 64 << 20;
+
+    /**
+     * min/avg/max: the demo's app.rolling.* sizes, and typical sync-client sizes.
+     */
+    @Param({"64/256/1024", "2048/8192/65536"})
+    private String sizes;
+
+    private FastCdcChunker chunker;
+    private byte[] data;
+    private ByteBuffer direct;
+    private MessageDigest sha256;
+
+    @Setup
+    public void setUp() throws NoSuchAlgorithmException {
+        String[] parts = sizes.split("/");
+        chunker = new FastCdcChunker(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+        data = new byte[DATA_BYTES];
+        new Random(42).nextBytes(data);
+        direct = ByteBuffer.allocateDirect(DATA_BYTES).put(data).flip();
+        sha256 = MessageDigest.getInstance("SHA-256");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DATA_BYTES)
+    public int byteArray() {
+        int chunks = 0;
+        for (int start = 0; start < data.length; chunks++) {
+            start += chunker.cut(data, start, data.length - start);
+        }
+        return chunks;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DATA_BYTES)
+    public int directByteBuffer() {
+        ByteBuffer buffer = direct.duplicate();
+        int chunks = 0;
+        while (buffer.hasRemaining()) {
+            buffer.position(buffer.position() + chunker.cut(buffer));
+            chunks++;
+        }
+        return chunks;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DATA_BYTES)
+    public long inputStream() throws IOException {
+        return chunker.chunk(new ByteArrayInputStream(data), (offset, buffer, start, length) -> {
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DATA_BYTES)
+    public byte[] sha256() {
+        sha256.update(data);
+        return sha256.digest();
+    }
+}
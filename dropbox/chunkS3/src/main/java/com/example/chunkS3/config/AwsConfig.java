@@ -6,7 +6,9 @@ import org.springframework.context.annotation.Configuration;
 
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3Configuration;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
@@ -38,6 +40,18 @@ public class AwsConfig {
                 .build();
     }
 
+    /** Used for parallel chunk verification; the connection pool matches the verification concurrency. */
+    @Bean
+    public S3AsyncClient s3AsyncClient(@Value("${app.chunk-verify.max-concurrency:64}") int maxConcurrency) {
+        return S3AsyncClient.builder()
+                .endpointOverride(endpoint)
+                .region(Region.of(region))
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKeyId, secretAccessKey)))
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder().maxConcurrency(maxConcurrency))
+                .build();
+    }
+
     @Bean
     public S3Presigner s3Presigner() {
         return S3Presigner.builder()
@@ -3,5 +3,7 @@ package com.example.chunkS3.model;
 public enum FileStatus {
     PENDING,
     UPDATING,
-    AVAILABLE
+    AVAILABLE,
+    /** Version superseded by a newer one, or upload abandoned; its chunks are no longer referenced by it. */
+    RETIRED
 }
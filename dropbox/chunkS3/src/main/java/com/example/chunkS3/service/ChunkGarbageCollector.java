@@ -0,0 +1,255 @@
+package com.example.chunkS3.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.chunkS3.model.ChunkRefCount;
+import com.example.chunkS3.model.FileStatus;
+import com.example.chunkS3.model.UploadSession;
+import com.example.chunkS3.repository.ChunkRefCountRepository;
+import com.example.chunkS3.repository.FileVersionRepository;
+import com.example.chunkS3.repository.FileVersionRepository.HashReferences;
+import com.example.chunkS3.repository.UploadSessionRepository;
+
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+
+/**
+ * Mark-and-sweep collector for chunk objects that no version references any more.
+ *
+ * <p>Each run:
+ * <ol>
+ *   <li>retires uploads still incomplete after {@code abandoned-upload-after}, releasing their references;</li>
+ *   <li>starts counting indexed chunks that have no count yet (e.g. objects found by the startup backfill);</li>
+ *   <li>sweeps chunks whose count has been zero for {@code grace-period}. Under a row lock it re-checks the
+ *       count and marks the chunk against the versions that actually list it (repairing a drifted count
+ *       instead of deleting), tombstones the row and removes the chunk from the index, commits, and then
+ *       deletes the objects with {@code DeleteObjects}, 1000 keys per request.</li>
+ * </ol>
+ *
+ * <p>Races with uploads: {@code initUpload} increments counts, taking the same row locks, before it trusts
+ * the index, so it either makes the sweep skip the chunk or runs after it and uploads the chunk again. A chunk
+ * re-indexed while its delete was in flight is HEAD-checked afterwards, and notifications for hashes deleted
+ * within {@code tombstone-retention} are HEAD-checked before they are indexed. Keep the grace period well above
+ * the presigned URL TTL so downloads of a just-superseded version still find their chunks.
+ */
+@Component
+@ConditionalOnProperty(name = "app.chunk-gc.enabled", havingValue = "true")
+public class ChunkGarbageCollector {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkGarbageCollector.class);
+
+    // DeleteObjects accepts at most 1000 keys
+    private static final int BATCH_SIZE = 1000;
+
+    private static final List<FileStatus> ACTIVE = List.of(FileStatus.PENDING, FileStatus.UPDATING);
+
+    private final ChunkRefCountRepository refCounts;
+    private final FileVersionRepository versionRepository;
+    private final UploadSessionRepository sessionRepository;
+    private final ChunkReferenceService chunkReferences;
+    private final ChunkIndexService chunkIndex;
+    private final ChunkVerifier chunkVerifier;
+    private final ChunkedFileService chunkedFileService;
+    private final S3Client s3Client;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration gracePeriod;
+    private final Duration abandonedUploadAfter;
+    private final Duration tombstoneRetention;
+
+    @Value("${aws.s3.bucket}")
+    private String bucketName;
+
+    @Value("${app.chunk.object-prefix:chunks/sha256/}")
+    private String chunkObjectPrefix;
+
+    public ChunkGarbageCollector(ChunkRefCountRepository refCounts,
+                                 FileVersionRepository versionRepository,
+                                 UploadSessionRepository sessionRepository,
+                                 ChunkReferenceService chunkReferences,
+                                 ChunkIndexService chunkIndex,
+                                 ChunkVerifier chunkVerifier,
+                                 ChunkedFileService chunkedFileService,
+                                 S3Client s3Client,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.chunk-gc.grace-period:P1D}") Duration gracePeriod,
+                                 @Value("${app.chunk-gc.abandoned-upload-after:P1D}") Duration abandonedUploadAfter,
+                                 @Value("${app.chunk-gc.tombstone-retention:P7D}") Duration tombstoneRetention) {
+        this.refCounts = refCounts;
+        this.versionRepository = versionRepository;
+        this.sessionRepository = sessionRepository;
+        this.chunkReferences = chunkReferences;
+        this.chunkIndex = chunkIndex;
+        this.chunkVerifier = chunkVerifier;
+        this.chunkedFileService = chunkedFileService;
+        this.s3Client = s3Client;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.gracePeriod = gracePeriod;
+        this.abandonedUploadAfter = abandonedUploadAfter;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    @Scheduled(initialDelayString = "${app.chunk-gc.interval:PT1H}", fixedDelayString = "${app.chunk-gc.interval:PT1H}")
+    public void run() {
+        Instant now = Instant.now();
+        try {
+            int abandoned = retireAbandonedUploads(now.minus(abandonedUploadAfter));
+            int adopted = countUncountedChunks();
+            int deleted = sweep(now.minus(gracePeriod));
+            refCounts.deleteTombstonesCollectedBefore(now.minus(tombstoneRetention));
+            refCounts.expireTombstonesCollectedBefore(now.minus(tombstoneRetention));
+            if (deleted > 0) {
+                chunkIndex.rebuildFilter();
+            }
+            log.info("Chunk GC: retired {} abandoned uploads, started counting {} chunks, deleted {} chunks in {} ms",
+                    abandoned, adopted, deleted, Duration.between(now, Instant.now()).toMillis());
+        } catch (DataAccessException | SdkException e) {
+            // e.g. a lock wait timeout against a long init; the next run picks up where this one stopped
+            log.warn("Chunk GC run failed", e);
+        }
+    }
+
+    /** Retires upload sessions created before {@code createdBefore} that never completed. */
+    public int retireAbandonedUploads(Instant createdBefore) {
+        int retired = 0;
+        for (UploadSession session : sessionRepository.findByStatusInAndCreatedAtBefore(ACTIVE, createdBefore)) {
+            if (chunkedFileService.abandonUpload(session.getId())) {
+                retired++;
+            }
+        }
+        return retired;
+    }
+
+    /** Gives indexed chunks without a count row one, so they become collectable after the grace period. */
+    public int countUncountedChunks() {
+        int counted = 0;
+        List<String> hashes;
+        while (!(hashes = refCounts.findIndexedWithoutCount(PageRequest.of(0, BATCH_SIZE))).isEmpty()) {
+            chunkReferences.ensureCounted(hashes);
+            counted += hashes.size();
+        }
+        return counted;
+    }
+
+    /**
+     * Deletes chunks unreferenced since before {@code cutoff}. Returns the number of objects deleted.
+     */
+    public int sweep(Instant cutoff) {
+        int deleted = 0;
+        // Every candidate leaves the query: claimed ones are tombstoned, the rest were referenced or repaired
+        while (true) {
+            List<String> candidates = refCounts.findCollectable(cutoff, PageRequest.of(0, BATCH_SIZE));
+            if (candidates.isEmpty()) {
+                break;
+            }
+            List<String> claimed = transactionTemplate.execute(status -> claim(candidates, cutoff));
+            int batchDeleted = deleteObjects(claimed);
+            deleted += batchDeleted;
+            if (!claimed.isEmpty() && batchDeleted == 0) {
+                // Every delete in the batch failed; they were un-claimed, so leave them to the next run
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    private List<String> claim(List<String> candidates, Instant cutoff) {
+        Instant now = Instant.now();
+        List<ChunkRefCount> collectable = refCounts.lockAll(candidates).stream()
+                .filter(r -> r.isCollectable(cutoff))
+                .toList();
+        if (collectable.isEmpty()) {
+            return List.of();
+        }
+
+        // Mark: the versions themselves are the source of truth, the counts only pick candidates
+        Map<String, Long> live = new HashMap<>();
+        for (HashReferences refs : versionRepository.countLiveReferences(
+                collectable.stream().map(ChunkRefCount::getHash).toList(), FileStatus.RETIRED)) {
+            live.put(refs.getHash(), refs.getVersions());
+        }
+
+        List<String> claimed = new ArrayList<>();
+        for (ChunkRefCount r : collectable) {
+            Long versions = live.get(r.getHash());
+            if (versions != null) {
+                log.warn("Chunk {} has count {} but {} live versions; repairing", r.getHash(), r.getRefCount(), versions);
+                r.repair(versions.intValue(), now);
+            } else {
+                r.markCollected(now);
+                claimed.add(r.getHash());
+            }
+        }
+        chunkIndex.remove(claimed);
+        return claimed;
+    }
+
+    private int deleteObjects(List<String> hashes) {
+        if (hashes.isEmpty()) {
+            return 0;
+        }
+        String prefix = prefix();
+        List<ObjectIdentifier> keys = hashes.stream()
+                .map(hash -> ObjectIdentifier.builder().key(prefix + hash).build())
+                .toList();
+        DeleteObjectsResponse response;
+        try {
+            response = s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                    .bucket(bucketName)
+                    .delete(Delete.builder().objects(keys).quiet(true).build())
+                    .build());
+        } catch (SdkException e) {
+            // Nothing was deleted: undo the claim so the next run retries
+            chunkIndex.recordAll(hashes);
+            refCounts.clearCollected(hashes);
+            throw e;
+        }
+
+        Set<String> failed = new HashSet<>();
+        for (S3Error error : response.errors()) {
+            failed.add(error.key().substring(prefix.length()));
+            log.warn("Could not delete chunk {}: {} {}", error.key(), error.code(), error.message());
+        }
+        if (!failed.isEmpty()) {
+            chunkIndex.recordAll(failed);
+            refCounts.clearCollected(failed);
+        }
+
+        List<String> deleted = hashes.stream().filter(hash -> !failed.contains(hash)).toList();
+        // A chunk uploaded again and re-indexed while the delete was in flight may be gone now
+        Set<String> reindexed = new HashSet<>(chunkIndex.findIndexed(deleted));
+        if (!reindexed.isEmpty()) {
+            reindexed.removeAll(chunkVerifier.findExisting(reindexed, ChunkVerifier.PHASE_GC));
+            chunkIndex.remove(reindexed);
+        }
+        return deleted.size();
+    }
+
+    private String prefix() {
+        String prefix = chunkObjectPrefix;
+        if (!prefix.endsWith("/")) prefix = prefix + "/";
+        return prefix;
+    }
+}
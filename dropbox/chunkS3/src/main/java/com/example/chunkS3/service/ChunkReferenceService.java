@@ -0,0 +1,137 @@
+package com.example.chunkS3.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import com.example.chunkS3.model.ChunkPart;
+import com.example.chunkS3.model.ChunkRefCount;
+import com.example.chunkS3.model.FileStatus;
+import com.example.chunkS3.model.FileVersion;
+import com.example.chunkS3.repository.ChunkRefCountRepository;
+
+/**
+ * Reference counts per chunk hash: every version that is not {@link FileStatus#RETIRED} holds one
+ * reference to each distinct hash in its parts. Counts go up when a version is created and down when
+ * it is retired, i.e. superseded by a newer version of the file or abandoned before completion.
+ * {@link ChunkGarbageCollector} deletes chunks whose count has stayed at zero for its grace period.
+ */
+@Service
+public class ChunkReferenceService {
+
+    // Keeps IN lists well below DB parameter limits
+    private static final int BATCH_SIZE = 1000;
+
+    private final ChunkRefCountRepository repository;
+    private final TransactionTemplate requiresNew;
+    private final Duration tombstoneRetention;
+
+    public ChunkReferenceService(ChunkRefCountRepository repository, PlatformTransactionManager transactionManager,
+                                 @Value("${app.chunk-gc.tombstone-retention:P7D}") Duration tombstoneRetention) {
+        this.repository = repository;
+        this.tombstoneRetention = tombstoneRetention;
+        // Rows are created in their own transaction so a duplicate insert race does not fail the caller
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Counts a reference from a new version to each of its chunks. Call it in the caller's transaction
+     * before trusting the chunk index for these hashes: the update locks the count rows until commit, so
+     * a concurrent sweep either waits and then sees the reference, or has already removed the chunk from
+     * the index and it gets uploaded again.
+     */
+    public void addReferences(FileVersion version) {
+        Set<String> hashes = uniqueHashes(version);
+        ensureCounted(hashes);
+        adjust(hashes, 1);
+    }
+
+    /**
+     * Marks the version retired and releases its chunk references. Idempotent.
+     */
+    public void retire(FileVersion version) {
+        if (version.getStatus() == FileStatus.RETIRED) {
+            return;
+        }
+        version.setStatus(FileStatus.RETIRED);
+        adjust(uniqueHashes(version), -1);
+    }
+
+    /**
+     * True if the garbage collector deleted this chunk within {@code tombstone-retention}, so a notification
+     * for it may be older than the delete. A reference taken since does not clear it: the upload it asked
+     * for may still be in flight, and the notification can be the one for the deleted object.
+     */
+    public boolean wasCollected(String hash) {
+        Instant retainedSince = Instant.now().minus(tombstoneRetention);
+        return repository.findById(hash)
+                .map(r -> r.getCollectedAt() != null && r.getCollectedAt().isAfter(retainedSince))
+                .orElse(false);
+    }
+
+    /** Creates zero-count rows for hashes that have none yet. */
+    void ensureCounted(Collection<String> hashes) {
+        if (hashes.isEmpty()) {
+            return;
+        }
+        try {
+            requiresNew.executeWithoutResult(status -> insertMissing(hashes));
+        } catch (DataIntegrityViolationException e) {
+            // Raced with another insert of the same hash
+            for (String hash : hashes) {
+                try {
+                    requiresNew.executeWithoutResult(status -> insertMissing(List.of(hash)));
+                } catch (DataIntegrityViolationException alreadyCounted) {
+                    // the other insert won
+                }
+            }
+        }
+    }
+
+    private void insertMissing(Collection<String> hashes) {
+        List<String> list = List.copyOf(hashes);
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < list.size(); from += BATCH_SIZE) {
+            existing.addAll(repository.findExistingHashes(list.subList(from, Math.min(list.size(), from + BATCH_SIZE))));
+        }
+        List<ChunkRefCount> rows = list.stream()
+                .filter(hash -> !existing.contains(hash))
+                .map(ChunkRefCount::unreferenced)
+                .toList();
+        if (!rows.isEmpty()) {
+            repository.saveAll(rows);
+            repository.flush();
+        }
+    }
+
+    private void adjust(Collection<String> hashes, int delta) {
+        List<String> list = List.copyOf(hashes);
+        Instant now = Instant.now();
+        for (int from = 0; from < list.size(); from += BATCH_SIZE) {
+            repository.adjust(list.subList(from, Math.min(list.size(), from + BATCH_SIZE)), delta, now);
+        }
+    }
+
+    private static Set<String> uniqueHashes(FileVersion version) {
+        Set<String> hashes = new LinkedHashSet<>();
+        for (ChunkPart part : version.getParts()) {
+            if (StringUtils.hasText(part.getHash())) {
+                hashes.add(part.getHash());
+            }
+        }
+        return hashes;
+    }
+}
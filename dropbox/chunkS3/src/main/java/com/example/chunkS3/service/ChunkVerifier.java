@@ -0,0 +1,140 @@
+package com.example.chunkS3.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+/**
+ * Checks which chunk hashes exist in S3 with HEAD requests fanned out on the async client,
+ * at most {@code app.chunk-verify.max-concurrency} in flight. Used for the hashes the chunk index
+ * does not know, so a file with many of them costs roughly {@code n / concurrency} round trips
+ * instead of {@code n}.
+ *
+ * <p>Each call is timed as {@code chunk.verification} (tagged with the phase) and the number of
+ * hashes checked is recorded as {@code chunk.verification.hashes}.
+ */
+@Service
+public class ChunkVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkVerifier.class);
+
+    public static final String PHASE_INIT = "init";
+    public static final String PHASE_COMPLETE = "complete";
+    public static final String PHASE_NOTIFICATION = "notification";
+    public static final String PHASE_GC = "gc";
+
+    private final S3AsyncClient s3AsyncClient;
+    private final MeterRegistry meterRegistry;
+    private final String bucketName;
+    private final String chunkObjectPrefix;
+    private final int maxConcurrency;
+
+    public ChunkVerifier(S3AsyncClient s3AsyncClient,
+                         MeterRegistry meterRegistry,
+                         @Value("${aws.s3.bucket}") String bucketName,
+                         @Value("${app.chunk.object-prefix:chunks/sha256/}") String chunkObjectPrefix,
+                         @Value("${app.chunk-verify.max-concurrency:64}") int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("app.chunk-verify.max-concurrency must be positive: " + maxConcurrency);
+        }
+        this.s3AsyncClient = s3AsyncClient;
+        this.meterRegistry = meterRegistry;
+        this.bucketName = bucketName;
+        this.chunkObjectPrefix = chunkObjectPrefix.endsWith("/") ? chunkObjectPrefix : chunkObjectPrefix + "/";
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Returns the given hashes whose chunk object exists in S3. Blocks until every HEAD has
+     * completed; the first S3 error other than "not found" is rethrown once the requests in flight finish.
+     */
+    public Set<String> findExisting(Collection<String> hashes, String phase) {
+        Set<String> existing = ConcurrentHashMap.newKeySet();
+        if (hashes.isEmpty()) {
+            return existing;
+        }
+
+        long start = System.nanoTime();
+        Semaphore permits = new Semaphore(maxConcurrency);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>(hashes.size());
+        try {
+            for (String hash : hashes) {
+                permits.acquire();
+                if (failure.get() != null) {
+                    permits.release();
+                    break;
+                }
+                HeadObjectRequest head = HeadObjectRequest.builder().bucket(bucketName).key(chunkObjectPrefix + hash).build();
+                inFlight.add(s3AsyncClient.headObject(head).whenComplete((response, error) -> {
+                    try {
+                        if (error == null) {
+                            existing.add(hash);
+                        } else if (!isNotFound(error)) {
+                            failure.compareAndSet(null, unwrap(error));
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            inFlight.forEach(f -> f.cancel(true));
+            throw new IllegalStateException("Interrupted while verifying chunks", e);
+        }
+        // Results are collected in whenComplete; errors are reported through failure
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+
+        long elapsedNanos = System.nanoTime() - start;
+        Timer.builder("chunk.verification")
+                .description("Time to check the chunks of one file against S3")
+                .tag("phase", phase)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("chunk.verification.hashes")
+                .description("Chunk hashes checked against S3 per file")
+                .tag("phase", phase)
+                .register(meterRegistry)
+                .record(hashes.size());
+
+        Throwable error = failure.get();
+        if (error != null) {
+            if (error instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Chunk verification failed", error);
+        }
+        log.debug("Verified {} chunk hashes ({} present) for {} in {} ms", hashes.size(), existing.size(), phase,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        return existing;
+    }
+
+    private static boolean isNotFound(Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof NoSuchKeyException) return true;
+        return cause instanceof S3Exception s3 && s3.statusCode() == 404;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.chunkS3;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.example.chunkS3.model.ChunkRefCount;
+import com.example.chunkS3.model.ChunkingStrategy;
+import com.example.chunkS3.model.FileStatus;
+import com.example.chunkS3.repository.ChunkRefCountRepository;
+import com.example.chunkS3.repository.FileMetadataRepository;
+import com.example.chunkS3.service.ChunkGarbageCollector;
+import com.example.chunkS3.service.ChunkIndexService;
+import com.example.chunkS3.service.ChunkedFileService;
+
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+
+/**
+ * Drives {@link ChunkGarbageCollector} against the real schema with S3 mocked: objects are tracked in
+ * {@link #objects}, {@code DeleteObjects} removes from it and {@code HeadObject} reads it.
+ */
+@SpringBootTest(properties = {
+        "aws.s3.endpoint=http://localhost:1",
+        "app.s3.notifications.sqs.enabled=false",
+        // Bean only; the tests drive the sweep themselves.
+        "app.chunk-gc.enabled=true",
+        "app.chunk-gc.interval=P1D"
+})
+class ChunkGarbageCollectorTest {
+
+    private static final String PREFIX = "chunks/sha256/";
+
+    @Autowired
+    ChunkedFileService chunkedFileService;
+
+    @Autowired
+    ChunkGarbageCollector garbageCollector;
+
+    @Autowired
+    ChunkIndexService chunkIndex;
+
+    @Autowired
+    ChunkRefCountRepository refCounts;
+
+    @Autowired
+    FileMetadataRepository fileRepository;
+
+    @MockitoBean
+    S3Client s3Client;
+
+    @MockitoBean
+    S3AsyncClient s3AsyncClient;
+
+    private final Set<String> objects = ConcurrentHashMap.newKeySet();
+
+    // Tests share the context's database, so each one uses its own hashes
+    private final String run = UUID.randomUUID().toString().replace("-", "");
+
+    @BeforeEach
+    void mockS3() {
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class))).thenAnswer(inv -> {
+            DeleteObjectsRequest request = inv.getArgument(0);
+            request.delete().objects().stream().map(ObjectIdentifier::key).forEach(objects::remove);
+            return DeleteObjectsResponse.builder().build();
+        });
+        when(s3AsyncClient.headObject(any(HeadObjectRequest.class))).thenAnswer(inv -> {
+            HeadObjectRequest request = inv.getArgument(0);
+            return objects.contains(request.key())
+                    ? CompletableFuture.completedFuture(HeadObjectResponse.builder().build())
+                    : CompletableFuture.failedFuture(NoSuchKeyException.builder().build());
+        });
+    }
+
+    @Test
+    void sweepDeletesOnlyChunksNoLiveVersionReferences() {
+        String a = hash("a"), b = hash("b"), c = hash("c"), b2 = hash("b2"), x = hash("x"), y = hash("y");
+
+        var v1 = init(null, a, b, c, a);
+        upload(a, b, c);
+        chunkedFileService.completeUpload(v1.fileId(), v1.versionId());
+        assertThat(counts(a, b, c)).containsExactly(1, 1, 1);
+
+        var v2 = init(v1.fileId(), a, b2, c);
+        assertThat(v2.missingParts()).extracting(ChunkedFileService.MissingPart::hash).containsExactly(b2);
+        upload(b2);
+        chunkedFileService.completeUpload(v2.fileId(), v2.versionId());
+        assertThat(counts(a, b, c, b2)).containsExactly(1, 0, 1, 1);
+
+        // Never completed: retired by the collector, which releases its references
+        var abandoned = init(null, x, y);
+        upload(x);
+        assertThat(garbageCollector.retireAbandonedUploads(Instant.now().plusSeconds(1))).isGreaterThanOrEqualTo(1);
+        assertThat(fileRepository.findById(abandoned.fileId()).orElseThrow().getStatus()).isEqualTo(FileStatus.RETIRED);
+        assertThatThrownBy(() -> chunkedFileService.completeUpload(abandoned.fileId(), abandoned.versionId()))
+                .isInstanceOf(IllegalStateException.class);
+
+        // Within the grace period nothing goes
+        garbageCollector.sweep(Instant.now().minusSeconds(3600));
+        assertThat(objects).contains(key(b), key(x));
+
+        // A cutoff in the future stands in for the grace period having passed
+        garbageCollector.sweep(Instant.now().plusSeconds(1));
+        assertThat(objects).containsExactlyInAnyOrder(key(a), key(c), key(b2));
+        assertThat(chunkIndex.findIndexed(List.of(a, b, c, b2, x, y))).containsExactlyInAnyOrder(a, c, b2);
+
+        // Collected chunks are tombstoned, not swept again
+        assertThat(refCounts.findCollectable(Instant.now().plusSeconds(1), Pageable.unpaged()))
+                .doesNotContain(b, x, y);
+    }
+
+    @Test
+    void driftedCountIsRepairedInsteadOfDeleted() {
+        String a = hash("a");
+        var v1 = init(null, a);
+        upload(a);
+        chunkedFileService.completeUpload(v1.fileId(), v1.versionId());
+
+        // The count dropped to zero long ago, but the version still lists the chunk
+        refCounts.adjust(List.of(a), -1, Instant.EPOCH);
+        assertThat(counts(a)).containsExactly(0);
+
+        garbageCollector.sweep(Instant.now().minusSeconds(3600));
+
+        assertThat(counts(a)).containsExactly(1);
+        assertThat(objects).contains(key(a));
+        assertThat(chunkIndex.findIndexed(List.of(a))).containsExactly(a);
+    }
+
+    @Test
+    void staleNotificationForACollectedChunkIsNotIndexed() {
+        String b = collected();
+
+        // The ObjectCreated event of the deleted object arrives late
+        chunkedFileService.onObjectCreated(PREFIX + b);
+
+        assertThat(chunkIndex.findIndexed(List.of(b))).isEmpty();
+    }
+
+    @Test
+    void collectedChunkReferencedAgainIsUploadedAgain() {
+        String b = collected();
+
+        var init = init(null, b);
+        assertThat(init.missingParts()).extracting(ChunkedFileService.MissingPart::hash).containsExactly(b);
+        assertThat(counts(b)).containsExactly(1);
+
+        // Referenced again, but the old object's notification can still arrive before the new upload
+        chunkedFileService.onObjectCreated(PREFIX + b);
+        assertThat(chunkIndex.findIndexed(List.of(b))).isEmpty();
+
+        upload(b);
+        chunkedFileService.completeUpload(init.fileId(), init.versionId());
+        assertThat(chunkIndex.findIndexed(List.of(b))).containsExactly(b);
+        assertThat(fileRepository.findById(init.fileId()).orElseThrow().getStatus()).isEqualTo(FileStatus.AVAILABLE);
+    }
+
+    /** A chunk only a superseded version used, swept and deleted. */
+    private String collected() {
+        String keep = hash("keep"), old = hash("old"), replacement = hash("new");
+        var v1 = init(null, keep, old);
+        upload(keep, old);
+        chunkedFileService.completeUpload(v1.fileId(), v1.versionId());
+        var v2 = init(v1.fileId(), keep, replacement);
+        upload(replacement);
+        chunkedFileService.completeUpload(v2.fileId(), v2.versionId());
+
+        garbageCollector.sweep(Instant.now().plusSeconds(1));
+        assertThat(objects).doesNotContain(key(old));
+        return old;
+    }
+
+    private ChunkedFileService.InitUploadResponse init(UUID fileId, String... hashes) {
+        List<ChunkedFileService.InitPart> parts = new ArrayList<>();
+        for (int i = 0; i < hashes.length; i++) {
+            parts.add(new ChunkedFileService.InitPart(i, hashes[i], 5));
+        }
+        return chunkedFileService.initUpload(new ChunkedFileService.InitUploadRequest(
+                fileId,
+                "gc.bin",
+                "application/octet-stream",
+                ChunkingStrategy.FIXED_256_KIB,
+                false,
+                false,
+                5L * hashes.length,
+                parts
+        ));
+    }
+
+    /** Puts the objects and delivers their ObjectCreated notifications. */
+    private void upload(String... hashes) {
+        for (String hash : hashes) {
+            objects.add(key(hash));
+            chunkedFileService.onObjectCreated(key(hash));
+        }
+    }
+
+    private List<Integer> counts(String... hashes) {
+        List<Integer> counts = new ArrayList<>();
+        for (String hash : hashes) {
+            counts.add(refCounts.findById(hash).map(ChunkRefCount::getRefCount).orElse(null));
+        }
+        return counts;
+    }
+
+    private String hash(String name) {
+        return run + "-" + name;
+    }
+
+    private static String key(String hash) {
+        return PREFIX + hash;
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.rollingChunks.chunking;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Content-defined chunking with a Gear rolling hash and FastCDC's normalized chunking: the same algorithm and
+ * constants as the browser chunker in {@code templates/index.html}, so server-side ingest, sync agents and the
+ * web client all cut the same bytes at the same places.
+ *
+ * <p>For each chunk:
+ * <ul>
+ *   <li>the first {@code min - 1} bytes are skipped without hashing (no chunk is shorter than {@code min});</li>
+ *   <li>up to {@code avg} bytes, a cut needs the top {@code log2(avg) + 2} hash bits to be zero (harder);</li>
+ *   <li>after that, only the top {@code log2(avg) - 2} bits (easier), which pulls chunk sizes towards {@code avg};</li>
+ *   <li>at {@code max} bytes the chunk is cut regardless.</li>
+ * </ul>
+ * The hash is {@code h = (h << 1) + GEAR[byte]} on 32 bits, so the top bits depend on the last 32 bytes.
+ *
+ * <p>Immutable and thread-safe. Finding a cut allocates nothing; {@link #chunk(InputStream, ChunkSink)} allocates
+ * one buffer per call.
+ */
+public final class FastCdcChunker {
+
+    /**
+     * Bits added to / removed from the mask around the average size. 2 is the level the FastCDC paper recommends:
+     * most chunks land between avg/2 and 2 x avg while dedup stays as good as plain CDC.
+     */
+    static final int NORMALIZATION_LEVEL = 2;
+
+    private static final int MIN_STREAM_BUFFER_BYTES = 1 << 20;
+
+    /**
+     * Receives chunks from {@link #chunk(InputStream, ChunkSink)}. {@code buffer} is reused, so the bytes are only
+     * valid during the call; hash or copy them there.
+     */
+    @FunctionalInterface
+    public interface ChunkSink {
+        void accept(long offset, byte[] buffer, int start, int length) throws IOException;
+    }
+
+    private final int minSize;
+    private final int avgSize;
+    private final int maxSize;
+    private final int maskS;
+    private final int maskL;
+
+    public FastCdcChunker(int minSize, int avgSize, int maxSize) {
+        if (minSize <= 0 || minSize > avgSize || avgSize > maxSize || maxSize > (1 << 29)) {
+            throw new IllegalArgumentException(
+                    "Need 0 < min <= avg <= max <= 512 MiB, got " + minSize + "/" + avgSize + "/" + maxSize);
+        }
+        this.minSize = minSize;
+        this.avgSize = avgSize;
+        this.maxSize = maxSize;
+        // Same rounding as the browser's nextPow2(avg)
+        int bits = 32 - Integer.numberOfLeadingZeros(avgSize - 1);
+        this.maskS = topBits(bits + NORMALIZATION_LEVEL);
+        this.maskL = topBits(Math.max(1, bits - NORMALIZATION_LEVEL));
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getAvgSize() {
+        return avgSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Length of the chunk starting at {@code offset}. {@code length} is what is available from there: pass at least
+     * {@code max} bytes unless this is the end of the input, or the cut may differ from a run over the whole input.
+     */
+    public int cut(byte[] data, int offset, int length) {
+        if (length <= minSize) {
+            return length;
+        }
+        int n = Math.min(length, maxSize);
+        int normalEnd = offset + Math.min(avgSize, n);
+        int end = offset + n;
+        int h = 0;
+        int p = offset + minSize - 1;
+        for (; p < normalEnd; p++) {
+            h = (h << 1) + GearTable.GEAR[data[p] & 0xFF];
+            if ((h & maskS) == 0) {
+                return p + 1 - offset;
+            }
+        }
+        for (; p < end; p++) {
+            h = (h << 1) + GearTable.GEAR[data[p] & 0xFF];
+            if ((h & maskL) == 0) {
+                return p + 1 - offset;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Length of the chunk starting at the buffer's position, over its remaining bytes; same rules as
+     * {@link #cut(byte[], int, int)}. Does not move the position.
+     */
+    public int cut(ByteBuffer data) {
+        if (data.hasArray()) {
+            return cut(data.array(), data.arrayOffset() + data.position(), data.remaining());
+        }
+        int length = data.remaining();
+        if (length <= minSize) {
+            return length;
+        }
+        int offset = data.position();
+        int n = Math.min(length, maxSize);
+        int normalEnd = offset + Math.min(avgSize, n);
+        int end = offset + n;
+        int h = 0;
+        int p = offset + minSize - 1;
+        for (; p < normalEnd; p++) {
+            h = (h << 1) + GearTable.GEAR[data.get(p) & 0xFF];
+            if ((h & maskS) == 0) {
+                return p + 1 - offset;
+            }
+        }
+        for (; p < end; p++) {
+            h = (h << 1) + GearTable.GEAR[data.get(p) & 0xFF];
+            if ((h & maskL) == 0) {
+                return p + 1 - offset;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * End offsets of all chunks of {@code data}, in order (the last one is {@code data.length}).
+     */
+    public int[] cutPoints(byte[] data) {
+        int[] cuts = new int[Math.max(16, data.length / avgSize * 2)];
+        int count = 0;
+        int start = 0;
+        while (start < data.length) {
+            start += cut(data, start, data.length - start);
+            if (count == cuts.length) {
+                cuts = Arrays.copyOf(cuts, count * 2);
+            }
+            cuts[count++] = start;
+        }
+        return Arrays.copyOf(cuts, count);
+    }
+
+    /**
+     * Reads {@code in} to the end and passes each chunk to {@code sink}. Does not close {@code in}.
+     *
+     * @return number of chunks
+     */
+    public long chunk(InputStream in, ChunkSink sink) throws IOException {
+        byte[] buffer = new byte[Math.max(2 * maxSize, MIN_STREAM_BUFFER_BYTES)];
+        int start = 0;
+        int end = 0;
+        boolean eof = false;
+        long offset = 0;
+        long chunks = 0;
+        while (true) {
+            if (!eof && end - start < maxSize) {
+                // Keep at least max bytes ahead, so every cut sees what it would see in one big array
+                System.arraycopy(buffer, start, buffer, 0, end - start);
+                end -= start;
+                start = 0;
+                while (end < buffer.length) {
+                    int read = in.read(buffer, end, buffer.length - end);
+                    if (read < 0) {
+                        eof = true;
+                        break;
+                    }
+                    end += read;
+                }
+            }
+            if (start == end) {
+                return chunks;
+            }
+            int length = cut(buffer, start, end - start);
+            sink.accept(offset, buffer, start, length);
+            offset += length;
+            start += length;
+            chunks++;
+        }
+    }
+
+    private static int topBits(int bits) {
+        return bits >= 32 ? -1 : -1 << (32 - bits);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.rollingChunks.chunking;
+
+/**
+ * The 256 random-looking 32-bit values the Gear hash adds per byte. Built exactly like the {@code GEAR} table in
+ * {@code templates/index.html}, so browser and server hashes agree.
+ */
+final class GearTable {
+
+    private static final int[] SEED = {
+            0x1f123bb5, 0x9e3779b9, 0x7f4a7c15, 0x6a09e667, 0xbb67ae85, 0x3c6ef372, 0xa54ff53a, 0x510e527f,
+            0x9b05688c, 0x1d83d9ab, 0x5be0cd19, 0x243f6a88, 0x85a308d3, 0x13198a2e, 0x03707344, 0xa4093822,
+            0x299f31d0, 0x082efa98, 0xec4e6c89, 0x452821e6, 0x38d01377, 0xbe5466cf, 0x34e90c6c, 0xc0ac29b7,
+            0xc97c50dd, 0x3f84d5b5, 0xb5470917, 0x9216d5d9, 0x8979fb1b, 0xd1310ba6, 0x98dfb5ac, 0x2ffd72db,
+            0xd01adfb7, 0xb8e1afed, 0x6a267e96, 0xba7c9045, 0xf12c7f99, 0x24a19947, 0xb3916cf7, 0x0801f2e2,
+            0x858efc16, 0x636920d8, 0x71574e69, 0xa458fea3, 0xf4933d7e, 0x0d95748f, 0x728eb658, 0x718bcd58,
+            0x82154aee, 0x7b54a41d, 0xc25a59b5, 0x9c30d539, 0x2af26013, 0xc5d1b023, 0x286085f0, 0xca417918,
+            0xb8db38ef, 0x8e79dcb0, 0x603a180e, 0x6c9e0e8b, 0xb01e8a3e, 0xd71577c1, 0xbd314b27, 0x78af2fda,
+    };
+
+    static final int[] GEAR = build();
+
+    private GearTable() {
+    }
+
+    private static int[] build() {
+        int[] gear = new int[256];
+        int v = 0x9e3779b9;
+        for (int i = 0; i < gear.length; i++) {
+            v += 0x7f4a7c15;
+            gear[i] = SEED[i % SEED.length] ^ Integer.rotateLeft(v, 13);
+        }
+        return gear;
+    }
+}
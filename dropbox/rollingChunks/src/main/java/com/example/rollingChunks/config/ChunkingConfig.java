@@ -0,0 +1,24 @@
+package com.example.rollingChunks.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.rollingChunks.chunking.FastCdcChunker;
+
+/**
+ * Server-side chunker with the same {@code app.rolling.*} sizes the browser gets from {@code /api/config/chunking},
+ * so both produce the same boundaries.
+ */
+@Configuration
+public class ChunkingConfig {
+
+    @Bean
+    public FastCdcChunker fastCdcChunker(
+            @Value("${app.rolling.min-chunk-bytes}") int minChunkBytes,
+            @Value("${app.rolling.avg-chunk-bytes}") int avgChunkBytes,
+            @Value("${app.rolling.max-chunk-bytes}") int maxChunkBytes
+    ) {
+        return new FastCdcChunker(minChunkBytes, avgChunkBytes, maxChunkBytes);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.rollingChunks.model;
+
+import java.time.Instant;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+/**
+ * A chunk hash known to exist in S3 under {@code app.chunk.object-prefix}.
+ */
+@Entity
+@Table(name = "chunk_index")
+public class ChunkIndexEntry implements Persistable<String> {
+
+    @Id
+    private String hash;
+
+    private Instant indexedAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected ChunkIndexEntry() {}
+
+    public static ChunkIndexEntry of(String hash) {
+        ChunkIndexEntry e = new ChunkIndexEntry();
+        e.hash = hash;
+        e.indexedAt = Instant.now();
+        return e;
+    }
+
+    @Override
+    public String getId() {
+        return hash;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public Instant getIndexedAt() {
+        return indexedAt;
+    }
+
+    @Override
+    @Transient
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    public void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.rollingChunks.model;
+
+import java.time.Instant;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+/**
+ * Number of non-retired {@link FileVersion}s that list a chunk hash among their parts.
+ */
+@Entity
+@Table(name = "chunk_ref_count")
+public class ChunkRefCount implements Persistable<String> {
+
+    @Id
+    private String hash;
+
+    private int refCount;
+
+    /** Last time the count changed. */
+    private Instant updatedAt;
+
+    /** When the garbage collector last deleted the chunk object; a tombstone while it is after {@link #updatedAt}. */
+    private Instant collectedAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected ChunkRefCount() {}
+
+    public static ChunkRefCount unreferenced(String hash) {
+        ChunkRefCount r = new ChunkRefCount();
+        r.hash = hash;
+        r.refCount = 0;
+        r.updatedAt = Instant.now();
+        return r;
+    }
+
+    @Override
+    public String getId() {
+        return hash;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public int getRefCount() {
+        return refCount;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Instant getCollectedAt() {
+        return collectedAt;
+    }
+
+    /** Unreferenced since before {@code cutoff} and not collected since. */
+    public boolean isCollectable(Instant cutoff) {
+        return refCount <= 0 && updatedAt.isBefore(cutoff) && (collectedAt == null || collectedAt.isBefore(updatedAt));
+    }
+
+    public void markCollected(Instant now) {
+        this.collectedAt = now;
+    }
+
+    /** Resets a count that drifted from the versions actually listing the hash. */
+    public void repair(int refCount, Instant now) {
+        this.refCount = refCount;
+        this.updatedAt = now;
+    }
+
+    @Override
+    @Transient
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    public void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -9,7 +9,7 @@ package com.example.rollingChunks.model;
  *
  * Stage 4:
  * - ROLLING_TEXT_NORMALIZED_LF: text is normalized (CRLF -> LF) and split using a rolling/content-defined chunker
- *   so inserts don't shift all subsequent chunk boundaries.
+ *   (Gear-hash FastCDC, see FastCdcChunker) so inserts don't shift all subsequent chunk boundaries.
  *
  * Other:
  * - FIXED_256_KIB: binary/other content is split into fixed 256 KiB chunks (last chunk may be smaller).
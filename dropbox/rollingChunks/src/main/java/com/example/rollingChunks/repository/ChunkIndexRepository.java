@@ -0,0 +1,27 @@
+package com.example.rollingChunks.repository;
+
+import com.example.rollingChunks.model.ChunkIndexEntry;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ChunkIndexRepository extends JpaRepository<ChunkIndexEntry, String> {
+
+    @Query("select c.hash from ChunkIndexEntry c where c.hash in :hashes")
+    List<String> findExistingHashes(@Param("hashes") Collection<String> hashes);
+
+    @Query("select c.hash from ChunkIndexEntry c")
+    Stream<String> streamAllHashes();
+
+    @Transactional
+    @Modifying
+    @Query("delete from ChunkIndexEntry c where c.hash in :hashes")
+    int deleteByHashIn(@Param("hashes") Collection<String> hashes);
+}
@@ -0,0 +1,70 @@
+package com.example.rollingChunks.repository;
+
+import com.example.rollingChunks.model.ChunkRefCount;
+
+import jakarta.persistence.LockModeType;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface ChunkRefCountRepository extends JpaRepository<ChunkRefCount, String> {
+
+    @Query("select r.hash from ChunkRefCount r where r.hash in :hashes")
+    List<String> findExistingHashes(@Param("hashes") Collection<String> hashes);
+
+    @Transactional
+    @Modifying
+    @Query("update ChunkRefCount r set r.refCount = r.refCount + :delta, r.updatedAt = :now where r.hash in :hashes")
+    int adjust(@Param("hashes") Collection<String> hashes, @Param("delta") int delta, @Param("now") Instant now);
+
+    /** Hashes unreferenced since before {@code cutoff} and not collected since, oldest first. */
+    @Query("""
+            select r.hash from ChunkRefCount r
+            where r.refCount <= 0
+              and r.updatedAt < :cutoff
+              and (r.collectedAt is null or r.collectedAt < r.updatedAt)
+            order by r.updatedAt
+            """)
+    List<String> findCollectable(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from ChunkRefCount r where r.hash in :hashes")
+    List<ChunkRefCount> lockAll(@Param("hashes") Collection<String> hashes);
+
+    /** Indexed chunks nothing has counted yet, e.g. objects found by the startup backfill. */
+    @Query("""
+            select c.hash from ChunkIndexEntry c
+            where not exists (select r.hash from ChunkRefCount r where r.hash = c.hash)
+            """)
+    List<String> findIndexedWithoutCount(Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update ChunkRefCount r set r.collectedAt = null where r.hash in :hashes")
+    int clearCollected(@Param("hashes") Collection<String> hashes);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            delete from ChunkRefCount r
+            where r.refCount <= 0
+              and r.collectedAt is not null
+              and r.collectedAt >= r.updatedAt
+              and r.collectedAt < :cutoff
+            """)
+    int deleteTombstonesCollectedBefore(@Param("cutoff") Instant cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("update ChunkRefCount r set r.collectedAt = null where r.collectedAt < :cutoff")
+    int expireTombstonesCollectedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -1,9 +1,13 @@
 package com.example.rollingChunks.repository;
 
+import com.example.rollingChunks.model.FileStatus;
 import com.example.rollingChunks.model.FileVersion;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,4 +17,22 @@ public interface FileVersionRepository extends JpaRepository<FileVersion, UUID>
     List<FileVersion> findByFileIdOrderByCreatedAtDesc(UUID fileId);
 
     Optional<FileVersion> findByIdAndFileId(UUID id, UUID fileId);
+
+    /** For each given hash listed by at least one version that is not {@code retired}, the number of such versions. */
+    @Query("""
+            select p.hash as hash, count(distinct v.id) as versions
+            from FileVersion v
+            join v.parts p
+            where p.hash in :hashes
+              and v.status <> :retired
+            group by p.hash
+            """)
+    List<HashReferences> countLiveReferences(@Param("hashes") Collection<String> hashes,
+                                             @Param("retired") FileStatus retired);
+
+    interface HashReferences {
+        String getHash();
+
+        long getVersions();
+    }
 }
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -25,4 +26,8 @@ public interface UploadSessionRepository extends JpaRepository<UploadSession, UU
                                                        @Param("activeStatuses") Collection<FileStatus> activeStatuses);
 
     Optional<UploadSession> findByVersion_Id(UUID versionId);
+
+    List<UploadSession> findByStatusInAndCreatedAtBefore(Collection<FileStatus> statuses, Instant createdBefore);
+
+    boolean existsByFileIdAndStatusIn(UUID fileId, Collection<FileStatus> statuses);
 }
@@ -0,0 +1,232 @@
+package com.example.rollingChunks.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.rollingChunks.model.ChunkIndexEntry;
+import com.example.rollingChunks.repository.ChunkIndexRepository;
+
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Index of chunk hashes known to exist in S3, so {@code initUpload} can tell which chunks it
+ * already has from one DB query instead of a HEAD request per hash.
+ *
+ * <p>Entries come from S3 ObjectCreated notifications, from HEAD checks in {@code completeUpload}
+ * that found an object the index had missed, and, when enabled for a start, from a listing of the
+ * chunk prefix.
+ * A Bloom filter in front of the {@code chunk_index} table answers most lookups for new chunks
+ * without touching the DB.
+ *
+ * <p>The index can lag S3 (a notification not delivered yet) but never lead it, so a hash that
+ * is not indexed is only "not known": init asks the client to upload it, and completion still
+ * checks S3 before reporting it missing.
+ */
+@Service
+public class ChunkIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkIndexService.class);
+
+    // Keeps IN lists well below DB parameter limits
+    private static final int LOOKUP_BATCH_SIZE = 1000;
+
+    private final ChunkIndexRepository repository;
+    private final S3Client s3Client;
+    private final TransactionTemplate readOnly;
+    private final TransactionTemplate requiresNew;
+    private final long expectedChunks;
+    private final double falsePositiveRate;
+    private final boolean backfillOnStartup;
+
+    @Value("${aws.s3.bucket}")
+    private String bucketName;
+
+    @Value("${app.chunk.object-prefix:chunks/sha256/}")
+    private String chunkObjectPrefix;
+
+    // Null until the first build: every hash is then looked up in the DB
+    private volatile BloomFilter filter;
+    // Filter being rebuilt; recorded hashes go into it too so they survive the swap
+    private volatile BloomFilter building;
+
+    public ChunkIndexService(ChunkIndexRepository repository,
+                             S3Client s3Client,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.chunk-index.bloom.expected-chunks:1000000}") long expectedChunks,
+                             @Value("${app.chunk-index.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+                             @Value("${app.chunk-index.backfill-on-startup:false}") boolean backfillOnStartup) {
+        this.repository = repository;
+        this.s3Client = s3Client;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        // Own transaction: a chunk that is in S3 stays indexed even if the caller rolls back,
+        // and a duplicate insert does not poison the caller's transaction.
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.expectedChunks = expectedChunks;
+        this.falsePositiveRate = falsePositiveRate;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuildFilter();
+        if (backfillOnStartup) {
+            backfillFromS3();
+        }
+    }
+
+    public void rebuildFilter() {
+        long start = System.currentTimeMillis();
+        // Leave room for growth until the next rebuild
+        BloomFilter fresh = new BloomFilter(Math.max(expectedChunks, repository.count() * 2), falsePositiveRate);
+        building = fresh;
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<String> hashes = repository.streamAllHashes()) {
+                hashes.forEach(fresh::put);
+            }
+        });
+        filter = fresh;
+        building = null;
+        log.info("Built chunk index Bloom filter with {} hashes in {} ms", fresh.getInsertions(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Indexes every object under the chunk prefix, for chunks uploaded while notifications
+     * were not being processed. One LIST request covers up to 1000 chunks, so this is a one-off
+     * repair, not something to run on every start.
+     */
+    public void backfillFromS3() {
+        long start = System.currentTimeMillis();
+        String prefix = prefix();
+        long listed = 0;
+        try {
+            for (ListObjectsV2Response page : s3Client.listObjectsV2Paginator(b -> b.bucket(bucketName).prefix(prefix))) {
+                List<String> hashes = new ArrayList<>(page.contents().size());
+                for (S3Object object : page.contents()) {
+                    String hash = object.key().substring(prefix.length());
+                    if (!hash.isEmpty() && hash.indexOf('/') < 0) {
+                        hashes.add(hash);
+                    }
+                }
+                recordAll(hashes);
+                listed += hashes.size();
+            }
+        } catch (SdkException e) {
+            log.warn("Could not backfill chunk index from s3://{}/{}: {}", bucketName, prefix, e.getMessage());
+            return;
+        }
+        log.info("Backfilled chunk index with {} chunks from s3://{}/{} in {} ms", listed, bucketName, prefix,
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Returns the given hashes that are in the index.
+     */
+    public Set<String> findIndexed(Collection<String> hashes) {
+        BloomFilter current = filter;
+        List<String> candidates = new ArrayList<>();
+        for (String hash : new LinkedHashSet<>(hashes)) {
+            if (current == null || current.mightContain(hash)) {
+                candidates.add(hash);
+            }
+        }
+        return findExisting(candidates);
+    }
+
+    public void record(String hash) {
+        recordAll(List.of(hash));
+    }
+
+    public void recordAll(Collection<String> hashes) {
+        if (hashes.isEmpty()) {
+            return;
+        }
+        Set<String> unique = new LinkedHashSet<>(hashes);
+        try {
+            requiresNew.executeWithoutResult(status -> insertMissing(unique));
+        } catch (DataIntegrityViolationException e) {
+            // Raced with another insert of the same hash (e.g. a notification and a HEAD fallback)
+            for (String hash : unique) {
+                try {
+                    requiresNew.executeWithoutResult(status -> insertMissing(List.of(hash)));
+                } catch (DataIntegrityViolationException alreadyIndexed) {
+                    // the other insert won
+                }
+            }
+        }
+        for (String hash : unique) {
+            putInFilter(hash);
+        }
+    }
+
+    /**
+     * Removes hashes whose objects are being deleted. They stay in the Bloom filter until the next
+     * rebuild, which only costs a DB lookup.
+     */
+    public void remove(Collection<String> hashes) {
+        List<String> list = List.copyOf(hashes);
+        for (int from = 0; from < list.size(); from += LOOKUP_BATCH_SIZE) {
+            repository.deleteByHashIn(list.subList(from, Math.min(list.size(), from + LOOKUP_BATCH_SIZE)));
+        }
+    }
+
+    private void insertMissing(Collection<String> hashes) {
+        Set<String> existing = findExisting(hashes);
+        List<ChunkIndexEntry> entries = hashes.stream()
+                .filter(hash -> !existing.contains(hash))
+                .map(ChunkIndexEntry::of)
+                .toList();
+        if (!entries.isEmpty()) {
+            repository.saveAll(entries);
+            repository.flush();
+        }
+    }
+
+    private Set<String> findExisting(Collection<String> hashes) {
+        List<String> list = List.copyOf(hashes);
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < list.size(); from += LOOKUP_BATCH_SIZE) {
+            int to = Math.min(list.size(), from + LOOKUP_BATCH_SIZE);
+            existing.addAll(repository.findExistingHashes(list.subList(from, to)));
+        }
+        return existing;
+    }
+
+    private void putInFilter(String hash) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(hash);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(hash);
+        }
+    }
+
+    private String prefix() {
+        String prefix = chunkObjectPrefix;
+        if (!prefix.endsWith("/")) prefix = prefix + "/";
+        return prefix;
+    }
+}
@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -31,12 +32,8 @@ import com.example.rollingChunks.repository.FileMetadataRepository;
 import com.example.rollingChunks.repository.FileVersionRepository;
 import com.example.rollingChunks.repository.UploadSessionRepository;
 
-import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
-import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
-import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
@@ -49,9 +46,11 @@ public class ChunkedFileService {
     private final FileMetadataRepository fileRepository;
     private final FileVersionRepository versionRepository;
     private final UploadSessionRepository sessionRepository;
-    private final S3Client s3Client;
     private final S3Presigner s3Presigner;
     private final ChangeFeedService changeFeedService;
+    private final ChunkIndexService chunkIndex;
+    private final ChunkVerifier chunkVerifier;
+    private final ChunkReferenceService chunkReferences;
 
     @Value("${aws.s3.bucket}")
     private String bucketName;
@@ -62,18 +61,25 @@ public class ChunkedFileService {
     @Value("${app.presign.ttl-seconds:600}")
     private long presignTtlSeconds;
 
+    @Value("${app.chunk-verify.on-init:false}")
+    private boolean verifyOnInit;
+
     public ChunkedFileService(FileMetadataRepository fileRepository,
                              FileVersionRepository versionRepository,
                              UploadSessionRepository sessionRepository,
-                             S3Client s3Client,
                              S3Presigner s3Presigner,
-                             ChangeFeedService changeFeedService) {
+                             ChangeFeedService changeFeedService,
+                             ChunkIndexService chunkIndex,
+                             ChunkVerifier chunkVerifier,
+                             ChunkReferenceService chunkReferences) {
         this.fileRepository = fileRepository;
         this.versionRepository = versionRepository;
         this.sessionRepository = sessionRepository;
-        this.s3Client = s3Client;
         this.s3Presigner = s3Presigner;
         this.changeFeedService = changeFeedService;
+        this.chunkIndex = chunkIndex;
+        this.chunkVerifier = chunkVerifier;
+        this.chunkReferences = chunkReferences;
     }
 
     @Transactional
@@ -111,9 +117,20 @@ public class ChunkedFileService {
                 parts,
                 initialStatus);
         version = versionRepository.save(version);
+        // Before the index lookup, so a concurrent garbage-collector sweep cannot delete a chunk counted as present
+        chunkReferences.addReferences(version);
+
+        // One index lookup for all hashes instead of a HEAD request per hash. Unless app.chunk-verify.on-init is set,
+        // a chunk in S3 that the index has not seen yet is simply uploaded again; completeUpload still falls back
+        // to S3 before reporting it missing.
+        List<String> hashes = req.parts().stream().map(InitPart::hash).toList();
+        Set<String> indexed = new HashSet<>(chunkIndex.findIndexed(hashes));
+        if (verifyOnInit) {
+            indexed.addAll(verifyUnindexed(hashes, indexed, ChunkVerifier.PHASE_INIT));
+        }
 
         // Expected part count should reflect unique chunk hashes that are not already present in S3
-        UploadSession session = UploadSession.create(file.getId(), version, initialStatus, countMissingUnique(req.parts()));
+        UploadSession session = UploadSession.create(file.getId(), version, initialStatus, countMissingUnique(req.parts(), indexed));
         session = sessionRepository.save(session);
 
         Map<String, String> presignedPutByHash = new HashMap<>();
@@ -129,7 +146,7 @@ public class ChunkedFileService {
                 continue;
             }
 
-            if (existsInS3(hash)) {
+            if (indexed.contains(hash)) {
                 session.markReceived(hash);
             } else {
                 String uploadUrl = presignPutUrl(hash);
@@ -155,11 +172,14 @@ public class ChunkedFileService {
                 .orElseThrow(() -> new IllegalArgumentException("Version not found: " + versionId));
         UploadSession session = sessionRepository.findByVersion_Id(versionId)
                 .orElseThrow(() -> new IllegalArgumentException("Upload session not found for version: " + versionId));
+        if (version.getStatus() == FileStatus.RETIRED) {
+            throw new IllegalStateException("Upload was abandoned or superseded, start a new one: " + versionId);
+        }
 
         session.markClientComplete();
 
         // Defensive reconciliation: S3 notifications are async and can be missed/delayed.
-        // Before finalizing, verify all expected unique chunk hashes exist in S3.
+        // Before finalizing, verify all expected unique chunk hashes are indexed or exist in S3.
         var missing = verifyAndMarkReceivedFromS3(version, session);
         if (!missing.isEmpty()) {
             sessionRepository.save(session);
@@ -217,6 +237,13 @@ public class ChunkedFileService {
             return;
         }
 
+        // The notification can be older than a garbage-collector delete of the same chunk, even once it is referenced again
+        if (chunkReferences.wasCollected(hash)
+                && chunkVerifier.findExisting(List.of(hash), ChunkVerifier.PHASE_NOTIFICATION).isEmpty()) {
+            return;
+        }
+        chunkIndex.record(hash);
+
         Collection<FileStatus> active = List.of(FileStatus.PENDING, FileStatus.UPDATING);
         List<UploadSession> sessions = sessionRepository.findActiveSessionsExpectingHash(hash, active);
         if (sessions.isEmpty()) {
@@ -254,23 +281,70 @@ public class ChunkedFileService {
                 && version.getId().equals(file.getCurrentVersionId());
         if (alreadyAvailable) return;
 
+        UUID previousVersionId = file.getCurrentVersionId();
         session.setStatus(FileStatus.AVAILABLE);
         version.setStatus(FileStatus.AVAILABLE);
         file.setCurrentVersionId(version.getId());
         file.setStatus(FileStatus.AVAILABLE);
+        retireSuperseded(previousVersionId, version);
 
         changeFeedService.recordFileAvailable(file, version);
     }
 
+    // Only the current version can be downloaded, so the one it replaces no longer needs its chunks.
+    private void retireSuperseded(UUID previousVersionId, FileVersion current) {
+        if (previousVersionId == null || previousVersionId.equals(current.getId())) {
+            return;
+        }
+        versionRepository.findById(previousVersionId).ifPresent(previous -> {
+            chunkReferences.retire(previous);
+            versionRepository.save(previous);
+        });
+    }
+
+    /**
+     * Retires an upload that was never completed and releases its chunk references. Returns false if the
+     * session is no longer in progress.
+     */
+    @Transactional
+    public boolean abandonUpload(UUID sessionId) {
+        Collection<FileStatus> active = List.of(FileStatus.PENDING, FileStatus.UPDATING);
+        UploadSession session = sessionRepository.findById(sessionId).orElse(null);
+        if (session == null || !active.contains(session.getStatus())) {
+            return false;
+        }
+
+        session.setStatus(FileStatus.RETIRED);
+        chunkReferences.retire(session.getVersion());
+        sessionRepository.save(session);
+        versionRepository.save(session.getVersion());
+
+        fileRepository.findById(session.getFileId()).ifPresent(file -> {
+            if (file.getStatus() != FileStatus.AVAILABLE && !sessionRepository.existsByFileIdAndStatusIn(file.getId(), active)) {
+                // Back to the last available version, or nothing left if the first upload was abandoned
+                file.setStatus(file.getCurrentVersionId() != null ? FileStatus.AVAILABLE : FileStatus.RETIRED);
+                fileRepository.save(file);
+            }
+        });
+        log.info("Retired abandoned upload session {} (version {})", session.getId(), session.getVersion().getId());
+        return true;
+    }
+
     private List<MissingChunk> verifyAndMarkReceivedFromS3(FileVersion version, UploadSession session) {
         Set<String> uniqueHashes = version.getParts().stream()
                 .map(ChunkPart::getHash)
                 .filter(StringUtils::hasText)
                 .collect(Collectors.toCollection(HashSet::new));
 
+        // Received hashes were reported by S3 notifications, indexed ones are known to exist;
+        // only the rest need a HEAD request, and those found are indexed for next time.
+        uniqueHashes.removeIf(session::hasReceived);
+        Set<String> indexed = chunkIndex.findIndexed(uniqueHashes);
+        Set<String> inS3 = verifyUnindexed(uniqueHashes, indexed, ChunkVerifier.PHASE_COMPLETE);
+
         List<MissingChunk> missing = new ArrayList<>();
         for (String hash : uniqueHashes) {
-            if (existsInS3(hash)) {
+            if (indexed.contains(hash) || inS3.contains(hash)) {
                 session.markReceived(hash);
             } else {
                 missing.add(new MissingChunk(hash, presignPutUrl(hash)));
@@ -279,16 +353,13 @@ public class ChunkedFileService {
         return missing;
     }
 
-    private boolean existsInS3(String hash) {
-        try {
-            s3Client.headObject(HeadObjectRequest.builder().bucket(bucketName).key(chunkKey(hash)).build());
-            return true;
-        } catch (NoSuchKeyException e) {
-            return false;
-        } catch (S3Exception e) {
-            if (e.statusCode() == 404) return false;
-            throw e;
-        }
+    // HEADs the unique hashes the index does not know, in parallel, and indexes the ones found.
+    private Set<String> verifyUnindexed(Collection<String> hashes, Set<String> indexed, String phase) {
+        Set<String> unindexed = new LinkedHashSet<>(hashes);
+        unindexed.removeAll(indexed);
+        Set<String> inS3 = chunkVerifier.findExisting(unindexed, phase);
+        chunkIndex.recordAll(inS3);
+        return inS3;
     }
 
     private String presignPutUrl(String hash) {
@@ -335,13 +406,13 @@ public class ChunkedFileService {
         return hashes.size();
     }
 
-    private int countMissingUnique(List<InitPart> parts) {
+    private static int countMissingUnique(List<InitPart> parts, Set<String> indexed) {
         Set<String> hashes = new HashSet<>();
         int missing = 0;
         for (InitPart p : parts) {
             String h = p.hash();
             if (hashes.add(h)) {
-                if (!existsInS3(h)) missing++;
+                if (!indexed.contains(h)) missing++;
             }
         }
         return missing;
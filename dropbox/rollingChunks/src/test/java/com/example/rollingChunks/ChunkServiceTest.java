@@ -3,6 +3,7 @@ package com.example.rollingChunks;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HexFormat;
 import java.util.List;
@@ -24,6 +25,7 @@ import org.testcontainers.utility.DockerImageName;
 import com.example.rollingChunks.model.ChunkingStrategy;
 import com.example.rollingChunks.model.FileStatus;
 import com.example.rollingChunks.repository.FileMetadataRepository;
+import com.example.rollingChunks.service.ChunkGarbageCollector;
 import com.example.rollingChunks.service.ChunkedFileService;
 
 import software.amazon.awssdk.core.sync.RequestBody;
@@ -59,6 +61,9 @@ class ChunkServiceTest {
         // Prevent awspring SQS listener containers from starting in tests.
         registry.add("app.s3.notifications.sqs.enabled", () -> false);
         registry.add("app.change-feed.notify.sqs-listener.enabled", () -> false);
+
+        // Bean only; the test drives the sweep itself.
+        registry.add("app.chunk-gc.enabled", () -> true);
     }
 
     @Autowired
@@ -70,6 +75,9 @@ class ChunkServiceTest {
     @Autowired
     S3Client s3Client;
 
+    @Autowired
+    ChunkGarbageCollector garbageCollector;
+
     @BeforeEach
     void ensureBucket() {
         var bucket = "dropbox-stage4-test";
@@ -249,6 +257,88 @@ class ChunkServiceTest {
                 .isGreaterThanOrEqualTo(minParts - 3);
     }
 
+    @Test
+    void initAnswersFromChunkIndexFilledByNotifications() throws Exception {
+        var plan = textLineParts("indexed-only-1\nindexed-only-2\n");
+
+        // Notifications without objects in S3: init must trust the index instead of asking S3.
+        for (var p : plan.parts()) {
+            chunkedFileService.onObjectCreated("chunks/sha256/" + p.hash());
+        }
+
+        var init = chunkedFileService.initUpload(new ChunkedFileService.InitUploadRequest(
+                null,
+                "indexed.txt",
+                "text/plain",
+                ChunkingStrategy.TEXT_LINES_NORMALIZED_LF,
+                true,
+                plan.endsWithNewline(),
+                plan.reassembledSizeBytes(),
+                plan.parts()
+        ));
+
+        assertThat(init.expectedUniqueChunks()).isZero();
+        assertThat(init.missingParts()).isEmpty();
+    }
+
+    @Test
+    void garbageCollectorDeletesOnlyChunksNoLiveVersionReferences() throws Exception {
+        var v1Parts = textLineParts("gc-keep-1\ngc-old\ngc-keep-2\n");
+        var init1 = uploadAndComplete(null, "gc.txt", v1Parts);
+        var v2Parts = textLineParts("gc-keep-1\ngc-new\ngc-keep-2\n");
+        uploadAndComplete(init1.fileId(), "gc.txt", v2Parts);
+
+        // A cutoff in the future stands in for the grace period having passed.
+        assertThat(garbageCollector.sweep(Instant.now().plusSeconds(1))).isGreaterThanOrEqualTo(1);
+
+        String oldHash = v1Parts.parts().get(1).hash();
+        assertThat(chunkObjectExists(oldHash)).isFalse();
+        for (var p : v2Parts.parts()) {
+            assertThat(chunkObjectExists(p.hash())).as("chunk %s of the current version", p.index()).isTrue();
+        }
+
+        // The collected chunk is no longer indexed, so a new file containing it uploads it again.
+        var init3 = chunkedFileService.initUpload(new ChunkedFileService.InitUploadRequest(
+                null,
+                "gc-again.txt",
+                "text/plain",
+                ChunkingStrategy.TEXT_LINES_NORMALIZED_LF,
+                true,
+                v1Parts.endsWithNewline(),
+                v1Parts.reassembledSizeBytes(),
+                v1Parts.parts()
+        ));
+        assertThat(init3.missingParts()).extracting(ChunkedFileService.MissingPart::hash).containsExactly(oldHash);
+    }
+
+    private ChunkedFileService.InitUploadResponse uploadAndComplete(UUID fileId, String fileName, TextParts plan) throws Exception {
+        var init = chunkedFileService.initUpload(new ChunkedFileService.InitUploadRequest(
+                fileId,
+                fileName,
+                "text/plain",
+                ChunkingStrategy.TEXT_LINES_NORMALIZED_LF,
+                true,
+                plan.endsWithNewline(),
+                plan.reassembledSizeBytes(),
+                plan.parts()
+        ));
+        for (var missing : init.missingParts()) {
+            var bytes = plan.chunks().get(missing.index()).bytes();
+            s3Client.putObject(b -> b.bucket("dropbox-stage4-test").key("chunks/sha256/" + missing.hash()), RequestBody.fromBytes(bytes));
+        }
+        chunkedFileService.completeUpload(init.fileId(), init.versionId());
+        awaitAvailable(init.fileId(), Duration.ofSeconds(15));
+        return init;
+    }
+
+    private boolean chunkObjectExists(String hash) {
+        return s3Client.listObjectsV2(ListObjectsV2Request.builder()
+                .bucket("dropbox-stage4-test")
+                .prefix("chunks/sha256/" + hash)
+                .build())
+            .hasContents();
+    }
+
     private long countChunkObjects() {
         return s3Client.listObjectsV2(ListObjectsV2Request.builder()
                 .bucket("dropbox-stage4-test")
@@ -0,0 +1,115 @@
+package com.example.rollingChunks;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.rollingChunks.service.ChunkVerifier;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+class ChunkVerifierTest {
+
+    private final ScheduledExecutorService s3Latency = Executors.newScheduledThreadPool(4);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @AfterEach
+    void shutdown() {
+        s3Latency.shutdownNow();
+    }
+
+    @Test
+    void findsExistingHashesWithBoundedConcurrency() {
+        List<String> hashes = IntStream.range(0, 500).mapToObj(i -> "h" + i).toList();
+        // Even hashes exist; odd ones alternate between the two ways S3 reports a missing key.
+        ChunkVerifier verifier = verifier(8, key -> {
+            int i = Integer.parseInt(key.substring(key.lastIndexOf('h') + 1));
+            if (i % 2 == 0) return null;
+            return i % 4 == 1 ? NoSuchKeyException.builder().build() : S3Exception.builder().statusCode(404).build();
+        });
+
+        Set<String> existing = verifier.findExisting(hashes, ChunkVerifier.PHASE_COMPLETE);
+
+        assertThat(existing).isEqualTo(hashes.stream().filter(h -> Integer.parseInt(h.substring(1)) % 2 == 0)
+                .collect(Collectors.toSet()));
+        assertThat(maxInFlight.get()).isEqualTo(8);
+        assertThat(meterRegistry.get("chunk.verification").tag("phase", "complete").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("chunk.verification.hashes").summary().totalAmount()).isEqualTo(500);
+    }
+
+    @Test
+    void fansOutInsteadOfOneRoundTripAtATime() {
+        List<String> hashes = IntStream.range(0, 1000).mapToObj(i -> "h" + i).toList();
+        ChunkVerifier verifier = verifier(64, key -> null);
+
+        long start = System.nanoTime();
+        assertThat(verifier.findExisting(hashes, ChunkVerifier.PHASE_INIT)).hasSize(1000);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 1000 sequential 5 ms HEADs would take 5 s; 64 in flight need ~16 rounds
+        assertThat(elapsedMillis).isLessThan(2000);
+        assertThat(maxInFlight.get()).isEqualTo(64);
+    }
+
+    @Test
+    void rethrowsErrorsOtherThanNotFound() {
+        ChunkVerifier verifier = verifier(4, key -> key.endsWith("h7")
+                ? S3Exception.builder().statusCode(503).message("Slow Down").build()
+                : null);
+
+        assertThatThrownBy(() -> verifier.findExisting(List.of("h1", "h7", "h9"), ChunkVerifier.PHASE_COMPLETE))
+                .isInstanceOf(S3Exception.class)
+                .hasMessageContaining("Slow Down");
+        assertThat(inFlight.get()).isZero();
+    }
+
+    /** Verifier over a fake S3 where every HEAD takes 5 ms and fails with the error returned for its key, if any. */
+    private ChunkVerifier verifier(int maxConcurrency, Function<String, Exception> errorForKey) {
+        S3AsyncClient s3 = new S3AsyncClient() {
+            @Override
+            public CompletableFuture<HeadObjectResponse> headObject(HeadObjectRequest request) {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                CompletableFuture<HeadObjectResponse> response = new CompletableFuture<>();
+                s3Latency.schedule(() -> {
+                    inFlight.decrementAndGet();
+                    Exception error = errorForKey.apply(request.key());
+                    if (error == null) {
+                        response.complete(HeadObjectResponse.builder().build());
+                    } else {
+                        response.completeExceptionally(error);
+                    }
+                }, 5, TimeUnit.MILLISECONDS);
+                return response;
+            }
+
+            @Override
+            public String serviceName() {
+                return "s3";
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        return new ChunkVerifier(s3, meterRegistry, "bucket", "chunks/sha256", maxConcurrency);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.rollingChunks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+import com.example.rollingChunks.chunking.FastCdcChunker;
+
+class FastCdcChunkerTest {
+
+    @Test
+    void cutsExactlyWhereTheBrowserChunkerDoes() {
+        // Cut points printed by rollingChunkBoundaries() in templates/index.html for the same bytes
+        int[] browserCuts = {355, 740, 1004, 1478, 1664, 1999, 2448, 2764, 3168, 3453, 3712, 4100, 4374, 4694, 5011,
+                5405, 5703, 5913, 6245, 6506, 6819, 7105, 7424, 7776, 8033, 8301, 8478, 8764, 9164, 9422, 9799, 10123,
+                10437, 10697, 11076, 11350, 11446, 11852, 12208, 12500, 12724, 13038, 13376, 13647, 13980, 14280, 14744,
+                15004, 15340, 15699, 15985, 16262, 16743, 16813, 17140, 17471, 17775, 18058, 18421, 18726, 18994, 19345,
+                19718, 19957, 20000};
+        assertThat(new FastCdcChunker(64, 256, 1024).cutPoints(xorshift(20_000, 12345))).containsExactly(browserCuts);
+
+        int[] cuts = new FastCdcChunker(2048, 8192, 65536).cutPoints(xorshift(1 << 20, 42));
+        assertThat(cuts).hasSize(115).startsWith(9206, 18513, 30033, 40195, 48581, 57067, 69100, 80726);
+    }
+
+    @Test
+    void streamAndByteBufferCutLikeTheWholeArray() throws IOException {
+        FastCdcChunker chunker = new FastCdcChunker(2048, 8192, 65536);
+        byte[] data = new byte[5 << 20];
+        new Random(7).nextBytes(data);
+        int[] expected = chunker.cutPoints(data);
+
+        // Short reads force refills in the middle of chunks
+        List<Integer> streamed = new ArrayList<>();
+        long chunks = chunker.chunk(new TrickleInputStream(data, 1000),
+                (offset, buffer, start, length) -> streamed.add((int) offset + length));
+        assertThat(chunks).isEqualTo(expected.length);
+        assertThat(streamed).containsExactly(boxed(expected));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length).put(data).flip();
+        List<Integer> buffered = new ArrayList<>();
+        while (direct.hasRemaining()) {
+            int length = chunker.cut(direct);
+            direct.position(direct.position() + length);
+            buffered.add(direct.position());
+        }
+        assertThat(buffered).containsExactly(boxed(expected));
+    }
+
+    @Test
+    void chunkSizesStayWithinBoundsAndNearTheAverage() {
+        FastCdcChunker chunker = new FastCdcChunker(2048, 8192, 65536);
+        byte[] data = new byte[16 << 20];
+        new Random(11).nextBytes(data);
+        int[] cuts = chunker.cutPoints(data);
+
+        int previous = 0;
+        int nearAverage = 0;
+        for (int i = 0; i < cuts.length; i++) {
+            int size = cuts[i] - previous;
+            if (i < cuts.length - 1) {
+                assertThat(size).isBetween(2048, 65536);
+            }
+            if (size >= 4096 && size <= 16384) {
+                nearAverage++;
+            }
+            previous = cuts[i];
+        }
+        double mean = data.length / (double) cuts.length;
+        System.out.printf("FastCDC 2K/8K/64K: %d chunks, mean %.0f bytes, %.0f%% between 4K and 16K%n",
+                cuts.length, mean, 100.0 * nearAverage / cuts.length);
+        assertThat(mean).isBetween(8192 * 0.8, 8192 * 1.5);
+        // Normalized chunking keeps most chunks close to the average
+        assertThat(nearAverage).isGreaterThan(cuts.length * 3 / 4);
+    }
+
+    @Test
+    void insertOnlyChangesChunksAroundIt() throws Exception {
+        FastCdcChunker chunker = new FastCdcChunker(2048, 8192, 65536);
+        byte[] original = new byte[4 << 20];
+        new Random(3).nextBytes(original);
+        byte[] edited = new byte[original.length + 10];
+        int at = original.length / 2;
+        System.arraycopy(original, 0, edited, 0, at);
+        System.arraycopy(original, at, edited, at + 10, original.length - at);
+
+        Set<String> before = chunkHashes(chunker, original);
+        Set<String> after = chunkHashes(chunker, edited);
+        Set<String> changed = new HashSet<>(after);
+        changed.removeAll(before);
+
+        assertThat(changed.size()).isBetween(1, 3);
+    }
+
+    @Test
+    void rejectsInconsistentSizes() {
+        assertThatThrownBy(() -> new FastCdcChunker(0, 256, 1024)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FastCdcChunker(512, 256, 1024)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FastCdcChunker(64, 2048, 1024)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Set<String> chunkHashes(FastCdcChunker chunker, byte[] data) throws Exception {
+        MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        Set<String> hashes = new HashSet<>();
+        chunker.chunk(new ByteArrayInputStream(data), (offset, buffer, start, length) -> {
+            sha256.update(buffer, start, length);
+            hashes.add(HexFormat.of().formatHex(sha256.digest()));
+        });
+        return hashes;
+    }
+
+    /**
+     * Same xorshift32 generator as the snippet used to get the browser's cut points.
+     */
+    private static byte[] xorshift(int length, int seed) {
+        byte[] out = new byte[length];
+        int x = seed;
+        for (int i = 0; i < length; i++) {
+            x ^= x << 13;
+            x ^= x >>> 17;
+            x ^= x << 5;
+            out[i] = (byte) x;
+        }
+        return out;
+    }
+
+    private static Integer[] boxed(int[] values) {
+        Integer[] boxed = new Integer[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boxed[i] = values[i];
+        }
+        return boxed;
+    }
+
+    private static final class TrickleInputStream extends InputStream {
+
+        private final byte[] data;
+        private final int maxRead;
+        private int position;
+
+        TrickleInputStream(byte[] data, int maxRead) {
+            this.data = data;
+            this.maxRead = maxRead;
+        }
+
+        @Override
+        public int read() {
+            return position < data.length ? data[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position == data.length) {
+                return -1;
+            }
+            int read = Math.min(Math.min(length, maxRead), data.length - position);
+            System.arraycopy(data, position, buffer, offset, read);
+            position += read;
+            return read;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.shorturl.benchmarks;
+
+import com.example.shorturl.service.UrlService;
+import com.example.shorturl.store.InMemoryUrlStore;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolve of an existing ID: straight from the in-memory store, and through a Caffeine cache the way
+ * {@code @Cacheable} does it in internalCachedVersion (Spring's {@link CaffeineCache}, {@code expireAfterWrite=2s}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResolveBenchmark {
+
+    @Param({"100000"})
+    private int entries;
+
+    private UrlService urlService;
+    private Cache cache;
+    private String[] shortIds;
+
+    @Setup
+    public void setUp() {
+        urlService = new UrlService(new InMemoryUrlStore());
+        shortIds = new String[entries];
+        for (int i = 0; i < entries; i++) {
+            shortIds[i] = urlService.shorten("https://example.com/page/" + i);
+        }
+        cache = new CaffeineCache("urls", Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(2))
+                .build());
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        String nextId(String[] shortIds) {
+            String shortId = shortIds[next];
+            next = next + 1 == shortIds.length ? 0 : next + 1;
+            return shortId;
+        }
+    }
+
+    @Benchmark
+    public Optional<String> inMemoryResolve(Cursor cursor) {
+        return urlService.resolve(cursor.nextId(shortIds));
+    }
+
+    @Benchmark
+    public Object caffeineCachedResolve(Cursor cursor) {
+        String shortId = cursor.nextId(shortIds);
+        Cache.ValueWrapper cached = cache.get(shortId);
+        if (cached != null) {
+            return cached.get();
+        }
+        String url = urlService.resolve(shortId).orElse(null);
+        cache.put(shortId, url);
+        return url;
+    }
+}
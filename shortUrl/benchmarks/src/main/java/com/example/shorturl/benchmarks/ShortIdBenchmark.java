@@ -0,0 +1,22 @@
+package com.example.shorturl.benchmarks;
+
+import com.example.shorturl.service.UrlService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code UrlService.generateShortId}: random UUID, 16-byte shuffle and URL-safe Base64, cut to 9 chars.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShortIdBenchmark {
+
+    @Benchmark
+    public String generateShortId() {
+        return UrlService.generateShortId();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.shorturl.benchmarks;
+
+import com.example.shorturl.service.UrlService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the shorten response body, {@code {"shortUrl": "..."}}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShortenResponseBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Map<String, String> response;
+
+    @Setup
+    public void setUp() {
+        response = Map.of("shortUrl", "http://localhost:8080/" + UrlService.generateShortId());
+    }
+
+    @Benchmark
+    public byte[] serializeShortenResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -1,12 +1,23 @@
 package com.example.shorturl;
 
+import com.example.shorturl.transfer.TransferCommand;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ShortUrlApplication {
 
 	public static void main(String[] args) {
+		if (TransferCommand.isCommand(args)) {
+			// --export=/--import=: no web server, and exit once TransferCommand has run
+			System.exit(SpringApplication.exit(new SpringApplicationBuilder(ShortUrlApplication.class)
+					.web(WebApplicationType.NONE)
+					.run(args)));
+		}
 		SpringApplication.run(ShortUrlApplication.class, args);
 	}
 
@@ -1,29 +1,44 @@
 package com.example.shorturl.aop;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Aspect
 @Component
 public class DelayAspect {
 
     private final DelayManager delayManager;
+    private final Timer injected;
 
-    public DelayAspect(DelayManager delayManager) {
+    public DelayAspect(DelayManager delayManager, MeterRegistry meterRegistry) {
         this.delayManager = delayManager;
+        this.injected = Timer.builder("shorturl.delay.injected")
+                .description("Artificial delay added to DB reads")
+                .register(meterRegistry);
+        TimeGauge.builder("shorturl.delay.configured", delayManager, TimeUnit.MILLISECONDS, DelayManager::getMinDelay)
+                .tag("bound", "min")
+                .register(meterRegistry);
+        TimeGauge.builder("shorturl.delay.configured", delayManager, TimeUnit.MILLISECONDS, DelayManager::getMaxDelay)
+                .tag("bound", "max")
+                .register(meterRegistry);
     }
 
-    // Target only findById in ShortUrlRepository
-    @Around("execution(* com.example.shorturl.repository.ShortUrlRepository.findById(..))")
+    // Target only findById of the short URL store (single database or sharded)
+    @Around("execution(* com.example.shorturl.repository.ShortUrlStore+.findById(..))")
     public Object addDelay(ProceedingJoinPoint joinPoint) throws Throwable {
         Duration delay = delayManager.getRandomDelay();
         if (!delay.isZero()) {
             Thread.sleep(delay.toMillis());
         }
+        injected.record(delay);
         return joinPoint.proceed();
     }
 }
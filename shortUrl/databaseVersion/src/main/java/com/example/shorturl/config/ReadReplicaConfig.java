@@ -0,0 +1,53 @@
+package com.example.shorturl.config;
+
+import com.example.shorturl.replica.ReadReplica;
+import com.example.shorturl.replica.ReplicaRoutingShortUrlStore;
+import com.example.shorturl.repository.ShortUrlRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Read-replica mode ({@code shorturl.read-replicas.enabled=true}): the main datasource is the primary and
+ * takes every write; {@code resolve} reads from the configured replicas.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shorturl.read-replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReplicaRoutingShortUrlStore replicaRoutingShortUrlStore(ReadReplicaProperties properties,
+            ShortUrlRepository repository, MeterRegistry meterRegistry,
+            @Value("${shorturl.sharding.enabled:false}") boolean sharded) {
+        if (sharded) {
+            throw new IllegalStateException("shorturl.read-replicas and shorturl.sharding cannot be enabled together");
+        }
+        if (properties.replicas().isEmpty()) {
+            throw new IllegalStateException("shorturl.read-replicas.enabled=true needs at least one shorturl.read-replicas.replicas entry");
+        }
+        List<ReadReplica> replicas = properties.replicas().stream()
+                .map(ReadReplicaConfig::createReplica)
+                .toList();
+        return new ReplicaRoutingShortUrlStore(repository, replicas, meterRegistry);
+    }
+
+    private static ReadReplica createReplica(ReadReplicaProperties.ReplicaSpec spec) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(spec.url())
+                .username(spec.username())
+                .password(spec.password())
+                .build();
+        dataSource.setPoolName("replica-" + spec.name());
+        dataSource.setReadOnly(true);
+        return new ReadReplica(spec.name(), dataSource);
+    }
+}
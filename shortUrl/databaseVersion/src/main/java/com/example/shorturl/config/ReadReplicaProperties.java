@@ -0,0 +1,22 @@
+package com.example.shorturl.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * {@code shorturl.read-replicas.*}: read-only copies of the main datasource that serve {@code resolve}.
+ *
+ * @param enabled  send reads to the replicas, with fallback to the primary
+ * @param replicas the replicas, read in turn
+ */
+@ConfigurationProperties(prefix = "shorturl.read-replicas")
+public record ReadReplicaProperties(boolean enabled, List<ReplicaSpec> replicas) {
+
+    public ReadReplicaProperties {
+        replicas = replicas == null ? List.of() : replicas;
+    }
+
+    public record ReplicaSpec(String name, String url, String username, String password) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.shorturl.config;
+
+import com.example.shorturl.shard.ConsistentHashRing;
+import com.example.shorturl.shard.Shard;
+import com.example.shorturl.shard.ShardEndpoint;
+import com.example.shorturl.shard.ShardRebalancer;
+import com.example.shorturl.shard.ShardRingState;
+import com.example.shorturl.shard.ShardRingSync;
+import com.example.shorturl.shard.ShardedShortUrlStore;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Sharded mode ({@code shorturl.sharding.enabled=true}): {@code short_urls} lives in the configured
+ * shard databases instead of the main datasource. ID sequences, click stats and the shards added
+ * online ({@link ShardRingState}) stay in the main one.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shorturl.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    public ShardedShortUrlStore shardedShortUrlStore(ShardingProperties properties) {
+        if (properties.shards().isEmpty()) {
+            throw new IllegalStateException("shorturl.sharding.enabled=true needs at least one shorturl.sharding.shards entry");
+        }
+        List<Shard> shards = properties.shards().stream()
+                .map(spec -> createShard(spec.name(), spec.url(), spec.username(), spec.password()))
+                .toList();
+        shards.forEach(Shard::createSchema);
+        return new ShardedShortUrlStore(new ConsistentHashRing<>(shards, properties.virtualNodes(), Shard::getName),
+                properties.batchSize());
+    }
+
+    @Bean
+    public ShardRingState shardRingState(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        ShardRingState state = new ShardRingState(jdbcTemplate, transactionTemplate);
+        state.createSchema();
+        return state;
+    }
+
+    @Bean
+    public ShardRingSync shardRingSync(ShardedShortUrlStore store, ShardRingState state, ShardingProperties properties) {
+        ShardRingSync sync = new ShardRingSync(store, state, definition -> {
+            ShardingProperties.Credentials credentials = properties.credentials().get(definition.name());
+            return credentials == null
+                    ? createShard(definition.name(), definition.url(), null, null)
+                    : createShard(definition.name(), definition.url(), credentials.username(), credentials.password());
+        }, properties.virtualNodes(), properties.memberTimeout());
+        // Route by the shards added online before serving anything
+        sync.sync();
+        return sync;
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardedShortUrlStore store, ShardRingState state, ShardRingSync sync,
+            ShardingProperties properties) {
+        return new ShardRebalancer(store, state, sync, properties.batchSize(), properties.memberTimeout());
+    }
+
+    @Bean
+    public ShardEndpoint shardEndpoint(ShardedShortUrlStore store, ShardRebalancer rebalancer) {
+        return new ShardEndpoint(store, rebalancer);
+    }
+
+    private static Shard createShard(String name, String url, String username, String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("shard-" + name);
+        return new Shard(name, dataSource);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.shorturl.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code shorturl.sharding.*}: the databases {@code short_urls} is spread over.
+ *
+ * @param enabled       route mappings through the shards instead of the main datasource
+ * @param virtualNodes  ring positions per shard; more means a more even split
+ * @param batchSize     rows per JDBC batch for inserts and rebalancing
+ * @param shards        the shards, in any order
+ * @param credentials   username and password per name of a shard added online; only its name and URL are
+ *                      stored in the main datasource, so every instance needs these before the add
+ * @param syncInterval  how often each instance checks the shared ring for shards added online
+ * @param memberTimeout an instance that has not synced for this long stops writing, and a
+ *                      rebalance stops waiting for it; keep it well above {@code syncInterval}
+ */
+@ConfigurationProperties(prefix = "shorturl.sharding")
+public record ShardingProperties(boolean enabled, int virtualNodes, int batchSize, List<ShardSpec> shards,
+        Map<String, Credentials> credentials, Duration syncInterval, Duration memberTimeout) {
+
+    public ShardingProperties {
+        virtualNodes = virtualNodes > 0 ? virtualNodes : 160;
+        batchSize = batchSize > 0 ? batchSize : 500;
+        shards = shards == null ? List.of() : shards;
+        credentials = credentials == null ? Map.of() : credentials;
+        syncInterval = syncInterval != null ? syncInterval : Duration.ofSeconds(1);
+        memberTimeout = memberTimeout != null ? memberTimeout : Duration.ofSeconds(10);
+    }
+
+    public record ShardSpec(String name, String url, String username, String password) {
+    }
+
+    public record Credentials(String username, String password) {
+    }
+}
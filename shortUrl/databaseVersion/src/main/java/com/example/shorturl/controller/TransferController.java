@@ -0,0 +1,53 @@
+package com.example.shorturl.controller;
+
+import com.example.shorturl.transfer.ShortUrlTransferService;
+import com.example.shorturl.transfer.TransferFormat;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * {@code GET /shorturl/export?format=ndjson|binary} streams every mapping;
+ * {@code POST /shorturl/import?format=ndjson|binary} loads a file produced by it.
+ * Off unless {@code shorturl.transfer.endpoints.enabled=true}, since neither is authenticated.
+ */
+@RestController
+@RequestMapping("/shorturl")
+@ConditionalOnProperty(name = "shorturl.transfer.endpoints.enabled", havingValue = "true")
+public class TransferController {
+
+    private final ShortUrlTransferService transferService;
+
+    public TransferController(ShortUrlTransferService transferService) {
+        this.transferService = transferService;
+    }
+
+    @GetMapping("/export")
+    public void export(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response)
+            throws IOException {
+        TransferFormat transferFormat = TransferFormat.of(format);
+        // Written on the request thread straight to the response: no async timeout, no buffering of the body
+        response.setContentType(transferFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"short-urls." + transferFormat.getExtension() + "\"");
+        transferService.exportTo(response.getOutputStream(), transferFormat);
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<ShortUrlTransferService.ImportResult> importMappings(
+            @RequestParam(defaultValue = "ndjson") String format, HttpServletRequest request) throws IOException {
+        TransferFormat transferFormat = TransferFormat.of(format);
+        return ResponseEntity.ok(transferService.importFrom(request.getInputStream(), transferFormat));
+    }
+
+    @ExceptionHandler({IllegalArgumentException.class, IOException.class})
+    public ResponseEntity<Map<String, String>> badRequest(Exception e) {
+        return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.shorturl.controller;
 
+import com.example.shorturl.service.ClickRecorder;
 import com.example.shorturl.service.UrlService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
@@ -9,6 +10,7 @@ import org.springframework.web.servlet.view.RedirectView;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -16,12 +18,17 @@ import java.util.Map;
 public class UrlController {
 
     private final UrlService urlService;
+    private final ClickRecorder clickRecorder;
 
     @Value("${shorturl.base-url:}")
     private String baseUrl;
 
-    public UrlController(UrlService urlService) {
+    @Value("${shorturl.batch.max-size:50000}")
+    private int maxBatchSize;
+
+    public UrlController(UrlService urlService, ClickRecorder clickRecorder) {
         this.urlService = urlService;
+        this.clickRecorder = clickRecorder;
     }
 
     @PostMapping
@@ -36,15 +43,44 @@ public class UrlController {
         return ResponseEntity.ok(Map.of("shortUrl", shortUrl));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, ?>> shortenAll(@RequestBody List<String> originalUrls) {
+        if (originalUrls.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At least one URL is required"));
+        }
+        if (originalUrls.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most " + maxBatchSize + " URLs per batch"));
+        }
+        if (originalUrls.stream().anyMatch(url -> url == null || url.isEmpty())) {
+            return ResponseEntity.badRequest().body(Map.of("error", "URL is required"));
+        }
+
+        List<String> shortIds = urlService.shortenAll(originalUrls);
+        // Build the prefix once instead of once per ID
+        String prefix = buildShortUrl("");
+        List<String> shortUrls = shortIds.stream().map(shortId -> prefix + shortId).toList();
+        return ResponseEntity.ok(Map.of("shortUrls", shortUrls));
+    }
+
     @GetMapping("/{shortId}")
     public ResponseEntity<Void> resolve(@PathVariable String shortId) {
         return urlService.resolve(shortId)
+                .map(url -> {
+                    clickRecorder.record(shortId);
+                    return url;
+                })
                 .map(url -> ResponseEntity.status(HttpStatus.FOUND)
                         .location(URI.create(url))
                         .<Void>build())
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @DeleteMapping("/{shortId}")
+    public ResponseEntity<Void> delete(@PathVariable String shortId) {
+        urlService.delete(shortId);
+        return ResponseEntity.noContent().build();
+    }
+
     private String buildShortUrl(String shortId) {
         if (baseUrl != null && !baseUrl.isEmpty()) {
             return baseUrl + "/" + shortId;
@@ -0,0 +1,40 @@
+package com.example.shorturl.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Redirect count and last access time per short ID.
+ * Written in batches by {@code ClickRecorder}, never on the redirect path.
+ */
+@Entity
+@Table(name = "click_stats", indexes = @Index(name = "idx_click_stats_clicks", columnList = "clicks"))
+public class ClickStats {
+
+    @Id
+    private String shortUrl;
+
+    private long clicks;
+
+    private Instant lastAccess;
+
+    protected ClickStats() {
+        // JPA requires a no-arg constructor
+    }
+
+    public String getShortUrl() {
+        return shortUrl;
+    }
+
+    public long getClicks() {
+        return clicks;
+    }
+
+    public Instant getLastAccess() {
+        return lastAccess;
+    }
+}
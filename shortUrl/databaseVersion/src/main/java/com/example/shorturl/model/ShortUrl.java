@@ -2,17 +2,26 @@ package com.example.shorturl.model;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
 
 @Entity
 @Table(name = "short_urls")
-public class ShortUrl {
+public class ShortUrl implements Persistable<String> {
 
     @Id
     private String shortUrl;
 
     private String originalUrl;
 
+    // The id is assigned by us, so Spring Data cannot tell new from existing rows.
+    // Without this flag save() does a SELECT + INSERT (merge) instead of a single INSERT.
+    @Transient
+    private boolean isNew = true;
+
     protected ShortUrl() {
         // JPA requires a no-arg constructor
     }
@@ -29,4 +38,20 @@ public class ShortUrl {
     public String getOriginalUrl() {
         return originalUrl;
     }
+
+    @Override
+    public String getId() {
+        return shortUrl;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
 }
@@ -0,0 +1,39 @@
+package com.example.shorturl.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * One read-only copy of the primary database. Replication itself happens outside the application;
+ * this is just a connection pool to read from.
+ */
+public class ReadReplica implements AutoCloseable {
+
+    private final String name;
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReadReplica(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.shorturl.replica;
+
+import com.example.shorturl.model.ShortUrl;
+import com.example.shorturl.repository.ShortUrlRepository;
+import com.example.shorturl.repository.ShortUrlStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Primary/replica routing: {@code findById} (the redirect path) goes to the read replicas in turn,
+ * everything else to the primary (the main datasource, through {@link ShortUrlRepository}).
+ *
+ * <p>Replicas lag behind the primary. A miss on a replica is retried on the primary, so a link resolves
+ * right after it was created, and a failing replica falls back the same way. The price is a second
+ * read for IDs that do not exist at all; the Bloom filter ({@code shorturl.bloom-filter.enabled})
+ * stops most of those before they get here.
+ *
+ * <p>{@code existsById}, {@code count} and the ID scan read the primary: they must see every row.
+ */
+public class ReplicaRoutingShortUrlStore implements ShortUrlStore, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingShortUrlStore.class);
+
+    private static final String SELECT_SQL = "select original_url from short_urls where short_url = ?";
+
+    private final ShortUrlRepository primary;
+    private final List<ReadReplica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final LongAdder replicaHits = new LongAdder();
+    private final LongAdder primaryFallbacks = new LongAdder();
+    private final LongAdder replicaErrors = new LongAdder();
+
+    public ReplicaRoutingShortUrlStore(ShortUrlRepository primary, List<ReadReplica> replicas, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        FunctionCounter.builder("shorturl.replica.reads", replicaHits, LongAdder::sum)
+                .tag("result", "replica_hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("shorturl.replica.reads", primaryFallbacks, LongAdder::sum)
+                .tag("result", "primary_fallback")
+                .register(meterRegistry);
+        FunctionCounter.builder("shorturl.replica.reads", replicaErrors, LongAdder::sum)
+                .tag("result", "replica_error")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void save(ShortUrl shortUrl) {
+        primary.save(shortUrl);
+    }
+
+    @Override
+    public void insertAll(List<ShortUrl> shortUrls) {
+        primary.insertAll(shortUrls);
+    }
+
+    @Override
+    public Optional<ShortUrl> findById(String shortId) {
+        ReadReplica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+        try {
+            Optional<ShortUrl> found = replica.getJdbcTemplate().query(SELECT_SQL, rs -> rs.next()
+                    ? Optional.of(new ShortUrl(shortId, rs.getString(1)))
+                    : Optional.empty(), shortId);
+            if (found.isPresent()) {
+                replicaHits.increment();
+                return found;
+            }
+            // Not replicated yet, or does not exist
+            primaryFallbacks.increment();
+        } catch (DataAccessException e) {
+            replicaErrors.increment();
+            log.warn("Read from replica {} failed, using the primary: {}", replica, e.getMessage());
+        }
+        return primary.findById(shortId);
+    }
+
+    @Override
+    public boolean existsById(String shortId) {
+        return primary.existsById(shortId);
+    }
+
+    @Override
+    public void deleteById(String shortId) {
+        primary.deleteById(shortId);
+    }
+
+    @Override
+    public long count() {
+        return primary.count();
+    }
+
+    @Override
+    public void forEachShortId(Consumer<String> action) {
+        primary.forEachShortId(action);
+    }
+
+    @Override
+    public void forEachMapping(Consumer<ShortUrl> action) {
+        primary.forEachMapping(action);
+    }
+
+    public List<ReadReplica> getReplicas() {
+        return replicas;
+    }
+
+    public long getReplicaHits() {
+        return replicaHits.sum();
+    }
+
+    public long getPrimaryFallbacks() {
+        return primaryFallbacks.sum();
+    }
+
+    public long getReplicaErrors() {
+        return replicaErrors.sum();
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(ReadReplica::close);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.shorturl.repository;
+
+import com.example.shorturl.model.ShortUrl;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Single-database store: everything goes through {@link ShortUrlRepository}.
+ */
+@Component
+@ConditionalOnProperty(name = {"shorturl.sharding.enabled", "shorturl.read-replicas.enabled"}, havingValue = "false",
+        matchIfMissing = true)
+public class JpaShortUrlStore implements ShortUrlStore {
+
+    private final ShortUrlRepository repository;
+
+    public JpaShortUrlStore(ShortUrlRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void save(ShortUrl shortUrl) {
+        repository.save(shortUrl);
+    }
+
+    @Override
+    public void insertAll(List<ShortUrl> shortUrls) {
+        repository.insertAll(shortUrls);
+    }
+
+    @Override
+    public Optional<ShortUrl> findById(String shortId) {
+        return repository.findById(shortId);
+    }
+
+    @Override
+    public boolean existsById(String shortId) {
+        return repository.existsById(shortId);
+    }
+
+    @Override
+    public void deleteById(String shortId) {
+        repository.deleteById(shortId);
+    }
+
+    @Override
+    public long count() {
+        return repository.count();
+    }
+
+    @Override
+    public void forEachShortId(Consumer<String> action) {
+        repository.forEachShortId(action);
+    }
+
+    @Override
+    public void forEachMapping(Consumer<ShortUrl> action) {
+        repository.forEachMapping(action);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.shorturl.repository;
+
+import com.example.shorturl.model.ShortUrl;
+
+import java.util.List;
+
+/**
+ * Bulk inserts that bypass the JPA persistence context.
+ */
+public interface ShortUrlBatchInserts {
+
+    /**
+     * Inserts all mappings using JDBC batch statements.
+     * IDs must be new; nothing is merged or checked first.
+     */
+    void insertAll(List<ShortUrl> shortUrls);
+}
@@ -0,0 +1,20 @@
+package com.example.shorturl.repository;
+
+import com.example.shorturl.model.ShortUrl;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Consumer;
+
+/**
+ * Streams every short ID (or mapping) without loading entities into the persistence context.
+ * Each scan runs in a read-only transaction: outside one the connection is in autocommit, and the
+ * PostgreSQL driver then ignores the fetch size and reads the whole result into memory.
+ */
+public interface ShortUrlIdScan {
+
+    @Transactional(readOnly = true)
+    void forEachShortId(Consumer<String> action);
+
+    @Transactional(readOnly = true)
+    void forEachMapping(Consumer<ShortUrl> action);
+}
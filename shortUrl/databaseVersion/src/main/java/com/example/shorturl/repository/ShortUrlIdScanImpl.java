@@ -0,0 +1,36 @@
+package com.example.shorturl.repository;
+
+import com.example.shorturl.model.ShortUrl;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.function.Consumer;
+
+class ShortUrlIdScanImpl implements ShortUrlIdScan {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ShortUrlIdScanImpl(DataSource dataSource) {
+        // Own template so the fetch size does not leak into other queries
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    @Override
+    public void forEachShortId(Consumer<String> action) {
+        jdbcTemplate.query("select short_url from short_urls", rs -> {
+            action.accept(rs.getString(1));
+        });
+    }
+
+    @Override
+    public void forEachMapping(Consumer<ShortUrl> action) {
+        // Forward-only, read-only cursor: the driver holds FETCH_SIZE rows at a time (within the
+        // transaction ShortUrlIdScan declares; in autocommit PostgreSQL fetches everything)
+        jdbcTemplate.query("select short_url, original_url from short_urls", rs -> {
+            action.accept(new ShortUrl(rs.getString(1), rs.getString(2)));
+        });
+    }
+}
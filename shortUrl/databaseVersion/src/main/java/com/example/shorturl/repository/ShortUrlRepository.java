@@ -3,5 +3,5 @@ package com.example.shorturl.repository;
 import com.example.shorturl.model.ShortUrl;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface ShortUrlRepository extends JpaRepository<ShortUrl, String> {
+public interface ShortUrlRepository extends JpaRepository<ShortUrl, String>, ShortUrlBatchInserts, ShortUrlIdScan {
 }
@@ -0,0 +1,41 @@
+package com.example.shorturl.repository;
+
+import com.example.shorturl.model.ShortUrl;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Where short URL mappings live. {@link JpaShortUrlStore} keeps them in the main datasource;
+ * with {@code shorturl.sharding.enabled=true} they are spread over several databases
+ * by {@code ShardedShortUrlStore}; with {@code shorturl.read-replicas.enabled=true} reads go to
+ * replicas of the main datasource through {@code ReplicaRoutingShortUrlStore}.
+ */
+public interface ShortUrlStore {
+
+    void save(ShortUrl shortUrl);
+
+    /**
+     * Inserts all mappings using JDBC batch statements. IDs must be new.
+     */
+    void insertAll(List<ShortUrl> shortUrls);
+
+    Optional<ShortUrl> findById(String shortId);
+
+    boolean existsById(String shortId);
+
+    void deleteById(String shortId);
+
+    long count();
+
+    /**
+     * Streams every short ID without loading the mappings into memory.
+     */
+    void forEachShortId(Consumer<String> action);
+
+    /**
+     * Streams every mapping the same way, for bulk export.
+     */
+    void forEachMapping(Consumer<ShortUrl> action);
+}
@@ -0,0 +1,100 @@
+package com.example.shorturl.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Leases a block of counter values from the database and hands them out from memory.
+ * Only one DB round trip per {@code block-size} IDs, and IDs are unique by
+ * construction, so no {@code existsById} check is needed before the insert.
+ * Unused values of a block are lost on restart, which is fine for a 62^9 keyspace.
+ */
+@Component
+@ConditionalOnProperty(name = "shorturl.id-generator.mode", havingValue = "block", matchIfMissing = true)
+public class BlockLeasingShortIdGenerator implements ShortIdGenerator {
+
+    static final String SEQUENCE_NAME = "short_url";
+    private static final int ID_LENGTH = 9;
+
+    private final IdBlockAllocator allocator;
+    private final int blockSize;
+
+    private long next;
+    private long end;
+
+    public BlockLeasingShortIdGenerator(IdBlockAllocator allocator,
+            @Value("${shorturl.id-generator.block-size:1000}") int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.allocator = allocator;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public String nextId() {
+        return Base62.encode(nextValue(), ID_LENGTH);
+    }
+
+    /**
+     * Uses what is left of the current block and leases the shortfall (plus a fresh
+     * block for later calls) in a single reservation.
+     */
+    @Override
+    public List<String> nextIds(int count) {
+        List<String> ids = new ArrayList<>(count);
+        long start;
+        int missing;
+        synchronized (this) {
+            while (ids.size() < count && next < end) {
+                ids.add(Base62.encode(next++, ID_LENGTH));
+            }
+            missing = count - ids.size();
+            if (missing == 0) {
+                return ids;
+            }
+            start = allocator.reserve(SEQUENCE_NAME, missing + blockSize);
+            next = start + missing;
+            end = next + blockSize;
+        }
+        for (int i = 0; i < missing; i++) {
+            ids.add(Base62.encode(start + i, ID_LENGTH));
+        }
+        return ids;
+    }
+
+    /**
+     * Moves the shared counter, and this node's current block, past the largest imported counter value.
+     * Blocks other nodes have already leased are not affected, so import before they start shortening.
+     */
+    @Override
+    public void skipPast(Collection<String> shortIds) {
+        long max = -1;
+        synchronized (this) {
+            for (String shortId : shortIds) {
+                long value = Base62.decode(shortId, ID_LENGTH);
+                max = Math.max(max, value);
+                if (next <= value && value < end) {
+                    // Give up the rest of the block up to the imported value
+                    next = value + 1;
+                }
+            }
+        }
+        if (max >= 0) {
+            allocator.skipTo(SEQUENCE_NAME, max + 1);
+        }
+    }
+
+    private synchronized long nextValue() {
+        if (next == end) {
+            next = allocator.reserve(SEQUENCE_NAME, blockSize);
+            end = next + blockSize;
+        }
+        return next++;
+    }
+}
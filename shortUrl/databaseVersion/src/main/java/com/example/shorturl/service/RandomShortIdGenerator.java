@@ -0,0 +1,62 @@
+package com.example.shorturl.service;
+
+import com.example.shorturl.repository.ShortUrlStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * The original approach: a random UUID-derived ID, checked against the database
+ * until an unused one is found. Every ID costs at least one extra DB round trip.
+ */
+@Component
+@ConditionalOnProperty(name = "shorturl.id-generator.mode", havingValue = "random")
+public class RandomShortIdGenerator implements ShortIdGenerator {
+
+    private final ShortUrlStore store;
+
+    public RandomShortIdGenerator(ShortUrlStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public String nextId() {
+        String shortId;
+        do {
+            shortId = generateShortId();
+        } while (store.existsById(shortId));
+        return shortId;
+    }
+
+    private String generateShortId() {
+        UUID uuid = UUID.randomUUID();
+        // Convert the UUID to a byte array.
+        // A UUID consists of two long values (mostSignificantBits and
+        // leastSignificantBits).
+        // Each long is 8 bytes, so we need a 16-byte array.
+        byte[] uuidBytes = new byte[16];
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        for (int i = 0; i < 8; i++) {
+            uuidBytes[i] = (byte) (msb >>> (8 * (7 - i)));
+            uuidBytes[8 + i] = (byte) (lsb >>> (8 * (7 - i)));
+        }
+
+        // Encode the 16 bytes using URL-safe Base64.
+        // Base64 is more compact than hex representation.
+        // The URL-safe encoder replaces '+' with '-' and '/' with '_', and omits
+        // padding.
+        String base64Url = java.util.Base64.getUrlEncoder().withoutPadding().encodeToString(uuidBytes);
+
+        // Take a substring of the Base64-encoded string.
+        // A 16-byte UUID encodes to 22 characters in Base64 (without padding).
+        // Taking the first 9 characters provides a good balance between brevity and
+        // uniqueness.
+        // The original `substring(0, 8)` from hex gave 16^8 possibilities (approx 4.3
+        // billion).
+        // 9 characters from Base64 (64^9 possibilities) is much more unique (approx 2.6
+        // x 10^16).
+        return base64Url.substring(0, 9);
+    }
+}
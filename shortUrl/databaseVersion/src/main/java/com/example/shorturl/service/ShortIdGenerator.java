@@ -0,0 +1,33 @@
+package com.example.shorturl.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Produces short IDs that are not in use yet.
+ * Select the implementation with {@code shorturl.id-generator.mode} ({@code block} or {@code random}).
+ */
+public interface ShortIdGenerator {
+
+    String nextId();
+
+    /**
+     * Produces {@code count} IDs at once. Implementations that can reserve IDs in
+     * bulk should override this to avoid a round trip per ID.
+     */
+    default List<String> nextIds(int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(nextId());
+        }
+        return ids;
+    }
+
+    /**
+     * Called with IDs that were inserted without coming from this generator (bulk import), so it
+     * never hands them out. Generators that check each ID against the store need not do anything.
+     */
+    default void skipPast(Collection<String> shortIds) {
+    }
+}
@@ -1,76 +1,116 @@
 package com.example.shorturl.service;
 
 import com.example.shorturl.model.ShortUrl;
-import com.example.shorturl.repository.ShortUrlRepository;
+import com.example.shorturl.repository.ShortUrlStore;
+import com.example.shorturl.writebehind.WriteBehindWriter;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 public class UrlService {
 
-    private final ShortUrlRepository repository;
+    private final ShortUrlStore store;
+    private final ShortIdGenerator idGenerator;
+    private final ShortIdFilter shortIdFilter;
+    // Null unless shorturl.write-behind.enabled
+    private final WriteBehindWriter writeBehind;
 
-    public UrlService(ShortUrlRepository repository) {
-        this.repository = repository;
+    public UrlService(ShortUrlStore store, ShortIdGenerator idGenerator, ShortIdFilter shortIdFilter,
+            ObjectProvider<WriteBehindWriter> writeBehind) {
+        this.store = store;
+        this.idGenerator = idGenerator;
+        this.shortIdFilter = shortIdFilter;
+        this.writeBehind = writeBehind.getIfAvailable();
     }
 
     /**
      * Shortens a given URL.
+     * With write-behind on, returns once the mapping is in the local log; the DB write happens later.
      * 
      * @param originalUrl the full URL to shorten
      * @return the generated short ID
      */
     public String shorten(String originalUrl) {
-        String shortId;
-        do {
-            shortId = generateShortId();
-        } while (repository.existsById(shortId));
-
-        repository.save(new ShortUrl(shortId, originalUrl));
+        String shortId = idGenerator.nextId();
+        if (writeBehind != null) {
+            writeBehind.save(new ShortUrl(shortId, originalUrl));
+        } else {
+            store.save(new ShortUrl(shortId, originalUrl));
+        }
+        shortIdFilter.add(shortId);
         return shortId;
     }
 
+    /**
+     * Shortens many URLs at once.
+     * IDs are allocated in bulk and rows are written with JDBC batch inserts in one
+     * transaction, so either all URLs are stored or none are. When sharded, only a failed commit on
+     * one shard can leave the rows of shards committed before it.
+     *
+     * @param originalUrls the full URLs to shorten
+     * @return the generated short IDs, in the same order as the input
+     */
+    @Transactional
+    public List<String> shortenAll(List<String> originalUrls) {
+        List<String> shortIds = idGenerator.nextIds(originalUrls.size());
+        List<ShortUrl> shortUrls = new ArrayList<>(originalUrls.size());
+        for (int i = 0; i < originalUrls.size(); i++) {
+            shortUrls.add(new ShortUrl(shortIds.get(i), originalUrls.get(i)));
+        }
+        if (writeBehind != null) {
+            writeBehind.saveAll(shortUrls);
+            shortIds.forEach(shortIdFilter::add);
+            return shortIds;
+        }
+        store.insertAll(shortUrls);
+        // Only publish the IDs to the Bloom filter once the rows are visible to a rebuild scan
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                shortIds.forEach(shortIdFilter::add);
+            }
+        });
+        return shortIds;
+    }
+
     /**
      * Resolves a short ID to the original URL.
+     * IDs the Bloom filter has never seen return empty without a DB read.
      * 
      * @param shortId the ID to look up
      * @return Optional containing the URL if found
      */
     public Optional<String> resolve(String shortId) {
-        return repository.findById(shortId)
+        if (shortIdFilter.rejects(shortId)) {
+            return Optional.empty();
+        }
+        if (writeBehind != null) {
+            Optional<String> pending = writeBehind.findPending(shortId);
+            if (pending.isPresent()) {
+                return pending;
+            }
+        }
+        return store.findById(shortId)
                 .map(ShortUrl::getOriginalUrl);
     }
 
-    private String generateShortId() {
-        UUID uuid = UUID.randomUUID();
-        // Convert the UUID to a byte array.
-        // A UUID consists of two long values (mostSignificantBits and
-        // leastSignificantBits).
-        // Each long is 8 bytes, so we need a 16-byte array.
-        byte[] uuidBytes = new byte[16];
-        long msb = uuid.getMostSignificantBits();
-        long lsb = uuid.getLeastSignificantBits();
-        for (int i = 0; i < 8; i++) {
-            uuidBytes[i] = (byte) (msb >>> (8 * (7 - i)));
-            uuidBytes[8 + i] = (byte) (lsb >>> (8 * (7 - i)));
+    /**
+     * Deletes a short URL.
+     *
+     * @param shortId the ID to delete
+     */
+    public void delete(String shortId) {
+        if (writeBehind != null) {
+            writeBehind.delete(shortId);
+            return;
         }
-
-        // Encode the 16 bytes using URL-safe Base64.
-        // Base64 is more compact than hex representation.
-        // The URL-safe encoder replaces '+' with '-' and '/' with '_', and omits
-        // padding.
-        String base64Url = java.util.Base64.getUrlEncoder().withoutPadding().encodeToString(uuidBytes);
-
-        // Take a substring of the Base64-encoded string.
-        // A 16-byte UUID encodes to 22 characters in Base64 (without padding).
-        // Taking the first 9 characters provides a good balance between brevity and
-        // uniqueness.
-        // The original `substring(0, 8)` from hex gave 16^8 possibilities (approx 4.3
-        // billion).
-        // 9 characters from Base64 (64^9 possibilities) is much more unique (approx 2.6
-        // x 10^16).
-        return base64Url.substring(0, 9);
+        store.deleteById(shortId);
     }
 }
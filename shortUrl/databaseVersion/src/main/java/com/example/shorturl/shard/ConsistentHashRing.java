@@ -0,0 +1,111 @@
+package com.example.shorturl.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Immutable consistent-hash ring over a signed 64-bit hash space.
+ * Each node is placed at {@code virtualNodes} positions; a key belongs to the first node at or
+ * after its hash, wrapping around. Adding a node only takes over the ranges just before its
+ * positions, roughly {@code 1 / (n + 1)} of the keys, all of them moving to the new node.
+ */
+public final class ConsistentHashRing<T> {
+
+    private final NavigableMap<Long, T> positions;
+    private final List<T> nodes;
+    private final int virtualNodes;
+    private final Function<T, String> nameOf;
+
+    public ConsistentHashRing(Collection<T> nodes, int virtualNodes, Function<T, String> nameOf) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A ring needs at least one node");
+        }
+        this.nodes = List.copyOf(nodes);
+        this.virtualNodes = virtualNodes;
+        this.nameOf = nameOf;
+        NavigableMap<Long, T> ring = new TreeMap<>();
+        for (T node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(nameOf.apply(node) + "#" + i), node);
+            }
+        }
+        this.positions = Collections.unmodifiableNavigableMap(ring);
+    }
+
+    /**
+     * A new ring with one more node; this one is unchanged.
+     */
+    public ConsistentHashRing<T> with(T node) {
+        List<T> grown = new ArrayList<>(nodes);
+        grown.add(node);
+        return new ConsistentHashRing<>(grown, virtualNodes, nameOf);
+    }
+
+    public T nodeFor(String key) {
+        return nodeFor(hash(key));
+    }
+
+    public T nodeFor(long hash) {
+        Map.Entry<Long, T> owner = positions.ceilingEntry(hash);
+        return (owner != null ? owner : positions.firstEntry()).getValue();
+    }
+
+    public List<T> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * The hash ranges that belong to the given node.
+     */
+    public List<Range> rangesOwnedBy(T node) {
+        List<Range> ranges = new ArrayList<>();
+        for (Map.Entry<Long, T> position : positions.entrySet()) {
+            if (position.getValue().equals(node)) {
+                Long previous = positions.lowerKey(position.getKey());
+                ranges.add(new Range(previous != null ? previous : positions.lastKey(), position.getKey()));
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes, finished with the murmur3 64-bit mixer so close keys spread out.
+     * Stable across JVMs, since it is stored next to each row.
+     */
+    public static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Hashes in {@code (startExclusive, endInclusive]}; wraps past {@link Long#MAX_VALUE} when start >= end.
+     */
+    public record Range(long startExclusive, long endInclusive) {
+
+        public boolean wraps() {
+            return startExclusive >= endInclusive;
+        }
+
+        public boolean contains(long hash) {
+            return wraps()
+                    ? hash > startExclusive || hash <= endInclusive
+                    : hash > startExclusive && hash <= endInclusive;
+        }
+    }
+}
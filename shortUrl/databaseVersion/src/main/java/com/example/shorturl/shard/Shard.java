@@ -0,0 +1,63 @@
+package com.example.shorturl.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * One database holding part of the {@code short_urls} rows.
+ */
+public class Shard implements AutoCloseable {
+
+    private final String name;
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public Shard(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    /**
+     * Creates the table if missing. {@code key_hash} is the ring position of the ID,
+     * indexed so a rebalance can select a hash range directly.
+     */
+    public void createSchema() {
+        jdbcTemplate.execute("""
+                create table if not exists short_urls (
+                    short_url varchar(255) primary key,
+                    original_url varchar(255),
+                    key_hash bigint not null)""");
+        jdbcTemplate.execute("create index if not exists idx_short_urls_key_hash on short_urls (key_hash)");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    /**
+     * Transactions on this shard's database. The application's transaction manager only covers the
+     * main datasource.
+     */
+    public TransactionTemplate getTransactionTemplate() {
+        return transactionTemplate;
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.shorturl.shard;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/shards}: rows per shard.
+ * {@code POST /actuator/shards} with {@code {"name": ..., "url": ...}}: adds a shard online, on every
+ * instance, and moves its key ranges over. Each instance takes its credentials from
+ * {@code shorturl.sharding.credentials.<name>}; they are not stored with the shared ring.
+ */
+@Endpoint(id = "shards")
+public class ShardEndpoint {
+
+    private final ShardedShortUrlStore store;
+    private final ShardRebalancer rebalancer;
+
+    public ShardEndpoint(ShardedShortUrlStore store, ShardRebalancer rebalancer) {
+        this.store = store;
+        this.rebalancer = rebalancer;
+    }
+
+    public record ShardDefinition(String name, String url) {
+    }
+
+    @ReadOperation
+    public Map<String, Object> shards() {
+        Map<String, Long> rows = new LinkedHashMap<>();
+        for (Shard shard : store.getShards()) {
+            rows.put(shard.getName(), store.count(shard));
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rebalancing", store.getRouting().previous() != null);
+        result.put("rows", rows);
+        return result;
+    }
+
+    @WriteOperation
+    public Map<String, Object> addShard(String name, String url) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("moved", rebalancer.addShard(new ShardDefinition(name, url)));
+        result.putAll(shards());
+        return result;
+    }
+}
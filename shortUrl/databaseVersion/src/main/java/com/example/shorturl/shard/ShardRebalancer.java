@@ -0,0 +1,138 @@
+package com.example.shorturl.shard;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.example.shorturl.shard.ShardEndpoint.ShardDefinition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds a shard while the service keeps running and moves over only the hash ranges it takes over.
+ *
+ * <ol>
+ *   <li>Record the shard as migrating in {@link ShardRingState}, so every instance writes with the
+ *       new ring and reads with fallback to the old one.</li>
+ *   <li>Wait until every live instance routes by it ({@link ShardRingSync}).</li>
+ *   <li>For each range the new shard now owns, copy its rows (selected by {@code key_hash})
+ *       from the previous owner in batches, deleting each batch from the source in the same
+ *       source transaction that locked it.</li>
+ *   <li>Record the shard as active, which drops the old ring everywhere.</li>
+ * </ol>
+ *
+ * A crash or timeout halfway leaves the shard migrating, with some rows on both shards; reads
+ * prefer the new owner, and adding the same shard again (from any instance) copies the rest.
+ */
+public class ShardRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    // Standard SQL MERGE, so a rerun after a partial copy does not fail on existing rows
+    private static final String COPY_SQL = """
+            merge into short_urls t
+            using (values (cast(? as varchar(255)), cast(? as varchar(255)), cast(? as bigint)))
+                as s(short_url, original_url, key_hash)
+            on t.short_url = s.short_url
+            when not matched then insert (short_url, original_url, key_hash) values (s.short_url, s.original_url, s.key_hash)
+            """;
+
+    private final ShardedShortUrlStore store;
+    private final ShardRingState state;
+    private final ShardRingSync sync;
+    private final int batchSize;
+    private final Duration memberTimeout;
+
+    public ShardRebalancer(ShardedShortUrlStore store, ShardRingState state, ShardRingSync sync, int batchSize,
+            Duration memberTimeout) {
+        this.store = store;
+        this.state = state;
+        this.sync = sync;
+        this.batchSize = batchSize;
+        this.memberTimeout = memberTimeout;
+    }
+
+    /**
+     * @return rows moved to the new shard, per source shard
+     * @throws IllegalStateException if another shard is being added, or some instance does not
+     *                               pick up the new ring in time; rerun the add once it has
+     */
+    public synchronized Map<String, Long> addShard(ShardDefinition definition) {
+        if (sync.isConfigured(definition.name())) {
+            throw new IllegalArgumentException("Shard " + definition.name() + " already exists");
+        }
+        // Reach the shard before recording it: instances that cannot route by the ring stop writing
+        Shard shard = sync.open(definition);
+        long version;
+        try {
+            version = state.beginAdd(definition.name(), definition.url());
+        } catch (RuntimeException e) {
+            sync.discard(shard);
+            throw e;
+        }
+        sync.sync();
+        awaitInstances(version);
+
+        long start = System.currentTimeMillis();
+        ShardedShortUrlStore.Routing routing = store.getRouting();
+        ConsistentHashRing<Shard> previous = routing.previous();
+        ConsistentHashRing<Shard> next = routing.ring();
+        Map<String, Long> moved = new LinkedHashMap<>();
+        for (ConsistentHashRing.Range range : next.rangesOwnedBy(shard)) {
+            // Everything in the range belonged to the old owner of its end position
+            Shard source = previous.nodeFor(range.endInclusive());
+            moved.merge(source.getName(), moveRange(source, shard, range), Long::sum);
+        }
+        state.finishAdd(definition.name());
+        sync.sync();
+        log.info("Added shard {} in {} ms, moved rows: {}", shard.getName(), System.currentTimeMillis() - start, moved);
+        return moved;
+    }
+
+    private void awaitInstances(long version) {
+        state.pruneMembers(memberTimeout);
+        long deadline = System.nanoTime() + memberTimeout.multipliedBy(2).toNanos();
+        List<String> lagging;
+        while (!(lagging = state.lagging(version, memberTimeout)).isEmpty()) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("Instances " + lagging + " still route by the old shard ring");
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for instances to pick up the shard ring", e);
+            }
+        }
+    }
+
+    private long moveRange(Shard source, Shard target, ConsistentHashRing.Range range) {
+        String where = range.wraps() ? "key_hash > ? or key_hash <= ?" : "key_hash > ? and key_hash <= ?";
+        String selectSql = "select short_url, original_url, key_hash from short_urls where " + where
+                + " fetch first " + batchSize + " rows only for update";
+        JdbcTemplate from = source.getJdbcTemplate();
+        // The batch stays locked on the source until it is deleted there, so a concurrent delete on
+        // any instance (old owner first, see ShardedShortUrlStore.deleteById) waits for the copy
+        TransactionTemplate sourceTransaction = new TransactionTemplate(
+                new DataSourceTransactionManager(from.getDataSource()));
+        long moved = 0;
+        while (true) {
+            Integer copied = sourceTransaction.execute(status -> {
+                List<Object[]> rows = from.query(selectSql, (rs, rowNum) -> new Object[]{
+                        rs.getString(1), rs.getString(2), rs.getLong(3)}, range.startExclusive(), range.endInclusive());
+                target.getJdbcTemplate().batchUpdate(COPY_SQL, rows);
+                from.batchUpdate("delete from short_urls where short_url = ?",
+                        rows.stream().map(row -> new Object[]{row[0]}).toList());
+                return rows.size();
+            });
+            if (copied == null || copied == 0) {
+                return moved;
+            }
+            moved += copied;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.shorturl.shard;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Shards added online, and the instances routing by them, in tables on the main datasource, so
+ * every instance routes by the same ring and one that starts later picks up the added shards.
+ *
+ * <ul>
+ *   <li>{@code shard_ring}: one row per added shard, {@code MIGRATING} while its rows are being
+ *       moved and {@code ACTIVE} afterwards. Configured shards are not listed. Only the name and
+ *       URL are stored; credentials come from each instance's configuration.</li>
+ *   <li>{@code shard_ring_version}: bumped on every change, so instances only reload when it moves.</li>
+ *   <li>{@code shard_ring_members}: the ring version each instance routes by, with a heartbeat
+ *       in DB time.</li>
+ * </ul>
+ */
+public class ShardRingState {
+
+    public enum State { MIGRATING, ACTIVE }
+
+    public record Entry(String name, String url, State state) {
+    }
+
+    private static final String HEARTBEAT_SQL = """
+            merge into shard_ring_members t
+            using (values (cast(? as varchar(64)), cast(? as bigint))) as s(instance_id, ring_version)
+            on t.instance_id = s.instance_id
+            when matched then update set ring_version = s.ring_version, heartbeat_at = current_timestamp
+            when not matched then insert (instance_id, ring_version, heartbeat_at)
+                values (s.instance_id, s.ring_version, current_timestamp)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ShardRingState(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void createSchema() {
+        jdbcTemplate.execute("""
+                create table if not exists shard_ring (
+                    name varchar(255) primary key,
+                    url varchar(1024) not null,
+                    state varchar(16) not null,
+                    add_order bigint not null)""");
+        // Earlier versions stored the credentials here in plain text
+        jdbcTemplate.execute("alter table shard_ring drop column if exists username");
+        jdbcTemplate.execute("alter table shard_ring drop column if exists password");
+        jdbcTemplate.execute("""
+                create table if not exists shard_ring_version (
+                    id int primary key,
+                    version bigint not null)""");
+        jdbcTemplate.execute("""
+                create table if not exists shard_ring_members (
+                    instance_id varchar(64) primary key,
+                    ring_version bigint not null,
+                    heartbeat_at timestamp with time zone not null)""");
+        jdbcTemplate.update("""
+                merge into shard_ring_version t using (values (1)) as s(id) on t.id = s.id
+                when not matched then insert (id, version) values (1, 0)""");
+    }
+
+    public long version() {
+        Long version = jdbcTemplate.queryForObject("select version from shard_ring_version where id = 1", Long.class);
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * Added shards in the order they were added.
+     */
+    public List<Entry> load() {
+        return jdbcTemplate.query("select name, url, state from shard_ring order by add_order",
+                (rs, rowNum) -> new Entry(rs.getString(1), rs.getString(2), State.valueOf(rs.getString(3))));
+    }
+
+    /**
+     * Records the shard as {@code MIGRATING}, or confirms it already is (a rerun after a failed
+     * rebalance). Only one shard can be migrating at a time, whichever instance started it.
+     *
+     * @return the new ring version
+     */
+    public long beginAdd(String name, String url) {
+        Long version = transactionTemplate.execute(status -> {
+            // Taken first: the row lock serializes concurrent adds from different instances
+            long next = bump();
+            List<Entry> entries = load();
+            for (Entry entry : entries) {
+                if (entry.name().equals(name)) {
+                    if (entry.state() == State.ACTIVE) {
+                        throw new IllegalArgumentException("Shard " + name + " already exists");
+                    }
+                    return next;
+                }
+                if (entry.state() == State.MIGRATING) {
+                    throw new IllegalStateException("Shard " + entry.name() + " is still being added");
+                }
+            }
+            jdbcTemplate.update("insert into shard_ring (name, url, state, add_order) values (?, ?, ?, ?)",
+                    name, url, State.MIGRATING.name(), entries.size());
+            return next;
+        });
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * @return the new ring version
+     */
+    public long finishAdd(String name) {
+        Long version = transactionTemplate.execute(status -> {
+            long next = bump();
+            jdbcTemplate.update("update shard_ring set state = ? where name = ?", State.ACTIVE.name(), name);
+            return next;
+        });
+        return version == null ? 0 : version;
+    }
+
+    public void heartbeat(String instanceId, long ringVersion) {
+        jdbcTemplate.update(HEARTBEAT_SQL, instanceId, ringVersion);
+    }
+
+    /**
+     * Instances that heartbeated within {@code memberTimeout} but still route by a version older
+     * than {@code version}. Compared in DB time, so instance clocks do not matter.
+     */
+    public List<String> lagging(long version, Duration memberTimeout) {
+        Timestamp now = jdbcTemplate.queryForObject("select current_timestamp", Timestamp.class);
+        Timestamp aliveSince = new Timestamp(now.getTime() - memberTimeout.toMillis());
+        return jdbcTemplate.queryForList(
+                "select instance_id from shard_ring_members where heartbeat_at > ? and ring_version < ?",
+                String.class, aliveSince, version);
+    }
+
+    /**
+     * Forgets instances that have not heartbeated for {@code age}.
+     */
+    public void pruneMembers(Duration age) {
+        Timestamp now = jdbcTemplate.queryForObject("select current_timestamp", Timestamp.class);
+        jdbcTemplate.update("delete from shard_ring_members where heartbeat_at < ?",
+                new Timestamp(now.getTime() - age.toMillis()));
+    }
+
+    private long bump() {
+        jdbcTemplate.update("update shard_ring_version set version = version + 1 where id = 1");
+        return version();
+    }
+}
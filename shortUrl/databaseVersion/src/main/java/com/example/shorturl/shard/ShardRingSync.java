@@ -0,0 +1,145 @@
+package com.example.shorturl.shard;
+
+import com.example.shorturl.shard.ShardEndpoint.ShardDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Keeps this instance's routing in line with the ring in {@link ShardRingState}.
+ *
+ * <p>Every sync heartbeats the ring version this instance routes by, reloads the ring if the shared
+ * version moved, and then allows writes for {@code memberTimeout} from when the version was read.
+ * {@link ShardRebalancer} waits for every instance that heartbeated within {@code memberTimeout} to
+ * report the new version before it moves rows; an instance that cannot sync stops writing before
+ * the rebalancer stops waiting for it.
+ */
+public class ShardRingSync {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRingSync.class);
+
+    private final ShardedShortUrlStore store;
+    private final ShardRingState state;
+    private final Function<ShardDefinition, Shard> shardFactory;
+    private final int virtualNodes;
+    private final Duration memberTimeout;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final List<Shard> configured;
+    // Guarded by this
+    private final Map<String, Shard> shards = new HashMap<>();
+    private long appliedVersion = -1;
+
+    public ShardRingSync(ShardedShortUrlStore store, ShardRingState state, Function<ShardDefinition, Shard> shardFactory,
+            int virtualNodes, Duration memberTimeout) {
+        this.store = store;
+        this.state = state;
+        this.shardFactory = shardFactory;
+        this.virtualNodes = virtualNodes;
+        this.memberTimeout = memberTimeout;
+        this.configured = List.copyOf(store.getRouting().ring().getNodes());
+        configured.forEach(shard -> shards.put(shard.getName(), shard));
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    // The rest of startup can outlast member-timeout after the first sync; renew before the scheduler takes over
+    @EventListener(ContextRefreshedEvent.class)
+    public void syncOnStartup() {
+        sync();
+    }
+
+    @Scheduled(initialDelayString = "${shorturl.sharding.sync-interval:PT1S}",
+            fixedDelayString = "${shorturl.sharding.sync-interval:PT1S}")
+    public void scheduledSync() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            log.warn("Could not sync the shard ring, writes stop once the last sync is {} old", memberTimeout, e);
+        }
+    }
+
+    public synchronized void sync() {
+        // Heartbeat before reading the version: a rebalancer that bumps it afterwards sees this
+        // instance as lagging, one that bumped it before is seen here
+        state.heartbeat(instanceId, appliedVersion);
+        long readAt = System.nanoTime();
+        long version = state.version();
+        if (version != appliedVersion) {
+            apply(state.load());
+            appliedVersion = version;
+            state.heartbeat(instanceId, appliedVersion);
+            log.info("Routing by shard ring version {}: {}", version, store.getRouting().ring().getNodes().stream()
+                    .map(Shard::getName).toList());
+        }
+        store.allowWritesUntil(readAt + memberTimeout.toNanos());
+    }
+
+    public synchronized boolean isConfigured(String name) {
+        return configured.stream().anyMatch(shard -> shard.getName().equals(name));
+    }
+
+    /**
+     * The shard with this name, connecting to it and creating its schema if this instance has not
+     * used it yet.
+     */
+    public synchronized Shard open(ShardDefinition definition) {
+        Shard known = shards.get(definition.name());
+        if (known != null) {
+            return known;
+        }
+        Shard shard = shardFactory.apply(definition);
+        try {
+            shard.createSchema();
+        } catch (RuntimeException e) {
+            shard.close();
+            throw e;
+        }
+        shards.put(shard.getName(), shard);
+        return shard;
+    }
+
+    /**
+     * Closes a shard opened by {@link #open} that did not make it into the ring.
+     */
+    public synchronized void discard(Shard shard) {
+        if (store.getRouting().ring().getNodes().contains(shard) || !shards.remove(shard.getName(), shard)) {
+            return;
+        }
+        shard.close();
+    }
+
+    private void apply(List<ShardRingState.Entry> entries) {
+        List<Shard> active = new ArrayList<>(configured);
+        Shard migrating = null;
+        for (ShardRingState.Entry entry : entries) {
+            if (isConfigured(entry.name())) {
+                // Listed under shorturl.sharding.shards as well: already in the ring, adding it again would count
+                // and export its rows twice
+                log.warn("Shard {} is configured and was also added online; routing by the configured one", entry.name());
+                continue;
+            }
+            Shard shard = open(new ShardDefinition(entry.name(), entry.url()));
+            if (entry.state() == ShardRingState.State.ACTIVE) {
+                active.add(shard);
+            } else {
+                migrating = shard;
+            }
+        }
+        ConsistentHashRing<Shard> ring = new ConsistentHashRing<>(active, virtualNodes, Shard::getName);
+        store.setRouting(migrating == null
+                ? new ShardedShortUrlStore.Routing(ring, null)
+                : new ShardedShortUrlStore.Routing(ring.with(migrating), ring));
+    }
+}
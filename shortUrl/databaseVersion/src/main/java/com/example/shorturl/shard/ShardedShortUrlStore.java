@@ -0,0 +1,216 @@
+package com.example.shorturl.shard;
+
+import com.example.shorturl.model.ShortUrl;
+import com.example.shorturl.repository.ShortUrlStore;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Spreads {@code short_urls} over several databases: each ID goes to the shard that owns its hash
+ * on a {@link ConsistentHashRing}.
+ *
+ * <p>While {@link ShardRebalancer} moves rows to a new shard, writes already use the new ring and
+ * reads fall back to the shard that owned the ID before, so every ID stays resolvable.
+ *
+ * <p>The routing is set by {@link ShardRingSync} from the ring shared by all instances. Writes are
+ * refused once it has not been confirmed for a while: this instance could be routing by a ring
+ * the others have moved on from.
+ *
+ * <p>A batch runs in one transaction per shard it touches. They are nested: every shard's rows are
+ * written before the first commit, so a failing row (e.g. an ID that already exists) rolls the whole
+ * batch back on every shard. There is no two-phase commit, though: if a commit itself fails, the
+ * shards committed before it keep their part of the batch.
+ */
+public class ShardedShortUrlStore implements ShortUrlStore, AutoCloseable {
+
+    private static final String INSERT_SQL = "insert into short_urls (short_url, original_url, key_hash) values (?, ?, ?)";
+    private static final String SELECT_SQL = "select original_url from short_urls where short_url = ?";
+    private static final String DELETE_SQL = "delete from short_urls where short_url = ?";
+
+    private final int batchSize;
+
+    private volatile Routing routing;
+    // System.nanoTime() after which writes are refused; only enforced once a ShardRingSync has set it
+    private volatile long writableUntil;
+    private volatile boolean writesLeased;
+
+    public ShardedShortUrlStore(ConsistentHashRing<Shard> ring, int batchSize) {
+        this.routing = new Routing(ring, null);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param ring     owner of every ID from now on
+     * @param previous ring before a rebalance, consulted on misses until it finishes; null when not rebalancing
+     */
+    public record Routing(ConsistentHashRing<Shard> ring, ConsistentHashRing<Shard> previous) {
+    }
+
+    // Public (like the rest of the API) so calls through the AOP proxy of this bean reach the target
+
+    public Routing getRouting() {
+        return routing;
+    }
+
+    public void setRouting(Routing routing) {
+        this.routing = routing;
+    }
+
+    /**
+     * Allows writes until {@code nanoTime}, a {@link System#nanoTime()} value.
+     */
+    public void allowWritesUntil(long nanoTime) {
+        writableUntil = nanoTime;
+        writesLeased = true;
+    }
+
+    public List<Shard> getShards() {
+        return routing.ring().getNodes();
+    }
+
+    @Override
+    public void save(ShortUrl shortUrl) {
+        checkWritable();
+        long hash = ConsistentHashRing.hash(shortUrl.getShortUrl());
+        routing.ring().nodeFor(hash).getJdbcTemplate()
+                .update(INSERT_SQL, shortUrl.getShortUrl(), shortUrl.getOriginalUrl(), hash);
+    }
+
+    @Override
+    public void insertAll(List<ShortUrl> shortUrls) {
+        checkWritable();
+        ConsistentHashRing<Shard> ring = routing.ring();
+        Map<Shard, List<ShortUrl>> byShard = new LinkedHashMap<>();
+        for (ShortUrl shortUrl : shortUrls) {
+            byShard.computeIfAbsent(ring.nodeFor(shortUrl.getShortUrl()), shard -> new ArrayList<>()).add(shortUrl);
+        }
+        insertAll(new ArrayList<>(byShard.entrySet()), 0);
+    }
+
+    // Opens the next shard's transaction inside the previous one, so all commits come after all writes
+    private void insertAll(List<Map.Entry<Shard, List<ShortUrl>>> byShard, int next) {
+        if (next == byShard.size()) {
+            return;
+        }
+        Shard shard = byShard.get(next).getKey();
+        List<ShortUrl> rows = byShard.get(next).getValue();
+        shard.getTransactionTemplate().executeWithoutResult(status -> {
+            shard.getJdbcTemplate().batchUpdate(INSERT_SQL, rows, batchSize, (ps, row) -> {
+                ps.setString(1, row.getShortUrl());
+                ps.setString(2, row.getOriginalUrl());
+                ps.setLong(3, ConsistentHashRing.hash(row.getShortUrl()));
+            });
+            insertAll(byShard, next + 1);
+        });
+    }
+
+    @Override
+    public Optional<ShortUrl> findById(String shortId) {
+        Routing current = routing;
+        long hash = ConsistentHashRing.hash(shortId);
+        Shard owner = current.ring().nodeFor(hash);
+        Optional<ShortUrl> found = find(owner, shortId);
+        if (found.isPresent() || current.previous() == null) {
+            return found;
+        }
+        Shard previousOwner = current.previous().nodeFor(hash);
+        if (previousOwner == owner) {
+            return found;
+        }
+        found = find(previousOwner, shortId);
+        // The row may have moved between the two reads
+        return found.isPresent() ? found : find(owner, shortId);
+    }
+
+    @Override
+    public boolean existsById(String shortId) {
+        return findById(shortId).isPresent();
+    }
+
+    @Override
+    public void deleteById(String shortId) {
+        checkWritable();
+        Routing current = routing;
+        long hash = ConsistentHashRing.hash(shortId);
+        Shard owner = current.ring().nodeFor(hash);
+        if (current.previous() == null || current.previous().nodeFor(hash) == owner) {
+            owner.getJdbcTemplate().update(DELETE_SQL, shortId);
+            return;
+        }
+        // The row may not have moved yet: delete on both sides, the old owner first. If the rebalancer
+        // is copying the row, that delete waits for its row lock until the copy is done, and the
+        // delete on the new owner then removes the copy.
+        current.previous().nodeFor(hash).getJdbcTemplate().update(DELETE_SQL, shortId);
+        owner.getJdbcTemplate().update(DELETE_SQL, shortId);
+    }
+
+    @Override
+    public long count() {
+        long total = 0;
+        for (Shard shard : getShards()) {
+            total += count(shard);
+        }
+        return total;
+    }
+
+    public long count(Shard shard) {
+        Long rows = shard.getJdbcTemplate().queryForObject("select count(*) from short_urls", Long.class);
+        return rows == null ? 0 : rows;
+    }
+
+    @Override
+    public void forEachShortId(Consumer<String> action) {
+        for (Shard shard : getShards()) {
+            scan(shard, "select short_url from short_urls", rs -> {
+                action.accept(rs.getString(1));
+            });
+        }
+    }
+
+    @Override
+    public void forEachMapping(Consumer<ShortUrl> action) {
+        for (Shard shard : getShards()) {
+            scan(shard, "select short_url, original_url from short_urls", rs -> {
+                action.accept(new ShortUrl(rs.getString(1), rs.getString(2)));
+            });
+        }
+    }
+
+    // Streams in a read-only transaction: in autocommit the PostgreSQL driver ignores the fetch size
+    private static void scan(Shard shard, String sql, RowCallbackHandler handler) {
+        DataSource dataSource = shard.getJdbcTemplate().getDataSource();
+        JdbcTemplate scan = new JdbcTemplate(dataSource);
+        scan.setFetchSize(10_000);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> scan.query(sql, handler));
+    }
+
+    @Override
+    public void close() {
+        getShards().forEach(Shard::close);
+    }
+
+    private void checkWritable() {
+        if (writesLeased && System.nanoTime() - writableUntil > 0) {
+            throw new IllegalStateException("Shard routing has not been confirmed against the shared ring recently; "
+                    + "refusing writes until it is");
+        }
+    }
+
+    private Optional<ShortUrl> find(Shard shard, String shortId) {
+        return shard.getJdbcTemplate().query(SELECT_SQL, rs -> rs.next()
+                ? Optional.of(new ShortUrl(shortId, rs.getString(1)))
+                : Optional.empty(), shortId);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.shorturl.transfer;
+
+import com.example.shorturl.model.ShortUrl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Layout: {@code "SURL" [byte version]}, then per mapping {@code [varint n][n bytes UTF-8 id][varint m][m bytes UTF-8 url]},
+ * then {@code [varint 0][long record count]}. IDs are never empty, so a zero length marks the trailer; a file without
+ * one, or with the wrong count, was cut short.
+ */
+final class BinaryMappings {
+
+    private static final byte[] MAGIC = {'S', 'U', 'R', 'L'};
+    private static final byte VERSION = 1;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    // Far above any real URL; stops a corrupt length from allocating gigabytes
+    private static final int MAX_STRING_BYTES = 1 << 20;
+
+    private BinaryMappings() {
+    }
+
+    static final class Writer implements MappingWriter {
+
+        private final DataOutputStream out;
+        private long count;
+
+        Writer(OutputStream out) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(out, BUFFER_BYTES));
+            this.out.write(MAGIC);
+            this.out.writeByte(VERSION);
+        }
+
+        @Override
+        public void write(ShortUrl shortUrl) throws IOException {
+            writeString(shortUrl.getShortUrl());
+            writeString(shortUrl.getOriginalUrl());
+            count++;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writeVarInt(0);
+            out.writeLong(count);
+            out.flush();
+        }
+
+        private void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+    }
+
+    static final class Reader implements MappingReader {
+
+        private final DataInputStream in;
+        private long count;
+        private boolean done;
+
+        Reader(InputStream in) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(in, BUFFER_BYTES));
+            byte[] magic = new byte[MAGIC.length];
+            try {
+                this.in.readFully(magic);
+                if (!Arrays.equals(magic, MAGIC)) {
+                    throw new IOException("Not a short URL export file");
+                }
+                byte version = this.in.readByte();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported export version " + version);
+                }
+            } catch (EOFException e) {
+                throw new IOException("Not a short URL export file", e);
+            }
+        }
+
+        @Override
+        public ShortUrl read() throws IOException {
+            if (done) {
+                return null;
+            }
+            try {
+                int idLength = readVarInt();
+                if (idLength == 0) {
+                    long expected = in.readLong();
+                    if (expected != count) {
+                        throw new IOException("Export file has " + count + " records, trailer says " + expected);
+                    }
+                    done = true;
+                    return null;
+                }
+                String shortId = readString(idLength);
+                String originalUrl = readString(readVarInt());
+                count++;
+                return new ShortUrl(shortId, originalUrl);
+            } catch (EOFException e) {
+                throw new IOException("Export file is truncated after " + count + " records", e);
+            }
+        }
+
+        private String readString(int length) throws IOException {
+            if (length < 0 || length > MAX_STRING_BYTES) {
+                throw new IOException("Record " + (count + 1) + " has a " + length + " byte string");
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = in.readUnsignedByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed length in record " + (count + 1));
+        }
+    }
+}
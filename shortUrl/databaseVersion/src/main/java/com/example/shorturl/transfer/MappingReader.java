@@ -0,0 +1,17 @@
+package com.example.shorturl.transfer;
+
+import com.example.shorturl.model.ShortUrl;
+
+import java.io.IOException;
+
+/**
+ * Reads mappings one at a time from a stream it does not own.
+ */
+public interface MappingReader {
+
+    /**
+     * @return the next mapping, or null at the end of the input
+     * @throws IOException if the input is malformed or cut short
+     */
+    ShortUrl read() throws IOException;
+}
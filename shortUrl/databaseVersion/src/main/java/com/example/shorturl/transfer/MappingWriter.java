@@ -0,0 +1,18 @@
+package com.example.shorturl.transfer;
+
+import com.example.shorturl.model.ShortUrl;
+
+import java.io.IOException;
+
+/**
+ * Writes mappings one at a time to a stream it does not own.
+ */
+public interface MappingWriter {
+
+    void write(ShortUrl shortUrl) throws IOException;
+
+    /**
+     * Writes any trailer and flushes. Does not close the underlying stream.
+     */
+    void finish() throws IOException;
+}
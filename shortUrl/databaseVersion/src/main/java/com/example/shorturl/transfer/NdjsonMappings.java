@@ -0,0 +1,86 @@
+package com.example.shorturl.transfer;
+
+import com.example.shorturl.model.ShortUrl;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * NDJSON through Jackson's streaming API: no object mapping, nothing kept beyond the current record.
+ */
+final class NdjsonMappings {
+
+    private static final JsonFactory JSON = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+    private NdjsonMappings() {
+    }
+
+    static final class Writer implements MappingWriter {
+
+        private final JsonGenerator generator;
+
+        Writer(OutputStream out) throws IOException {
+            this.generator = JSON.createGenerator(out);
+            this.generator.setRootValueSeparator(new SerializedString("\n"));
+        }
+
+        @Override
+        public void write(ShortUrl shortUrl) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("shortUrl", shortUrl.getShortUrl());
+            generator.writeStringField("originalUrl", shortUrl.getOriginalUrl());
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.writeRaw('\n');
+            generator.close();
+        }
+    }
+
+    static final class Reader implements MappingReader {
+
+        private final JsonParser parser;
+        private long line;
+
+        Reader(InputStream in) throws IOException {
+            this.parser = JSON.createParser(in);
+        }
+
+        @Override
+        public ShortUrl read() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return null;
+            }
+            line++;
+            if (token != JsonToken.START_OBJECT) {
+                throw new IOException("Record " + line + " is not a JSON object");
+            }
+            String shortId = null;
+            String originalUrl = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "shortUrl" -> shortId = parser.getValueAsString();
+                    case "originalUrl" -> originalUrl = parser.getValueAsString();
+                    default -> parser.skipChildren();
+                }
+            }
+            if (shortId == null || shortId.isEmpty() || originalUrl == null) {
+                throw new IOException("Record " + line + " needs shortUrl and originalUrl");
+            }
+            return new ShortUrl(shortId, originalUrl);
+        }
+    }
+}
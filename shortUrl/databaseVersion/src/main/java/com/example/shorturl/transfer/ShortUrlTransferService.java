@@ -0,0 +1,140 @@
+package com.example.shorturl.transfer;
+
+import com.example.shorturl.model.ShortUrl;
+import com.example.shorturl.repository.ShortUrlStore;
+import com.example.shorturl.service.ShortIdFilter;
+import com.example.shorturl.service.ShortIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk export and import of short URL mappings. Both directions stream: export writes rows as the
+ * JDBC cursor returns them, import holds one batch at a time, so memory use does not depend on
+ * the number of rows.
+ *
+ * <p>Export reads the store only, so with write-behind on, mappings still waiting in the log are not
+ * included.
+ */
+@Service
+public class ShortUrlTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(ShortUrlTransferService.class);
+
+    private final ShortUrlStore store;
+    private final ShortIdGenerator idGenerator;
+    private final ShortIdFilter shortIdFilter;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ShortUrlTransferService(ShortUrlStore store, ShortIdGenerator idGenerator, ShortIdFilter shortIdFilter,
+            TransactionTemplate transactionTemplate,
+            @Value("${shorturl.transfer.import-batch-size:1000}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Import batch size must be positive: " + batchSize);
+        }
+        this.store = store;
+        this.idGenerator = idGenerator;
+        this.shortIdFilter = shortIdFilter;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param imported mappings inserted
+     * @param skipped  mappings whose short ID already existed (left unchanged)
+     */
+    public record ImportResult(long imported, long skipped) {
+    }
+
+    /**
+     * Writes every mapping to {@code out}. Does not close it.
+     *
+     * @return number of mappings written
+     */
+    public long exportTo(OutputStream out, TransferFormat format) throws IOException {
+        long start = System.currentTimeMillis();
+        MappingWriter writer = format.openWriter(out);
+        long[] count = {0};
+        try {
+            store.forEachMapping(shortUrl -> {
+                try {
+                    writer.write(shortUrl);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            // Typically the client went away; the cursor is already closed
+            throw e.getCause();
+        }
+        writer.finish();
+        log.info("Exported {} mappings as {} in {} ms", count[0], format, System.currentTimeMillis() - start);
+        return count[0];
+    }
+
+    /**
+     * Reads mappings from {@code in} and inserts them in batches, one transaction per batch.
+     * Short IDs that already exist are skipped, so a failed import can simply be run again.
+     * Does not close {@code in}.
+     */
+    public ImportResult importFrom(InputStream in, TransferFormat format) throws IOException {
+        long start = System.currentTimeMillis();
+        MappingReader reader = format.openReader(in);
+        List<ShortUrl> batch = new ArrayList<>(batchSize);
+        long imported = 0;
+        long skipped = 0;
+        ShortUrl shortUrl;
+        while ((shortUrl = reader.read()) != null) {
+            batch.add(shortUrl);
+            if (batch.size() == batchSize) {
+                int inserted = insert(batch);
+                imported += inserted;
+                skipped += batch.size() - inserted;
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            int inserted = insert(batch);
+            imported += inserted;
+            skipped += batch.size() - inserted;
+        }
+        log.info("Imported {} mappings as {} in {} ms, skipped {} existing", imported, format,
+                System.currentTimeMillis() - start, skipped);
+        return new ImportResult(imported, skipped);
+    }
+
+    private int insert(List<ShortUrl> batch) {
+        List<ShortUrl> rows = batch;
+        // A failed batch leaves nothing behind, also on a sharded store (one transaction per shard, committed
+        // only after every shard is written), so the retry below counts only rows that existed before
+        try {
+            transactionTemplate.executeWithoutResult(status -> store.insertAll(batch));
+        } catch (DataIntegrityViolationException e) {
+            // Some IDs exist already (re-run, or an overlapping file): insert only the new ones
+            Set<String> seen = new HashSet<>();
+            rows = batch.stream()
+                    .filter(row -> seen.add(row.getShortUrl()) && !store.existsById(row.getShortUrl()))
+                    .toList();
+            List<ShortUrl> newRows = rows;
+            transactionTemplate.executeWithoutResult(status -> store.insertAll(newRows));
+        }
+        List<String> shortIds = rows.stream().map(ShortUrl::getShortUrl).toList();
+        idGenerator.skipPast(shortIds);
+        shortIds.forEach(shortIdFilter::add);
+        return rows.size();
+    }
+}
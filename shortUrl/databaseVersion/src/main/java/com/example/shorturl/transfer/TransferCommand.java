@@ -0,0 +1,61 @@
+package com.example.shorturl.transfer;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Export/import from the command line; {@code ShortUrlApplication} starts without a web server and exits
+ * once this has run:
+ * <pre>
+ * java -jar databaseVersion.jar --export=urls.ndjson [--format=binary]
+ * java -jar databaseVersion.jar --import=urls.ndjson [--format=binary]
+ * </pre>
+ */
+@Component
+public class TransferCommand implements ApplicationRunner {
+
+    private static final String EXPORT = "export";
+    private static final String IMPORT = "import";
+    private static final String FORMAT = "format";
+
+    private final ShortUrlTransferService transferService;
+
+    public TransferCommand(ShortUrlTransferService transferService) {
+        this.transferService = transferService;
+    }
+
+    public static boolean isCommand(String[] args) {
+        return Arrays.stream(args).anyMatch(arg -> arg.startsWith("--" + EXPORT + "=") || arg.startsWith("--" + IMPORT + "="));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        List<String> format = args.getOptionValues(FORMAT);
+        TransferFormat transferFormat = format == null ? TransferFormat.NDJSON : TransferFormat.of(format.get(0));
+        if (args.containsOption(EXPORT)) {
+            Path path = Path.of(args.getOptionValues(EXPORT).get(0));
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), 64 * 1024)) {
+                long count = transferService.exportTo(out, transferFormat);
+                System.out.printf("Exported %d mappings to %s%n", count, path);
+            }
+        } else if (args.containsOption(IMPORT)) {
+            Path path = Path.of(args.getOptionValues(IMPORT).get(0));
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(path), 64 * 1024)) {
+                ShortUrlTransferService.ImportResult result = transferService.importFrom(in, transferFormat);
+                System.out.printf("Imported %d mappings from %s, skipped %d existing%n",
+                        result.imported(), path, result.skipped());
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.shorturl.transfer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * Bulk export/import file formats.
+ */
+public enum TransferFormat {
+
+    /**
+     * One JSON object per line: {@code {"shortUrl":"...","originalUrl":"..."}}. Easy to inspect and to feed to other tools.
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * Length-prefixed UTF-8 strings with a record count trailer; about half the size of NDJSON and detects truncation.
+     */
+    BINARY("application/octet-stream", "bin");
+
+    private final String contentType;
+    private final String extension;
+
+    TransferFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public static TransferFormat of(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown format: " + name + " (ndjson or binary)");
+        }
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MappingWriter openWriter(OutputStream out) throws IOException {
+        return this == NDJSON ? new NdjsonMappings.Writer(out) : new BinaryMappings.Writer(out);
+    }
+
+    public MappingReader openReader(InputStream in) throws IOException {
+        return this == NDJSON ? new NdjsonMappings.Reader(in) : new BinaryMappings.Reader(in);
+    }
+}
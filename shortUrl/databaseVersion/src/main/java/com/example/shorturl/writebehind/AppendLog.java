@@ -0,0 +1,218 @@
+package com.example.shorturl.writebehind;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of shorten and delete operations, plus a checkpoint file holding the offset up to
+ * which everything is in the database.
+ *
+ * <p>Record layout: {@code [int payload length][int CRC32 of payload][payload]}, payload is
+ * {@code [byte type][UTF id][UTF url]}. A torn record at the tail (crash mid-write) fails the length
+ * or CRC check; recovery stops there and truncates it.
+ *
+ * <p>{@link #sync} is a group commit: one {@code force} covers every record written before it, so
+ * concurrent writers share the fsync cost.
+ */
+public class AppendLog implements AutoCloseable {
+
+    public static final byte PUT = 1;
+    public static final byte DELETE = 2;
+
+    private static final int HEADER_BYTES = 8;
+
+    public record Entry(byte type, String shortId, String originalUrl, long endOffset) {
+    }
+
+    private final FileChannel log;
+    private final FileChannel checkpoint;
+    private final Object syncLock = new Object();
+
+    // Guarded by this
+    private long writePosition;
+    private volatile long written;
+    private volatile long synced;
+
+    public AppendLog(Path path) {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.log = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.checkpoint = FileChannel.open(path.resolveSibling(path.getFileName() + ".checkpoint"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads every intact record after the checkpoint and truncates a torn tail.
+     * Must be called once before the first append.
+     */
+    public synchronized List<Entry> recover() {
+        try {
+            long position = readCheckpoint();
+            long size = log.size();
+            List<Entry> entries = new ArrayList<>();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (position + HEADER_BYTES <= size) {
+                header.clear();
+                log.read(header, position);
+                header.flip();
+                int length = header.getInt();
+                int crc = header.getInt();
+                if (length <= 0 || position + HEADER_BYTES + length > size) {
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                log.read(payload, position + HEADER_BYTES);
+                if (crc32(payload.array()) != crc) {
+                    break;
+                }
+                position += HEADER_BYTES + length;
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload.array()));
+                entries.add(new Entry(in.readByte(), in.readUTF(), in.readUTF(), position));
+            }
+            log.truncate(position);
+            log.force(true);
+            writePosition = position;
+            written = position;
+            synced = position;
+            return entries;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the records (not yet durable, see {@link #sync}) and returns the end offset of each.
+     */
+    public synchronized long[] append(byte type, List<String> shortIds, List<String> originalUrls) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            long[] ends = new long[shortIds.size()];
+            long position = writePosition;
+            for (int i = 0; i < shortIds.size(); i++) {
+                byte[] payload = payload(type, shortIds.get(i), originalUrls.get(i));
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeInt(payload.length);
+                out.writeInt(crc32(payload));
+                out.write(payload);
+                position += HEADER_BYTES + payload.length;
+                ends[i] = position;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                writePosition += log.write(buffer, writePosition);
+            }
+            written = writePosition;
+            return ends;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns once everything up to {@code offset} is on disk.
+     */
+    public void sync(long offset) {
+        if (synced >= offset) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (synced >= offset) {
+                return;
+            }
+            long target = written;
+            try {
+                log.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            synced = target;
+        }
+    }
+
+    /**
+     * Records that everything up to {@code offset} is in the database.
+     */
+    public void checkpoint(long offset) {
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(0, offset);
+            checkpoint.write(buffer, 0);
+            checkpoint.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Empties the log once everything in it is checkpointed, so it does not grow forever.
+     *
+     * @return whether the log was reset
+     */
+    public synchronized boolean resetIfCheckpointed(long checkpointed, long minBytes) {
+        if (checkpointed != writePosition || writePosition < minBytes) {
+            return false;
+        }
+        try {
+            // Checkpoint first: a crash in between then replays nothing instead of garbage
+            checkpoint(0);
+            log.truncate(0);
+            log.force(true);
+            writePosition = 0;
+            written = 0;
+            synced = 0;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long size() {
+        return written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+        checkpoint.close();
+    }
+
+    private long readCheckpoint() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        if (checkpoint.read(buffer, 0) < Long.BYTES) {
+            return 0;
+        }
+        long offset = buffer.getLong(0);
+        return offset <= log.size() ? offset : 0;
+    }
+
+    private static byte[] payload(byte type, String shortId, String originalUrl) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(type);
+        out.writeUTF(shortId);
+        out.writeUTF(originalUrl == null ? "" : originalUrl);
+        return bytes.toByteArray();
+    }
+
+    private static int crc32(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
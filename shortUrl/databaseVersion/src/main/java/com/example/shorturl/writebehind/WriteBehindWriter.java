@@ -0,0 +1,214 @@
+package com.example.shorturl.writebehind;
+
+import com.example.shorturl.model.ShortUrl;
+import com.example.shorturl.repository.ShortUrlStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind for shorten: the mapping is appended to an fsync'd {@link AppendLog} and kept in
+ * memory, and the request returns without touching the database. A background drain writes pending
+ * mappings to the store in large batches and advances the log checkpoint; on startup anything past
+ * the checkpoint is replayed.
+ *
+ * <p>A link is readable on this node as soon as shorten returns, but other nodes only see it once it
+ * is drained, so keep {@code flush-interval} short when running several nodes.
+ *
+ * <p>Deletes are logged too, and applied to the store straight away under the drain lock so an
+ * in-flight batch cannot write the link back.
+ */
+@Component
+@ConditionalOnProperty(name = "shorturl.write-behind.enabled", havingValue = "true")
+public class WriteBehindWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindWriter.class);
+
+    // Only empty the log once it is this big, not after every drain
+    private static final long RESET_BYTES = 64L * 1024 * 1024;
+
+    private final ShortUrlStore store;
+    private final AppendLog appendLog;
+    private final int batchSize;
+
+    // Log order; drained from the head
+    private final Queue<AppendLog.Entry> queue = new ConcurrentLinkedQueue<>();
+    private final Map<String, AppendLog.Entry> pending = new ConcurrentHashMap<>();
+    // Keeps queue order equal to log order
+    private final Object appendLock = new Object();
+    // Guarded by this
+    private long lastCheckpoint;
+
+    public WriteBehindWriter(ShortUrlStore store,
+            @Value("${shorturl.write-behind.log-path:${java.io.tmpdir}/shortUrl-write-behind.log}") Path logPath,
+            @Value("${shorturl.write-behind.batch-size:1000}") int batchSize) {
+        this.store = store;
+        this.appendLog = new AppendLog(logPath);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Replays mappings logged before a crash or restart but not yet in the store.
+     */
+    @PostConstruct
+    public synchronized void recover() {
+        List<AppendLog.Entry> entries = appendLog.recover();
+        int puts = 0;
+        for (AppendLog.Entry entry : entries) {
+            if (entry.type() == AppendLog.PUT) {
+                pending.put(entry.shortId(), entry);
+                puts++;
+            } else {
+                pending.remove(entry.shortId());
+                store.deleteById(entry.shortId());
+            }
+            queue.add(entry);
+        }
+        if (!entries.isEmpty()) {
+            log.info("Replayed {} write-behind log entries ({} shortens)", entries.size(), puts);
+            drain();
+        }
+    }
+
+    /**
+     * Returns once the mapping is durable in the log.
+     */
+    public void save(ShortUrl shortUrl) {
+        saveAll(List.of(shortUrl));
+    }
+
+    /**
+     * Logs many mappings with a single fsync.
+     */
+    public void saveAll(List<ShortUrl> shortUrls) {
+        List<String> shortIds = new ArrayList<>(shortUrls.size());
+        List<String> originalUrls = new ArrayList<>(shortUrls.size());
+        for (ShortUrl shortUrl : shortUrls) {
+            shortIds.add(shortUrl.getShortUrl());
+            originalUrls.add(shortUrl.getOriginalUrl());
+        }
+        long end;
+        synchronized (appendLock) {
+            long[] ends = appendLog.append(AppendLog.PUT, shortIds, originalUrls);
+            for (int i = 0; i < ends.length; i++) {
+                AppendLog.Entry entry = new AppendLog.Entry(AppendLog.PUT, shortIds.get(i), originalUrls.get(i), ends[i]);
+                pending.put(entry.shortId(), entry);
+                queue.add(entry);
+            }
+            end = ends[ends.length - 1];
+        }
+        // Outside the lock, so concurrent shortens share one fsync
+        appendLog.sync(end);
+    }
+
+    /**
+     * @return the URL if the mapping is still waiting to be drained
+     */
+    public Optional<String> findPending(String shortId) {
+        AppendLog.Entry entry = pending.get(shortId);
+        return entry == null ? Optional.empty() : Optional.of(entry.originalUrl());
+    }
+
+    public void forEachPending(Consumer<String> action) {
+        pending.keySet().forEach(action);
+    }
+
+    public synchronized void delete(String shortId) {
+        long end;
+        synchronized (appendLock) {
+            end = appendLog.append(AppendLog.DELETE, List.of(shortId), List.of(""))[0];
+            queue.add(new AppendLog.Entry(AppendLog.DELETE, shortId, "", end));
+        }
+        appendLog.sync(end);
+        pending.remove(shortId);
+        store.deleteById(shortId);
+    }
+
+    @Scheduled(fixedDelayString = "${shorturl.write-behind.flush-interval:PT0.2S}")
+    public synchronized void drain() {
+        while (!queue.isEmpty()) {
+            if (!drainBatch()) {
+                return;
+            }
+        }
+        if (appendLog.resetIfCheckpointed(lastCheckpoint, RESET_BYTES)) {
+            lastCheckpoint = 0;
+        }
+    }
+
+    private boolean drainBatch() {
+        List<AppendLog.Entry> batch = new ArrayList<>(batchSize);
+        List<ShortUrl> rows = new ArrayList<>(batchSize);
+        Iterator<AppendLog.Entry> it = queue.iterator();
+        while (it.hasNext() && batch.size() < batchSize) {
+            AppendLog.Entry entry = it.next();
+            batch.add(entry);
+            // Skip deletes (already applied) and links deleted since they were logged
+            if (entry.type() == AppendLog.PUT && pending.get(entry.shortId()) == entry) {
+                rows.add(new ShortUrl(entry.shortId(), entry.originalUrl()));
+            }
+        }
+        try {
+            write(rows);
+        } catch (RuntimeException e) {
+            // Leave the batch queued and retry at the next drain
+            log.warn("Failed to drain {} write-behind entries, retrying later", rows.size(), e);
+            return false;
+        }
+        for (AppendLog.Entry entry : batch) {
+            queue.poll();
+            pending.remove(entry.shortId(), entry);
+        }
+        lastCheckpoint = batch.get(batch.size() - 1).endOffset();
+        appendLog.checkpoint(lastCheckpoint);
+        return true;
+    }
+
+    private void write(List<ShortUrl> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            store.insertAll(rows);
+        } catch (DataIntegrityViolationException e) {
+            // A replay after a crash between insert and checkpoint: some rows are already there
+            for (ShortUrl row : rows) {
+                if (!store.existsById(row.getShortUrl())) {
+                    store.save(row);
+                }
+            }
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public long getLogBytes() {
+        return appendLog.size();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        drain();
+        appendLog.close();
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.shorturl;
+
+import com.example.shorturl.service.UrlService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BatchShortenTest {
+
+    private static final int ROWS = 10_000;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Test
+    void batchEndpointReturnsResolvableShortUrls() {
+        List<String> urls = List.of("https://one.com", "https://two.com", "https://three.com");
+        ResponseEntity<Map> response = restTemplate.postForEntity("/shorturl/batch", urls, Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<String> shortUrls = (List<String>) response.getBody().get("shortUrls");
+        assertThat(shortUrls).hasSize(3);
+
+        for (int i = 0; i < urls.size(); i++) {
+            String shortId = extractShortId(shortUrls.get(i));
+            ResponseEntity<Void> resolved = restTemplate.getForEntity("/shorturl/" + shortId, Void.class);
+            assertThat(resolved.getStatusCode()).isEqualTo(HttpStatus.FOUND);
+            assertThat(resolved.getHeaders().getLocation()).hasToString(urls.get(i));
+        }
+    }
+
+    @Test
+    void emptyBatchIsRejected() {
+        ResponseEntity<Map> response = restTemplate.postForEntity("/shorturl/batch", List.of(), Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void batchSendsRowsInJdbcBatchesInsteadOfOneStatementEach() {
+        List<String> urls = IntStream.range(0, ROWS).mapToObj(i -> "https://bulk.com/" + i).toList();
+
+        ShortUrlInserts.reset();
+        urls.subList(0, 100).forEach(urlService::shorten);
+        assertThat(ShortUrlInserts.singleRowInserts.get()).isEqualTo(100);
+        assertThat(ShortUrlInserts.batches.get()).isZero();
+
+        ShortUrlInserts.reset();
+        long start = System.nanoTime();
+        List<String> shortIds = urlService.shortenAll(urls);
+        double batchRate = ROWS / ((System.nanoTime() - start) / 1_000_000_000.0);
+        // Informational only: timing on a shared machine is too noisy to assert on
+        System.out.printf("Batch shorten: %.0f rows/sec%n", batchRate);
+
+        assertThat(shortIds).hasSize(ROWS).doesNotHaveDuplicates();
+        // shorturl.batch.jdbc-batch-size=500: 10k rows are 20 round trips, not 10k
+        assertThat(ShortUrlInserts.batches.get()).isEqualTo(ROWS / 500);
+        assertThat(ShortUrlInserts.batchedRows.get()).isEqualTo(ROWS);
+        assertThat(ShortUrlInserts.singleRowInserts.get()).isZero();
+    }
+
+    private String extractShortId(String fullUrl) {
+        // Extract the last segment of the URL path
+        return fullUrl.substring(fullUrl.lastIndexOf('/') + 1);
+    }
+
+    /** Counts the statements that insert into short_urls, by wrapping the DataSource. */
+    @TestConfiguration
+    static class ShortUrlInserts {
+
+        static final AtomicInteger singleRowInserts = new AtomicInteger();
+        static final AtomicInteger batches = new AtomicInteger();
+        static final AtomicInteger batchedRows = new AtomicInteger();
+
+        static void reset() {
+            singleRowInserts.set(0);
+            batches.set(0);
+            batchedRows.set(0);
+        }
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? wrap(DataSource.class, dataSource) : bean;
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T wrap(Class<T> type, T target) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (result instanceof Connection connection) {
+                    return wrap(Connection.class, connection);
+                }
+                if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")
+                        && ((String) args[0]).toLowerCase().startsWith("insert into short_urls")) {
+                    return counting(statement);
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement counting(PreparedStatement target) {
+            AtomicInteger pending = new AtomicInteger();
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "addBatch" -> pending.incrementAndGet();
+                            case "executeBatch" -> {
+                                batches.incrementAndGet();
+                                batchedRows.addAndGet(pending.getAndSet(0));
+                            }
+                            case "executeUpdate", "execute" -> singleRowInserts.incrementAndGet();
+                            default -> { }
+                        }
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.shorturl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shorturl.bloom-filter.enabled=true")
+class BloomFilterTest {
+
+    private static final int PROBES = 1000;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void unknownIdsAreRejectedWithoutDbRead() {
+        // Created IDs (single and batch) must still resolve
+        ResponseEntity<Map> single = restTemplate.postForEntity("/shorturl", Map.of("url", "https://bloom.com"), Map.class);
+        ResponseEntity<Map> batch = restTemplate.postForEntity("/shorturl/batch", List.of("https://bloom-batch.com"), Map.class);
+        String singleId = extractShortId((String) single.getBody().get("shortUrl"));
+        String batchId = extractShortId(((List<String>) batch.getBody().get("shortUrls")).get(0));
+        assertThat(restTemplate.getForEntity("/shorturl/" + singleId, Void.class).getStatusCode()).isEqualTo(HttpStatus.FOUND);
+        assertThat(restTemplate.getForEntity("/shorturl/" + batchId, Void.class).getStatusCode()).isEqualTo(HttpStatus.FOUND);
+
+        // Make the DB slow so any probe that reaches it is obvious
+        restTemplate.postForEntity("/shorturl/config/delay?min=200&max=200", null, Void.class);
+        try {
+            long start = System.currentTimeMillis();
+            for (int i = 0; i < PROBES; i++) {
+                String randomId = UUID.randomUUID().toString().substring(0, 9);
+                ResponseEntity<Void> response = restTemplate.getForEntity("/shorturl/" + randomId, Void.class);
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+            }
+            long duration = System.currentTimeMillis() - start;
+            System.out.println(PROBES + " random probes took " + duration + "ms");
+
+            Map<String, Object> stats = restTemplate.getForObject("/actuator/bloomfilter", Map.class);
+            System.out.println("Bloom filter stats: " + stats);
+            long avoided = ((Number) stats.get("dbHitsAvoided")).longValue();
+            // 1% false positives are allowed; leave room for randomness
+            assertThat(avoided).isGreaterThanOrEqualTo(PROBES * 95 / 100);
+        } finally {
+            restTemplate.postForEntity("/shorturl/config/delay?min=0&max=0", null, Void.class);
+        }
+    }
+
+    private String extractShortId(String fullUrl) {
+        // Extract the last segment of the URL path
+        return fullUrl.substring(fullUrl.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.shorturl;
+
+import com.example.shorturl.model.ShortUrl;
+import com.example.shorturl.repository.ShortUrlStore;
+import com.example.shorturl.service.Base62;
+import com.example.shorturl.service.UrlService;
+import com.example.shorturl.transfer.MappingReader;
+import com.example.shorturl.transfer.MappingWriter;
+import com.example.shorturl.transfer.ShortUrlTransferService;
+import com.example.shorturl.transfer.TransferCommand;
+import com.example.shorturl.transfer.TransferFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shorturl.transfer.endpoints.enabled=true")
+class BulkTransferTest {
+
+    private static final int ROWS = 1000;
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private ShortUrlStore store;
+
+    @Autowired
+    private ShortUrlTransferService transferService;
+
+    @Autowired
+    private TransferCommand transferCommand;
+
+    @Test
+    void httpExportStreamsEveryRowAndImportRestoresDeletedOnes() throws IOException {
+        List<String> shortIds = urlService.shortenAll(
+                IntStream.range(0, ROWS).mapToObj(i -> "https://transfer.com/" + i).toList());
+        long rows = store.count();
+
+        Path export = tempDir.resolve("all.ndjson");
+        long start = System.nanoTime();
+        restTemplate.execute("/shorturl/export?format=ndjson", HttpMethod.GET, null, response -> {
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            Files.copy(response.getBody(), export);
+            return null;
+        });
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.printf("NDJSON export over HTTP: %d rows, %d MB in %.1f s (%.0f rows/sec)%n",
+                rows, Files.size(export) >> 20, seconds, rows / seconds);
+
+        // Keep only this test's rows, then delete half of them and import them back
+        Set<String> ours = new HashSet<>(shortIds);
+        Path subset = tempDir.resolve("subset.ndjson");
+        long exported = copy(export, TransferFormat.NDJSON, subset, row -> ours.contains(row.getShortUrl()));
+        assertThat(exported).isEqualTo(rows);
+        shortIds.subList(0, ROWS / 2).forEach(urlService::delete);
+
+        ResponseEntity<Map> imported = restTemplate.postForEntity("/shorturl/import?format=ndjson",
+                new FileSystemResource(subset), Map.class);
+
+        assertThat(imported.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(imported.getBody()).containsEntry("imported", ROWS / 2).containsEntry("skipped", ROWS / 2);
+        ResponseEntity<Void> resolved = restTemplate.getForEntity("/shorturl/" + shortIds.get(0), Void.class);
+        assertThat(resolved.getStatusCode()).isEqualTo(HttpStatus.FOUND);
+        assertThat(resolved.getHeaders().getLocation()).hasToString("https://transfer.com/0");
+    }
+
+    @Test
+    void cliBinaryExportIsCompleteAndDetectsTruncation() throws Exception {
+        long rows = store.count();
+        Path export = tempDir.resolve("all.bin");
+
+        long start = System.nanoTime();
+        transferCommand.run(new DefaultApplicationArguments("--export=" + export, "--format=binary"));
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.printf("Binary export to file: %d rows, %d MB in %.1f s (%.0f rows/sec)%n",
+                rows, Files.size(export) >> 20, seconds, rows / seconds);
+
+        assertThat(copy(export, TransferFormat.BINARY, tempDir.resolve("copy.bin"), row -> true)).isEqualTo(rows);
+
+        byte[] bytes = Files.readAllBytes(export);
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length / 2);
+        assertThatThrownBy(() -> transferService.importFrom(new ByteArrayInputStream(truncated), TransferFormat.BINARY))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("truncated");
+    }
+
+    @Test
+    void importedCounterIdsAreNeverGeneratedAgain() throws IOException {
+        long current = Base62.decode(urlService.shorten("https://counter.com"), 9);
+        // One ID inside this node's leased block and one far beyond it
+        String near = Base62.encode(current + 10, 9);
+        String far = Base62.encode(current + 100_000, 9);
+
+        ShortUrlTransferService.ImportResult result = transferService.importFrom(
+                ndjson(new ShortUrl(near, "https://imported.com/near"), new ShortUrl(far, "https://imported.com/far")),
+                TransferFormat.NDJSON);
+        assertThat(result.imported()).isEqualTo(2);
+
+        // Runs through the rest of the current block and into the next lease without a duplicate key
+        List<String> generated = urlService.shortenAll(
+                IntStream.range(0, 2000).mapToObj(i -> "https://after-import.com/" + i).toList());
+        assertThat(generated).doesNotContain(near, far);
+        assertThat(Base62.decode(generated.get(generated.size() - 1), 9)).isGreaterThan(current + 100_000);
+        assertThat(urlService.resolve(far)).contains("https://imported.com/far");
+    }
+
+    @Test
+    void malformedImportIsRejected() {
+        ResponseEntity<Map> response = restTemplate.postForEntity("/shorturl/import?format=binary",
+                "not an export".getBytes(StandardCharsets.UTF_8), Map.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+        response = restTemplate.postForEntity("/shorturl/import?format=csv", "", Map.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Streams {@code from} into {@code to}, keeping rows that match.
+     *
+     * @return number of rows read
+     */
+    private long copy(Path from, TransferFormat format, Path to, Predicate<ShortUrl> keep)
+            throws IOException {
+        long read = 0;
+        try (InputStream in = Files.newInputStream(from); OutputStream out = Files.newOutputStream(to)) {
+            MappingReader reader = format.openReader(in);
+            MappingWriter writer = format.openWriter(out);
+            ShortUrl row;
+            while ((row = reader.read()) != null) {
+                read++;
+                if (keep.test(row)) {
+                    writer.write(row);
+                }
+            }
+            writer.finish();
+        }
+        return read;
+    }
+
+    private InputStream ndjson(ShortUrl... rows) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MappingWriter writer = TransferFormat.NDJSON.openWriter(bytes);
+        for (ShortUrl row : rows) {
+            writer.write(row);
+        }
+        writer.finish();
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.shorturl;
+
+import com.example.shorturl.repository.ClickStatsRepository;
+import com.example.shorturl.repository.ClickStatsUpserts.ClickDelta;
+import com.example.shorturl.service.ClickRecorder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        // Flush only when the test asks for it
+        properties = "shorturl.clicks.flush-interval=PT1H")
+class ClickStatsTest {
+
+    private static final int REDIRECTS = 200;
+    private static final int THREADS = 4;
+    private static final int RECORDS_PER_THREAD = 1_000_000;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ClickRecorder clickRecorder;
+
+    @Autowired
+    private ClickStatsRepository clickStatsRepository;
+
+    @Test
+    void redirectsAreCountedAndFlushed() {
+        ResponseEntity<Map> created = restTemplate.postForEntity("/shorturl", Map.of("url", "https://clicks.com"), Map.class);
+        String shortId = extractShortId((String) created.getBody().get("shortUrl"));
+        for (int i = 0; i < REDIRECTS; i++) {
+            assertThat(restTemplate.getForEntity("/shorturl/" + shortId, Void.class).getStatusCode()).isEqualTo(HttpStatus.FOUND);
+        }
+
+        // Pending clicks are visible before any flush
+        Map<String, Object> pending = restTemplate.getForObject("/shorturl/" + shortId + "/stats", Map.class);
+        assertThat(((Number) pending.get("clicks")).longValue()).isEqualTo(REDIRECTS);
+
+        // Two flushes move the generation through retired into the table
+        clickRecorder.flush();
+        clickRecorder.flush();
+        Map<String, Object> stored = restTemplate.getForObject("/shorturl/" + shortId + "/stats", Map.class);
+        System.out.println("Stats after flush: " + stored);
+        assertThat(((Number) stored.get("clicks")).longValue()).isEqualTo(REDIRECTS);
+        assertThat(stored.get("lastAccess")).isNotNull();
+
+        Map<String, Object> top = restTemplate.getForObject("/shorturl/stats/top?k=1000", Map.class);
+        List<Map<String, Object>> entries = (List<Map<String, Object>>) top.get("top");
+        assertThat(entries).extracting(e -> e.get("shortId")).contains(shortId);
+        assertThat(entries).extracting(e -> ((Number) e.get("clicks")).longValue())
+                .isSortedAccordingTo((a, b) -> Long.compare(b, a));
+
+        assertThat(restTemplate.getForEntity("/shorturl/neverclicked/stats", Void.class).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void failedFlushWritesNothing() {
+        // 500 good rows fill the first JDBC batch; the second one fails on a null key.
+        // Keys are unique per run: the default datasource is a file that outlives the test.
+        String prefix = "partial-" + System.nanoTime() + "-";
+        List<ClickDelta> deltas = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            deltas.add(new ClickDelta(prefix + i, 1, Instant.now()));
+        }
+        deltas.add(new ClickDelta(null, 1, Instant.now()));
+
+        assertThatThrownBy(() -> clickStatsRepository.addClicks(deltas)).isInstanceOf(RuntimeException.class);
+
+        // The recorder retries the whole list, so the first batch must not have been committed
+        assertThat(clickStatsRepository.findById(prefix + 0)).isEmpty();
+        assertThat(clickStatsRepository.findById(prefix + 499)).isEmpty();
+    }
+
+    @Test
+    void recordingUnderContentionCountsEveryClick() throws Exception {
+        // Same hot ID from every thread: the worst case for a shared counter
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < RECORDS_PER_THREAD; i++) {
+                        clickRecorder.record("hot-key");
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long nanosPerRecord = (System.nanoTime() - start) / ((long) THREADS * RECORDS_PER_THREAD);
+            // Printed only: a per-click bound fails on a loaded machine. A redirect round trip is ~1 ms.
+            System.out.println("record() took " + nanosPerRecord + " ns per click");
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(clickRecorder.stats("hot-key").orElseThrow().clicks())
+                .isGreaterThanOrEqualTo((long) THREADS * RECORDS_PER_THREAD);
+    }
+
+    private String extractShortId(String fullUrl) {
+        // Extract the last segment of the URL path
+        return fullUrl.substring(fullUrl.lastIndexOf('/') + 1);
+    }
+}
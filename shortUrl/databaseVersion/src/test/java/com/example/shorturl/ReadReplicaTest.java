@@ -0,0 +1,118 @@
+package com.example.shorturl;
+
+import com.example.shorturl.replica.ReadReplica;
+import com.example.shorturl.replica.ReplicaRoutingShortUrlStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two in-memory H2 databases stand in for the replicas. The test plays the replication stream
+ * itself: it copies rows from the primary, or holds them back to simulate lag.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shorturl.read-replicas.enabled=true",
+        "shorturl.read-replicas.replicas[0].name=a",
+        "shorturl.read-replicas.replicas[0].url=jdbc:h2:mem:replicaA;DB_CLOSE_DELAY=-1",
+        "shorturl.read-replicas.replicas[1].name=b",
+        "shorturl.read-replicas.replicas[1].url=jdbc:h2:mem:replicaB;DB_CLOSE_DELAY=-1"
+})
+class ReadReplicaTest {
+
+    private static final int LINKS = 200;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ReplicaRoutingShortUrlStore store;
+
+    @Autowired
+    private JdbcTemplate primaryJdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        restTemplate.postForEntity("/shorturl/config/delay?min=0&max=0", null, Void.class);
+        for (ReadReplica replica : store.getReplicas()) {
+            replica.getJdbcTemplate().execute(
+                    "create table if not exists short_urls (short_url varchar(255) primary key, original_url varchar(255))");
+        }
+    }
+
+    @Test
+    void resolvesReadReplicasAndFallBackToPrimaryOnLag() {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < LINKS; i++) {
+            urls.add("https://replicated.com/" + i);
+        }
+        ResponseEntity<Map> batch = restTemplate.postForEntity("/shorturl/batch", urls, Map.class);
+        List<String> shortIds = ((List<String>) batch.getBody().get("shortUrls")).stream().map(this::extractShortId).toList();
+        shortIds.forEach(this::replicate);
+
+        long hitsBefore = store.getReplicaHits();
+        long fallbacksBefore = store.getPrimaryFallbacks();
+        for (String shortId : shortIds) {
+            assertThat(restTemplate.getForEntity("/shorturl/" + shortId, Void.class).getStatusCode()).isEqualTo(HttpStatus.FOUND);
+        }
+        assertThat(store.getReplicaHits() - hitsBefore).isEqualTo(LINKS);
+        assertThat(store.getPrimaryFallbacks() - fallbacksBefore).isZero();
+
+        // Created a moment ago and not replicated yet: found on the primary, never a 404
+        ResponseEntity<Map> created = restTemplate.postForEntity("/shorturl", Map.of("url", "https://fresh.com"), Map.class);
+        String fresh = extractShortId((String) created.getBody().get("shortUrl"));
+        ResponseEntity<Void> resolved = restTemplate.getForEntity("/shorturl/" + fresh, Void.class);
+        assertThat(resolved.getStatusCode()).isEqualTo(HttpStatus.FOUND);
+        assertThat(resolved.getHeaders().getLocation()).hasToString("https://fresh.com");
+        assertThat(store.getPrimaryFallbacks() - fallbacksBefore).isEqualTo(1);
+
+        // Deletes go to the primary; once replicated the link is gone everywhere
+        String deleted = shortIds.get(0);
+        restTemplate.delete("/shorturl/" + deleted);
+        assertThat(primaryJdbcTemplate.queryForObject(
+                "select count(*) from short_urls where short_url = ?", Integer.class, deleted)).isZero();
+        store.getReplicas().forEach(replica ->
+                replica.getJdbcTemplate().update("delete from short_urls where short_url = ?", deleted));
+        assertThat(restTemplate.getForEntity("/shorturl/" + deleted, Void.class).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void brokenReplicaFallsBackToPrimary() {
+        ResponseEntity<Map> created = restTemplate.postForEntity("/shorturl", Map.of("url", "https://outage.com"), Map.class);
+        String shortId = extractShortId((String) created.getBody().get("shortUrl"));
+        store.getReplicas().get(1).getJdbcTemplate().execute("drop table short_urls");
+        try {
+            long errorsBefore = store.getReplicaErrors();
+            // Two reads, so one of them lands on the broken replica
+            for (int i = 0; i < 2; i++) {
+                assertThat(restTemplate.getForEntity("/shorturl/" + shortId, Void.class).getStatusCode()).isEqualTo(HttpStatus.FOUND);
+            }
+            assertThat(store.getReplicaErrors() - errorsBefore).isEqualTo(1);
+        } finally {
+            setUp();
+        }
+    }
+
+    private void replicate(String shortId) {
+        String url = primaryJdbcTemplate.queryForObject(
+                "select original_url from short_urls where short_url = ?", String.class, shortId);
+        for (ReadReplica replica : store.getReplicas()) {
+            replica.getJdbcTemplate().update("insert into short_urls (short_url, original_url) values (?, ?)", shortId, url);
+        }
+    }
+
+    private String extractShortId(String fullUrl) {
+        // Extract the last segment of the URL path
+        return fullUrl.substring(fullUrl.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.shorturl;
+
+import com.example.shorturl.model.ShortUrl;
+import com.example.shorturl.shard.ConsistentHashRing;
+import com.example.shorturl.shard.Shard;
+import com.example.shorturl.shard.ShardEndpoint.ShardDefinition;
+import com.example.shorturl.shard.ShardRebalancer;
+import com.example.shorturl.shard.ShardRingState;
+import com.example.shorturl.shard.ShardRingSync;
+import com.example.shorturl.shard.ShardedShortUrlStore;
+import com.example.shorturl.transfer.MappingWriter;
+import com.example.shorturl.transfer.ShortUrlTransferService;
+import com.example.shorturl.transfer.ShortUrlTransferService.ImportResult;
+import com.example.shorturl.transfer.TransferFormat;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // In memory, so shards added online do not outlive the test
+        "spring.datasource.url=jdbc:h2:mem:shardingMain;DB_CLOSE_DELAY=-1",
+        "shorturl.sharding.enabled=true",
+        "shorturl.sharding.sync-interval=PT0.2S",
+        "shorturl.sharding.member-timeout=PT1S",
+        "shorturl.sharding.virtual-nodes=64",
+        "shorturl.sharding.batch-size=100",
+        "shorturl.sharding.shards[0].name=a",
+        "shorturl.sharding.shards[0].url=jdbc:h2:mem:shardA;DB_CLOSE_DELAY=-1",
+        "shorturl.sharding.shards[1].name=b",
+        "shorturl.sharding.shards[1].url=jdbc:h2:mem:shardB;DB_CLOSE_DELAY=-1"
+})
+class ShardingTest {
+
+    private static final int LINKS = 3000;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ShardRebalancer rebalancer;
+
+    @Autowired
+    private ShardedShortUrlStore store;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShortUrlTransferService transferService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void ringMovesOnlyKeysOfTheNewNode() {
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(List.of("a", "b", "c"), 160, name -> name);
+        ConsistentHashRing<String> grown = ring.with("d");
+        int moved = 0;
+        for (int i = 0; i < 100_000; i++) {
+            String key = "key-" + i;
+            String before = ring.nodeFor(key);
+            String after = grown.nodeFor(key);
+            if (!before.equals(after)) {
+                assertThat(after).isEqualTo("d");
+                assertThat(grown.rangesOwnedBy("d")).anyMatch(range -> range.contains(ConsistentHashRing.hash(key)));
+                moved++;
+            }
+        }
+        System.out.println("Adding a 4th node moved " + moved + " of 100000 keys");
+        // Ideal is 1/4; virtual nodes keep it close
+        assertThat(moved).isBetween(20_000, 30_000);
+    }
+
+    @Test
+    void shortenResolveAndDeleteRouteAcrossShardsAndSurviveRebalance() {
+        restTemplate.postForEntity("/shorturl/config/delay?min=0&max=0", null, Void.class);
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < LINKS; i++) {
+            urls.add("https://sharded.com/" + i);
+        }
+        ResponseEntity<Map> batch = restTemplate.postForEntity("/shorturl/batch", urls, Map.class);
+        List<String> shortIds = new ArrayList<>(((List<String>) batch.getBody().get("shortUrls")).stream()
+                .map(this::extractShortId).toList());
+        ResponseEntity<Map> single = restTemplate.postForEntity("/shorturl", Map.of("url", "https://sharded.com/single"), Map.class);
+        shortIds.add(extractShortId((String) single.getBody().get("shortUrl")));
+
+        Map<String, Number> rows = (Map<String, Number>) restTemplate.getForObject("/actuator/shards", Map.class).get("rows");
+        System.out.println("Rows per shard: " + rows);
+        assertThat(rows.get("a").longValue()).isPositive();
+        assertThat(rows.get("b").longValue()).isPositive();
+        assertThat(rows.get("a").longValue() + rows.get("b").longValue()).isEqualTo(LINKS + 1);
+
+        Map<String, Object> added = restTemplate.postForObject("/actuator/shards",
+                Map.of("name", "c", "url", "jdbc:h2:mem:shardC;DB_CLOSE_DELAY=-1"), Map.class);
+        System.out.println("Added shard: " + added);
+        Map<String, Number> rowsAfter = (Map<String, Number>) added.get("rows");
+        long movedToC = rowsAfter.get("c").longValue();
+        // Roughly a third of the rows, and nothing lost or duplicated
+        assertThat(movedToC).isBetween((LINKS + 1) / 6L, (LINKS + 1) / 2L);
+        assertThat(rowsAfter.values().stream().mapToLong(Number::longValue).sum()).isEqualTo(LINKS + 1);
+        assertThat(rowsAfter.get("a").longValue()).isLessThanOrEqualTo(rows.get("a").longValue());
+        assertThat(rowsAfter.get("b").longValue()).isLessThanOrEqualTo(rows.get("b").longValue());
+
+        for (String shortId : shortIds) {
+            assertThat(restTemplate.getForEntity("/shorturl/" + shortId, Void.class).getStatusCode())
+                    .isEqualTo(HttpStatus.FOUND);
+        }
+
+        String deleted = shortIds.get(0);
+        restTemplate.delete("/shorturl/" + deleted);
+        assertThat(restTemplate.getForEntity("/shorturl/" + deleted, Void.class).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void otherInstancesRouteByAShardAddedOnline() throws Exception {
+        // A second instance on the same main datasource and shards
+        ShardedShortUrlStore other = new ShardedShortUrlStore(
+                new ConsistentHashRing<>(List.of(shard("a", "shardA"), shard("b", "shardB")), 64, Shard::getName), 100);
+        ShardRingSync otherSync = new ShardRingSync(other, new ShardRingState(jdbcTemplate, transactionTemplate),
+                definition -> new Shard(definition.name(), dataSource(definition.url())), 64, Duration.ofSeconds(1));
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            otherSync.sync();
+            scheduler.scheduleWithFixedDelay(otherSync::scheduledSync, 0, 100, TimeUnit.MILLISECONDS);
+
+            rebalancer.addShard(new ShardDefinition("d", "jdbc:h2:mem:shardD;DB_CLOSE_DELAY=-1"));
+
+            // Only the name and URL are shared; credentials stay in each instance's configuration
+            assertThat(jdbcTemplate.queryForList(
+                    "select lower(column_name) from information_schema.columns where lower(table_name) = 'shard_ring'",
+                    String.class)).doesNotContain("username", "password");
+
+            // The add waited for the other instance, so it already writes to the new shard
+            assertThat(other.getShards()).extracting(Shard::getName).contains("d");
+            String onD = idOwnedBy(other, "d");
+            other.save(new ShortUrl(onD, "https://sharded.com/other"));
+            Shard d = other.getShards().stream().filter(shard -> shard.getName().equals("d")).findFirst().orElseThrow();
+            assertThat(other.count(d)).isPositive();
+            assertThat(restTemplate.getForEntity("/shorturl/" + onD, Void.class).getStatusCode())
+                    .isEqualTo(HttpStatus.FOUND);
+
+            // An instance that stops syncing stops writing
+            scheduler.shutdownNow();
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            Thread.sleep(1200);
+            assertThatThrownBy(() -> other.save(new ShortUrl(idOwnedBy(other, "a"), "https://sharded.com/stale")))
+                    .isInstanceOf(IllegalStateException.class);
+            otherSync.sync();
+            other.save(new ShortUrl(idOwnedBy(other, "a"), "https://sharded.com/fresh"));
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    void shardAddedOnlineAndAlsoConfiguredIsInTheRingOnce() {
+        // Its own ring state, so the other tests do not see the extra entry
+        HikariDataSource main = dataSource("jdbc:h2:mem:shardingConfiguredTwice;DB_CLOSE_DELAY=-1");
+        ShardRingState state = new ShardRingState(new JdbcTemplate(main),
+                new TransactionTemplate(new DataSourceTransactionManager(main)));
+        state.createSchema();
+        state.beginAdd("b", "jdbc:h2:mem:shardB;DB_CLOSE_DELAY=-1");
+        state.finishAdd("b");
+        // Restarted with the shard added to the configuration as well
+        ShardedShortUrlStore restarted = new ShardedShortUrlStore(
+                new ConsistentHashRing<>(List.of(shard("a", "shardA"), shard("b", "shardB")), 64, Shard::getName), 100);
+        ShardRingSync restartedSync = new ShardRingSync(restarted, state,
+                definition -> new Shard(definition.name(), dataSource(definition.url())), 64, Duration.ofSeconds(1));
+        try {
+            restartedSync.sync();
+
+            assertThat(restarted.getShards()).extracting(Shard::getName).containsExactly("a", "b");
+            List<String> scanned = new ArrayList<>();
+            restarted.forEachShortId(scanned::add);
+            assertThat(scanned).doesNotHaveDuplicates().hasSize((int) restarted.count());
+        } finally {
+            restarted.close();
+            main.close();
+        }
+    }
+
+    @Test
+    void onlyStoreMethodsAreTimedAsRepositoryCalls() {
+        store.existsById("timed-" + System.nanoTime());
+        // Runs on every ring sync, but is not part of ShortUrlStore
+        store.allowWritesUntil(System.nanoTime() + Duration.ofSeconds(1).toNanos());
+
+        assertThat(meterRegistry.find("shorturl.repository").tag("method", "existsById").timer()).isNotNull();
+        assertThat(meterRegistry.find("shorturl.repository").timers())
+                .extracting(timer -> timer.getId().getTag("method"))
+                .doesNotContain("allowWritesUntil", "getRouting", "setRouting", "getShards");
+    }
+
+    @Test
+    void shardScansRunInReadOnlyTransactions() {
+        List<String> scanned = store.getShards().stream().map(shard -> idOwnedBy(store, shard.getName())).toList();
+        scanned.forEach(shortId -> store.save(new ShortUrl(shortId, "https://scanned.com")));
+        Set<Boolean> readOnly = new HashSet<>();
+        try {
+            store.forEachShortId(id -> readOnly.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly()));
+            store.forEachMapping(mapping -> readOnly.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly()));
+        } finally {
+            // The other tests count rows per shard
+            scanned.forEach(store::deleteById);
+        }
+        assertThat(readOnly).containsExactly(true);
+    }
+
+    @Test
+    void failedBatchLeavesNothingOnAnyShard() {
+        String existing = idOwnedBy(store, "b");
+        store.save(new ShortUrl(existing, "https://sharded.com/existing"));
+        // a is written first; b gets more rows than one JDBC batch (100) before the duplicate
+        List<ShortUrl> batch = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            batch.add(new ShortUrl(idOwnedBy(store, "a"), "https://sharded.com/failed-a"));
+        }
+        for (int i = 0; i < 150; i++) {
+            batch.add(new ShortUrl(idOwnedBy(store, "b"), "https://sharded.com/failed-b"));
+        }
+        batch.add(new ShortUrl(existing, "https://sharded.com/duplicate"));
+        try {
+            assertThatThrownBy(() -> store.insertAll(batch)).isInstanceOf(DataIntegrityViolationException.class);
+
+            assertThat(batch.subList(0, batch.size() - 1)).noneMatch(row -> store.existsById(row.getShortUrl()));
+            assertThat(store.findById(existing)).get().extracting(ShortUrl::getOriginalUrl)
+                    .isEqualTo("https://sharded.com/existing");
+        } finally {
+            store.deleteById(existing);
+        }
+    }
+
+    @Test
+    void reimportOfAPartlyOverlappingFileCountsOnlyExistingRowsAsSkipped() throws Exception {
+        // The overlap is on b only, so a's rows are written before b's duplicates fail the batch
+        List<ShortUrl> overlap = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            overlap.add(new ShortUrl(idOwnedBy(store, "b"), "https://sharded.com/overlap"));
+        }
+        overlap.forEach(store::save);
+        List<ShortUrl> file = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            file.add(new ShortUrl(idOwnedBy(store, i % 2 == 0 ? "a" : "b"), "https://sharded.com/imported"));
+        }
+        file.addAll(overlap);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MappingWriter writer = TransferFormat.NDJSON.openWriter(bytes);
+        for (ShortUrl row : file) {
+            writer.write(row);
+        }
+        writer.finish();
+
+        try {
+            ImportResult result = transferService.importFrom(new ByteArrayInputStream(bytes.toByteArray()),
+                    TransferFormat.NDJSON);
+
+            assertThat(result).isEqualTo(new ImportResult(30, 5));
+            assertThat(file).allMatch(row -> store.existsById(row.getShortUrl()));
+        } finally {
+            // The other tests count rows per shard
+            file.forEach(row -> store.deleteById(row.getShortUrl()));
+        }
+    }
+
+    private static String idOwnedBy(ShardedShortUrlStore store, String shardName) {
+        for (int i = 0; ; i++) {
+            String shortId = "other-" + shardName + "-" + System.nanoTime() + "-" + i;
+            if (store.getRouting().ring().nodeFor(shortId).getName().equals(shardName)) {
+                return shortId;
+            }
+        }
+    }
+
+    private static Shard shard(String name, String database) {
+        return new Shard(name, dataSource("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1"));
+    }
+
+    private static HikariDataSource dataSource(String url) {
+        return DataSourceBuilder.create().type(HikariDataSource.class).url(url).build();
+    }
+
+    private String extractShortId(String fullUrl) {
+        // Extract the last segment of the URL path
+        return fullUrl.substring(fullUrl.lastIndexOf('/') + 1);
+    }
+}
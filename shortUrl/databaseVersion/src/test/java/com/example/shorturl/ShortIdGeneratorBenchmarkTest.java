@@ -0,0 +1,102 @@
+package com.example.shorturl;
+
+import com.example.shorturl.model.ShortUrl;
+import com.example.shorturl.repository.IdSequenceRepository;
+import com.example.shorturl.repository.ShortUrlStore;
+import com.example.shorturl.service.BlockLeasingShortIdGenerator;
+import com.example.shorturl.service.IdBlockAllocator;
+import com.example.shorturl.service.RandomShortIdGenerator;
+import com.example.shorturl.service.ShortIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares creates per second of the random UUID + existsById path against the
+ * block-leased counter path. Both write through the same store. The rates are only
+ * printed; what is asserted is the number of {@code id_sequences} round trips.
+ */
+@SpringBootTest
+class ShortIdGeneratorBenchmarkTest {
+
+    private static final int WARMUP = 500;
+    private static final int CREATES = 5000;
+    private static final int IDS = 10_000;
+    private static final int BLOCK_SIZE = 1000;
+
+    @Autowired
+    private ShortUrlStore store;
+
+    @Autowired
+    private IdBlockAllocator allocator;
+
+    @Autowired
+    private IdSequenceRepository idSequenceRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void blockLeasingNeedsOneSequenceRoundTripPerBlock() {
+        AtomicInteger reservations = new AtomicInteger();
+        IdBlockAllocator counting = new IdBlockAllocator(idSequenceRepository, transactionTemplate) {
+            @Override
+            public long reserve(String sequenceName, int size) {
+                reservations.incrementAndGet();
+                return super.reserve(sequenceName, size);
+            }
+        };
+        ShortIdGenerator block = new BlockLeasingShortIdGenerator(counting, BLOCK_SIZE);
+
+        for (int i = 0; i < IDS; i++) {
+            block.nextId();
+        }
+
+        // The random generator needs one existsById per ID instead
+        assertThat(reservations.get()).isEqualTo(IDS / BLOCK_SIZE);
+    }
+
+    @Test
+    void printCreateRates() {
+        ShortIdGenerator random = new RandomShortIdGenerator(store);
+        ShortIdGenerator block = new BlockLeasingShortIdGenerator(allocator, BLOCK_SIZE);
+
+        createAll(random, WARMUP);
+        createAll(block, WARMUP);
+
+        double randomRate = createAll(random, CREATES);
+        double blockRate = createAll(block, CREATES);
+
+        System.out.printf("Random (UUID + existsById): %.0f creates/sec%n", randomRate);
+        System.out.printf("Block-leased counter:       %.0f creates/sec%n", blockRate);
+    }
+
+    @Test
+    void blockLeasingIdsAreUnique() {
+        ShortIdGenerator block = new BlockLeasingShortIdGenerator(allocator, 10);
+
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            ids.add(block.nextId());
+        }
+
+        assertThat(ids).hasSize(100);
+        assertThat(ids).allSatisfy(id -> assertThat(id).hasSize(9).matches("[0-9A-Za-z]+"));
+    }
+
+    private double createAll(ShortIdGenerator generator, int count) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            store.save(new ShortUrl(generator.nextId(), "https://benchmark.com/" + i));
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        return count / (elapsedNanos / 1_000_000_000.0);
+    }
+}
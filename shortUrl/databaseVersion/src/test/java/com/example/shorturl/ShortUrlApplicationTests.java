@@ -1,11 +1,13 @@
 package com.example.shorturl;
 
+import com.example.shorturl.repository.ShortUrlRepository;
 import com.example.shorturl.service.UrlService;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
@@ -13,12 +15,17 @@ import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+// Tests switch metrics export off by default; needed for /actuator/prometheus
+@AutoConfigureObservability
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class ShortUrlApplicationTests {
@@ -29,6 +36,9 @@ class ShortUrlApplicationTests {
     @Autowired
     private UrlService urlService;
 
+    @Autowired
+    private ShortUrlRepository shortUrlRepository;
+
     @LocalServerPort
     private int port;
 
@@ -62,6 +72,19 @@ class ShortUrlApplicationTests {
 
     @Test
     @Order(3)
+    void prometheusExposesRequestPathMetrics() {
+        String metrics = restTemplate.getForObject("/actuator/prometheus", String.class);
+
+        // Histogram buckets for the service and store calls made by the tests above
+        assertThat(metrics).containsPattern("shorturl_service_seconds_bucket\\{.*method=\"resolve\"");
+        assertThat(metrics).containsPattern("shorturl_service_seconds_count\\{.*method=\"shorten\"");
+        assertThat(metrics).contains("shorturl_repository_seconds_count{");
+        assertThat(metrics).contains("shorturl_delay_configured_seconds{");
+        assertThat(metrics).contains("shorturl_delay_injected_seconds_count{");
+    }
+
+    @Test
+    @Order(4)
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
     void verifyDataPersistenceAfterRestart() {
         // @DirtiesContext BEFORE_METHOD forces Spring to reload the context before this
@@ -81,6 +104,16 @@ class ShortUrlApplicationTests {
         assertThat(response.getHeaders().getLocation()).hasToString("https://google.com");
     }
 
+    @Test
+    void idScansRunInReadOnlyTransactions() {
+        urlService.shorten("https://scanned.com");
+        // Outside a transaction PostgreSQL would ignore the fetch size and load every row at once
+        Set<Boolean> readOnly = new HashSet<>();
+        shortUrlRepository.forEachShortId(id -> readOnly.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly()));
+        shortUrlRepository.forEachMapping(mapping -> readOnly.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly()));
+        assertThat(readOnly).containsExactly(true);
+    }
+
     private String extractShortId(String fullUrl) {
         // Extract the last segment of the URL path
         return fullUrl.substring(fullUrl.lastIndexOf('/') + 1);
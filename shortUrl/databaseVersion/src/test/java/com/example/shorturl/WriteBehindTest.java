@@ -0,0 +1,150 @@
+package com.example.shorturl;
+
+import com.example.shorturl.model.ShortUrl;
+import com.example.shorturl.repository.ShortUrlStore;
+import com.example.shorturl.writebehind.WriteBehindWriter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        // Drain only when the test asks for it
+        properties = {"shorturl.write-behind.enabled=true", "shorturl.write-behind.flush-interval=PT1H"})
+class WriteBehindTest {
+
+    private static final int URLS = 500;
+    private static final int THREADS = 16;
+    private static final Path LOG_DIR = createTempDir();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private WriteBehindWriter writeBehind;
+
+    @Autowired
+    private ShortUrlStore store;
+
+    @DynamicPropertySource
+    static void logPath(DynamicPropertyRegistry registry) {
+        registry.add("shorturl.write-behind.log-path", () -> LOG_DIR.resolve("app.log").toString());
+    }
+
+    @Test
+    void shortenIsReadableBeforeDrainAndPersistedAfter() {
+        List<String> shortIds = new ArrayList<>();
+        for (int i = 0; i < URLS; i++) {
+            ResponseEntity<Map> created = restTemplate.postForEntity("/shorturl", Map.of("url", "https://wb.com/" + i), Map.class);
+            shortIds.add(extractShortId((String) created.getBody().get("shortUrl")));
+        }
+
+        assertThat(store.existsById(shortIds.get(0))).isFalse();
+        assertThat(writeBehind.getPendingCount()).isGreaterThanOrEqualTo(URLS);
+        ResponseEntity<Void> redirect = restTemplate.getForEntity("/shorturl/" + shortIds.get(0), Void.class);
+        assertThat(redirect.getStatusCode()).isEqualTo(HttpStatus.FOUND);
+        assertThat(redirect.getHeaders().getLocation().toString()).isEqualTo("https://wb.com/0");
+
+        // Deleted before drain: must not be written back
+        restTemplate.delete("/shorturl/" + shortIds.get(1));
+
+        writeBehind.drain();
+        assertThat(writeBehind.getPendingCount()).isZero();
+        assertThat(shortIds.subList(2, URLS)).allMatch(store::existsById);
+        assertThat(store.existsById(shortIds.get(1))).isFalse();
+        assertThat(restTemplate.getForEntity("/shorturl/" + shortIds.get(1), Void.class).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(restTemplate.getForEntity("/shorturl/" + shortIds.get(2), Void.class).getStatusCode())
+                .isEqualTo(HttpStatus.FOUND);
+    }
+
+    @Test
+    void restartReplaysEntriesThatWereNotDrained() throws IOException {
+        Path logPath = LOG_DIR.resolve("crash.log");
+        WriteBehindWriter crashed = new WriteBehindWriter(store, logPath, 100);
+        crashed.recover();
+        List<ShortUrl> shortUrls = new ArrayList<>();
+        for (int i = 0; i < URLS; i++) {
+            shortUrls.add(new ShortUrl("replay" + UUID.randomUUID(), "https://replay.com/" + i));
+        }
+        crashed.saveAll(shortUrls.subList(0, 100));
+        crashed.drain();
+        // Never drained: only in the log when the process "dies"
+        crashed.saveAll(shortUrls.subList(100, URLS));
+        crashed.delete(shortUrls.get(0).getShortUrl());
+        // Half-written record at the tail
+        Files.write(logPath, new byte[] {0, 0, 1, 0, 42}, StandardOpenOption.APPEND);
+
+        WriteBehindWriter restarted = new WriteBehindWriter(store, logPath, 100);
+        restarted.recover();
+
+        assertThat(restarted.getPendingCount()).isZero();
+        assertThat(store.existsById(shortUrls.get(0).getShortUrl())).isFalse();
+        assertThat(shortUrls.subList(1, URLS)).allMatch(shortUrl -> store.existsById(shortUrl.getShortUrl()));
+        assertThat(store.findById(shortUrls.get(URLS - 1).getShortUrl()).map(ShortUrl::getOriginalUrl))
+                .contains("https://replay.com/" + (URLS - 1));
+        restarted.close();
+    }
+
+    @Test
+    void concurrentWritersShareFsyncs() throws Exception {
+        long writeBehindMicros = timeConcurrentSaves(writeBehind::save, "wb");
+        long syncMicros = timeConcurrentSaves(store::save, "sync");
+        System.out.println("Concurrent saves took " + writeBehindMicros + " us/row via write-behind log, "
+                + syncMicros + " us/row via direct insert");
+        writeBehind.drain();
+    }
+
+    private long timeConcurrentSaves(Consumer<ShortUrl> save, String prefix) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < URLS / THREADS; i++) {
+                        save.accept(new ShortUrl(prefix + UUID.randomUUID(), "https://concurrent.com/" + i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return (System.nanoTime() - start) / 1000 / URLS;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private String extractShortId(String shortUrl) {
+        return shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+    }
+
+    private static Path createTempDir() {
+        try {
+            return Files.createTempDirectory("shortUrl-write-behind");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
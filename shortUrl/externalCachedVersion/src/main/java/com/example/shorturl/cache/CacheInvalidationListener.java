@@ -0,0 +1,38 @@
+package com.example.shorturl.cache;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Drops keys from this node's L1 when any node (including this one) evicts them.
+ * Evicting our own key a second time is harmless, so messages are not filtered by sender.
+ */
+public class CacheInvalidationListener implements MessageListener {
+
+    private final TwoLevelCacheManager cacheManager;
+
+    public CacheInvalidationListener(TwoLevelCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(CacheInvalidationPublisher.SEPARATOR);
+        if (separator < 0) {
+            return;
+        }
+        TwoLevelCache cache = cacheManager.getExistingCache(body.substring(0, separator));
+        if (cache == null) {
+            return;
+        }
+        String key = body.substring(separator + 1);
+        if (key.isEmpty()) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(key);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.shorturl.cache;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Broadcasts L1 invalidations over Redis pub/sub.
+ * Message format: {@code <cacheName>|<key>} for one key, {@code <cacheName>|} to clear the whole cache.
+ */
+public class CacheInvalidationPublisher {
+
+    public static final String CHANNEL = "shorturl:cache-invalidation";
+    static final char SEPARATOR = '|';
+
+    private final StringRedisTemplate redisTemplate;
+
+    public CacheInvalidationPublisher(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public void publishEvict(String cacheName, Object key) {
+        redisTemplate.convertAndSend(CHANNEL, cacheName + SEPARATOR + key);
+    }
+
+    public void publishClear(String cacheName) {
+        redisTemplate.convertAndSend(CHANNEL, cacheName + SEPARATOR);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.shorturl.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min Sketch: approximate per-key counts in fixed memory.
+ * Estimates never undercount; they overcount by at most {@code total * e / width}
+ * with probability {@code 1 - e^-depth}.
+ *
+ * <p>Thread-safe: counters are updated with atomic increments, so concurrent
+ * adds are never lost, and {@link #halve()} can run alongside them.
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    /**
+     * @param width counters per row, rounded up to a power of two
+     * @param depth number of rows (independent hash functions)
+     */
+    public CountMinSketch(int width, int depth) {
+        int roundedWidth = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.depth = depth;
+        this.mask = roundedWidth - 1;
+        this.counters = new AtomicLongArray(roundedWidth * depth);
+    }
+
+    /**
+     * Counts one occurrence of the key and returns its new estimate.
+     */
+    public long add(Object key) {
+        long hash = mix(key.hashCode());
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int column = (h1 + row * h2) & mask;
+            estimate = Math.min(estimate, counters.incrementAndGet(row * (mask + 1) + column));
+        }
+        return estimate;
+    }
+
+    public long estimate(Object key) {
+        long hash = mix(key.hashCode());
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int column = (h1 + row * h2) & mask;
+            estimate = Math.min(estimate, counters.get(row * (mask + 1) + column));
+        }
+        return estimate;
+    }
+
+    /**
+     * Halves every counter, so old traffic fades out and the sketch tracks recent rates.
+     */
+    public void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            long value;
+            do {
+                value = counters.get(i);
+            } while (value != 0 && !counters.compareAndSet(i, value, value >>> 1));
+        }
+    }
+
+    // murmur3 fmix64, spreads String.hashCode() over both 32-bit halves
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        // Odd second hash so the rows probe different columns
+        return h | 1L << 32;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.shorturl.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pins hot keys in a small local cache in front of the shared one, so the few links
+ * that get most of the traffic stop hitting a single Redis key (and shard).
+ *
+ * <p>Pins expire after a short TTL. An eviction on this node unpins immediately;
+ * other nodes keep serving their pinned copy for at most that TTL.
+ */
+public class HotKeyCache implements org.springframework.cache.Cache {
+
+    private final org.springframework.cache.Cache delegate;
+    private final HotKeyDetector detector;
+    private final Cache<Object, ValueWrapper> pinned;
+
+    private final LongAdder pinnedHits = new LongAdder();
+
+    public HotKeyCache(org.springframework.cache.Cache delegate, HotKeyDetector detector,
+            Cache<Object, ValueWrapper> pinned) {
+        this.delegate = delegate;
+        this.detector = detector;
+        this.pinned = pinned;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        boolean hot = detector.record(key);
+        ValueWrapper value = pinned.getIfPresent(key);
+        if (value != null) {
+            pinnedHits.increment();
+            return value;
+        }
+        value = delegate.get(key);
+        if (value != null && hot) {
+            pinned.put(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        if (value == null) {
+            return null;
+        }
+        Object stored = value.get();
+        if (stored != null && type != null && !type.isInstance(stored)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + stored);
+        }
+        return (T) stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper value = get(key);
+        if (value != null) {
+            return (T) value.get();
+        }
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        pinned.invalidate(key);
+        delegate.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        pinned.invalidate(key);
+        delegate.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        pinned.invalidateAll();
+        delegate.clear();
+    }
+
+    public long getPinnedHits() {
+        return pinnedHits.sum();
+    }
+
+    public long getPinnedSize() {
+        return pinned.estimatedSize();
+    }
+}
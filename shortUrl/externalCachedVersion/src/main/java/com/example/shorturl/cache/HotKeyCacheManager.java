@@ -0,0 +1,55 @@
+package com.example.shorturl.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Wraps every cache of the configured cache manager (Redis, or the near cache) in a {@link HotKeyCache}.
+ * The delegate is looked up lazily because caching infrastructure is resolved before regular beans.
+ */
+public class HotKeyCacheManager implements CacheManager {
+
+    private final Supplier<CacheManager> delegate;
+    private final HotKeyDetector detector;
+    private final int capacity;
+    private final Duration pinTtl;
+    private final ConcurrentMap<String, HotKeyCache> caches = new ConcurrentHashMap<>();
+
+    public HotKeyCacheManager(Supplier<CacheManager> delegate, HotKeyDetector detector, int capacity, Duration pinTtl) {
+        this.delegate = delegate;
+        this.detector = detector;
+        this.capacity = capacity;
+        this.pinTtl = pinTtl;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, cacheName -> {
+            Cache target = delegate.get().getCache(cacheName);
+            return target == null ? null : new HotKeyCache(target, detector, Caffeine.newBuilder()
+                    .maximumSize(capacity)
+                    .expireAfterWrite(pinTtl)
+                    .build());
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.get().getCacheNames();
+    }
+
+    public HotKeyDetector getDetector() {
+        return detector;
+    }
+
+    public Collection<HotKeyCache> getCaches() {
+        return caches.values();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.shorturl.cache;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming heavy-hitter detection over cache reads.
+ *
+ * <p>Every read is counted in a {@link CountMinSketch}; a key whose estimate reaches
+ * {@code threshold} joins the hot set (up to {@code capacity} keys). Every {@code window}
+ * the sketch is halved and keys that dropped below the threshold leave the hot set, so a
+ * key stays hot while it keeps getting about {@code threshold / 2} reads per window.
+ */
+public class HotKeyDetector {
+
+    private final CountMinSketch sketch;
+    private final long threshold;
+    private final int capacity;
+    private final Map<Object, Long> hotKeys = new ConcurrentHashMap<>();
+
+    public HotKeyDetector(CountMinSketch sketch, long threshold, int capacity) {
+        this.sketch = sketch;
+        this.threshold = threshold;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Counts a read of the key and returns whether it is hot.
+     */
+    public boolean record(Object key) {
+        long estimate = sketch.add(key);
+        if (estimate < threshold) {
+            return false;
+        }
+        if (hotKeys.containsKey(key)) {
+            hotKeys.put(key, estimate);
+            return true;
+        }
+        // Full: newcomers wait for the next decay to free a slot
+        if (hotKeys.size() >= capacity) {
+            return false;
+        }
+        hotKeys.put(key, estimate);
+        return true;
+    }
+
+    public boolean isHot(Object key) {
+        return hotKeys.containsKey(key);
+    }
+
+    @Scheduled(fixedRateString = "${shorturl.cache.hot-keys.window:PT10S}")
+    public void decay() {
+        sketch.halve();
+        hotKeys.replaceAll((key, estimate) -> sketch.estimate(key));
+        hotKeys.values().removeIf(estimate -> estimate < threshold);
+    }
+
+    /**
+     * Hot keys with their estimated (decayed) read counts, hottest first.
+     */
+    public Map<Object, Long> hotKeys() {
+        Map<Object, Long> sorted = new LinkedHashMap<>();
+        hotKeys.entrySet().stream()
+                .sorted(Map.Entry.<Object, Long>comparingByValue(Comparator.reverseOrder()))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    public long getThreshold() {
+        return threshold;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.shorturl.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/hotkeys}: the current hot set and how many reads the pins kept off Redis.
+ */
+@Endpoint(id = "hotkeys")
+public class HotKeyEndpoint {
+
+    private final HotKeyDetector detector;
+    private final HotKeyCacheManager cacheManager;
+
+    public HotKeyEndpoint(HotKeyDetector detector, HotKeyCacheManager cacheManager) {
+        this.detector = detector;
+        this.cacheManager = cacheManager;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        long redisCallsSaved = 0;
+        long pinned = 0;
+        for (HotKeyCache cache : cacheManager.getCaches()) {
+            redisCallsSaved += cache.getPinnedHits();
+            pinned += cache.getPinnedSize();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threshold", detector.getThreshold());
+        stats.put("hotKeys", detector.hotKeys());
+        stats.put("pinned", pinned);
+        stats.put("redisCallsSaved", redisCallsSaved);
+        return stats;
+    }
+}
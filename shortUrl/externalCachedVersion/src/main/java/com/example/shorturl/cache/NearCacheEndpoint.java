@@ -0,0 +1,48 @@
+package com.example.shorturl.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/nearcache}: L1/L2 hit ratios per cache.
+ * Every L1 hit is a Redis round trip saved.
+ */
+@Endpoint(id = "nearcache")
+public class NearCacheEndpoint {
+
+    private final TwoLevelCacheManager cacheManager;
+
+    public NearCacheEndpoint(TwoLevelCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> stats() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (TwoLevelCache cache : cacheManager.getCaches()) {
+            long l1Hits = cache.getL1Hits();
+            long l2Hits = cache.getL2Hits();
+            long misses = cache.getMisses();
+            long requests = l1Hits + l2Hits + misses;
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", requests);
+            stats.put("l1Hits", l1Hits);
+            stats.put("l2Hits", l2Hits);
+            stats.put("misses", misses);
+            stats.put("l1HitRatio", ratio(l1Hits, requests));
+            // L2 ratio is over the requests that actually reached Redis
+            stats.put("l2HitRatio", ratio(l2Hits, l2Hits + misses));
+            stats.put("redisCallsSaved", l1Hits);
+            result.put(cache.getName(), stats);
+        }
+        return result;
+    }
+
+    private double ratio(long part, long total) {
+        return total == 0 ? 0.0 : (double) part / total;
+    }
+}
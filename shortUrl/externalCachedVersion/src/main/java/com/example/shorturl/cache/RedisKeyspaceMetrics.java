@@ -0,0 +1,44 @@
+package com.example.shorturl.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.util.Properties;
+
+/**
+ * Redis-side cache evictions, which the Redis cache manager cannot see: {@code redis.keys.expired}
+ * (TTL reached) and {@code redis.keys.evicted} (dropped under {@code maxmemory}), read from
+ * {@code INFO stats} on each scrape. They are server-wide, not per cache.
+ */
+public class RedisKeyspaceMetrics implements MeterBinder {
+
+    private final RedisConnectionFactory connectionFactory;
+
+    public RedisKeyspaceMetrics(RedisConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("redis.keys.expired", this, metrics -> metrics.stat("expired_keys"))
+                .description("Keys removed by Redis because their TTL was reached")
+                .register(registry);
+        FunctionCounter.builder("redis.keys.evicted", this, metrics -> metrics.stat("evicted_keys"))
+                .description("Keys removed by Redis to stay under maxmemory")
+                .register(registry);
+    }
+
+    private double stat(String name) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            Properties stats = connection.serverCommands().info("stats");
+            String value = stats == null ? null : stats.getProperty(name);
+            return value == null ? Double.NaN : Double.parseDouble(value);
+        } catch (RuntimeException e) {
+            // Redis down: report no value rather than fail the scrape
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.shorturl.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Near cache: a per-node L1 (Caffeine) in front of the shared L2 (Redis).
+ * Reads check L1 first and only go to Redis on an L1 miss.
+ * Evictions go to both levels and are broadcast so other nodes drop their L1 copy.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final Cache l1;
+    private final Cache l2;
+    private final CacheInvalidationPublisher publisher;
+
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+
+    // Bumped by every L1 invalidation, so an L2 hit read before one is not promoted over it
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TwoLevelCache(Cache l1, Cache l2, CacheInvalidationPublisher publisher) {
+        this.l1 = l1;
+        this.l2 = l2;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public String getName() {
+        return l2.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = l1.get(key);
+        if (value != null) {
+            l1Hits.increment();
+            return value;
+        }
+        long epoch = invalidations.get();
+        value = l2.get(key);
+        if (value != null) {
+            l2Hits.increment();
+            l1.put(key, value.get());
+            if (invalidations.get() != epoch) {
+                // An eviction landed while we read L2; the value may be the one it removed
+                l1.evict(key);
+            }
+            return value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        if (value == null) {
+            return null;
+        }
+        Object stored = value.get();
+        if (stored != null && type != null && !type.isInstance(stored)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + stored);
+        }
+        return (T) stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper value = get(key);
+        if (value != null) {
+            return (T) value.get();
+        }
+        try {
+            T loaded = valueLoader.call();
+            put(key, loaded);
+            return loaded;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        l2.put(key, value);
+        l1.put(key, value);
+        puts.increment();
+    }
+
+    @Override
+    public void evict(Object key) {
+        l2.evict(key);
+        invalidations.incrementAndGet();
+        l1.evict(key);
+        publisher.publishEvict(getName(), key);
+    }
+
+    @Override
+    public void clear() {
+        l2.clear();
+        invalidations.incrementAndGet();
+        l1.clear();
+        publisher.publishClear(getName());
+    }
+
+    /**
+     * Drops the key from this node's L1 only. Called when another node broadcasts an eviction.
+     */
+    public void evictLocal(Object key) {
+        invalidations.incrementAndGet();
+        l1.evict(key);
+    }
+
+    public void clearLocal() {
+        invalidations.incrementAndGet();
+        l1.clear();
+    }
+
+    public long getL1Hits() {
+        return l1Hits.sum();
+    }
+
+    public long getL2Hits() {
+        return l2Hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getPuts() {
+        return puts.sum();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.shorturl.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Builds a {@link TwoLevelCache} per cache name from a Caffeine (L1) and a Redis (L2) cache manager.
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CaffeineCacheManager l1Manager;
+    private final RedisCacheManager l2Manager;
+    private final CacheInvalidationPublisher publisher;
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CaffeineCacheManager l1Manager, RedisCacheManager l2Manager,
+            CacheInvalidationPublisher publisher) {
+        this.l1Manager = l1Manager;
+        this.l2Manager = l2Manager;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name,
+                cacheName -> new TwoLevelCache(l1Manager.getCache(cacheName), l2Manager.getCache(cacheName), publisher));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return caches.keySet();
+    }
+
+    public Collection<TwoLevelCache> getCaches() {
+        return caches.values();
+    }
+
+    /**
+     * Returns the cache only if it was already created on this node; there is no L1 to invalidate otherwise.
+     */
+    public TwoLevelCache getExistingCache(String name) {
+        return caches.get(name);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.shorturl.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Standard {@code cache.gets}/{@code cache.puts} meters for a {@link TwoLevelCache}, where a hit on either
+ * level counts as a hit, plus {@code cache.near.hits} split by {@code level}.
+ */
+public class TwoLevelCacheMetrics extends CacheMeterBinder<TwoLevelCache> {
+
+    public TwoLevelCacheMetrics(TwoLevelCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+    }
+
+    @Override
+    protected Long size() {
+        return null;
+    }
+
+    @Override
+    protected long hitCount() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? 0 : cache.getL1Hits() + cache.getL2Hits();
+    }
+
+    @Override
+    protected Long missCount() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? null : cache.getMisses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        // Expiry happens inside Caffeine and Redis; see the L1 spec and RedisKeyspaceMetrics
+        return null;
+    }
+
+    @Override
+    protected long putCount() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? 0 : cache.getPuts();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        TwoLevelCache cache = getCache();
+        FunctionCounter.builder("cache.near.hits", cache, TwoLevelCache::getL1Hits)
+                .tags(getTagsWithCacheName())
+                .tag("level", "l1")
+                .description("Hits served from the node-local Caffeine cache")
+                .register(registry);
+        FunctionCounter.builder("cache.near.hits", cache, TwoLevelCache::getL2Hits)
+                .tags(getTagsWithCacheName())
+                .tag("level", "l2")
+                .description("Hits served from Redis after an L1 miss")
+                .register(registry);
+    }
+}
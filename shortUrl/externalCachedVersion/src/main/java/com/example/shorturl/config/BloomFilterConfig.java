@@ -0,0 +1,31 @@
+package com.example.shorturl.config;
+
+import com.example.shorturl.service.ShortIdFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bloom filter mode ({@code shorturl.bloom-filter.enabled=true}): subscribes to the IDs other nodes
+ * create, so this node's filter does not reject them until its next rebuild.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shorturl.bloom-filter.enabled", havingValue = "true")
+public class BloomFilterConfig {
+
+    @Bean
+    public RedisMessageListenerContainer shortIdFilterListenerContainer(RedisConnectionFactory connectionFactory,
+            ShortIdFilter shortIdFilter) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> shortIdFilter.onAdded(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(ShortIdFilter.CHANNEL));
+        return container;
+    }
+}
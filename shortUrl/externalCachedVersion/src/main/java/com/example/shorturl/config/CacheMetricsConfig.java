@@ -0,0 +1,30 @@
+package com.example.shorturl.config;
+
+import com.example.shorturl.cache.RedisKeyspaceMetrics;
+import com.example.shorturl.cache.TwoLevelCache;
+import com.example.shorturl.cache.TwoLevelCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+/**
+ * Cache meters Spring Boot does not register on its own. Hits and misses of the plain Redis cache
+ * manager come from {@code spring.cache.redis.enable-statistics}.
+ */
+@Configuration
+public class CacheMetricsConfig {
+
+    @Bean
+    public RedisKeyspaceMetrics redisKeyspaceMetrics(RedisConnectionFactory connectionFactory) {
+        return new RedisKeyspaceMetrics(connectionFactory);
+    }
+
+    /**
+     * Lets Spring Boot bind {@code cache.gets} for the near cache like it does for Caffeine and Redis.
+     */
+    @Bean
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        return TwoLevelCacheMetrics::new;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.shorturl.config;
+
+import com.example.shorturl.cache.CountMinSketch;
+import com.example.shorturl.cache.HotKeyCacheManager;
+import com.example.shorturl.cache.HotKeyDetector;
+import com.example.shorturl.cache.HotKeyEndpoint;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Hot-key pinning ({@code shorturl.cache.hot-keys.enabled=true}): {@code @Cacheable} reads go through
+ * a {@link HotKeyCacheManager} wrapping whichever cache manager is configured (Redis or near cache).
+ * Registered as the caching configurer rather than as a {@link CacheManager} bean, so the
+ * auto-configured Redis cache manager stays in place underneath.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shorturl.cache.hot-keys.enabled", havingValue = "true")
+public class HotKeyConfig implements CachingConfigurer {
+
+    private final ObjectProvider<CacheManager> cacheManagers;
+    private final HotKeyCacheManager hotKeyCacheManager;
+
+    public HotKeyConfig(ObjectProvider<CacheManager> cacheManagers,
+            @Value("${shorturl.cache.hot-keys.threshold:1000}") long threshold,
+            @Value("${shorturl.cache.hot-keys.capacity:100}") int capacity,
+            @Value("${shorturl.cache.hot-keys.pin-ttl:PT1S}") Duration pinTtl,
+            @Value("${shorturl.cache.hot-keys.sketch-width:4096}") int sketchWidth,
+            @Value("${shorturl.cache.hot-keys.sketch-depth:4}") int sketchDepth) {
+        this.cacheManagers = cacheManagers;
+        HotKeyDetector detector = new HotKeyDetector(new CountMinSketch(sketchWidth, sketchDepth), threshold, capacity);
+        this.hotKeyCacheManager = new HotKeyCacheManager(cacheManagers::getObject, detector, capacity, pinTtl);
+    }
+
+    @Override
+    public CacheManager cacheManager() {
+        return hotKeyCacheManager;
+    }
+
+    @Bean
+    public HotKeyDetector hotKeyDetector() {
+        return hotKeyCacheManager.getDetector();
+    }
+
+    @Bean
+    public HotKeyEndpoint hotKeyEndpoint() {
+        return new HotKeyEndpoint(hotKeyCacheManager.getDetector(), hotKeyCacheManager);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.shorturl.config;
+
+import com.example.shorturl.cache.CacheInvalidationListener;
+import com.example.shorturl.cache.CacheInvalidationPublisher;
+import com.example.shorturl.cache.NearCacheEndpoint;
+import com.example.shorturl.cache.TwoLevelCacheManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Near-cache mode ({@code shorturl.cache.near.enabled=true}): Caffeine L1 per node in front of Redis L2.
+ * Replaces the auto-configured Redis cache manager.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shorturl.cache.near.enabled", havingValue = "true")
+@EnableConfigurationProperties(CacheProperties.class)
+public class NearCacheConfig {
+
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate redisTemplate) {
+        return new CacheInvalidationPublisher(redisTemplate);
+    }
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+            CacheProperties cacheProperties,
+            CacheInvalidationPublisher publisher,
+            ObjectProvider<RedisCacheConfiguration> redisCacheConfiguration,
+            ObjectProvider<RedisCacheManagerBuilderCustomizer> redisCacheManagerBuilderCustomizers,
+            @Value("${shorturl.cache.near.l1-spec:maximumSize=10000,expireAfterWrite=30s}") String l1Spec) {
+        CaffeineCacheManager l1 = new CaffeineCacheManager();
+        l1.setCacheSpecification(l1Spec);
+
+        RedisCacheManager l2 = redisCacheManager(connectionFactory, cacheProperties,
+                redisCacheConfiguration.getIfAvailable(() -> redisCacheConfiguration(cacheProperties)),
+                redisCacheManagerBuilderCustomizers);
+
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(l1, l2, publisher);
+        // Caches created up front get cache metrics bound at startup
+        cacheProperties.getCacheNames().forEach(cacheManager::getCache);
+        return cacheManager;
+    }
+
+    /**
+     * L2, built from {@code spring.cache.redis.*} the way Spring Boot builds the Redis cache manager it replaces.
+     */
+    public static RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory, CacheProperties cacheProperties,
+            RedisCacheConfiguration defaults, ObjectProvider<RedisCacheManagerBuilderCustomizer> customizers) {
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaults);
+        if (cacheProperties.getRedis().isEnableStatistics()) {
+            builder.enableStatistics();
+        }
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        RedisCacheManager l2 = builder.build();
+        l2.afterPropertiesSet();
+        return l2;
+    }
+
+    /** Cache defaults when the application declares no {@link RedisCacheConfiguration} bean of its own. */
+    public static RedisCacheConfiguration redisCacheConfiguration(CacheProperties cacheProperties) {
+        CacheProperties.Redis redisProperties = cacheProperties.getRedis();
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig();
+        if (redisProperties.getTimeToLive() != null) {
+            config = config.entryTtl(redisProperties.getTimeToLive());
+        }
+        if (redisProperties.getKeyPrefix() != null) {
+            config = config.prefixCacheNameWith(redisProperties.getKeyPrefix());
+        }
+        if (!redisProperties.isCacheNullValues()) {
+            config = config.disableCachingNullValues();
+        }
+        if (!redisProperties.isUseKeyPrefix()) {
+            config = config.disableKeyPrefix();
+        }
+        return config;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+            TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(new CacheInvalidationListener(cacheManager),
+                new ChannelTopic(CacheInvalidationPublisher.CHANNEL));
+        return container;
+    }
+
+    @Bean
+    public NearCacheEndpoint nearCacheEndpoint(TwoLevelCacheManager cacheManager) {
+        return new NearCacheEndpoint(cacheManager);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.shorturl.config;
+
+import com.example.shorturl.ratelimit.LocalRateLimiter;
+import com.example.shorturl.ratelimit.RateLimitInterceptor;
+import com.example.shorturl.ratelimit.RateLimiter;
+import com.example.shorturl.ratelimit.RedisRateLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Set;
+
+/**
+ * Per-client rate limit on {@code POST /shorturl} ({@code shorturl.rate-limit.enabled=true}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "shorturl.rate-limit.enabled", havingValue = "true")
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final long capacity;
+    private final double refillPerSecond;
+    private final MeterRegistry meterRegistry;
+    // Looked up lazily: the interceptor depends on a limiter defined in this class
+    private final ObjectProvider<RateLimitInterceptor> interceptor;
+
+    public RateLimitConfig(@Value("${shorturl.rate-limit.capacity:20}") long capacity,
+            @Value("${shorturl.rate-limit.refill-per-second:5}") double refillPerSecond,
+            MeterRegistry meterRegistry, ObjectProvider<RateLimitInterceptor> interceptor) {
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.meterRegistry = meterRegistry;
+        this.interceptor = interceptor;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shorturl.rate-limit.mode", havingValue = "local", matchIfMissing = true)
+    public LocalRateLimiter localRateLimiter(@Value("${shorturl.rate-limit.max-clients:1000000}") long maxClients) {
+        LocalRateLimiter limiter = new LocalRateLimiter(capacity, refillPerSecond, maxClients);
+        Gauge.builder("shorturl.ratelimit.buckets", limiter, LocalRateLimiter::getBucketCount)
+                .description("Client buckets held on this node")
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shorturl.rate-limit.mode", havingValue = "redis")
+    public RedisRateLimiter redisRateLimiter(StringRedisTemplate redisTemplate,
+            @Value("${shorturl.rate-limit.key-prefix:shorturl:ratelimit:}") String keyPrefix) {
+        return new RedisRateLimiter(redisTemplate, keyPrefix, capacity, refillPerSecond);
+    }
+
+    @Bean
+    public RateLimitInterceptor rateLimitInterceptor(RateLimiter rateLimiter,
+            @Value("${shorturl.rate-limit.api-keys:}") Set<String> apiKeys) {
+        return new RateLimitInterceptor(rateLimiter, apiKeys, refillPerSecond, meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Only the single shorten; batches are bounded by shorturl.batch.max-size
+        registry.addInterceptor(interceptor.getObject()).addPathPatterns("/shorturl");
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.shorturl.controller;
 
+import com.example.shorturl.service.ClickRecorder;
 import com.example.shorturl.service.UrlService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
@@ -8,6 +9,10 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -15,12 +20,17 @@ import java.util.Map;
 public class UrlController {
 
     private final UrlService urlService;
+    private final ClickRecorder clickRecorder;
 
     @Value("${shorturl.base-url:}")
     private String baseUrl;
 
-    public UrlController(UrlService urlService) {
+    @Value("${shorturl.batch.max-size:50000}")
+    private int maxBatchSize;
+
+    public UrlController(UrlService urlService, ClickRecorder clickRecorder) {
         this.urlService = urlService;
+        this.clickRecorder = clickRecorder;
     }
 
     @PostMapping
@@ -30,14 +40,55 @@ public class UrlController {
             return ResponseEntity.badRequest().body(Map.of("error", "URL is required"));
         }
 
-        String shortId = urlService.shorten(originalUrl);
+        // Optional expiry: an absolute "expiresAt" (ISO-8601 instant) or a "ttl" (ISO-8601 duration, e.g. PT24H)
+        Instant expiresAt;
+        try {
+            expiresAt = request.get("expiresAt") != null ? Instant.parse(request.get("expiresAt"))
+                    : request.get("ttl") != null ? Instant.now().plus(Duration.parse(request.get("ttl")))
+                    : null;
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid expiresAt or ttl: " + e.getParsedString()));
+        }
+
+        String shortId;
+        try {
+            shortId = urlService.shorten(originalUrl, expiresAt);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
         String shortUrl = buildShortUrl(shortId);
+        if (expiresAt != null) {
+            return ResponseEntity.ok(Map.of("shortUrl", shortUrl, "expiresAt", expiresAt.toString()));
+        }
         return ResponseEntity.ok(Map.of("shortUrl", shortUrl));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, ?>> shortenAll(@RequestBody List<String> originalUrls) {
+        if (originalUrls.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At least one URL is required"));
+        }
+        if (originalUrls.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most " + maxBatchSize + " URLs per batch"));
+        }
+        if (originalUrls.stream().anyMatch(url -> url == null || url.isEmpty())) {
+            return ResponseEntity.badRequest().body(Map.of("error", "URL is required"));
+        }
+
+        List<String> shortIds = urlService.shortenAll(originalUrls);
+        // Build the prefix once instead of once per ID
+        String prefix = buildShortUrl("");
+        List<String> shortUrls = shortIds.stream().map(shortId -> prefix + shortId).toList();
+        return ResponseEntity.ok(Map.of("shortUrls", shortUrls));
+    }
+
     @GetMapping("/{shortId}")
     public ResponseEntity<Void> resolve(@PathVariable String shortId) {
         return urlService.resolve(shortId)
+                .map(url -> {
+                    clickRecorder.record(shortId);
+                    return url;
+                })
                 .map(url -> ResponseEntity.status(HttpStatus.FOUND)
                         .location(URI.create(url))
                         .<Void>build())
@@ -0,0 +1,32 @@
+package com.example.shorturl.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * A named counter used to hand out blocks of short ID values.
+ * Each node reserves a whole block in one UPDATE and then encodes the
+ * values locally, so creating a short URL does not need a collision check.
+ */
+@Entity
+@Table(name = "id_sequences")
+public class IdSequence {
+
+    @Id
+    private String name;
+
+    private long nextValue;
+
+    protected IdSequence() {
+        // JPA requires a no-arg constructor
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getNextValue() {
+        return nextValue;
+    }
+}
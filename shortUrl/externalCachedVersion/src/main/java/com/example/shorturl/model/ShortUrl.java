@@ -1,18 +1,42 @@
 package com.example.shorturl.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
 
 @Entity
-@Table(name = "short_urls")
-public class ShortUrl {
+// expires_at lets startup find the expiring links without a full scan; url_hash finds an existing ID for a URL
+@Table(name = "short_urls", indexes = {
+        @Index(name = "idx_short_urls_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_short_urls_url_hash", columnList = "url_hash")})
+public class ShortUrl implements Persistable<String> {
 
     @Id
     private String shortUrl;
 
     private String originalUrl;
 
+    // Null for links that never expire
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+
+    // UrlFingerprint.hash of the normalized originalUrl; null for rows created before it existed or with dedup off
+    @Column(name = "url_hash")
+    private Long urlHash;
+
+    // The id is assigned by us, so Spring Data cannot tell new from existing rows.
+    // Without this flag save() does a SELECT + INSERT (merge) instead of a single INSERT.
+    @Transient
+    private boolean isNew = true;
+
     protected ShortUrl() {
         // JPA requires a no-arg constructor
     }
@@ -22,6 +46,19 @@ public class ShortUrl {
         this.originalUrl = originalUrl;
     }
 
+    public ShortUrl(String shortUrl, String originalUrl, Instant expiresAt) {
+        this(shortUrl, originalUrl);
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * @param urlHash {@link UrlFingerprint#hash} of the normalized URL, or null to leave the row out of dedup
+     */
+    public ShortUrl(String shortUrl, String originalUrl, Instant expiresAt, Long urlHash) {
+        this(shortUrl, originalUrl, expiresAt);
+        this.urlHash = urlHash;
+    }
+
     public String getShortUrl() {
         return shortUrl;
     }
@@ -29,4 +66,32 @@ public class ShortUrl {
     public String getOriginalUrl() {
         return originalUrl;
     }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Long getUrlHash() {
+        return urlHash;
+    }
+
+    public boolean isExpiredAt(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+
+    @Override
+    public String getId() {
+        return shortUrl;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
 }
@@ -0,0 +1,96 @@
+package com.example.shorturl.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-node buckets in a size-bounded Caffeine cache. A bucket idle for as long as a full refill takes is
+ * indistinguishable from a new one, so a periodic sweep drops those; {@code maxClients} caps the
+ * count in between (evicting a busy bucket only resets that client to a full bucket). The sweep reads
+ * the time stamp each bucket already keeps, instead of Caffeine's expire-after-access, which
+ * would read the clock and reorder an access queue on every check.
+ *
+ * <p>Each node enforces the limit on its own, so behind a load balancer a client gets up to
+ * {@code nodes x capacity}. Use {@link RedisRateLimiter} for one limit across nodes.
+ */
+public class LocalRateLimiter implements RateLimiter {
+
+    private final long capacityMilliTokens;
+    private final double milliTokensPerMillis;
+    private final long idleMillis;
+    private final LongSupplier clock;
+    private final Cache<String, TokenBucket> buckets;
+
+    public LocalRateLimiter(long capacity, double refillPerSecond, long maxClients) {
+        this(capacity, refillPerSecond, maxClients, () -> System.nanoTime() / 1_000_000);
+    }
+
+    // Clock in milliseconds, injectable for tests
+    public LocalRateLimiter(long capacity, double refillPerSecond, long maxClients, LongSupplier clock) {
+        if (capacity <= 0 || capacity >= (1L << 32) / TokenBucket.MILLIS_PER_TOKEN || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Invalid rate limit: capacity=" + capacity + ", refillPerSecond=" + refillPerSecond);
+        }
+        this.capacityMilliTokens = capacity * TokenBucket.MILLIS_PER_TOKEN;
+        // Thousandths of a token per millisecond is the same number as tokens per second
+        this.milliTokensPerMillis = refillPerSecond;
+        this.idleMillis = fullRefillTime(capacity, refillPerSecond).toMillis();
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .build();
+    }
+
+    /**
+     * How long an empty bucket takes to fill up; also how long an idle bucket is kept.
+     */
+    public static Duration fullRefillTime(long capacity, double refillPerSecond) {
+        return Duration.ofMillis(Math.max(1, (long) Math.ceil(capacity * 1000 / refillPerSecond)));
+    }
+
+    @Override
+    public boolean tryAcquire(String clientKey) {
+        long now = clock.getAsLong();
+        return buckets.get(clientKey, key -> new TokenBucket(capacityMilliTokens, now))
+                .tryAcquire(capacityMilliTokens, milliTokensPerMillis, now);
+    }
+
+    /**
+     * Whole tokens the client has left, for tests and debugging.
+     */
+    public long availableTokens(String clientKey) {
+        TokenBucket bucket = buckets.getIfPresent(clientKey);
+        if (bucket == null) {
+            return capacityMilliTokens / TokenBucket.MILLIS_PER_TOKEN;
+        }
+        return bucket.availableMilliTokens(capacityMilliTokens, milliTokensPerMillis, clock.getAsLong())
+                / TokenBucket.MILLIS_PER_TOKEN;
+    }
+
+    /**
+     * Drops buckets that have refilled completely since their last use.
+     *
+     * @return number of buckets removed
+     */
+    @Scheduled(fixedDelayString = "${shorturl.rate-limit.sweep-interval:PT10S}")
+    public int evictIdle() {
+        long now = clock.getAsLong();
+        int before = buckets.asMap().size();
+        buckets.asMap().values().removeIf(bucket -> bucket.isIdle(now, idleMillis));
+        return before - buckets.asMap().size();
+    }
+
+    public long getBucketCount() {
+        return buckets.estimatedSize();
+    }
+
+    /**
+     * Runs pending size eviction now instead of on later cache activity.
+     */
+    public void cleanUp() {
+        buckets.cleanUp();
+    }
+}
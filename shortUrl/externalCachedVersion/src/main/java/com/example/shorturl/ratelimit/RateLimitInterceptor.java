@@ -0,0 +1,56 @@
+package com.example.shorturl.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Set;
+
+/**
+ * Runs before {@code UrlController.shorten}: answers 429 with a {@code Retry-After} when the client's
+ * bucket is empty. The client is the {@code X-API-Key} header if it is one of the configured keys, the
+ * remote address otherwise (behind a proxy, set {@code server.forward-headers-strategy} so that is the
+ * real client). Unknown keys are ignored: a made-up key per request must neither get a fresh bucket
+ * nor push real clients' buckets out of the bounded local map.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    public static final String API_KEY_HEADER = "X-API-Key";
+
+    private final RateLimiter rateLimiter;
+    private final Set<String> apiKeys;
+    private final String retryAfterSeconds;
+    private final Counter allowed;
+    private final Counter rejected;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter, Set<String> apiKeys, double refillPerSecond,
+            MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.apiKeys = Set.copyOf(apiKeys);
+        // Time until the next token at the earliest
+        this.retryAfterSeconds = Long.toString(Math.max(1, (long) Math.ceil(1 / refillPerSecond)));
+        this.allowed = Counter.builder("shorturl.ratelimit.requests").tag("result", "allowed").register(meterRegistry);
+        this.rejected = Counter.builder("shorturl.ratelimit.requests").tag("result", "rejected").register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"POST".equals(request.getMethod())) {
+            return true;
+        }
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        String clientKey = apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+        if (rateLimiter.tryAcquire(clientKey)) {
+            allowed.increment();
+            return true;
+        }
+        rejected.increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        return false;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.shorturl.ratelimit;
+
+/**
+ * Token bucket per client: {@code shorturl.rate-limit.capacity} tokens at most, refilled at
+ * {@code refill-per-second}; every shorten takes one. Select the implementation with
+ * {@code shorturl.rate-limit.mode} ({@code local} or {@code redis}).
+ */
+public interface RateLimiter {
+
+    /**
+     * Takes a token from the client's bucket if there is one.
+     *
+     * @param clientKey the API key or address of the caller
+     * @return true if the request may go ahead
+     */
+    boolean tryAcquire(String clientKey);
+}
@@ -0,0 +1,53 @@
+package com.example.shorturl.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * One bucket per client shared by all nodes: a Lua script reads, refills and takes from the bucket
+ * in a single atomic step, using the Redis clock so nodes with skewed clocks agree. Buckets expire
+ * once they would be full again, so idle clients cost no memory.
+ *
+ * <p>Costs one Redis round trip per shorten. If Redis is unreachable the request is let through:
+ * the limiter protects the DB, and an outage should not turn into refused writes.
+ */
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisRateLimiter.class);
+
+    private static final RedisScript<Long> SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/token_bucket.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+    private final String capacityMilliTokens;
+    private final String milliTokensPerMillis;
+    private final String idleTtlMillis;
+
+    public RedisRateLimiter(StringRedisTemplate redisTemplate, String keyPrefix, long capacity, double refillPerSecond) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.capacityMilliTokens = Long.toString(capacity * TokenBucket.MILLIS_PER_TOKEN);
+        // Thousandths of a token per millisecond is the same number as tokens per second
+        this.milliTokensPerMillis = Double.toString(refillPerSecond);
+        this.idleTtlMillis = Long.toString(LocalRateLimiter.fullRefillTime(capacity, refillPerSecond).toMillis());
+    }
+
+    @Override
+    public boolean tryAcquire(String clientKey) {
+        try {
+            Long allowed = redisTemplate.execute(SCRIPT, List.of(keyPrefix + clientKey),
+                    capacityMilliTokens, milliTokensPerMillis, idleTtlMillis);
+            return allowed == null || allowed == 1L;
+        } catch (DataAccessException e) {
+            log.warn("Rate limit check failed, letting the request through: {}", e.getMessage());
+            return true;
+        }
+    }
+}
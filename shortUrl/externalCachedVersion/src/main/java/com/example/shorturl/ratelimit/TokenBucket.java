@@ -0,0 +1,80 @@
+package com.example.shorturl.ratelimit;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Lock-free token bucket. The whole state is one long, updated with compare-and-set:
+ * the high 32 bits hold the tokens in thousandths, the low 32 bits the time of the last
+ * update in milliseconds. Time differences are taken as signed 32-bit values, which is exact for
+ * buckets idle less than ~24 days; the limiter drops idle buckets long before that.
+ *
+ * <p>Capacity and rate live in {@link LocalRateLimiter}, so a bucket is just this object: about 16 bytes.
+ */
+final class TokenBucket {
+
+    static final long MILLIS_PER_TOKEN = 1000;
+
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(TokenBucket.class, "state", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @SuppressWarnings("unused") // accessed through STATE
+    private volatile long state;
+
+    /**
+     * A full bucket as of {@code nowMillis}.
+     */
+    TokenBucket(long capacityMilliTokens, long nowMillis) {
+        this.state = pack(capacityMilliTokens, nowMillis);
+    }
+
+    /**
+     * @param capacityMilliTokens   bucket size, in thousandths of a token
+     * @param milliTokensPerMillis  refill rate, in thousandths of a token per millisecond (= tokens per second)
+     * @param nowMillis             current time from a monotonic clock
+     */
+    boolean tryAcquire(long capacityMilliTokens, double milliTokensPerMillis, long nowMillis) {
+        while (true) {
+            long current = (long) STATE.getVolatile(this);
+            // Negative when another thread read a later clock and updated first; that time stands
+            int elapsed = (int) (nowMillis - current);
+            long available = available(current, capacityMilliTokens, milliTokensPerMillis, elapsed);
+            if (available < MILLIS_PER_TOKEN) {
+                // Leave the state alone, so the refill keeps counting from the last update
+                return false;
+            }
+            long updatedAt = elapsed > 0 ? nowMillis : current;
+            if (STATE.compareAndSet(this, current, pack(available - MILLIS_PER_TOKEN, updatedAt))) {
+                return true;
+            }
+        }
+    }
+
+    long availableMilliTokens(long capacityMilliTokens, double milliTokensPerMillis, long nowMillis) {
+        long current = (long) STATE.getVolatile(this);
+        return available(current, capacityMilliTokens, milliTokensPerMillis, (int) (nowMillis - current));
+    }
+
+    /**
+     * True when nothing has updated the bucket for at least {@code idleMillis}.
+     */
+    boolean isIdle(long nowMillis, long idleMillis) {
+        return (int) (nowMillis - (long) STATE.getVolatile(this)) >= idleMillis;
+    }
+
+    private static long available(long state, long capacityMilliTokens, double milliTokensPerMillis, int elapsed) {
+        long refill = elapsed > 0 ? (long) (elapsed * milliTokensPerMillis) : 0;
+        return Math.min(capacityMilliTokens, (state >>> 32) + refill);
+    }
+
+    private static long pack(long milliTokens, long nowMillis) {
+        return (milliTokens << 32) | (nowMillis & 0xFFFF_FFFFL);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.shorturl.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ClickStatsUpserts {
+
+    record ClickDelta(String shortUrl, long clicks, Instant lastAccess) {
+    }
+
+    /**
+     * Adds the deltas to the stored counts (creating rows as needed) in JDBC batches.
+     * One transaction for all of them: the caller retries the whole list on failure,
+     * so a partly written list would be counted twice.
+     */
+    @Transactional
+    void addClicks(List<ClickDelta> deltas);
+}
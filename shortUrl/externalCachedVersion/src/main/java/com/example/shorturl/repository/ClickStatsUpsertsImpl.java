@@ -0,0 +1,35 @@
+package com.example.shorturl.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+class ClickStatsUpsertsImpl implements ClickStatsUpserts {
+
+    // Standard SQL MERGE (H2 2.x and Postgres 15+): increment if the row exists, insert otherwise
+    private static final String UPSERT_SQL = """
+            merge into click_stats t
+            using (values (cast(? as varchar(255)), cast(? as bigint), cast(? as timestamp(6) with time zone)))
+                as s(short_url, clicks, last_access)
+            on t.short_url = s.short_url
+            when matched then update set clicks = t.clicks + s.clicks, last_access = greatest(t.last_access, s.last_access)
+            when not matched then insert (short_url, clicks, last_access) values (s.short_url, s.clicks, s.last_access)
+            """;
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ClickStatsUpsertsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void addClicks(List<ClickDelta> deltas) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, deltas, BATCH_SIZE, (ps, delta) -> {
+            ps.setString(1, delta.shortUrl());
+            ps.setLong(2, delta.clicks());
+            ps.setTimestamp(3, Timestamp.from(delta.lastAccess()));
+        });
+    }
+}
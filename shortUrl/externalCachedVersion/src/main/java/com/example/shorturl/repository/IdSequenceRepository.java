@@ -0,0 +1,23 @@
+package com.example.shorturl.repository;
+
+import com.example.shorturl.model.IdSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface IdSequenceRepository extends JpaRepository<IdSequence, String> {
+
+    /**
+     * Moves the counter forward by {@code size}. The row stays locked until the
+     * surrounding transaction commits, so concurrent nodes never get the same block.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update IdSequence s set s.nextValue = s.nextValue + :size where s.name = :name")
+    int advance(@Param("name") String name, @Param("size") long size);
+
+    // Plain INSERT (not merge) so a concurrent create fails instead of resetting the counter
+    @Modifying
+    @Query(value = "insert into id_sequences (name, next_value) values (:name, 0)", nativeQuery = true)
+    void create(@Param("name") String name);
+}
@@ -0,0 +1,35 @@
+package com.example.shorturl.repository;
+
+import com.example.shorturl.model.ShortUrl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Spring Data picks this up as the implementation of {@link ShortUrlBatchInserts}
+ * (by the {@code Impl} suffix), so the methods show up on {@link ShortUrlRepository}.
+ */
+class ShortUrlBatchInsertsImpl implements ShortUrlBatchInserts {
+
+    private static final String INSERT_SQL = "insert into short_urls (short_url, original_url, url_hash) values (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    ShortUrlBatchInsertsImpl(JdbcTemplate jdbcTemplate,
+            @Value("${shorturl.batch.jdbc-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void insertAll(List<ShortUrl> shortUrls) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, shortUrls, batchSize, (ps, shortUrl) -> {
+            ps.setString(1, shortUrl.getShortUrl());
+            ps.setString(2, shortUrl.getOriginalUrl());
+            ps.setObject(3, shortUrl.getUrlHash(), Types.BIGINT);
+        });
+    }
+}
@@ -2,6 +2,30 @@ package com.example.shorturl.repository;
 
 import com.example.shorturl.model.ShortUrl;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface ShortUrlRepository extends JpaRepository<ShortUrl, String> {
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface ShortUrlRepository extends JpaRepository<ShortUrl, String>, ShortUrlBatchInserts, ShortUrlIdScan {
+
+    /**
+     * Deletes the given links by primary key, in one short transaction, skipping any whose
+     * expiry has not passed.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from ShortUrl s where s.shortUrl in :shortIds and s.expiresAt <= :now")
+    int deleteExpired(@Param("shortIds") Collection<String> shortIds, @Param("now") Instant now);
+
+    /**
+     * Non-expiring links whose URL has the given {@code UrlFingerprint} hash. Usually zero or one; callers
+     * must compare the normalized URLs, since different URLs can share a hash.
+     */
+    @Query("select s from ShortUrl s where s.urlHash = :urlHash and s.expiresAt is null")
+    List<ShortUrl> findByUrlHash(@Param("urlHash") long urlHash);
 }
@@ -0,0 +1,30 @@
+package com.example.shorturl.service;
+
+/**
+ * Fixed-width Base62 encoding of counter values (0-9, A-Z, a-z).
+ * 9 characters cover 62^9 (approx 1.3 x 10^16) values.
+ */
+public final class Base62 {
+
+    private static final char[] ALPHABET =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    private Base62() {
+    }
+
+    public static String encode(long value, int width) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative: " + value);
+        }
+        char[] chars = new char[width];
+        long remaining = value;
+        for (int i = width - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (remaining % 62)];
+            remaining /= 62;
+        }
+        if (remaining != 0) {
+            throw new IllegalArgumentException("Value " + value + " does not fit in " + width + " Base62 chars");
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.shorturl.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leases a block of counter values from the database and hands them out from memory.
+ * Only one DB round trip per {@code block-size} IDs, and IDs are unique by
+ * construction, so no {@code existsById} check is needed before the insert.
+ * Unused values of a block are lost on restart, which is fine for a 62^9 keyspace.
+ */
+@Component
+@ConditionalOnProperty(name = "shorturl.id-generator.mode", havingValue = "block", matchIfMissing = true)
+public class BlockLeasingShortIdGenerator implements ShortIdGenerator {
+
+    static final String SEQUENCE_NAME = "short_url";
+    private static final int ID_LENGTH = 9;
+
+    private final IdBlockAllocator allocator;
+    private final int blockSize;
+
+    private long next;
+    private long end;
+
+    public BlockLeasingShortIdGenerator(IdBlockAllocator allocator,
+            @Value("${shorturl.id-generator.block-size:1000}") int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.allocator = allocator;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public String nextId() {
+        return Base62.encode(nextValue(), ID_LENGTH);
+    }
+
+    /**
+     * Uses what is left of the current block and leases the shortfall (plus a fresh
+     * block for later calls) in a single reservation.
+     */
+    @Override
+    public List<String> nextIds(int count) {
+        List<String> ids = new ArrayList<>(count);
+        long start;
+        int missing;
+        synchronized (this) {
+            while (ids.size() < count && next < end) {
+                ids.add(Base62.encode(next++, ID_LENGTH));
+            }
+            missing = count - ids.size();
+            if (missing == 0) {
+                return ids;
+            }
+            start = allocator.reserve(SEQUENCE_NAME, missing + blockSize);
+            next = start + missing;
+            end = next + blockSize;
+        }
+        for (int i = 0; i < missing; i++) {
+            ids.add(Base62.encode(start + i, ID_LENGTH));
+        }
+        return ids;
+    }
+
+    private synchronized long nextValue() {
+        if (next == end) {
+            next = allocator.reserve(SEQUENCE_NAME, blockSize);
+            end = next + blockSize;
+        }
+        return next++;
+    }
+}
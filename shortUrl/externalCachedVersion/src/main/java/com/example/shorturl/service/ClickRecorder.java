@@ -0,0 +1,125 @@
+package com.example.shorturl.service;
+
+import com.example.shorturl.model.ClickStats;
+import com.example.shorturl.repository.ClickStatsRepository;
+import com.example.shorturl.repository.ClickStatsUpserts.ClickDelta;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts redirects in memory and writes them to {@code click_stats} in the background,
+ * so a redirect never waits on a DB write.
+ *
+ * <p>Clicks go into the current generation of {@link LongAdder}s. Each flush swaps in a
+ * fresh generation, but only writes the one swapped out at the flush before: a redirect
+ * that picked up a generation just before the swap still has a full interval to land in it.
+ * Stored counts therefore lag by up to two flush intervals; {@link #stats} adds the
+ * pending counts on top.
+ */
+@Component
+public class ClickRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(ClickRecorder.class);
+
+    private final ClickStatsRepository repository;
+
+    private volatile Map<String, PendingClicks> current = new ConcurrentHashMap<>();
+    // Guarded by this
+    private Map<String, PendingClicks> retired = new ConcurrentHashMap<>();
+
+    public ClickRecorder(ClickStatsRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Called on the redirect path: a map lookup and two memory writes, no locks.
+     */
+    public void record(String shortId) {
+        Map<String, PendingClicks> generation = current;
+        PendingClicks pending = generation.get(shortId);
+        if (pending == null) {
+            pending = generation.computeIfAbsent(shortId, id -> new PendingClicks());
+        }
+        pending.clicks.increment();
+        // Racing writers store nearly the same time, so a plain volatile write is enough
+        pending.lastAccess = System.currentTimeMillis();
+    }
+
+    @Scheduled(initialDelayString = "${shorturl.clicks.flush-interval:PT5S}",
+            fixedDelayString = "${shorturl.clicks.flush-interval:PT5S}")
+    public synchronized void flush() {
+        if (!retired.isEmpty()) {
+            List<ClickDelta> deltas = new ArrayList<>(retired.size());
+            retired.forEach((shortId, pending) -> deltas.add(pending.toDelta(shortId)));
+            try {
+                repository.addClicks(deltas);
+            } catch (RuntimeException e) {
+                // Keep both generations in memory and retry at the next flush
+                log.warn("Failed to flush {} click counters, retrying later", deltas.size(), e);
+                return;
+            }
+        }
+        retired = current;
+        current = new ConcurrentHashMap<>();
+    }
+
+    @PreDestroy
+    public synchronized void flushAll() {
+        // Once to write the retired generation, once more for the current one
+        flush();
+        flush();
+    }
+
+    /**
+     * Stored stats plus clicks not yet flushed; empty if the ID was never resolved.
+     */
+    public synchronized Optional<Stats> stats(String shortId) {
+        Optional<ClickStats> stored = repository.findById(shortId);
+        long clicks = stored.map(ClickStats::getClicks).orElse(0L);
+        Instant lastAccess = stored.map(ClickStats::getLastAccess).orElse(null);
+        for (Map<String, PendingClicks> generation : List.of(retired, current)) {
+            PendingClicks pending = generation.get(shortId);
+            if (pending != null) {
+                clicks += pending.clicks.sum();
+                Instant pendingAccess = Instant.ofEpochMilli(pending.lastAccess);
+                if (lastAccess == null || pendingAccess.isAfter(lastAccess)) {
+                    lastAccess = pendingAccess;
+                }
+            }
+        }
+        return lastAccess == null ? Optional.empty() : Optional.of(new Stats(shortId, clicks, lastAccess));
+    }
+
+    /**
+     * Most clicked IDs as of the last flush, served from the index on {@code clicks}.
+     */
+    public List<Stats> top(int k) {
+        return repository.findTopByClicks(PageRequest.of(0, k)).stream()
+                .map(s -> new Stats(s.getShortUrl(), s.getClicks(), s.getLastAccess()))
+                .toList();
+    }
+
+    public record Stats(String shortId, long clicks, Instant lastAccess) {
+    }
+
+    private static final class PendingClicks {
+        final LongAdder clicks = new LongAdder();
+        volatile long lastAccess;
+
+        ClickDelta toDelta(String shortId) {
+            return new ClickDelta(shortId, clicks.sum(), Instant.ofEpochMilli(lastAccess));
+        }
+    }
+}
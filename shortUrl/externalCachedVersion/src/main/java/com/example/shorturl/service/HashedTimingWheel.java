@@ -0,0 +1,78 @@
+package com.example.shorturl.service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timing wheel: {@code slots} buckets of one {@code tick} each. A deadline goes into bucket
+ * {@code deadlineTick % slots}, so scheduling is O(1) whatever the deadline, and each tick only looks at
+ * one bucket. Deadlines more than one rotation away stay in their bucket until a pass finds them due.
+ *
+ * <p>{@link #schedule} is lock-free: new entries go through a queue that {@link #advance} moves into the
+ * buckets, so only the thread calling {@code advance} ever touches them.
+ */
+class HashedTimingWheel {
+
+    record Timeout(String key, long deadlineMillis) {
+    }
+
+    private final long tickMillis;
+    private final Queue<Timeout>[] buckets;
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+
+    // Guarded by this: the last tick whose bucket was processed
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    HashedTimingWheel(Duration tick, int slots, long startMillis) {
+        this.tickMillis = tick.toMillis();
+        this.buckets = new Queue[slots];
+        for (int i = 0; i < slots; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    void schedule(String key, long deadlineMillis) {
+        incoming.add(new Timeout(key, deadlineMillis));
+    }
+
+    /**
+     * Processes every tick up to {@code nowMillis}.
+     *
+     * @return the entries whose deadline has passed, each returned once
+     */
+    synchronized List<Timeout> advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        transferIncoming();
+        List<Timeout> expired = new ArrayList<>();
+        // Behind by more than a rotation: every bucket once is enough, since due entries are found by deadline
+        long from = Math.max(currentTick + 1, nowTick - buckets.length + 1);
+        for (long tick = from; tick <= nowTick; tick++) {
+            Iterator<Timeout> it = buckets[(int) (tick % buckets.length)].iterator();
+            while (it.hasNext()) {
+                Timeout timeout = it.next();
+                if (timeout.deadlineMillis() <= nowMillis) {
+                    expired.add(timeout);
+                    it.remove();
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, nowTick);
+        return expired;
+    }
+
+    private void transferIncoming() {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            // Round up so an entry is never checked before its deadline; overdue entries go to the next tick
+            long tick = Math.max((timeout.deadlineMillis() + tickMillis - 1) / tickMillis, currentTick + 1);
+            buckets[(int) (tick % buckets.length)].add(timeout);
+        }
+    }
+}
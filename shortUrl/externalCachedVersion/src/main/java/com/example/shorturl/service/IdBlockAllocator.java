@@ -0,0 +1,58 @@
+package com.example.shorturl.service;
+
+import com.example.shorturl.repository.IdSequenceRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reserves ranges of counter values from the {@code id_sequences} table.
+ */
+@Component
+public class IdBlockAllocator {
+
+    private final IdSequenceRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    public IdBlockAllocator(IdSequenceRepository repository, TransactionTemplate transactionTemplate) {
+        this.repository = repository;
+        // Own transaction: if a caller's transaction (shortenAll) rolled back the counter update,
+        // the block would stay in use in memory and be handed out again by the next reservation
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Reserves {@code size} consecutive values.
+     *
+     * @return the first value of the block; the block is [start, start + size)
+     */
+    public long reserve(String sequenceName, int size) {
+        Long start = transactionTemplate.execute(status -> advance(sequenceName, size));
+        if (start != null) {
+            return start;
+        }
+
+        // First use of this sequence: create the row, then try again
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.create(sequenceName));
+        } catch (DataIntegrityViolationException e) {
+            // Another node created it at the same time, which is fine
+        }
+        start = transactionTemplate.execute(status -> advance(sequenceName, size));
+        if (start == null) {
+            throw new IllegalStateException("Could not reserve a block from sequence " + sequenceName);
+        }
+        return start;
+    }
+
+    private Long advance(String sequenceName, int size) {
+        if (repository.advance(sequenceName, size) == 0) {
+            return null;
+        }
+        return repository.findById(sequenceName)
+                .map(sequence -> sequence.getNextValue() - size)
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.shorturl.service;
+
+import com.example.shorturl.model.ShortUrl;
+import com.example.shorturl.repository.ShortUrlRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Expiry of links shortened with an {@code expiresAt}.
+ *
+ * <p>Every expiring link this node creates or loads is kept in memory with its deadline, so resolve can
+ * reject an expired link without a DB read, cached or not. A {@link HashedTimingWheel} fires each
+ * deadline once: the link's {@code urls} cache entry is evicted, which also drops it from every
+ * node's near cache, then replaced by a cached "not found", which keeps answering without a DB read
+ * after the deadline is forgotten, and the link is queued for deletion. Deletes run
+ * in chunks of {@code delete-batch-size} IDs, one short transaction each, and at most
+ * {@code max-deletes-per-tick} per tick; the rest wait for the next tick. There is never a scan over
+ * {@code short_urls} for expired rows.
+ *
+ * <p>On startup the deadlines of all expiring links are loaded from the DB (indexed on {@code expires_at}),
+ * so links that expired while the node was down are deleted on the first ticks. With several nodes
+ * every node deletes the same rows; the second delete finds nothing.
+ */
+@Component
+public class LinkExpiry {
+
+    private static final Logger log = LoggerFactory.getLogger(LinkExpiry.class);
+
+    private final ShortUrlRepository repository;
+    private final CacheManager cacheManager;
+    private final int deleteBatchSize;
+    private final int maxDeletesPerTick;
+    private final HashedTimingWheel wheel;
+
+    private final Map<String, Long> deadlines = new ConcurrentHashMap<>();
+    // Guarded by this
+    private final Queue<String> dueForDelete = new ArrayDeque<>();
+    private final LongAdder deleted = new LongAdder();
+
+    public LinkExpiry(ShortUrlRepository repository, CacheManager cacheManager,
+            @Value("${shorturl.expiry.tick:PT1S}") Duration tick,
+            @Value("${shorturl.expiry.wheel-size:512}") int wheelSize,
+            @Value("${shorturl.expiry.delete-batch-size:500}") int deleteBatchSize,
+            @Value("${shorturl.expiry.max-deletes-per-tick:5000}") int maxDeletesPerTick) {
+        this.repository = repository;
+        this.cacheManager = cacheManager;
+        this.deleteBatchSize = deleteBatchSize;
+        this.maxDeletesPerTick = maxDeletesPerTick;
+        this.wheel = new HashedTimingWheel(tick, wheelSize, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadDeadlines() {
+        long start = System.currentTimeMillis();
+        repository.forEachExpiring(this::track);
+        log.info("Loaded {} link expiry deadlines in {} ms", deadlines.size(), System.currentTimeMillis() - start);
+    }
+
+    public void track(String shortId, Instant expiresAt) {
+        long deadline = expiresAt.toEpochMilli();
+        if (!Long.valueOf(deadline).equals(deadlines.put(shortId, deadline))) {
+            wheel.schedule(shortId, deadline);
+        }
+    }
+
+    /**
+     * Tracks the expiry of a link just read from the DB.
+     *
+     * @return whether it has already expired
+     */
+    public boolean checkExpired(ShortUrl shortUrl) {
+        if (shortUrl.getExpiresAt() == null) {
+            return false;
+        }
+        track(shortUrl.getShortUrl(), shortUrl.getExpiresAt());
+        return isExpired(shortUrl.getShortUrl());
+    }
+
+    /**
+     * A map lookup; true only for links this node knows to have expired.
+     */
+    public boolean isExpired(String shortId) {
+        Long deadline = deadlines.get(shortId);
+        return deadline != null && deadline <= System.currentTimeMillis();
+    }
+
+    /**
+     * Stops tracking a link that was deleted explicitly. Its wheel entry is skipped when it fires.
+     */
+    public void forget(String shortId) {
+        deadlines.remove(shortId);
+    }
+
+    @Scheduled(fixedRateString = "${shorturl.expiry.tick:PT1S}")
+    public synchronized void tick() {
+        long now = System.currentTimeMillis();
+        Cache cache = cacheManager.getCache("urls");
+        for (HashedTimingWheel.Timeout timeout : wheel.advance(now)) {
+            // Skip entries for links deleted or re-tracked with another deadline since
+            if (Long.valueOf(timeout.deadlineMillis()).equals(deadlines.get(timeout.key()))) {
+                // Evict first: a put does not tell other nodes to drop their L1 copy
+                cache.evict(timeout.key());
+                // Same as a cached empty Optional
+                cache.put(timeout.key(), null);
+                dueForDelete.add(timeout.key());
+            }
+        }
+        deleteDue(Instant.ofEpochMilli(now));
+    }
+
+    private void deleteDue(Instant now) {
+        int budget = maxDeletesPerTick;
+        while (!dueForDelete.isEmpty() && budget > 0) {
+            List<String> chunk = new ArrayList<>(Math.min(deleteBatchSize, budget));
+            while (chunk.size() < deleteBatchSize && chunk.size() < budget && !dueForDelete.isEmpty()) {
+                chunk.add(dueForDelete.poll());
+            }
+            try {
+                deleted.add(repository.deleteExpired(chunk, now));
+            } catch (RuntimeException e) {
+                // Put the chunk back and try again next tick
+                log.warn("Failed to delete {} expired links, retrying next tick", chunk.size(), e);
+                dueForDelete.addAll(chunk);
+                return;
+            }
+            // Keep rejecting until the row is gone, then forget the deadline
+            chunk.forEach(deadlines::remove);
+            budget -= chunk.size();
+        }
+    }
+
+    public int getTracked() {
+        return deadlines.size();
+    }
+
+    public synchronized int getPendingDeletes() {
+        return dueForDelete.size();
+    }
+
+    public long getDeleted() {
+        return deleted.sum();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.shorturl.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Makes concurrent cache misses for the same short ID share one DB read.
+ *
+ * <p>In-process, the first miss runs the loader and the others wait for it.
+ * With {@code shorturl.single-flight.distributed=true} that first miss also takes a short
+ * Redis lease ({@code SET NX PX}); on other nodes the loser waits for the winner's
+ * result to show up in the shared cache instead of reading the DB. If the lease
+ * expires without a cached value (e.g. the winner died) it falls back to the DB.
+ */
+@Component
+public class ResolveCoalescer {
+
+    private static final String LEASE_PREFIX = "shorturl:lease:";
+
+    private final SingleFlight<String, Optional<String>> singleFlight = new SingleFlight<>();
+    private final LongAdder loads = new LongAdder();
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheManager cacheManager;
+    private final boolean distributed;
+    private final Duration leaseTtl;
+    private final long pollIntervalMs;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public ResolveCoalescer(StringRedisTemplate redisTemplate, CacheManager cacheManager,
+            @Value("${shorturl.single-flight.distributed:false}") boolean distributed,
+            @Value("${shorturl.single-flight.lease-ttl-ms:2000}") long leaseTtlMs,
+            @Value("${shorturl.single-flight.poll-interval-ms:20}") long pollIntervalMs) {
+        this.redisTemplate = redisTemplate;
+        this.cacheManager = cacheManager;
+        this.distributed = distributed;
+        this.leaseTtl = Duration.ofMillis(leaseTtlMs);
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    public Optional<String> load(String shortId, Supplier<Optional<String>> loader) {
+        return singleFlight.load(shortId, () -> distributed ? loadWithLease(shortId, loader) : loadNow(loader));
+    }
+
+    /**
+     * Drops the lease after a delete, so the next miss loads right away instead of
+     * waiting for a cached value that is not coming.
+     */
+    public void forget(String shortId) {
+        if (distributed) {
+            redisTemplate.delete(LEASE_PREFIX + shortId);
+        }
+    }
+
+    /**
+     * @return how many times a loader actually ran on this node (i.e. DB reads for resolve)
+     */
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    private Optional<String> loadWithLease(String shortId, Supplier<Optional<String>> loader) {
+        String leaseKey = LEASE_PREFIX + shortId;
+        // The lease is not released on purpose: the result is cached only after resolve returns,
+        // so the lease has to outlive the load to keep other nodes waiting until then
+        if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(leaseKey, nodeId, leaseTtl))) {
+            return loadNow(loader);
+        }
+
+        Cache cache = cacheManager.getCache("urls");
+        long deadline = System.currentTimeMillis() + leaseTtl.toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(pollIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            Cache.ValueWrapper cached = cache == null ? null : cache.get(shortId);
+            if (cached != null) {
+                return Optional.ofNullable((String) cached.get());
+            }
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(leaseKey))) {
+                break;
+            }
+        }
+        return loadNow(loader);
+    }
+
+    private Optional<String> loadNow(Supplier<Optional<String>> loader) {
+        loads.increment();
+        return loader.get();
+    }
+}
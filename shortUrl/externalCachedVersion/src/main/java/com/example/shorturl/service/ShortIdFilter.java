@@ -0,0 +1,191 @@
+package com.example.shorturl.service;
+
+import com.example.shorturl.repository.ShortUrlRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter of all existing short IDs, so lookups for IDs that were never
+ * created (e.g. bots scanning random IDs) are answered without a DB read.
+ *
+ * <p>Built from the repository once the app is ready, updated on every shorten and
+ * rebuilt every {@code rebuild-interval} to drop deleted IDs. Until the first build
+ * finishes every ID is treated as possibly present.
+ *
+ * <p>New IDs are published on the {@value #CHANNEL} Redis channel and every node adds them
+ * to its own filter, so an ID created on another node resolves here within milliseconds.
+ * Pub/sub is fire-and-forget: a node that misses a message (e.g. while reconnecting) 404s
+ * that ID until its next rebuild.
+ */
+@Component
+public class ShortIdFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ShortIdFilter.class);
+
+    public static final String CHANNEL = "shorturl:short-id-added";
+    static final char SEPARATOR = ',';
+
+    private final ShortUrlRepository repository;
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter current;
+    // Filter being rebuilt; new IDs go into it too so they survive the swap
+    private volatile BloomFilter building;
+    private volatile Instant lastRebuild;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public ShortIdFilter(ShortUrlRepository repository, StringRedisTemplate redisTemplate,
+            @Value("${shorturl.bloom-filter.enabled:false}") boolean enabled,
+            @Value("${shorturl.bloom-filter.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${shorturl.bloom-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.repository = repository;
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${shorturl.bloom-filter.rebuild-interval:PT10M}",
+            fixedDelayString = "${shorturl.bloom-filter.rebuild-interval:PT10M}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        // Leave room for growth until the next rebuild
+        BloomFilter fresh = new BloomFilter(Math.max(expectedInsertions, repository.count() * 2), falsePositiveRate);
+        building = fresh;
+        repository.forEachShortId(fresh::put);
+        current = fresh;
+        building = null;
+        lastRebuild = Instant.now();
+        log.info("Rebuilt short ID Bloom filter with {} IDs in {} ms", fresh.getInsertions(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Records a newly created ID here and on every other node. Must be called after the row
+     * is committed, otherwise a concurrent rebuild could miss it.
+     */
+    public void add(String shortId) {
+        if (!enabled) {
+            return;
+        }
+        addLocal(shortId);
+        publish(shortId);
+    }
+
+    /**
+     * Same as {@link #add} for a batch, published as one message.
+     */
+    public void addAll(Collection<String> shortIds) {
+        if (!enabled || shortIds.isEmpty()) {
+            return;
+        }
+        shortIds.forEach(this::addLocal);
+        publish(String.join(String.valueOf(SEPARATOR), shortIds));
+    }
+
+    /**
+     * Handles a message from {@link #CHANNEL}: IDs created on some node, including this one.
+     */
+    public void onAdded(String message) {
+        if (!enabled) {
+            return;
+        }
+        for (String shortId : message.split(String.valueOf(SEPARATOR))) {
+            if (!shortId.isEmpty()) {
+                addLocal(shortId);
+            }
+        }
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (DataAccessException e) {
+            // Other nodes pick the IDs up at their next rebuild
+            log.warn("Could not publish new short IDs to other nodes: {}", e.getMessage());
+        }
+    }
+
+    private void addLocal(String shortId) {
+        // Read building first: if it is null here, any rebuild starts later and its scan sees the committed row
+        BloomFilter rebuilding = building;
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.put(shortId);
+        }
+        if (rebuilding != null) {
+            rebuilding.put(shortId);
+        }
+    }
+
+    /**
+     * @return false only if the ID definitely does not exist
+     */
+    public boolean mightContain(String shortId) {
+        BloomFilter filter = current;
+        return !enabled || filter == null || filter.mightContain(shortId);
+    }
+
+    /**
+     * Same as {@code !mightContain(shortId)}, but counts the rejection as a DB read avoided.
+     */
+    public boolean rejects(String shortId) {
+        if (mightContain(shortId)) {
+            return false;
+        }
+        rejected.increment();
+        return true;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    /**
+     * @return lookups answered without touching the DB
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getInsertions() {
+        BloomFilter filter = current;
+        return filter == null ? 0 : filter.getInsertions();
+    }
+
+    public long getBitCount() {
+        BloomFilter filter = current;
+        return filter == null ? 0 : filter.getBitCount();
+    }
+
+    public Instant getLastRebuild() {
+        return lastRebuild;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.shorturl.service;
+
+import com.example.shorturl.model.ShortUrl;
+import com.example.shorturl.model.UrlFingerprint;
+import com.example.shorturl.repository.ShortUrlRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dedup mode ({@code shorturl.dedup.enabled=true}): shortening a URL that already has a non-expiring
+ * short ID returns that ID instead of minting a new one.
+ *
+ * <p>A small in-memory cache (normalized URL to short ID, {@code lru-size} entries) answers repeats of
+ * popular URLs without a query; otherwise the indexed {@code url_hash} column is looked up and candidates
+ * are confirmed by comparing normalized URLs.
+ *
+ * <p>A hit in the in-memory cache is confirmed before it is returned, since the entry is not dropped
+ * when another node deletes the link: by the shared {@code urls} cache, which every delete evicts, or
+ * by a primary-key lookup when the ID is not cached.
+ *
+ * <p>Best effort: two nodes shortening the same new URL at the same moment can still mint two IDs.
+ */
+@Component
+@ConditionalOnProperty(name = "shorturl.dedup.enabled", havingValue = "true")
+public class UrlDeduplicator {
+
+    private final ShortUrlRepository repository;
+    // Caffeine rather than a LinkedHashMap: bounded and safe without a global lock
+    private final Cache<String, String> recent;
+    private final org.springframework.cache.Cache urls;
+
+    private final LongAdder recentHits = new LongAdder();
+    private final LongAdder indexHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public UrlDeduplicator(ShortUrlRepository repository, CacheManager cacheManager, MeterRegistry meterRegistry,
+            @Value("${shorturl.dedup.lru-size:10000}") long lruSize,
+            @Value("${shorturl.dedup.lru-ttl:PT10M}") Duration lruTtl) {
+        this.repository = repository;
+        this.urls = cacheManager.getCache("urls");
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(lruSize)
+                .expireAfterWrite(lruTtl)
+                .build();
+        FunctionCounter.builder("shorturl.dedup.lookups", recentHits, LongAdder::sum)
+                .tag("result", "recent_hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("shorturl.dedup.lookups", indexHits, LongAdder::sum)
+                .tag("result", "index_hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("shorturl.dedup.lookups", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param normalizedUrl the output of {@link UrlFingerprint#normalize}
+     * @param urlHash       {@link UrlFingerprint#hash} of {@code normalizedUrl}
+     * @return the existing short ID for the URL, if there is one
+     */
+    public Optional<String> findExisting(String normalizedUrl, long urlHash) {
+        String shortId = recent.getIfPresent(normalizedUrl);
+        if (shortId != null) {
+            if (stillExists(shortId)) {
+                recentHits.increment();
+                return Optional.of(shortId);
+            }
+            recent.asMap().remove(normalizedUrl, shortId);
+        }
+        for (ShortUrl candidate : repository.findByUrlHash(urlHash)) {
+            if (UrlFingerprint.normalize(candidate.getOriginalUrl()).equals(normalizedUrl)) {
+                recent.put(normalizedUrl, candidate.getShortUrl());
+                indexHits.increment();
+                return Optional.of(candidate.getShortUrl());
+            }
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void remember(String normalizedUrl, String shortId) {
+        recent.put(normalizedUrl, shortId);
+    }
+
+    /**
+     * Drops a deleted ID. Scans the entries, which is fine for a cache this small and a rare operation.
+     */
+    public void forget(String shortId) {
+        recent.asMap().values().removeIf(shortId::equals);
+    }
+
+    private boolean stillExists(String shortId) {
+        org.springframework.cache.Cache.ValueWrapper cached = urls.get(shortId);
+        if (cached != null) {
+            // A cached null is a cached "not found"
+            return cached.get() != null;
+        }
+        return repository.existsById(shortId);
+    }
+
+    public long getRecentHits() {
+        return recentHits.sum();
+    }
+
+    public long getIndexHits() {
+        return indexHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
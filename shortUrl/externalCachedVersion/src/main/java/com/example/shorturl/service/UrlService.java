@@ -1,50 +1,137 @@
 package com.example.shorturl.service;
 
 import com.example.shorturl.model.ShortUrl;
+import com.example.shorturl.model.UrlFingerprint;
 import com.example.shorturl.repository.ShortUrlRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 public class UrlService {
 
     private final ShortUrlRepository repository;
+    private final ShortIdGenerator idGenerator;
+    private final ShortIdFilter shortIdFilter;
+    private final ResolveCoalescer resolveCoalescer;
+    private final LinkExpiry linkExpiry;
+    // Null unless shorturl.dedup.enabled
+    private final UrlDeduplicator deduplicator;
 
-    public UrlService(ShortUrlRepository repository) {
+    public UrlService(ShortUrlRepository repository, ShortIdGenerator idGenerator, ShortIdFilter shortIdFilter,
+            ResolveCoalescer resolveCoalescer, LinkExpiry linkExpiry, ObjectProvider<UrlDeduplicator> deduplicator) {
         this.repository = repository;
+        this.idGenerator = idGenerator;
+        this.shortIdFilter = shortIdFilter;
+        this.resolveCoalescer = resolveCoalescer;
+        this.linkExpiry = linkExpiry;
+        this.deduplicator = deduplicator.getIfAvailable();
     }
 
     /**
      * Shortens a given URL.
+     * In dedup mode, a URL that already has a non-expiring short ID gets that ID back.
      * 
      * @param originalUrl the full URL to shorten
      * @return the generated short ID
      */
     public String shorten(String originalUrl) {
-        String shortId;
-        do {
-            shortId = generateShortId();
-        } while (repository.existsById(shortId));
+        return shorten(originalUrl, null);
+    }
 
-        repository.save(new ShortUrl(shortId, originalUrl));
+    /**
+     * Shortens a URL that stops resolving at {@code expiresAt}.
+     *
+     * @param originalUrl the full URL to shorten
+     * @param expiresAt when the link expires, or null for never
+     * @return the generated short ID
+     * @throws IllegalArgumentException if {@code expiresAt} is not in the future
+     */
+    public String shorten(String originalUrl, Instant expiresAt) {
+        if (expiresAt != null && !expiresAt.isAfter(Instant.now())) {
+            throw new IllegalArgumentException("expiresAt must be in the future");
+        }
+        // Expiring links are never shared: each campaign keeps its own deadline
+        String normalizedUrl = null;
+        Long urlHash = null;
+        if (deduplicator != null && expiresAt == null) {
+            normalizedUrl = UrlFingerprint.normalize(originalUrl);
+            urlHash = UrlFingerprint.hash(normalizedUrl);
+            Optional<String> existing = deduplicator.findExisting(normalizedUrl, urlHash);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+        }
+        String shortId = idGenerator.nextId();
+        repository.save(new ShortUrl(shortId, originalUrl, expiresAt, urlHash));
+        if (expiresAt != null) {
+            linkExpiry.track(shortId, expiresAt);
+        }
+        if (normalizedUrl != null) {
+            deduplicator.remember(normalizedUrl, shortId);
+        }
+        shortIdFilter.add(shortId);
         return shortId;
     }
 
+    /**
+     * Shortens many URLs at once.
+     * IDs are allocated in bulk and rows are written with JDBC batch inserts in one
+     * transaction, so either all URLs are stored or none are.
+     *
+     * @param originalUrls the full URLs to shorten
+     * @return the generated short IDs, in the same order as the input
+     */
+    @Transactional
+    public List<String> shortenAll(List<String> originalUrls) {
+        List<String> shortIds = idGenerator.nextIds(originalUrls.size());
+        List<ShortUrl> shortUrls = new ArrayList<>(originalUrls.size());
+        for (int i = 0; i < originalUrls.size(); i++) {
+            String originalUrl = originalUrls.get(i);
+            // Hashed only when dedup could ever look the row up
+            Long urlHash = deduplicator != null ? UrlFingerprint.hash(UrlFingerprint.normalize(originalUrl)) : null;
+            shortUrls.add(new ShortUrl(shortIds.get(i), originalUrl, null, urlHash));
+        }
+        repository.insertAll(shortUrls);
+        // Only publish the IDs to the Bloom filter once the rows are visible to a rebuild scan
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                shortIdFilter.addAll(shortIds);
+            }
+        });
+        return shortIds;
+    }
+
     /**
      * Resolves a short ID to the original URL.
      * Uses caching to check memory first.
+     * IDs the Bloom filter has never seen, and links known to have expired, return empty without a DB read.
+     * Concurrent misses for the same ID share a single DB read (optionally across nodes).
      * 
      * @param shortId the ID to look up
      * @return Optional containing the URL if found
      */
-    @Cacheable(value = "urls", key = "#shortId")
+    // Skip caching IDs the Bloom filter rejects, so random probes do not fill the cache.
+    // Expired links skip the cache too: the condition runs before the lookup, so a stale entry is never served.
+    @Cacheable(value = "urls", key = "#shortId",
+            condition = "@shortIdFilter.mightContain(#shortId) and !@linkExpiry.isExpired(#shortId)")
     public Optional<String> resolve(String shortId) {
-        return repository.findById(shortId)
-                .map(ShortUrl::getOriginalUrl);
+        if (shortIdFilter.rejects(shortId) || linkExpiry.isExpired(shortId)) {
+            return Optional.empty();
+        }
+        return resolveCoalescer.load(shortId, () -> repository.findById(shortId)
+                .filter(shortUrl -> !linkExpiry.checkExpired(shortUrl))
+                .map(ShortUrl::getOriginalUrl));
     }
 
     /**
@@ -56,36 +143,10 @@ public class UrlService {
     @CacheEvict(value = "urls", key = "#shortId")
     public void delete(String shortId) {
         repository.deleteById(shortId);
-    }
-
-    private String generateShortId() {
-        UUID uuid = UUID.randomUUID();
-        // Convert the UUID to a byte array.
-        // A UUID consists of two long values (mostSignificantBits and
-        // leastSignificantBits).
-        // Each long is 8 bytes, so we need a 16-byte array.
-        byte[] uuidBytes = new byte[16];
-        long msb = uuid.getMostSignificantBits();
-        long lsb = uuid.getLeastSignificantBits();
-        for (int i = 0; i < 8; i++) {
-            uuidBytes[i] = (byte) (msb >>> (8 * (7 - i)));
-            uuidBytes[8 + i] = (byte) (lsb >>> (8 * (7 - i)));
+        linkExpiry.forget(shortId);
+        resolveCoalescer.forget(shortId);
+        if (deduplicator != null) {
+            deduplicator.forget(shortId);
         }
-
-        // Encode the 16 bytes using URL-safe Base64.
-        // Base64 is more compact than hex representation.
-        // The URL-safe encoder replaces '+' with '-' and '/' with '_', and omits
-        // padding.
-        String base64Url = java.util.Base64.getUrlEncoder().withoutPadding().encodeToString(uuidBytes);
-
-        // Take a substring of the Base64-encoded string.
-        // A 16-byte UUID encodes to 22 characters in Base64 (without padding).
-        // Taking the first 9 characters provides a good balance between brevity and
-        // uniqueness.
-        // The original `substring(0, 8)` from hex gave 16^8 possibilities (approx 4.3
-        // billion).
-        // 9 characters from Base64 (64^9 possibilities) is much more unique (approx 2.6
-        // x 10^16).
-        return base64Url.substring(0, 9);
     }
 }
@@ -0,0 +1,25 @@
+-- Token bucket for RedisRateLimiter. Runs atomically inside Redis, so every node shares one bucket per client.
+-- KEYS[1]  bucket hash: t = tokens (thousandths), ts = last update (ms, Redis clock)
+-- ARGV[1]  capacity (thousandths of a token)
+-- ARGV[2]  refill (thousandths of a token per ms)
+-- ARGV[3]  idle TTL (ms): an untouched bucket is full again by then, so it can simply expire
+-- Returns 1 if a token was taken, 0 otherwise.
+local capacity = tonumber(ARGV[1])
+local rate = tonumber(ARGV[2])
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local state = redis.call('HMGET', KEYS[1], 't', 'ts')
+local tokens = tonumber(state[1]) or capacity
+local updated = tonumber(state[2]) or now
+if now > updated then
+    tokens = math.min(capacity, tokens + math.floor((now - updated) * rate))
+    updated = now
+end
+
+if tokens < 1000 then
+    return 0
+end
+redis.call('HSET', KEYS[1], 't', tokens - 1000, 'ts', updated)
+redis.call('PEXPIRE', KEYS[1], ARGV[3])
+return 1
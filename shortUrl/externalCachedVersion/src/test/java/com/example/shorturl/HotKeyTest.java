@@ -0,0 +1,79 @@
+package com.example.shorturl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shorturl.cache.hot-keys.enabled=true",
+        "shorturl.cache.hot-keys.threshold=50",
+        // Long pins and no decay during the test, so the counts below are exact
+        "shorturl.cache.hot-keys.pin-ttl=PT1M",
+        "shorturl.cache.hot-keys.window=PT1H"
+})
+@Testcontainers
+class HotKeyTest {
+
+    private static final int HOT_READS = 1000;
+    private static final int COLD_LINKS = 20;
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:alpine")
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void hotKeyIsPinnedLocally() {
+        String hotId = create("https://hot.com");
+        for (int i = 0; i < COLD_LINKS; i++) {
+            String coldId = create("https://cold.com/" + i);
+            restTemplate.getForEntity("/shorturl/" + coldId, Void.class);
+        }
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < HOT_READS; i++) {
+            ResponseEntity<Void> response = restTemplate.getForEntity("/shorturl/" + hotId, Void.class);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FOUND);
+        }
+        System.out.println(HOT_READS + " reads of a hot link took " + (System.currentTimeMillis() - start) + "ms");
+
+        Map<String, Object> stats = restTemplate.getForObject("/actuator/hotkeys", Map.class);
+        System.out.println("Hot key stats: " + stats);
+        Map<String, Object> hotKeys = (Map<String, Object>) stats.get("hotKeys");
+        assertThat(hotKeys).containsOnlyKeys(hotId);
+        // Everything after the read that crossed the threshold is served from the pin
+        assertThat(((Number) stats.get("redisCallsSaved")).longValue()).isEqualTo(HOT_READS - 50);
+
+        // A delete on this node unpins right away
+        restTemplate.delete("/shorturl/" + hotId);
+        assertThat(restTemplate.getForEntity("/shorturl/" + hotId, Void.class).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private String create(String url) {
+        ResponseEntity<Map> response = restTemplate.postForEntity("/shorturl", Map.of("url", url), Map.class);
+        String fullUrl = (String) response.getBody().get("shortUrl");
+        // Extract the last segment of the URL path
+        return fullUrl.substring(fullUrl.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.shorturl;
+
+import com.example.shorturl.aop.DelayManager;
+import com.example.shorturl.cache.CacheInvalidationPublisher;
+import com.example.shorturl.cache.TwoLevelCache;
+import com.example.shorturl.model.ShortUrl;
+import com.example.shorturl.repository.ShortUrlRepository;
+import com.example.shorturl.service.LinkExpiry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        // The 60s Redis TTL outlives the links, so only expiry handling can stop a stale redirect
+        properties = "shorturl.expiry.tick=PT0.1S")
+@Testcontainers
+class LinkExpiryTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:alpine")
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+    }
+
+    private static final int LINKS = 1000;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ShortUrlRepository repository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private DelayManager delayManager;
+
+    @AfterEach
+    void resetDelay() {
+        delayManager.setDelayRange(20, 20);
+    }
+
+    @Test
+    void expiredLinkIsRejectedWithoutDbReadAndDeleted() throws InterruptedException {
+        ResponseEntity<Map> created = restTemplate.postForEntity("/shorturl",
+                Map.of("url", "https://campaign.com", "ttl", "PT1S"), Map.class);
+        assertThat(created.getBody()).containsKey("expiresAt");
+        String shortId = extractShortId((String) created.getBody().get("shortUrl"));
+        assertThat(restTemplate.getForEntity("/shorturl/" + shortId, Void.class).getStatusCode()).isEqualTo(HttpStatus.FOUND);
+
+        Thread.sleep(1100);
+        // A DB read would now take 500ms
+        delayManager.setDelayRange(500, 500);
+        long start = System.nanoTime();
+        ResponseEntity<Void> expired = restTemplate.getForEntity("/shorturl/" + shortId, Void.class);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Resolve of an expired link took " + millis + "ms");
+        assertThat(expired.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(millis).isLessThan(250);
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (repository.existsById(shortId) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(repository.existsById(shortId)).isFalse();
+        // Replaced by a cached "not found"
+        assertThat(cacheManager.getCache("urls").get(shortId).get()).isNull();
+        start = System.nanoTime();
+        assertThat(restTemplate.getForEntity("/shorturl/" + shortId, Void.class).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(250);
+    }
+
+    @Test
+    void shortenRejectsPastExpiry() {
+        ResponseEntity<Map> response = restTemplate.postForEntity("/shorturl",
+                Map.of("url", "https://late.com", "expiresAt", Instant.now().minusSeconds(60).toString()), Map.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void deletesRunInBoundedChunks() throws InterruptedException {
+        // Own instance, ticked by hand: 100 rows per delete, at most 300 per tick
+        LinkExpiry expiry = new LinkExpiry(repository, cacheManager, Duration.ofMillis(100), 64, 100, 300);
+        Instant expiresAt = Instant.now().plusSeconds(3);
+        List<ShortUrl> links = new ArrayList<>();
+        for (int i = 0; i < LINKS; i++) {
+            links.add(new ShortUrl("exp" + UUID.randomUUID(), "https://bulk.com/" + i, expiresAt));
+        }
+        repository.saveAll(links);
+        links.forEach(link -> expiry.track(link.getShortUrl(), expiresAt));
+
+        expiry.tick();
+        assertThat(expiry.getDeleted()).isZero();
+
+        Thread.sleep(Math.max(0, Duration.between(Instant.now(), expiresAt).toMillis()) + 100);
+        expiry.tick();
+        assertThat(expiry.getDeleted()).isEqualTo(300);
+        assertThat(expiry.getPendingDeletes()).isEqualTo(LINKS - 300);
+
+        for (int i = 0; i < 3; i++) {
+            expiry.tick();
+        }
+        assertThat(expiry.getDeleted()).isEqualTo(LINKS);
+        assertThat(expiry.getTracked()).isZero();
+        assertThat(links).noneMatch(link -> repository.existsById(link.getShortUrl()));
+    }
+
+    @Test
+    void expiryDropsOtherNodesNearCacheCopy() throws InterruptedException {
+        CacheInvalidationPublisher publisher = mock(CacheInvalidationPublisher.class);
+        ConcurrentMapCache l1 = new ConcurrentMapCache("urls");
+        SimpleCacheManager urls = new SimpleCacheManager();
+        urls.setCaches(List.of(new TwoLevelCache(l1, new ConcurrentMapCache("urls"), publisher)));
+        urls.initializeCaches();
+        LinkExpiry expiry = new LinkExpiry(repository, urls, Duration.ofMillis(100), 64, 100, 300);
+        String shortId = "exp" + UUID.randomUUID();
+        urls.getCache("urls").put(shortId, "https://cached.com");
+        expiry.track(shortId, Instant.now().plusMillis(100));
+
+        Thread.sleep(300);
+        expiry.tick();
+
+        verify(publisher).publishEvict("urls", shortId);
+        assertThat(urls.getCache("urls").get(shortId).get()).isNull();
+    }
+
+    private String extractShortId(String shortUrl) {
+        return shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.shorturl;
+
+import com.example.shorturl.config.NearCacheConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+
+class NearCacheConfigTest {
+
+    @Test
+    void l2FollowsSpringCacheRedisSettings() {
+        CacheProperties properties = new CacheProperties();
+        properties.getRedis().setTimeToLive(Duration.ofSeconds(60));
+        properties.getRedis().setKeyPrefix("shorturl:");
+        properties.getRedis().setCacheNullValues(false);
+        properties.getRedis().setEnableStatistics(true);
+
+        RedisCache cache = l2Cache(properties);
+
+        assertThat(cache.getCacheConfiguration().getTtlFunction().getTimeToLive("abc", "https://example.com"))
+                .isEqualTo(Duration.ofSeconds(60));
+        assertThat(cache.getCacheConfiguration().getKeyPrefixFor("urls")).isEqualTo("shorturl:urls::");
+        assertThat(cache.getCacheConfiguration().getAllowCacheNullValues()).isFalse();
+        // The connection answers every read with a miss
+        cache.get("abc");
+        assertThat(cache.getStatistics().getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void statisticsStayOffUnlessEnabled() {
+        RedisCache cache = l2Cache(new CacheProperties());
+
+        cache.get("abc");
+
+        assertThat(cache.getStatistics().getMisses()).isZero();
+        assertThat(cache.getCacheConfiguration().getAllowCacheNullValues()).isTrue();
+    }
+
+    private static RedisCache l2Cache(CacheProperties properties) {
+        RedisCacheManager l2 = NearCacheConfig.redisCacheManager(mock(RedisConnectionFactory.class, RETURNS_DEEP_STUBS),
+                properties, NearCacheConfig.redisCacheConfiguration(properties),
+                new StaticListableBeanFactory().getBeanProvider(RedisCacheManagerBuilderCustomizer.class));
+        return (RedisCache) l2.getCache("urls");
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.shorturl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Near-cache mode: each server has its own Caffeine L1 in front of Redis.
+ * A delete on one server must be broadcast so the other server drops its L1 copy.
+ */
+@Testcontainers
+public class NearCacheConsistencyTest {
+
+    @Container
+    public static GenericContainer<?> redis = new GenericContainer<>("redis:alpine")
+            .withExposedPorts(6379);
+
+    @Test
+    void testL1InvalidatedOnDelete() throws Exception {
+        ConfigurableApplicationContext serverA = startApp(redis.getHost(), redis.getFirstMappedPort());
+        ConfigurableApplicationContext serverB = startApp(redis.getHost(), redis.getFirstMappedPort());
+
+        try {
+            int portA = getPort(serverA);
+            int portB = getPort(serverB);
+
+            RestTemplate client = new RestTemplate();
+            client.setErrorHandler(new org.springframework.web.client.DefaultResponseErrorHandler() {
+                @Override
+                protected boolean hasError(HttpStatusCode statusCode) {
+                    return false;
+                }
+            });
+
+            // 1. Create on A
+            ResponseEntity<Map> createResp = client.postForEntity(
+                    "http://localhost:" + portA + "/shorturl",
+                    Map.of("url", "https://near-cache.com"),
+                    Map.class);
+            String shortId = extractShortId((String) createResp.getBody().get("shortUrl"));
+
+            // 2. Read on A (DB -> Redis -> L1 A), then twice on B (Redis -> L1 B, then L1 B hit)
+            client.getForEntity("http://localhost:" + portA + "/shorturl/" + shortId, Void.class);
+            client.getForEntity("http://localhost:" + portB + "/shorturl/" + shortId, Void.class);
+            ResponseEntity<Void> respB1 = client.getForEntity("http://localhost:" + portB + "/shorturl/" + shortId,
+                    Void.class);
+            assertThat(respB1.getStatusCode()).isEqualTo(HttpStatus.FOUND);
+
+            Map<String, Map<String, Number>> statsB = client.getForObject(
+                    "http://localhost:" + portB + "/actuator/nearcache", Map.class);
+            assertThat(statsB.get("urls").get("l1Hits").longValue()).isGreaterThanOrEqualTo(1);
+            assertThat(statsB.get("urls").get("l2Hits").longValue()).isGreaterThanOrEqualTo(1);
+
+            // 3. Delete on A -> Redis evicted, invalidation broadcast
+            client.delete("http://localhost:" + portA + "/shorturl/" + shortId);
+
+            // 4. B's L1 is dropped by the pub/sub message within milliseconds
+            HttpStatusCode statusB = HttpStatus.FOUND;
+            long deadline = System.currentTimeMillis() + 1000;
+            while (statusB != HttpStatus.NOT_FOUND && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+                statusB = client.getForEntity("http://localhost:" + portB + "/shorturl/" + shortId, Void.class)
+                        .getStatusCode();
+            }
+            assertThat(statusB).isEqualTo(HttpStatus.NOT_FOUND);
+        } finally {
+            serverA.close();
+            serverB.close();
+        }
+    }
+
+    private ConfigurableApplicationContext startApp(String redisHost, int redisPort) {
+        // Command-line args, because builder properties are defaults and lose to application.properties
+        return new SpringApplicationBuilder(ShortUrlApplication.class)
+                .run("--server.port=0",
+                        "--spring.jmx.enabled=false",
+                        "--spring.data.redis.host=" + redisHost,
+                        "--spring.data.redis.port=" + redisPort,
+                        "--shorturl.cache.near.enabled=true");
+    }
+
+    private int getPort(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getProperty("local.server.port", Integer.class);
+    }
+
+    private String extractShortId(String fullUrl) {
+        // Extract the last segment of the URL path
+        return fullUrl.substring(fullUrl.lastIndexOf('/') + 1);
+    }
+}
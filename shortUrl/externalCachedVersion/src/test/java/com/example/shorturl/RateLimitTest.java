@@ -0,0 +1,244 @@
+package com.example.shorturl;
+
+import com.example.shorturl.ratelimit.LocalRateLimiter;
+import com.example.shorturl.ratelimit.RateLimitInterceptor;
+import com.example.shorturl.ratelimit.RedisRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shorturl.rate-limit.enabled=true",
+        "shorturl.rate-limit.capacity=5",
+        "shorturl.rate-limit.refill-per-second=1",
+        "shorturl.rate-limit.api-keys=client-a,client-b"
+})
+@Testcontainers
+class RateLimitTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:alpine")
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Test
+    void bucketRefillsAtTheConfiguredRateUpToCapacity() {
+        AtomicLong now = new AtomicLong(1_000);
+        LocalRateLimiter limiter = new LocalRateLimiter(3, 2, 100, now::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("a")).isTrue();
+        }
+        assertThat(limiter.tryAcquire("a")).isFalse();
+        // Other clients have their own bucket
+        assertThat(limiter.tryAcquire("b")).isTrue();
+
+        // 2 tokens per second: one every 500 ms, counted from the last update even across rejections
+        now.addAndGet(499);
+        assertThat(limiter.tryAcquire("a")).isFalse();
+        now.addAndGet(1);
+        assertThat(limiter.tryAcquire("a")).isTrue();
+        assertThat(limiter.tryAcquire("a")).isFalse();
+
+        // A long pause refills to capacity, not beyond
+        now.addAndGet(60_000);
+        assertThat(limiter.availableTokens("a")).isEqualTo(3);
+    }
+
+    @Test
+    void concurrentCallersNeverGetMoreThanCapacity() throws Exception {
+        // Frozen clock: no refill, so exactly `capacity` acquisitions may succeed however the CASes interleave
+        LocalRateLimiter limiter = new LocalRateLimiter(10_000, 1, 100, () -> 42);
+        int threads = 8;
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 5_000; i++) {
+                    if (limiter.tryAcquire("shared")) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertThat(granted.get()).isEqualTo(10_000);
+    }
+
+    @Test
+    void hotPathTiming() {
+        int clients = 200_000;
+        LocalRateLimiter limiter = new LocalRateLimiter(20, 5, 1_000_000);
+        String[] keys = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            keys[i] = "ip:10.0." + (i >> 8) + "." + (i & 0xFF);
+        }
+        // Warm up the JIT, then measure: a mix of hot keys and a long tail, like real traffic
+        for (int i = 0; i < 2_000_000; i++) {
+            limiter.tryAcquire(keys[Math.floorMod(i * 31, clients)]);
+        }
+        int ops = 5_000_000;
+        long start = System.nanoTime();
+        int allowed = 0;
+        for (int i = 0; i < ops; i++) {
+            String key = (i & 3) == 0 ? keys[Math.floorMod(i * 7919, clients)] : keys[i % 1000];
+            if (limiter.tryAcquire(key)) {
+                allowed++;
+            }
+        }
+        double nsPerOp = (System.nanoTime() - start) / (double) ops;
+        // Printed only: wall-clock time on a shared CI machine is no pass/fail signal
+        System.out.printf("Rate limiter: %.0f ns per tryAcquire over %d clients, %d allowed%n",
+                nsPerOp, clients, allowed);
+    }
+
+    @Test
+    void bucketsAreBoundedAndEvictedWhenIdle() {
+        AtomicLong now = new AtomicLong(1_000);
+        // Full refill takes 4 s, after which an idle bucket is indistinguishable from a new one
+        LocalRateLimiter limiter = new LocalRateLimiter(20, 5, 10_000, now::get);
+        for (int i = 0; i < 50_000; i++) {
+            limiter.tryAcquire("ip:" + i);
+        }
+        limiter.cleanUp();
+        assertThat(limiter.getBucketCount()).isLessThanOrEqualTo(10_000);
+
+        limiter.tryAcquire("ip:busy");
+        now.addAndGet(3_999);
+        limiter.tryAcquire("ip:busy");
+        now.addAndGet(1);
+        assertThat(limiter.evictIdle()).isGreaterThan(0);
+        assertThat(limiter.getBucketCount()).isEqualTo(1);
+        assertThat(limiter.availableTokens("ip:busy")).isEqualTo(19);
+    }
+
+    @Test
+    void shortenOverTheLimitGets429PerClient() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(shorten("client-a").getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+        ResponseEntity<Map> limited = shorten("client-a");
+        assertThat(limited.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(limited.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+
+        // Another client is not affected, and resolves are never limited
+        ResponseEntity<Map> other = shorten("client-b");
+        assertThat(other.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String shortUrl = (String) other.getBody().get("shortUrl");
+        assertThat(restTemplate.getForEntity(shortUrl.substring(shortUrl.indexOf("/shorturl")), Void.class)
+                .getStatusCode()).isEqualTo(HttpStatus.FOUND);
+    }
+
+    @Test
+    void unknownApiKeysShareTheRemoteAddressBucket() {
+        LocalRateLimiter limiter = new LocalRateLimiter(3, 1, 100, () -> 42);
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(limiter, Set.of("client-a"), 1, new SimpleMeterRegistry());
+
+        // A made-up key per request is still one client: the remote address
+        for (int i = 0; i < 3; i++) {
+            assertThat(interceptor.preHandle(post("10.0.0.1", UUID.randomUUID().toString()), new MockHttpServletResponse(), null))
+                    .isTrue();
+        }
+        MockHttpServletResponse limited = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(post("10.0.0.1", UUID.randomUUID().toString()), limited, null)).isFalse();
+        assertThat(limited.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        limiter.cleanUp();
+        assertThat(limiter.getBucketCount()).isEqualTo(1);
+
+        // A configured key has its own bucket, wherever it comes from
+        assertThat(interceptor.preHandle(post("10.0.0.1", "client-a"), new MockHttpServletResponse(), null)).isTrue();
+        limiter.cleanUp();
+        assertThat(limiter.getBucketCount()).isEqualTo(2);
+    }
+
+    @Test
+    void redisModeSharesOneBucketAcrossNodes() {
+        ConfigurableApplicationContext node = new SpringApplicationBuilder(ShortUrlApplication.class)
+                .properties("spring.jmx.enabled=false")
+                .run("--server.port=0",
+                        "--spring.data.redis.host=" + redis.getHost(),
+                        "--spring.data.redis.port=" + redis.getFirstMappedPort(),
+                        "--shorturl.rate-limit.enabled=true",
+                        "--shorturl.rate-limit.mode=redis",
+                        "--shorturl.rate-limit.capacity=5",
+                        "--shorturl.rate-limit.refill-per-second=1");
+        try {
+            RedisRateLimiter nodeA = node.getBean(RedisRateLimiter.class);
+            // A second node is just another limiter on the same Redis
+            RedisRateLimiter nodeB = new RedisRateLimiter(redisTemplate, "shorturl:ratelimit:", 5, 1);
+            String client = "key:" + UUID.randomUUID();
+
+            int granted = 0;
+            for (int i = 0; i < 10; i++) {
+                if ((i % 2 == 0 ? nodeA : nodeB).tryAcquire(client)) {
+                    granted++;
+                }
+            }
+            assertThat(granted).isEqualTo(5);
+            // Idle buckets expire once they would be full again (5 tokens at 1/s)
+            Long ttl = redisTemplate.getExpire("shorturl:ratelimit:" + client);
+            assertThat(ttl).isBetween(1L, 5L);
+        } finally {
+            node.close();
+        }
+    }
+
+    private static MockHttpServletRequest post(String remoteAddr, String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/shorturl");
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader(RateLimitInterceptor.API_KEY_HEADER, apiKey);
+        return request;
+    }
+
+    private ResponseEntity<Map> shorten(String apiKey) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(RateLimitInterceptor.API_KEY_HEADER, apiKey);
+        return restTemplate.postForEntity("/shorturl", new HttpEntity<>(Map.of("url", "https://limited.com"), headers), Map.class);
+    }
+}
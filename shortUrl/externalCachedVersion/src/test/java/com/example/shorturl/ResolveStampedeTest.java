@@ -0,0 +1,102 @@
+package com.example.shorturl;
+
+import com.example.shorturl.service.ResolveCoalescer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires parallel resolves for a cold key at two servers and checks the DB is read once in total.
+ */
+@Testcontainers
+public class ResolveStampedeTest {
+
+    private static final int PARALLEL_REQUESTS = 50;
+
+    @Container
+    public static GenericContainer<?> redis = new GenericContainer<>("redis:alpine")
+            .withExposedPorts(6379);
+
+    @Test
+    void parallelMissesOnColdKeyReadDbOnceAcrossNodes() throws Exception {
+        ConfigurableApplicationContext serverA = startApp(redis.getHost(), redis.getFirstMappedPort());
+        ConfigurableApplicationContext serverB = startApp(redis.getHost(), redis.getFirstMappedPort());
+        ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_REQUESTS);
+
+        try {
+            int portA = getPort(serverA);
+            int portB = getPort(serverB);
+            RestTemplate client = new RestTemplate();
+
+            // shorten does not populate the cache, so the key is cold
+            ResponseEntity<Map> createResp = client.postForEntity(
+                    "http://localhost:" + portA + "/shorturl",
+                    Map.of("url", "https://viral.com"),
+                    Map.class);
+            String shortId = extractShortId((String) createResp.getBody().get("shortUrl"));
+
+            // Slow DB makes the miss window wide enough for every request to land in it
+            client.postForEntity("http://localhost:" + portA + "/shorturl/config/delay?min=300&max=300", null, Void.class);
+            client.postForEntity("http://localhost:" + portB + "/shorturl/config/delay?min=300&max=300", null, Void.class);
+
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<HttpStatusCode>> responses = new ArrayList<>();
+            for (int i = 0; i < PARALLEL_REQUESTS; i++) {
+                int port = i % 2 == 0 ? portA : portB;
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return client.getForEntity("http://localhost:" + port + "/shorturl/" + shortId, Void.class)
+                            .getStatusCode();
+                }));
+            }
+            start.countDown();
+
+            for (Future<HttpStatusCode> response : responses) {
+                assertThat(response.get()).isEqualTo(HttpStatus.FOUND);
+            }
+            long loads = serverA.getBean(ResolveCoalescer.class).getLoads()
+                    + serverB.getBean(ResolveCoalescer.class).getLoads();
+            assertThat(loads).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+            serverA.close();
+            serverB.close();
+        }
+    }
+
+    private ConfigurableApplicationContext startApp(String redisHost, int redisPort) {
+        // Command-line args, because builder properties are defaults and lose to application.properties
+        return new SpringApplicationBuilder(ShortUrlApplication.class)
+                .run("--server.port=0",
+                        "--spring.jmx.enabled=false",
+                        "--spring.data.redis.host=" + redisHost,
+                        "--spring.data.redis.port=" + redisPort,
+                        "--shorturl.single-flight.distributed=true");
+    }
+
+    private int getPort(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getProperty("local.server.port", Integer.class);
+    }
+
+    private String extractShortId(String fullUrl) {
+        // Extract the last segment of the URL path
+        return fullUrl.substring(fullUrl.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.shorturl;
+
+import com.example.shorturl.repository.ShortUrlRepository;
+import com.example.shorturl.service.ShortIdFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ShortIdFilterTest {
+
+    private final List<ShortIdFilter> nodes = new ArrayList<>();
+
+    @Test
+    void idCreatedOnOneNodeIsNotRejectedOnAnother() {
+        // Redis pub/sub stand-in: every published message reaches every node, the sender included
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        doAnswer(invocation -> {
+            String message = invocation.getArgument(1);
+            nodes.forEach(node -> node.onAdded(message));
+            return 1L;
+        }).when(redis).convertAndSend(eq(ShortIdFilter.CHANNEL), anyString());
+
+        ShortIdFilter nodeA = node(redis);
+        ShortIdFilter nodeB = node(redis);
+
+        nodeA.add("single");
+        nodeA.addAll(List.of("batch1", "batch2"));
+
+        assertThat(nodeB.rejects("single")).isFalse();
+        assertThat(nodeB.rejects("batch1")).isFalse();
+        assertThat(nodeB.rejects("batch2")).isFalse();
+        assertThat(nodeB.rejects("never-created")).isTrue();
+    }
+
+    private ShortIdFilter node(StringRedisTemplate redis) {
+        ShortUrlRepository repository = mock(ShortUrlRepository.class);
+        ShortIdFilter filter = new ShortIdFilter(repository, redis, true, 1000, 0.01);
+        filter.rebuild();
+        nodes.add(filter);
+        return filter;
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
@@ -24,6 +25,8 @@ import java.util.Map;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+// Tests switch metrics export off by default; needed for /actuator/prometheus
+@AutoConfigureObservability
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @Testcontainers
@@ -78,6 +81,20 @@ class ShortUrlApplicationTests {
 
     @Test
     @Order(3)
+    void prometheusExposesRequestPathMetrics() {
+        String metrics = restTemplate.getForObject("/actuator/prometheus", String.class);
+
+        // Histogram buckets for the service and store calls made by the tests above
+        assertThat(metrics).containsPattern("shorturl_service_seconds_bucket\\{.*method=\"resolve\"");
+        assertThat(metrics).containsPattern("shorturl_service_seconds_count\\{.*method=\"shorten\"");
+        assertThat(metrics).contains("shorturl_repository_seconds_count{");
+        assertThat(metrics).contains("shorturl_delay_configured_seconds{");
+        assertThat(metrics).containsPattern("cache_gets_total\\{.*result=\"miss\"");
+        assertThat(metrics).contains("redis_keys_expired_total{");
+    }
+
+    @Test
+    @Order(4)
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
     void verifyDataPersistenceAfterRestart() {
         // @DirtiesContext BEFORE_METHOD forces Spring to reload the context before this
@@ -0,0 +1,48 @@
+package com.example.shorturl;
+
+import com.example.shorturl.cache.TwoLevelCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwoLevelCacheTest {
+
+    @Test
+    void l2HitIsNotPromotedOverAnEvictionThatLandedDuringTheRead() {
+        ConcurrentMapCache l1 = new ConcurrentMapCache("urls");
+        AtomicReference<TwoLevelCache> cache = new AtomicReference<>();
+        // L2 still returns the old value, and the pub/sub eviction from the deleting node arrives mid-read
+        ConcurrentMapCache l2 = new ConcurrentMapCache("urls") {
+            @Override
+            public ValueWrapper get(Object key) {
+                ValueWrapper stale = super.get(key);
+                cache.get().evictLocal(key);
+                return stale;
+            }
+        };
+        l2.put("abc", "https://deleted.com");
+        cache.set(new TwoLevelCache(l1, l2, null));
+
+        assertThat(cache.get().get("abc").get()).isEqualTo("https://deleted.com");
+
+        assertThat(l1.get("abc")).isNull();
+    }
+
+    @Test
+    void l2HitIsPromotedWhenNothingWasEvicted() {
+        ConcurrentMapCache l1 = new ConcurrentMapCache("urls");
+        ConcurrentMapCache l2 = new ConcurrentMapCache("urls");
+        l2.put("abc", "https://example.com");
+        TwoLevelCache cache = new TwoLevelCache(l1, l2, null);
+
+        cache.get("abc");
+        cache.get("abc");
+
+        assertThat(l1.get("abc").get()).isEqualTo("https://example.com");
+        assertThat(cache.getL1Hits()).isEqualTo(1);
+        assertThat(cache.getL2Hits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.shorturl;
+
+import com.example.shorturl.aop.DelayManager;
+import com.example.shorturl.repository.ShortUrlRepository;
+import com.example.shorturl.service.UrlDeduplicator;
+import com.example.shorturl.service.UrlService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Shortens a skewed stream of shares (Zipfian over a fixed set of URLs) with dedup on and checks
+ * that every distinct URL ends up with one row, and one Redis entry once resolved.
+ */
+@SpringBootTest(properties = "shorturl.dedup.enabled=true")
+@Testcontainers
+class UrlDedupTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:alpine")
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+    }
+
+    private static final int SHARES = 2000;
+    private static final int DISTINCT_URLS = 200;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private UrlDeduplicator deduplicator;
+
+    @Autowired
+    private ShortUrlRepository repository;
+
+    @Autowired
+    private DelayManager delayManager;
+
+    @AfterEach
+    void resetDelay() {
+        delayManager.setDelayRange(20, 20);
+    }
+
+    @Test
+    void skewedSharesReuseIds() {
+        delayManager.setDelayRange(0, 0);
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<String> urls = IntStream.range(0, DISTINCT_URLS)
+                .mapToObj(i -> "https://news.example.com/" + run + "/article/" + i + "?utm_source=share")
+                .toList();
+        double[] cdf = zipfCdf(DISTINCT_URLS, 1.0);
+        Random random = new Random(42);
+
+        long rowsBefore = repository.count();
+        long hitsBefore = deduplicator.getRecentHits();
+        Set<String> shortIds = new HashSet<>();
+        for (int i = 0; i < SHARES; i++) {
+            String url = urls.get(sample(cdf, random));
+            // Every tenth share comes from a client that upper-cases the host and spells out the port
+            String shared = i % 10 == 0 ? url.replace("https://news.example.com/", "https://NEWS.example.com:443/") : url;
+            String shortId = urlService.shorten(shared);
+            shortIds.add(shortId);
+            assertThat(urlService.resolve(shortId)).isPresent();
+        }
+        long rowsCreated = repository.count() - rowsBefore;
+
+        System.out.printf("Dedup stats: %d shares of %d URLs -> %d rows (%d without dedup), %d recent hits%n",
+                SHARES, DISTINCT_URLS, rowsCreated, SHARES, deduplicator.getRecentHits() - hitsBefore);
+
+        assertThat(rowsCreated).isEqualTo(shortIds.size()).isLessThanOrEqualTo(DISTINCT_URLS);
+        assertThat(deduplicator.getRecentHits() - hitsBefore).isGreaterThan(SHARES / 2);
+    }
+
+    @Test
+    void expiringAndDeletedLinksAreNotReused() {
+        String url = "https://promo.example.com/" + UUID.randomUUID();
+        String permanent = urlService.shorten(url);
+        assertThat(urlService.shorten(url.replace("https://promo", "HTTPS://PROMO"))).isEqualTo(permanent);
+
+        String expiring = urlService.shorten(url, Instant.now().plusSeconds(3600));
+        assertThat(expiring).isNotEqualTo(permanent);
+
+        urlService.delete(permanent);
+        assertThat(urlService.shorten(url)).isNotEqualTo(permanent).isNotEqualTo(expiring);
+    }
+
+    @Test
+    void linkDeletedOnAnotherNodeIsNotReused() {
+        String url = "https://moved.example.com/" + UUID.randomUUID();
+        String shortId = urlService.shorten(url);
+        assertThat(urlService.shorten(url)).isEqualTo(shortId);
+
+        // Another node's delete: the row goes, this node's dedup cache is not told
+        repository.deleteById(shortId);
+
+        assertThat(urlService.shorten(url)).isNotEqualTo(shortId);
+    }
+
+    private static double[] zipfCdf(int n, double s) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, s);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, Random random) {
+        int index = java.util.Arrays.binarySearch(cdf, random.nextDouble());
+        return index >= 0 ? index : Math.min(-index - 1, cdf.length - 1);
+    }
+}
@@ -2,9 +2,11 @@ package com.example.shorturl;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.cache.annotation.EnableCaching;
 
 @SpringBootApplication
+@EnableScheduling
 @EnableCaching
 public class ShortUrlApplication {
 
@@ -0,0 +1,50 @@
+package com.example.shorturl.config;
+
+import com.example.shorturl.model.ShortUrl;
+import com.example.shorturl.repository.ShortUrlRepository;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Refresh-ahead mode ({@code shorturl.cache.refresh-ahead.enabled=true}): an entry read after
+ * {@code refresh-after-write} is reloaded in the background while readers keep getting the current
+ * value, so a popular key never expires into a synchronous DB read. Keys that are not read again
+ * still expire after {@code expireAfterWrite}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shorturl.cache.refresh-ahead.enabled", havingValue = "true")
+public class RefreshAheadConfig {
+
+    /**
+     * Picked up by the auto-configured {@link CaffeineCacheManager}, which then builds loading caches.
+     * Cache misses load through it too, so they are still a single DB read per key.
+     * The repository is looked up lazily: the cache manager is created before JPA is ready.
+     */
+    @Bean
+    public CacheLoader<Object, Object> urlCacheLoader(ObjectProvider<ShortUrlRepository> repository) {
+        // Same store values as @Cacheable: the unwrapped URL, or NullValue for an unknown ID
+        return key -> repository.getObject().findById((String) key)
+                .filter(shortUrl -> !shortUrl.isExpiredAt(Instant.now()))
+                .<Object>map(ShortUrl::getOriginalUrl)
+                .orElse(NullValue.INSTANCE);
+    }
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> refreshAheadCustomizer(CacheProperties cacheProperties,
+            @Value("${shorturl.cache.refresh-ahead.refresh-after-write:PT1S}") Duration refreshAfterWrite) {
+        String spec = cacheProperties.getCaffeine().getSpec();
+        String refresh = "refreshAfterWrite=" + refreshAfterWrite;
+        return cacheManager -> cacheManager.setCacheSpecification(spec == null ? refresh : spec + "," + refresh);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.shorturl.controller;
+
+import com.example.shorturl.service.ClickRecorder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/shorturl")
+public class ClickStatsController {
+
+    private static final int MAX_TOP = 1000;
+
+    private final ClickRecorder clickRecorder;
+
+    public ClickStatsController(ClickRecorder clickRecorder) {
+        this.clickRecorder = clickRecorder;
+    }
+
+    @GetMapping("/{shortId}/stats")
+    public ResponseEntity<ClickRecorder.Stats> stats(@PathVariable String shortId) {
+        return clickRecorder.stats(shortId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/stats/top")
+    public ResponseEntity<Map<String, ?>> top(@RequestParam(defaultValue = "10") int k) {
+        if (k < 1 || k > MAX_TOP) {
+            return ResponseEntity.badRequest().body(Map.of("error", "k must be between 1 and " + MAX_TOP));
+        }
+        List<ClickRecorder.Stats> top = clickRecorder.top(k);
+        return ResponseEntity.ok(Map.of("top", top));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.shorturl.model;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * Normal form and fixed-width hash of a long URL, for finding an existing short ID for the same URL.
+ *
+ * <p>Normalizing lower-cases the scheme and host, drops the default port and the fragment, and turns an
+ * empty path into {@code /}. Path and query are kept as they are, since servers may treat them as
+ * case-sensitive. Strings that do not parse as a URI are only trimmed.
+ *
+ * <p>The hash is the first 8 bytes of the SHA-256 of the normal form. Collisions are possible, so a match
+ * on the hash must be confirmed by comparing normal forms.
+ */
+public final class UrlFingerprint {
+
+    private UrlFingerprint() {
+    }
+
+    public static String normalize(String url) {
+        String trimmed = url.trim();
+        try {
+            URI uri = new URI(trimmed);
+            if (uri.getScheme() == null || uri.getRawAuthority() == null) {
+                return trimmed;
+            }
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            String host = uri.getHost() == null ? uri.getRawAuthority() : uri.getHost().toLowerCase(Locale.ROOT);
+            int port = uri.getPort();
+            boolean defaultPort = port == -1
+                    || (port == 80 && scheme.equals("http"))
+                    || (port == 443 && scheme.equals("https"));
+            StringBuilder normal = new StringBuilder(trimmed.length()).append(scheme).append("://");
+            if (uri.getRawUserInfo() != null) {
+                normal.append(uri.getRawUserInfo()).append('@');
+            }
+            normal.append(host);
+            if (!defaultPort) {
+                normal.append(':').append(port);
+            }
+            String path = uri.getRawPath();
+            normal.append(path == null || path.isEmpty() ? "/" : path);
+            if (uri.getRawQuery() != null) {
+                normal.append('?').append(uri.getRawQuery());
+            }
+            return normal.toString();
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+    }
+
+    /**
+     * @param normalizedUrl the output of {@link #normalize}
+     */
+    public static long hash(String normalizedUrl) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalizedUrl.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.shorturl.repository;
+
+import com.example.shorturl.model.ClickStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface ClickStatsRepository extends JpaRepository<ClickStats, String>, ClickStatsUpserts {
+
+    @Query("select c from ClickStats c order by c.clicks desc")
+    List<ClickStats> findTopByClicks(Pageable pageable);
+}
@@ -0,0 +1,24 @@
+package com.example.shorturl.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Streams every short ID without loading entities into the persistence context.
+ * Each scan runs in a read-only transaction: outside one the connection is in autocommit, and the
+ * PostgreSQL driver then ignores the fetch size and reads the whole result into memory.
+ */
+public interface ShortUrlIdScan {
+
+    @Transactional(readOnly = true)
+    void forEachShortId(Consumer<String> action);
+
+    /**
+     * Short ID and deadline of every link with an {@code expires_at}.
+     */
+    @Transactional(readOnly = true)
+    void forEachExpiring(BiConsumer<String, Instant> action);
+}
@@ -0,0 +1,35 @@
+package com.example.shorturl.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+class ShortUrlIdScanImpl implements ShortUrlIdScan {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ShortUrlIdScanImpl(DataSource dataSource) {
+        // Own template so the fetch size does not leak into other queries
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    @Override
+    public void forEachShortId(Consumer<String> action) {
+        jdbcTemplate.query("select short_url from short_urls", rs -> {
+            action.accept(rs.getString(1));
+        });
+    }
+
+    @Override
+    public void forEachExpiring(BiConsumer<String, Instant> action) {
+        jdbcTemplate.query("select short_url, expires_at from short_urls where expires_at is not null", rs -> {
+            action.accept(rs.getString(1), rs.getTimestamp(2).toInstant());
+        });
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.shorturl.service;
+
+import com.example.shorturl.model.ShortUrl;
+import com.example.shorturl.repository.ShortUrlRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms the {@code urls} cache after a restart so the first minutes of traffic do not all go to the DB.
+ *
+ * <p>Every {@code snapshot-interval}, and on shutdown, the IDs of the hottest cached entries are written
+ * to a local file: by Caffeine's frequency sketch when the cache has a {@code maximumSize}, otherwise
+ * whatever is cached. On startup they are loaded with one {@code findAllById} query and put into the
+ * cache. This runs in an {@link ApplicationReadyEvent} listener, and Spring Boot only reports the app
+ * as ready (readiness probe) once those listeners are done.
+ *
+ * <p>Warm-up time and warmed entry count are published as {@code shorturl.cache.warmup.time} and
+ * {@code shorturl.cache.warmup.entries}.
+ */
+@Component
+@ConditionalOnProperty(name = "shorturl.cache.warm-up.enabled", havingValue = "true")
+public class CacheWarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmer.class);
+
+    private static final String CACHE_NAME = "urls";
+
+    private final CacheManager cacheManager;
+    private final ShortUrlRepository repository;
+    private final Path snapshotPath;
+    private final int maxEntries;
+
+    private volatile long warmUpMillis;
+    private volatile int warmedEntries;
+
+    public CacheWarmer(CacheManager cacheManager, ShortUrlRepository repository, MeterRegistry meterRegistry,
+            @Value("${shorturl.cache.warm-up.snapshot-path:${java.io.tmpdir}/shortUrl-hot-keys.txt}") Path snapshotPath,
+            @Value("${shorturl.cache.warm-up.max-entries:10000}") int maxEntries) {
+        this.cacheManager = cacheManager;
+        this.repository = repository;
+        this.snapshotPath = snapshotPath;
+        this.maxEntries = maxEntries;
+        TimeGauge.builder("shorturl.cache.warmup.time", this, TimeUnit.MILLISECONDS, warmer -> warmer.warmUpMillis)
+                .description("Time spent warming the cache on startup")
+                .register(meterRegistry);
+        Gauge.builder("shorturl.cache.warmup.entries", this, warmer -> warmer.warmedEntries)
+                .description("Entries put into the cache on startup")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!Files.exists(snapshotPath)) {
+            log.info("No hot-key snapshot at {}, starting with a cold cache", snapshotPath);
+            return;
+        }
+        long start = System.currentTimeMillis();
+        List<String> shortIds;
+        try (var lines = Files.lines(snapshotPath)) {
+            shortIds = lines.filter(line -> !line.isBlank()).limit(maxEntries).toList();
+        } catch (IOException e) {
+            log.warn("Could not read hot-key snapshot {}, starting with a cold cache", snapshotPath, e);
+            return;
+        }
+        org.springframework.cache.Cache cache = cacheManager.getCache(CACHE_NAME);
+        int warmed = 0;
+        Instant now = Instant.now();
+        // One IN query for the whole snapshot; IDs deleted since are simply not returned
+        for (ShortUrl shortUrl : repository.findAllById(shortIds)) {
+            if (shortUrl.isExpiredAt(now)) {
+                continue;
+            }
+            // Same value @Cacheable stores for a found Optional<String>
+            cache.put(shortUrl.getShortUrl(), shortUrl.getOriginalUrl());
+            warmed++;
+        }
+        warmedEntries = warmed;
+        warmUpMillis = System.currentTimeMillis() - start;
+        log.info("Warmed cache with {} of {} snapshotted IDs in {} ms", warmed, shortIds.size(), warmUpMillis);
+    }
+
+    @Scheduled(initialDelayString = "${shorturl.cache.warm-up.snapshot-interval:PT30S}",
+            fixedDelayString = "${shorturl.cache.warm-up.snapshot-interval:PT30S}")
+    public void snapshot() {
+        List<String> shortIds = hottestIds();
+        if (shortIds.isEmpty()) {
+            // Keep the previous snapshot rather than overwrite it with nothing
+            return;
+        }
+        try {
+            Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            Files.write(tmp, shortIds);
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write hot-key snapshot {}", snapshotPath, e);
+        }
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        snapshot();
+    }
+
+    private List<String> hottestIds() {
+        if (!(cacheManager.getCache(CACHE_NAME) instanceof CaffeineCache caffeineCache)) {
+            return List.of();
+        }
+        Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+        Set<Object> keys = nativeCache.policy().eviction()
+                .map(eviction -> eviction.hottest(maxEntries).keySet())
+                .orElseGet(() -> nativeCache.asMap().keySet());
+        List<String> shortIds = new ArrayList<>(Math.min(keys.size(), maxEntries));
+        for (Object key : keys) {
+            if (shortIds.size() == maxEntries) {
+                break;
+            }
+            shortIds.add((String) key);
+        }
+        return shortIds;
+    }
+
+    public long getWarmUpMillis() {
+        return warmUpMillis;
+    }
+
+    public int getWarmedEntries() {
+        return warmedEntries;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.shorturl.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Makes concurrent cache misses for the same short ID share one DB read.
+ * When a popular entry expires, every request that misses at the same moment
+ * waits for the first one's {@code findById} instead of hitting the DB itself.
+ */
+@Component
+public class ResolveCoalescer {
+
+    private final SingleFlight<String, Optional<String>> singleFlight = new SingleFlight<>();
+    private final LongAdder loads = new LongAdder();
+
+    public Optional<String> load(String shortId, Supplier<Optional<String>> loader) {
+        return singleFlight.load(shortId, () -> {
+            loads.increment();
+            return loader.get();
+        });
+    }
+
+    /**
+     * @return how many times a loader actually ran (i.e. DB reads for resolve)
+     */
+    public long getLoads() {
+        return loads.sum();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.shorturl.service;
+
+import com.example.shorturl.repository.ShortUrlRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter of all existing short IDs, so lookups for IDs that were never
+ * created (e.g. bots scanning random IDs) are answered without a DB read.
+ *
+ * <p>Built from the repository once the app is ready, updated on every shorten and
+ * rebuilt every {@code rebuild-interval} to drop deleted IDs. Until the first build
+ * finishes every ID is treated as possibly present.
+ *
+ * <p>The filter is per node and nothing tells it about IDs created on other nodes, so it
+ * rejects them (404) until its next rebuild. Only enable it when a single node serves
+ * both shorten and resolve.
+ */
+@Component
+public class ShortIdFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ShortIdFilter.class);
+
+    private final ShortUrlRepository repository;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter current;
+    // Filter being rebuilt; new IDs go into it too so they survive the swap
+    private volatile BloomFilter building;
+    private volatile Instant lastRebuild;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public ShortIdFilter(ShortUrlRepository repository,
+            @Value("${shorturl.bloom-filter.enabled:false}") boolean enabled,
+            @Value("${shorturl.bloom-filter.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${shorturl.bloom-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${shorturl.bloom-filter.rebuild-interval:PT10M}",
+            fixedDelayString = "${shorturl.bloom-filter.rebuild-interval:PT10M}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        // Leave room for growth until the next rebuild
+        BloomFilter fresh = new BloomFilter(Math.max(expectedInsertions, repository.count() * 2), falsePositiveRate);
+        building = fresh;
+        repository.forEachShortId(fresh::put);
+        current = fresh;
+        building = null;
+        lastRebuild = Instant.now();
+        log.info("Rebuilt short ID Bloom filter with {} IDs in {} ms", fresh.getInsertions(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Records a newly created ID. Must be called after the row is committed,
+     * otherwise a concurrent rebuild could miss it.
+     */
+    public void add(String shortId) {
+        if (!enabled) {
+            return;
+        }
+        // Read building first: if it is null here, any rebuild starts later and its scan sees the committed row
+        BloomFilter rebuilding = building;
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.put(shortId);
+        }
+        if (rebuilding != null) {
+            rebuilding.put(shortId);
+        }
+    }
+
+    /**
+     * @return false only if the ID definitely does not exist
+     */
+    public boolean mightContain(String shortId) {
+        BloomFilter filter = current;
+        return !enabled || filter == null || filter.mightContain(shortId);
+    }
+
+    /**
+     * Same as {@code !mightContain(shortId)}, but counts the rejection as a DB read avoided.
+     */
+    public boolean rejects(String shortId) {
+        if (mightContain(shortId)) {
+            return false;
+        }
+        rejected.increment();
+        return true;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    /**
+     * @return lookups answered without touching the DB
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getInsertions() {
+        BloomFilter filter = current;
+        return filter == null ? 0 : filter.getInsertions();
+    }
+
+    public long getBitCount() {
+        BloomFilter filter = current;
+        return filter == null ? 0 : filter.getBitCount();
+    }
+
+    public Instant getLastRebuild() {
+        return lastRebuild;
+    }
+}
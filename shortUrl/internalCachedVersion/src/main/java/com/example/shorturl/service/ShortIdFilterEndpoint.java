@@ -0,0 +1,34 @@
+package com.example.shorturl.service;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/bloomfilter}: how many lookups the short ID filter answered without the DB.
+ */
+@Component
+@Endpoint(id = "bloomfilter")
+public class ShortIdFilterEndpoint {
+
+    private final ShortIdFilter filter;
+
+    public ShortIdFilterEndpoint(ShortIdFilter filter) {
+        this.filter = filter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", filter.isEnabled());
+        stats.put("falsePositiveRate", filter.getFalsePositiveRate());
+        stats.put("ids", filter.getInsertions());
+        stats.put("bits", filter.getBitCount());
+        stats.put("dbHitsAvoided", filter.getRejected());
+        stats.put("lastRebuild", filter.getLastRebuild());
+        return stats;
+    }
+}
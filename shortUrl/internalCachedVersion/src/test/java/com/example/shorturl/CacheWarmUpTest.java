@@ -0,0 +1,86 @@
+package com.example.shorturl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stops a node with a warm cache and starts a new one on the same snapshot file:
+ * the hot links must be cached before the first request.
+ *
+ * Starts the apps itself, so it does NOT use @SpringBootTest.
+ */
+public class CacheWarmUpTest {
+
+    private static final int HOT_LINKS = 50;
+    // Long enough that nothing expires during the test
+    private static final String CACHE_SPEC = "expireAfterWrite=10m,maximumSize=100000,recordStats";
+
+    private final RestTemplate client = new RestTemplate();
+
+    @Test
+    void restartedNodeStartsWithHotLinksCached() throws Exception {
+        Path snapshot = Files.createTempDirectory("shortUrl-warm-up").resolve("hot-keys.txt");
+        List<String> shortIds = new ArrayList<>();
+
+        ConfigurableApplicationContext before = startApp(snapshot);
+        try {
+            String baseUrl = "http://localhost:" + getPort(before) + "/shorturl";
+            for (int i = 0; i < HOT_LINKS; i++) {
+                ResponseEntity<Map> created = client.postForEntity(baseUrl, Map.of("url", "https://hot.com/" + i), Map.class);
+                String shortId = extractShortId((String) created.getBody().get("shortUrl"));
+                shortIds.add(shortId);
+                client.getForEntity(baseUrl + "/" + shortId, Void.class);
+            }
+        } finally {
+            // Writes the snapshot on shutdown
+            before.close();
+        }
+        assertThat(Files.readAllLines(snapshot)).containsExactlyInAnyOrderElementsOf(shortIds);
+
+        ConfigurableApplicationContext after = startApp(snapshot);
+        try {
+            MeterRegistry registry = after.getBean(MeterRegistry.class);
+            double warmed = registry.get("shorturl.cache.warmup.entries").gauge().value();
+            double millis = registry.get("shorturl.cache.warmup.time").timeGauge().value(TimeUnit.MILLISECONDS);
+            System.out.println("Warm-up loaded " + (long) warmed + " entries, took " + (long) millis + " ms");
+            assertThat(warmed).isEqualTo(HOT_LINKS);
+
+            CacheManager cacheManager = after.getBean(CacheManager.class);
+            for (int i = 0; i < HOT_LINKS; i++) {
+                assertThat(cacheManager.getCache("urls").get(shortIds.get(i)).get()).isEqualTo("https://hot.com/" + i);
+            }
+        } finally {
+            after.close();
+        }
+    }
+
+    private ConfigurableApplicationContext startApp(Path snapshot) {
+        return new SpringApplicationBuilder(ShortUrlApplication.class)
+                .properties("spring.jmx.enabled=false") // Avoid JMX conflicts
+                .run("--server.port=0", "--shorturl.cache.warm-up.enabled=true",
+                        "--shorturl.cache.warm-up.snapshot-path=" + snapshot,
+                        "--spring.cache.caffeine.spec=" + CACHE_SPEC);
+    }
+
+    private int getPort(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getProperty("local.server.port", Integer.class);
+    }
+
+    private String extractShortId(String fullUrl) {
+        return fullUrl.substring(fullUrl.lastIndexOf('/') + 1);
+    }
+}
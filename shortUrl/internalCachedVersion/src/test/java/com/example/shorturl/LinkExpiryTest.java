@@ -0,0 +1,118 @@
+package com.example.shorturl;
+
+import com.example.shorturl.aop.DelayManager;
+import com.example.shorturl.model.ShortUrl;
+import com.example.shorturl.repository.ShortUrlRepository;
+import com.example.shorturl.service.LinkExpiry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"shorturl.expiry.tick=PT0.1S",
+                // Cache entries outlive the links, so only expiry handling can stop a stale redirect
+                "spring.cache.caffeine.spec=expireAfterWrite=10m,maximumSize=100000,recordStats"})
+class LinkExpiryTest {
+
+    private static final int LINKS = 1000;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ShortUrlRepository repository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private DelayManager delayManager;
+
+    @AfterEach
+    void resetDelay() {
+        delayManager.setDelayRange(20, 20);
+    }
+
+    @Test
+    void expiredLinkIsRejectedWithoutDbReadAndDeleted() throws InterruptedException {
+        ResponseEntity<Map> created = restTemplate.postForEntity("/shorturl",
+                Map.of("url", "https://campaign.com", "ttl", "PT1S"), Map.class);
+        assertThat(created.getBody()).containsKey("expiresAt");
+        String shortId = extractShortId((String) created.getBody().get("shortUrl"));
+        assertThat(restTemplate.getForEntity("/shorturl/" + shortId, Void.class).getStatusCode()).isEqualTo(HttpStatus.FOUND);
+
+        Thread.sleep(1100);
+        // A DB read would now take 500ms
+        delayManager.setDelayRange(500, 500);
+        long start = System.nanoTime();
+        ResponseEntity<Void> expired = restTemplate.getForEntity("/shorturl/" + shortId, Void.class);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Resolve of an expired link took " + millis + "ms");
+        assertThat(expired.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(millis).isLessThan(250);
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (repository.existsById(shortId) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(repository.existsById(shortId)).isFalse();
+        // Replaced by a cached "not found"
+        assertThat(cacheManager.getCache("urls").get(shortId).get()).isNull();
+        start = System.nanoTime();
+        assertThat(restTemplate.getForEntity("/shorturl/" + shortId, Void.class).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(250);
+    }
+
+    @Test
+    void shortenRejectsPastExpiry() {
+        ResponseEntity<Map> response = restTemplate.postForEntity("/shorturl",
+                Map.of("url", "https://late.com", "expiresAt", Instant.now().minusSeconds(60).toString()), Map.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void deletesRunInBoundedChunks() throws InterruptedException {
+        // Own instance, ticked by hand: 100 rows per delete, at most 300 per tick
+        LinkExpiry expiry = new LinkExpiry(repository, cacheManager, Duration.ofMillis(100), 64, 100, 300);
+        Instant expiresAt = Instant.now().plusSeconds(3);
+        List<ShortUrl> links = new ArrayList<>();
+        for (int i = 0; i < LINKS; i++) {
+            links.add(new ShortUrl("exp" + UUID.randomUUID(), "https://bulk.com/" + i, expiresAt));
+        }
+        repository.saveAll(links);
+        links.forEach(link -> expiry.track(link.getShortUrl(), expiresAt));
+
+        expiry.tick();
+        assertThat(expiry.getDeleted()).isZero();
+
+        Thread.sleep(Math.max(0, Duration.between(Instant.now(), expiresAt).toMillis()) + 100);
+        expiry.tick();
+        assertThat(expiry.getDeleted()).isEqualTo(300);
+        assertThat(expiry.getPendingDeletes()).isEqualTo(LINKS - 300);
+
+        for (int i = 0; i < 3; i++) {
+            expiry.tick();
+        }
+        assertThat(expiry.getDeleted()).isEqualTo(LINKS);
+        assertThat(expiry.getTracked()).isZero();
+        assertThat(links).noneMatch(link -> repository.existsById(link.getShortUrl()));
+    }
+
+    private String extractShortId(String shortUrl) {
+        return shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+    }
+}
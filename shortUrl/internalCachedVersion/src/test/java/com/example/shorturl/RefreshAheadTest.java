@@ -0,0 +1,85 @@
+package com.example.shorturl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares p99 resolve latency for a popular key with and without refresh-ahead,
+ * with a 200ms DB delay and the 2s expireAfterWrite.
+ *
+ * Starts one app per mode, so it does NOT use @SpringBootTest.
+ */
+public class RefreshAheadTest {
+
+    private static final long RUN_MILLIS = 7000;
+    // ~20 reads/s: one miss per 2s expiry is then ~2.5% of reads, well inside the p99
+    private static final long PAUSE_MILLIS = 50;
+
+    private final RestTemplate client = new RestTemplate();
+
+    @Test
+    void refreshAheadRemovesExpiryMisses() throws Exception {
+        ConfigurableApplicationContext plain = startApp(false);
+        ConfigurableApplicationContext refreshAhead = startApp(true);
+        try {
+            long plainP99 = measureP99(getPort(plain));
+            long refreshAheadP99 = measureP99(getPort(refreshAhead));
+            System.out.println("p99 expireAfterWrite only: " + plainP99 + "ms, with refresh-ahead: " + refreshAheadP99 + "ms");
+
+            // Without refresh-ahead a reader pays the DB delay every 2 seconds
+            assertThat(plainP99).isGreaterThanOrEqualTo(200);
+            assertThat(refreshAheadP99).isLessThan(100);
+        } finally {
+            plain.close();
+            refreshAhead.close();
+        }
+    }
+
+    private long measureP99(int port) throws InterruptedException {
+        String baseUrl = "http://localhost:" + port + "/shorturl";
+        ResponseEntity<Map> created = client.postForEntity(baseUrl, Map.of("url", "https://popular.com"), Map.class);
+        String shortId = extractShortId((String) created.getBody().get("shortUrl"));
+        client.postForEntity(baseUrl + "/config/delay?min=200&max=200", null, Void.class);
+
+        List<Long> latencies = new ArrayList<>();
+        long end = System.currentTimeMillis() + RUN_MILLIS;
+        while (System.currentTimeMillis() < end) {
+            long start = System.nanoTime();
+            ResponseEntity<Void> response = client.getForEntity(baseUrl + "/" + shortId, Void.class);
+            latencies.add((System.nanoTime() - start) / 1_000_000);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FOUND);
+            Thread.sleep(PAUSE_MILLIS);
+        }
+        // The first read is a cold miss in both modes
+        latencies.remove(0);
+        Collections.sort(latencies);
+        System.out.println(latencies.size() + " reads, max " + latencies.get(latencies.size() - 1) + "ms");
+        return latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1);
+    }
+
+    private ConfigurableApplicationContext startApp(boolean refreshAhead) {
+        return new SpringApplicationBuilder(ShortUrlApplication.class)
+                .properties("spring.jmx.enabled=false") // Avoid JMX conflicts
+                .run("--server.port=0", "--shorturl.cache.refresh-ahead.enabled=" + refreshAhead);
+    }
+
+    private int getPort(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getProperty("local.server.port", Integer.class);
+    }
+
+    private String extractShortId(String fullUrl) {
+        // Extract the last segment of the URL path
+        return fullUrl.substring(fullUrl.lastIndexOf('/') + 1);
+    }
+}
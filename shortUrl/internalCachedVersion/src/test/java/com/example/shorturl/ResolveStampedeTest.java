@@ -0,0 +1,64 @@
+package com.example.shorturl;
+
+import com.example.shorturl.service.ResolveCoalescer;
+import com.example.shorturl.service.UrlService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ResolveStampedeTest {
+
+    private static final int PARALLEL_REQUESTS = 50;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private ResolveCoalescer resolveCoalescer;
+
+    @Test
+    void parallelMissesOnColdKeyReadDbOnce() throws Exception {
+        // shorten does not populate the cache, so the key is cold
+        String shortId = urlService.shorten("https://viral.com");
+
+        // Slow DB makes the miss window wide enough for every request to land in it
+        restTemplate.postForEntity("/shorturl/config/delay?min=300&max=300", null, Void.class);
+        ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_REQUESTS);
+        try {
+            long loadsBefore = resolveCoalescer.getLoads();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<HttpStatusCode>> responses = new ArrayList<>();
+            for (int i = 0; i < PARALLEL_REQUESTS; i++) {
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return restTemplate.getForEntity("/shorturl/" + shortId, Void.class).getStatusCode();
+                }));
+            }
+            start.countDown();
+
+            for (Future<HttpStatusCode> response : responses) {
+                assertThat(response.get()).isEqualTo(HttpStatus.FOUND);
+            }
+            assertThat(resolveCoalescer.getLoads() - loadsBefore).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+            restTemplate.postForEntity("/shorturl/config/delay?min=0&max=0", null, Void.class);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.shorturl;
+
+import com.example.shorturl.aop.DelayManager;
+import com.example.shorturl.model.UrlFingerprint;
+import com.example.shorturl.repository.ShortUrlRepository;
+import com.example.shorturl.service.UrlDeduplicator;
+import com.example.shorturl.service.UrlService;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Shortens a skewed stream of shares (Zipfian over a fixed set of URLs, like share buttons on popular
+ * pages) with dedup on, and compares rows and cache entries with what one ID per share would cost.
+ */
+@SpringBootTest(properties = {"shorturl.dedup.enabled=true",
+        "spring.cache.caffeine.spec=expireAfterWrite=10m,maximumSize=100000,recordStats"})
+class UrlDedupTest {
+
+    private static final int SHARES = 5000;
+    private static final int DISTINCT_URLS = 500;
+    // Per-row overhead beyond the two strings and the hash, roughly what H2 and the index add
+    private static final int ROW_OVERHEAD_BYTES = 64;
+    // Caffeine node plus the two String objects around the chars
+    private static final int CACHE_ENTRY_OVERHEAD_BYTES = 120;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private UrlDeduplicator deduplicator;
+
+    @Autowired
+    private ShortUrlRepository repository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private DelayManager delayManager;
+
+    @AfterEach
+    void resetDelay() {
+        delayManager.setDelayRange(20, 20);
+    }
+
+    @Test
+    void skewedSharesReuseIds() {
+        delayManager.setDelayRange(0, 0);
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<String> urls = IntStream.range(0, DISTINCT_URLS)
+                .mapToObj(i -> "https://news.example.com/" + run + "/article/" + i + "?utm_source=share")
+                .toList();
+        double[] cdf = zipfCdf(DISTINCT_URLS, 1.0);
+        Random random = new Random(42);
+
+        long rowsBefore = repository.count();
+        Set<String> shortIds = new HashSet<>();
+        long baselineRowBytes = 0;
+        long baselineCacheBytes = 0;
+        for (int i = 0; i < SHARES; i++) {
+            String url = urls.get(sample(cdf, random));
+            // Every tenth share comes from a client that upper-cases the host and spells out the port
+            String shared = i % 10 == 0 ? url.replace("https://news.example.com/", "https://NEWS.example.com:443/") : url;
+            String shortId = urlService.shorten(shared);
+            shortIds.add(shortId);
+            urlService.resolve(shortId);
+
+            // Without dedup every share is its own row and, once clicked, its own cache entry
+            baselineRowBytes += rowBytes(shortId, shared);
+            baselineCacheBytes += cacheBytes(shortId, shared);
+        }
+        long rowsCreated = repository.count() - rowsBefore;
+
+        long dedupRowBytes = 0;
+        long dedupCacheBytes = 0;
+        Cache<Object, Object> cache = (Cache<Object, Object>) cacheManager.getCache("urls").getNativeCache();
+        for (String shortId : shortIds) {
+            String url = (String) cache.getIfPresent(shortId);
+            dedupRowBytes += rowBytes(shortId, url);
+            dedupCacheBytes += cacheBytes(shortId, url);
+        }
+
+        System.out.printf("Dedup stats: %d shares of %d URLs -> %d rows (%d without dedup), %d recent hits, %d index hits%n",
+                SHARES, DISTINCT_URLS, rowsCreated, SHARES, deduplicator.getRecentHits(), deduplicator.getIndexHits());
+        System.out.printf("Dedup stats: table ~%d KB vs ~%d KB, cache ~%d KB vs ~%d KB%n",
+                dedupRowBytes / 1024, baselineRowBytes / 1024, dedupCacheBytes / 1024, baselineCacheBytes / 1024);
+
+        // One row per distinct URL that was actually shared, whatever its spelling
+        assertThat(rowsCreated).isEqualTo(shortIds.size()).isLessThanOrEqualTo(DISTINCT_URLS);
+        assertThat(deduplicator.getRecentHits()).isGreaterThan(SHARES / 2);
+        assertThat(dedupCacheBytes * 5).isLessThan(baselineCacheBytes);
+    }
+
+    @Test
+    void expiringAndDeletedLinksAreNotReused() {
+        String url = "https://promo.example.com/" + UUID.randomUUID();
+        String permanent = urlService.shorten(url);
+        assertThat(urlService.shorten(url.replace("https://promo", "HTTPS://PROMO"))).isEqualTo(permanent);
+
+        String expiring = urlService.shorten(url, Instant.now().plusSeconds(3600));
+        assertThat(expiring).isNotEqualTo(permanent);
+
+        urlService.delete(permanent);
+        assertThat(urlService.shorten(url)).isNotEqualTo(permanent).isNotEqualTo(expiring);
+    }
+
+    @Test
+    void linkDeletedOnAnotherNodeIsNotReused() {
+        String url = "https://moved.example.com/" + UUID.randomUUID();
+        String shortId = urlService.shorten(url);
+        assertThat(urlService.shorten(url)).isEqualTo(shortId);
+
+        // Another node's delete: the row goes, this node's dedup cache is not told
+        repository.deleteById(shortId);
+
+        assertThat(urlService.shorten(url)).isNotEqualTo(shortId);
+    }
+
+    @Test
+    void normalizationKeepsPathAndQueryCase() {
+        assertThat(UrlFingerprint.normalize("HTTP://Example.COM:80")).isEqualTo("http://example.com/");
+        assertThat(UrlFingerprint.normalize("https://example.com/A?q=B#frag")).isEqualTo("https://example.com/A?q=B");
+        assertThat(UrlFingerprint.normalize("https://example.com:8443/x")).isEqualTo("https://example.com:8443/x");
+        assertThat(UrlFingerprint.normalize(" not a url ")).isEqualTo("not a url");
+    }
+
+    private static long rowBytes(String shortId, String url) {
+        return shortId.length() + url.length() + Long.BYTES + ROW_OVERHEAD_BYTES;
+    }
+
+    private static long cacheBytes(String shortId, String url) {
+        // Latin-1 compact strings: one byte per char
+        return shortId.length() + url.length() + CACHE_ENTRY_OVERHEAD_BYTES;
+    }
+
+    private static double[] zipfCdf(int n, double s) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, s);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, Random random) {
+        int index = java.util.Arrays.binarySearch(cdf, random.nextDouble());
+        return index >= 0 ? index : Math.min(-index - 1, cdf.length - 1);
+    }
+}
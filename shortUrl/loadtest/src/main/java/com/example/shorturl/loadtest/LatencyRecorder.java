@@ -0,0 +1,47 @@
+package com.example.shorturl.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Raw latency samples in nanoseconds. One instance per worker thread, merged at the end of a step,
+ * so recording is a plain array write.
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int size;
+
+    public void record(long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public static LatencyRecorder merge(Iterable<LatencyRecorder> recorders) {
+        LatencyRecorder merged = new LatencyRecorder();
+        for (LatencyRecorder recorder : recorders) {
+            for (int i = 0; i < recorder.size; i++) {
+                merged.record(recorder.samples[i]);
+            }
+        }
+        Arrays.sort(merged.samples, 0, merged.size);
+        return merged;
+    }
+
+    /**
+     * Nearest-rank percentile of a merged (sorted) recorder, in milliseconds.
+     */
+    public double percentileMillis(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        // Tolerance so 99.9% of 1000 samples is rank 999, not 1000 after rounding error
+        int rank = (int) Math.ceil(percentile / 100.0 * size - 1e-9);
+        return samples[Math.max(rank, 1) - 1] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.shorturl.loadtest;
+
+import org.testcontainers.containers.GenericContainer;
+
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the same mixed workload against each shortUrl variant and each DB delay setting,
+ * and prints throughput, latency percentiles and cache hit ratio per step.
+ *
+ * <pre>
+ * mvn -q compile exec:java -Dexec.args="--variants=database,internal --delays=0-0,200-200 --duration=PT30S"
+ * </pre>
+ *
+ * Each variant runs in its own JVM from its packaged jar. Redis for externalCachedVersion comes from
+ * Testcontainers, like in that module's tests, unless {@code --redis=host:port} points at a running one.
+ */
+public class LoadTest {
+
+    private static final int SEED_BATCH = 1000;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        List<StepResult> results = new ArrayList<>();
+
+        GenericContainer<?> redis = null;
+        String redisHost = null;
+        int redisPort = 0;
+        if (options.redis() != null) {
+            redisHost = options.redis().substring(0, options.redis().lastIndexOf(':'));
+            redisPort = Integer.parseInt(options.redis().substring(options.redis().lastIndexOf(':') + 1));
+        } else if (options.variants().stream().anyMatch(Variant::needsRedis)) {
+            redis = new GenericContainer<>("redis:alpine").withExposedPorts(6379);
+            redis.start();
+            redisHost = redis.getHost();
+            redisPort = redis.getFirstMappedPort();
+        }
+        try {
+            System.out.println(StepResult.header());
+            for (Variant variant : options.variants()) {
+                List<String> extraArgs = new ArrayList<>();
+                if (variant.needsRedis()) {
+                    extraArgs.add("--spring.data.redis.host=" + redisHost);
+                    extraArgs.add("--spring.data.redis.port=" + redisPort);
+                }
+                try (VariantProcess process = VariantProcess.start(variant, options.shortUrlDir(), options.heap(), extraArgs)) {
+                    ShortUrlClient client = process.client();
+                    List<String> shortIds = seed(client, options.keys());
+                    Workload workload = new Workload(client, shortIds, options);
+                    // simplestVersion has no DB, so there is nothing to sweep
+                    List<int[]> delays = variant.isDatabaseBacked() ? options.delays() : List.of(new int[]{0, 0});
+                    for (int[] delay : delays) {
+                        if (variant.isDatabaseBacked()) {
+                            client.setDelay(delay[0], delay[1]);
+                        }
+                        StepResult result = workload.run(variant, delay[0], delay[1]);
+                        System.out.println(result.toRow());
+                        results.add(result);
+                    }
+                }
+            }
+        } finally {
+            if (redis != null) {
+                redis.stop();
+            }
+        }
+
+        if (options.output() != null) {
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(options.output()))) {
+                writer.println(StepResult.CSV_HEADER);
+                results.forEach(result -> writer.println(result.toCsv()));
+            }
+            System.out.println("Wrote " + options.output().toAbsolutePath());
+        }
+    }
+
+    private static List<String> seed(ShortUrlClient client, int keys) throws Exception {
+        List<String> shortIds = new ArrayList<>(keys);
+        for (int start = 0; start < keys; start += SEED_BATCH) {
+            List<String> urls = new ArrayList<>();
+            for (int i = start; i < Math.min(keys, start + SEED_BATCH); i++) {
+                urls.add("https://seed.example.com/" + i);
+            }
+            shortIds.addAll(client.shortenAll(urls));
+        }
+        return shortIds;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.shorturl.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options, all {@code --name=value}. Every option has a default, so a bare run compares
+ * all four variants.
+ *
+ * @param variants     variants to run, e.g. {@code simplest,database,internal,external}
+ * @param delays       DB delay ranges to sweep, {@code min-max} in ms, comma separated
+ * @param duration     measured time per variant and delay
+ * @param warmup       unmeasured load before each measurement
+ * @param concurrency  worker threads issuing requests back to back
+ * @param keys         links created before the run; resolves pick among them
+ * @param shortenRatio fraction of requests that are shortens, the rest are resolves
+ * @param zipfExponent skew of key popularity; 0 is uniform, ~1 is typical web traffic
+ * @param heap         {@code -Xmx} of each variant's JVM
+ * @param shortUrlDir  the {@code shortUrl} directory holding the variant modules
+ * @param output       CSV file for the results, or null
+ * @param redis        {@code host:port} of a running Redis to use instead of a Testcontainers one, or null
+ */
+public record LoadTestOptions(
+        List<Variant> variants,
+        List<int[]> delays,
+        Duration duration,
+        Duration warmup,
+        int concurrency,
+        int keys,
+        double shortenRatio,
+        double zipfExponent,
+        String heap,
+        Path shortUrlDir,
+        Path output,
+        String redis) {
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        List<Variant> variants = Arrays.stream(values.getOrDefault("variants", "simplest,database,internal,external")
+                .split(",")).map(Variant::fromName).toList();
+        List<int[]> delays = Arrays.stream(values.getOrDefault("delays", "0-0,50-100,200-200").split(","))
+                .map(range -> {
+                    String[] bounds = range.trim().split("-");
+                    return new int[]{Integer.parseInt(bounds[0]), Integer.parseInt(bounds[1])};
+                })
+                .toList();
+        String output = values.get("output");
+
+        return new LoadTestOptions(
+                variants,
+                delays,
+                Duration.parse(values.getOrDefault("duration", "PT20S")),
+                Duration.parse(values.getOrDefault("warmup", "PT5S")),
+                Integer.parseInt(values.getOrDefault("concurrency", "16")),
+                Integer.parseInt(values.getOrDefault("keys", "1000")),
+                Double.parseDouble(values.getOrDefault("shorten-ratio", "0.05")),
+                Double.parseDouble(values.getOrDefault("zipf-exponent", "1.0")),
+                values.getOrDefault("heap", "512m"),
+                Path.of(values.getOrDefault("shorturl-dir", "..")).toAbsolutePath().normalize(),
+                output == null ? null : Path.of(output),
+                values.get("redis"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.shorturl.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Thin HTTP client for one running variant. Redirects are not followed: a resolve is done at the 302.
+ */
+public class ShortUrlClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final Variant variant;
+    private final String baseUrl;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(TIMEOUT)
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public ShortUrlClient(Variant variant, int port) {
+        this.variant = variant;
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    public String shorten(String url) throws IOException, InterruptedException {
+        HttpResponse<String> response = post(variant.getShortenPath(), Map.of("url", url));
+        return lastSegment(objectMapper.readTree(response.body()).get("shortUrl").asText());
+    }
+
+    /**
+     * Uses {@code /shorturl/batch} where the variant has it, single shortens otherwise.
+     */
+    public List<String> shortenAll(List<String> urls) throws IOException, InterruptedException {
+        List<String> shortIds = new ArrayList<>(urls.size());
+        if (!variant.isDatabaseBacked()) {
+            for (String url : urls) {
+                shortIds.add(shorten(url));
+            }
+            return shortIds;
+        }
+        HttpResponse<String> response = post("/shorturl/batch", urls);
+        for (JsonNode shortUrl : objectMapper.readTree(response.body()).get("shortUrls")) {
+            shortIds.add(lastSegment(shortUrl.asText()));
+        }
+        return shortIds;
+    }
+
+    public int resolve(String shortId) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + variant.getResolvePrefix() + shortId))
+                .timeout(TIMEOUT)
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    public void setDelay(int minMillis, int maxMillis) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/shorturl/config/delay?min=" + minMillis + "&max=" + maxMillis))
+                .timeout(TIMEOUT)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        check(httpClient.send(request, HttpResponse.BodyHandlers.ofString()));
+    }
+
+    public boolean isHealthy() {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health"))
+                    .timeout(Duration.ofSeconds(2))
+                    .build();
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Count of {@code urls} cache lookups with the given result ("hit" or "miss") from the actuator
+     * metrics endpoint; empty if the variant has no cache metrics.
+     */
+    public OptionalLong cacheGets(String result) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/actuator/metrics/cache.gets?tag=name:urls&tag=result:" + result))
+                .timeout(TIMEOUT)
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(objectMapper.readTree(response.body()).get("measurements").get(0).get("value").asLong());
+    }
+
+    private HttpResponse<String> post(String path, Object body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        return check(httpClient.send(request, HttpResponse.BodyHandlers.ofString()));
+    }
+
+    private static HttpResponse<String> check(HttpResponse<String> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(response.request().uri() + " returned " + response.statusCode()
+                    + ": " + response.body());
+        }
+        return response;
+    }
+
+    private static String lastSegment(String shortUrl) {
+        return shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+    }
+}
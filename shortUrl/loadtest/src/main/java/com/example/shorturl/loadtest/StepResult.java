@@ -0,0 +1,41 @@
+package com.example.shorturl.loadtest;
+
+/**
+ * Measurements for one variant at one DB delay setting. {@code hitRatio} is NaN without a cache.
+ */
+public record StepResult(
+        Variant variant,
+        int minDelayMillis,
+        int maxDelayMillis,
+        long requests,
+        long errors,
+        double throughput,
+        double p50Millis,
+        double p99Millis,
+        double p999Millis,
+        double hitRatio) {
+
+    static final String CSV_HEADER = "variant,minDelayMs,maxDelayMs,requests,errors,throughput,p50Ms,p99Ms,p999Ms,hitRatio";
+
+    String toCsv() {
+        return String.join(",", variant.name().toLowerCase(), String.valueOf(minDelayMillis),
+                String.valueOf(maxDelayMillis), String.valueOf(requests), String.valueOf(errors),
+                format(throughput), format(p50Millis), format(p99Millis), format(p999Millis),
+                Double.isNaN(hitRatio) ? "" : format(hitRatio));
+    }
+
+    String toRow() {
+        return String.format("%-9s %5d-%-5d %9d %7d %10.1f %9.2f %9.2f %9.2f %9s",
+                variant.name().toLowerCase(), minDelayMillis, maxDelayMillis, requests, errors, throughput,
+                p50Millis, p99Millis, p999Millis, Double.isNaN(hitRatio) ? "n/a" : String.format("%.3f", hitRatio));
+    }
+
+    static String header() {
+        return String.format("%-9s %11s %9s %7s %10s %9s %9s %9s %9s",
+                "variant", "delay(ms)", "requests", "errors", "req/s", "p50(ms)", "p99(ms)", "p999(ms)", "hitRatio");
+    }
+
+    private static String format(double value) {
+        return String.format("%.3f", value);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.shorturl.loadtest;
+
+/**
+ * The shortUrl implementations and the differences the load generator has to know about.
+ */
+public enum Variant {
+
+    SIMPLEST("simplestVersion", "/api/shorten", "/", false, false),
+    DATABASE("databaseVersion", "/shorturl", "/shorturl/", true, false),
+    INTERNAL("internalCachedVersion", "/shorturl", "/shorturl/", true, false),
+    EXTERNAL("externalCachedVersion", "/shorturl", "/shorturl/", true, true),
+    // Not in the default run; compare it with external at a high --concurrency
+    REACTIVE("reactiveVersion", "/shorturl", "/shorturl/", true, true);
+
+    private final String module;
+    private final String shortenPath;
+    private final String resolvePrefix;
+    private final boolean databaseBacked;
+    private final boolean needsRedis;
+
+    Variant(String module, String shortenPath, String resolvePrefix, boolean databaseBacked, boolean needsRedis) {
+        this.module = module;
+        this.shortenPath = shortenPath;
+        this.resolvePrefix = resolvePrefix;
+        this.databaseBacked = databaseBacked;
+        this.needsRedis = needsRedis;
+    }
+
+    public static Variant fromName(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+
+    /**
+     * Directory under {@code shortUrl/} whose {@code target/} holds the runnable jar.
+     */
+    public String getModule() {
+        return module;
+    }
+
+    public String getShortenPath() {
+        return shortenPath;
+    }
+
+    public String getResolvePrefix() {
+        return resolvePrefix;
+    }
+
+    /**
+     * Has a DB behind it, so {@code /shorturl/config/delay} and {@code /shorturl/batch} exist.
+     */
+    public boolean isDatabaseBacked() {
+        return databaseBacked;
+    }
+
+    public boolean needsRedis() {
+        return needsRedis;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.shorturl.loadtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Runs one variant's Spring Boot jar in its own JVM, so the variants do not share a heap or a classpath.
+ * Every run gets a fresh in-memory H2 database.
+ */
+public class VariantProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+
+    private final Variant variant;
+    private final Process process;
+    private final ShortUrlClient client;
+
+    private VariantProcess(Variant variant, Process process, int port) {
+        this.variant = variant;
+        this.process = process;
+        this.client = new ShortUrlClient(variant, port);
+    }
+
+    public static VariantProcess start(Variant variant, Path shortUrlDir, String heap, List<String> extraArgs)
+            throws IOException, InterruptedException {
+        Path jar = findJar(shortUrlDir.resolve(variant.getModule()).resolve("target"));
+        int port = freePort();
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Xmx" + heap);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        command.add("--spring.jmx.enabled=false");
+        if (variant == Variant.REACTIVE) {
+            command.add("--spring.r2dbc.url=r2dbc:h2:mem:///loadtest;DB_CLOSE_DELAY=-1");
+        } else if (variant.isDatabaseBacked()) {
+            command.add("--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+        }
+        command.addAll(extraArgs);
+
+        Path log = Files.createTempFile("shorturl-" + variant.getModule() + "-", ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        VariantProcess running = new VariantProcess(variant, process, port);
+        running.awaitHealthy(log);
+        return running;
+    }
+
+    public ShortUrlClient client() {
+        return client;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, java.util.concurrent.TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+
+    private void awaitHealthy(Path log) throws InterruptedException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (!client.isHealthy()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(variant + " exited during startup, see " + log);
+            }
+            if (System.nanoTime() > deadline) {
+                process.destroyForcibly();
+                throw new IllegalStateException(variant + " did not become healthy, see " + log);
+            }
+            Thread.sleep(250);
+        }
+    }
+
+    /**
+     * The runnable jar from {@code mvn package}: the {@code -exec} one where the plain jar is the main artifact.
+     */
+    private static Path findJar(Path target) throws IOException {
+        if (!Files.isDirectory(target)) {
+            throw new IllegalStateException("No " + target + ", run `mvn package -DskipTests` in that module first");
+        }
+        try (Stream<Path> files = Files.list(target)) {
+            List<Path> jars = files.filter(path -> path.toString().endsWith(".jar")).sorted().toList();
+            return jars.stream()
+                    .filter(path -> path.toString().endsWith("-exec.jar"))
+                    .findFirst()
+                    .or(() -> jars.stream().findFirst())
+                    .orElseThrow(() -> new IllegalStateException("No jar in " + target
+                            + ", run `mvn package -DskipTests` in that module first"));
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
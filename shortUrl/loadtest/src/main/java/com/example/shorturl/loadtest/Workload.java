@@ -0,0 +1,95 @@
+package com.example.shorturl.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop mixed workload: each worker sends a request, waits for the answer, and sends the next.
+ * A request is a shorten with probability {@code shortenRatio}, otherwise a resolve of a Zipfian-chosen key.
+ */
+public class Workload {
+
+    private final ShortUrlClient client;
+    private final List<String> shortIds;
+    private final ZipfianGenerator zipf;
+    private final LoadTestOptions options;
+
+    public Workload(ShortUrlClient client, List<String> shortIds, LoadTestOptions options) {
+        this.client = client;
+        this.shortIds = shortIds;
+        this.zipf = new ZipfianGenerator(shortIds.size(), options.zipfExponent());
+        this.options = options;
+    }
+
+    public StepResult run(Variant variant, int minDelayMillis, int maxDelayMillis) throws Exception {
+        runFor(options.warmup());
+
+        OptionalLong hitsBefore = client.cacheGets("hit");
+        OptionalLong missesBefore = client.cacheGets("miss");
+        long start = System.nanoTime();
+        Measurement measurement = runFor(options.duration());
+        double seconds = (System.nanoTime() - start) / 1e9;
+        OptionalLong hitsAfter = client.cacheGets("hit");
+        OptionalLong missesAfter = client.cacheGets("miss");
+
+        double hitRatio = Double.NaN;
+        if (hitsBefore.isPresent() && hitsAfter.isPresent() && missesBefore.isPresent() && missesAfter.isPresent()) {
+            long hits = hitsAfter.getAsLong() - hitsBefore.getAsLong();
+            long misses = missesAfter.getAsLong() - missesBefore.getAsLong();
+            hitRatio = hits + misses == 0 ? Double.NaN : (double) hits / (hits + misses);
+        }
+
+        LatencyRecorder latencies = measurement.latencies();
+        return new StepResult(variant, minDelayMillis, maxDelayMillis, latencies.size(), measurement.errors(),
+                latencies.size() / seconds, latencies.percentileMillis(50), latencies.percentileMillis(99),
+                latencies.percentileMillis(99.9), hitRatio);
+    }
+
+    private Measurement runFor(Duration duration) throws Exception {
+        long end = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(options.concurrency());
+        try {
+            List<Future<LatencyRecorder>> workers = new ArrayList<>();
+            for (int i = 0; i < options.concurrency(); i++) {
+                workers.add(executor.submit(() -> {
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < end) {
+                        long requestStart = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = random.nextDouble() < options.shortenRatio()
+                                    ? client.shorten("https://loadtest.example.com/" + random.nextLong()) != null
+                                    : client.resolve(shortIds.get(zipf.next(random))) == 302;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        recorder.record(System.nanoTime() - requestStart);
+                        if (!ok) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return recorder;
+                }));
+            }
+            List<LatencyRecorder> recorders = new ArrayList<>();
+            for (Future<LatencyRecorder> worker : workers) {
+                recorders.add(worker.get());
+            }
+            return new Measurement(LatencyRecorder.merge(recorders), errors.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private record Measurement(LatencyRecorder latencies, long errors) {
+    }
+}
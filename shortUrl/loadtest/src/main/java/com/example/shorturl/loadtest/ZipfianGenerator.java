@@ -0,0 +1,42 @@
+package com.example.shorturl.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws ranks {@code 0..n-1} where rank {@code k} has probability proportional to {@code 1 / (k + 1)^s},
+ * so a few keys get most of the traffic. Uses a precomputed CDF and a binary search per draw.
+ */
+public class ZipfianGenerator {
+
+    private final double[] cdf;
+
+    public ZipfianGenerator(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+        cdf = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cdf[k] /= sum;
+        }
+    }
+
+    public int next(RandomGenerator random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        // Not found: binarySearch returns -(insertion point) - 1
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cdf.length - 1);
+    }
+
+    /**
+     * Probability of drawing the given rank.
+     */
+    public double probability(int rank) {
+        return rank == 0 ? cdf[0] : cdf[rank] - cdf[rank - 1];
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.shorturl.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ZipfianGeneratorTest {
+
+    private static final int KEYS = 1000;
+    private static final int DRAWS = 1_000_000;
+
+    @Test
+    void drawsFollowTheZipfDistribution() {
+        ZipfianGenerator zipf = new ZipfianGenerator(KEYS, 1.0);
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[KEYS];
+        for (int i = 0; i < DRAWS; i++) {
+            counts[zipf.next(random)]++;
+        }
+
+        // With s = 1 the top key gets 1/H(1000) ~ 13% of the traffic, the second half of that
+        assertThat(zipf.probability(0)).isCloseTo(0.1336, within(0.001));
+        for (int rank : new int[]{0, 1, 9, 99}) {
+            double observed = (double) counts[rank] / DRAWS;
+            assertThat(observed).isCloseTo(zipf.probability(rank), within(zipf.probability(rank) * 0.05));
+        }
+    }
+
+    @Test
+    void percentilesUseNearestRank() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int millis = 1; millis <= 1000; millis++) {
+            recorder.record(millis * 1_000_000L);
+        }
+        LatencyRecorder merged = LatencyRecorder.merge(java.util.List.of(recorder));
+        assertThat(merged.percentileMillis(50)).isEqualTo(500);
+        assertThat(merged.percentileMillis(99)).isEqualTo(990);
+        assertThat(merged.percentileMillis(99.9)).isEqualTo(999);
+    }
+}
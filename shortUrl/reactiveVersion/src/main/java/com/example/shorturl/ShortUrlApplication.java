@@ -0,0 +1,13 @@
+package com.example.shorturl;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ShortUrlApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ShortUrlApplication.class, args);
+	}
+
+}
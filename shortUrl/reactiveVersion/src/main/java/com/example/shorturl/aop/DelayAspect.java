@@ -0,0 +1,49 @@
+package com.example.shorturl.aop;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Same simulated DB latency as the servlet modules, but as a timer instead of {@code Thread.sleep}:
+ * a slow query on a non-blocking driver holds no thread while it waits, and neither does this.
+ */
+@Aspect
+@Component
+public class DelayAspect {
+
+    private final DelayManager delayManager;
+    private final Timer injected;
+
+    public DelayAspect(DelayManager delayManager, MeterRegistry meterRegistry) {
+        this.delayManager = delayManager;
+        this.injected = Timer.builder("shorturl.delay.injected")
+                .description("Artificial delay added to DB reads")
+                .register(meterRegistry);
+        TimeGauge.builder("shorturl.delay.configured", delayManager, TimeUnit.MILLISECONDS, DelayManager::getMinDelay)
+                .tag("bound", "min")
+                .register(meterRegistry);
+        TimeGauge.builder("shorturl.delay.configured", delayManager, TimeUnit.MILLISECONDS, DelayManager::getMaxDelay)
+                .tag("bound", "max")
+                .register(meterRegistry);
+    }
+
+    // Target only findById in ShortUrlRepository
+    @Around("execution(* com.example.shorturl.repository.ShortUrlRepository.findById(..))")
+    public Object addDelay(ProceedingJoinPoint joinPoint) throws Throwable {
+        Mono<?> query = (Mono<?>) joinPoint.proceed();
+        return Mono.defer(() -> {
+            Duration delay = delayManager.getRandomDelay();
+            injected.record(delay);
+            return delay.isZero() ? query : Mono.delay(delay).then(query);
+        });
+    }
+}
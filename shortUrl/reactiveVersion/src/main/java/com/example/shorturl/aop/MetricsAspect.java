@@ -0,0 +1,71 @@
+package com.example.shorturl.aop;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Times the request path for {@code /actuator/prometheus}: every public {@code UrlService} method as
+ * {@code shorturl.service} and every call into {@code ShortUrlRepository} as {@code shorturl.repository}, both tagged
+ * with {@code method} and {@code outcome} ({@code success}, {@code not_found} for an empty Mono, {@code error}).
+ *
+ * <p>The methods return before any work happens, so the timer starts on subscribe and stops when the
+ * publisher completes. Cancelled subscriptions are not recorded.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.example.shorturl.service.UrlService.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("shorturl.service", joinPoint);
+    }
+
+    @Around("execution(* com.example.shorturl.repository.ShortUrlRepository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("shorturl.repository", joinPoint);
+    }
+
+    private Object time(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        String method = joinPoint.getSignature().getName();
+        if (result instanceof Mono<?> mono) {
+            return Mono.defer(() -> {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                return mono
+                        .doOnSuccess(value -> stop(sample, name, method, value == null ? "not_found" : "success"))
+                        .doOnError(e -> stop(sample, name, method, "error"));
+            });
+        }
+        if (result instanceof Flux<?> flux) {
+            return Flux.defer(() -> {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                return flux
+                        .doOnComplete(() -> stop(sample, name, method, "success"))
+                        .doOnError(e -> stop(sample, name, method, "error"));
+            });
+        }
+        return result;
+    }
+
+    private void stop(Timer.Sample sample, String name, String method, String outcome) {
+        sample.stop(Timer.builder(name)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+}
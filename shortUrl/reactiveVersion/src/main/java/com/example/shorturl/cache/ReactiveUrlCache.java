@@ -0,0 +1,79 @@
+package com.example.shorturl.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache-aside {@code urls} cache on the reactive Lettuce client: short ID to original URL as plain strings
+ * under {@code <key-prefix><id>}, with a fixed TTL.
+ *
+ * <p>Spring's {@code @Cacheable} is not used here: it would go through the blocking {@code RedisCacheManager}.
+ * The values are not JDK-serialized like externalCachedVersion's, so the default prefix keeps the two
+ * apart when they share a Redis.
+ */
+@Component
+public class ReactiveUrlCache {
+
+    public static final String NAME = "urls";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+    private final Duration ttl;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ReactiveUrlCache(ReactiveStringRedisTemplate redisTemplate, MeterRegistry meterRegistry,
+            @Value("${shorturl.cache.key-prefix:reactive:urls::}") String keyPrefix,
+            @Value("${shorturl.cache.ttl:PT1M}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.ttl = ttl;
+        // Same cache.gets/cache.puts meters Spring Boot binds for the other modules' caches
+        new ReactiveUrlCacheMetrics(this, Tags.of("name", NAME)).bindTo(meterRegistry);
+    }
+
+    /**
+     * @return the cached URL, or empty on a miss
+     */
+    public Mono<String> get(String shortId) {
+        return redisTemplate.opsForValue().get(keyPrefix + shortId)
+                .doOnNext(url -> hits.increment())
+                .switchIfEmpty(Mono.fromRunnable(misses::increment));
+    }
+
+    public Mono<Boolean> put(String shortId, String url) {
+        puts.increment();
+        return redisTemplate.opsForValue().set(keyPrefix + shortId, url, ttl);
+    }
+
+    public Mono<Boolean> evict(String shortId) {
+        evictions.increment();
+        return redisTemplate.delete(keyPrefix + shortId).map(deleted -> deleted > 0);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getPuts() {
+        return puts.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.shorturl.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Standard {@code cache.gets}/{@code cache.puts}/{@code cache.evictions} meters for the {@link ReactiveUrlCache}.
+ */
+public class ReactiveUrlCacheMetrics extends CacheMeterBinder<ReactiveUrlCache> {
+
+    public ReactiveUrlCacheMetrics(ReactiveUrlCache cache, Iterable<Tag> tags) {
+        super(cache, ReactiveUrlCache.NAME, tags);
+    }
+
+    @Override
+    protected Long size() {
+        return null;
+    }
+
+    @Override
+    protected long hitCount() {
+        ReactiveUrlCache cache = getCache();
+        return cache == null ? 0 : cache.getHits();
+    }
+
+    @Override
+    protected Long missCount() {
+        ReactiveUrlCache cache = getCache();
+        return cache == null ? null : cache.getMisses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        ReactiveUrlCache cache = getCache();
+        return cache == null ? null : cache.getEvictions();
+    }
+
+    @Override
+    protected long putCount() {
+        ReactiveUrlCache cache = getCache();
+        return cache == null ? 0 : cache.getPuts();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.shorturl.controller;
+
+import com.example.shorturl.service.UrlService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Same REST contract as the servlet modules, with every handler returning a {@link Mono}.
+ */
+@RestController
+@RequestMapping("/shorturl")
+public class UrlController {
+
+    private final UrlService urlService;
+
+    @Value("${shorturl.base-url:}")
+    private String baseUrl;
+
+    @Value("${shorturl.batch.max-size:50000}")
+    private int maxBatchSize;
+
+    public UrlController(UrlService urlService) {
+        this.urlService = urlService;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Map<String, String>>> shorten(@RequestBody Map<String, String> request,
+            ServerHttpRequest httpRequest) {
+        String originalUrl = request.get("url");
+        if (originalUrl == null || originalUrl.isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "URL is required")));
+        }
+        return urlService.shorten(originalUrl)
+                .map(shortId -> ResponseEntity.ok(Map.of("shortUrl", buildShortUrl(httpRequest, shortId))));
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Map<String, ?>>> shortenAll(@RequestBody List<String> originalUrls,
+            ServerHttpRequest httpRequest) {
+        if (originalUrls.isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "At least one URL is required")));
+        }
+        if (originalUrls.size() > maxBatchSize) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "At most " + maxBatchSize + " URLs per batch")));
+        }
+        if (originalUrls.stream().anyMatch(url -> url == null || url.isEmpty())) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "URL is required")));
+        }
+
+        // Build the prefix once instead of once per ID
+        String prefix = buildShortUrl(httpRequest, "");
+        return urlService.shortenAll(originalUrls)
+                .map(shortIds -> ResponseEntity.ok(
+                        Map.of("shortUrls", shortIds.stream().map(shortId -> prefix + shortId).toList())));
+    }
+
+    @GetMapping("/{shortId}")
+    public Mono<ResponseEntity<Void>> resolve(@PathVariable String shortId) {
+        return urlService.resolve(shortId)
+                .map(url -> ResponseEntity.status(HttpStatus.FOUND)
+                        .location(URI.create(url))
+                        .<Void>build())
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{shortId}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable String shortId) {
+        return urlService.delete(shortId)
+                .thenReturn(ResponseEntity.noContent().build());
+    }
+
+    private String buildShortUrl(ServerHttpRequest httpRequest, String shortId) {
+        if (baseUrl != null && !baseUrl.isEmpty()) {
+            return baseUrl + "/" + shortId;
+        }
+        // Fallback: build from current request
+        return UriComponentsBuilder.fromUri(httpRequest.getURI())
+                .replacePath("/shorturl/" + shortId)
+                .replaceQuery(null)
+                .toUriString();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.shorturl.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Same {@code short_urls} row as the JPA modules, mapped with Spring Data R2DBC. Only the two columns the
+ * redirect path needs are mapped; columns added by the other modules keep their defaults.
+ */
+@Table("short_urls")
+public class ShortUrl {
+
+    @Id
+    private final String shortUrl;
+
+    private final String originalUrl;
+
+    public ShortUrl(String shortUrl, String originalUrl) {
+        this.shortUrl = shortUrl;
+        this.originalUrl = originalUrl;
+    }
+
+    public String getShortUrl() {
+        return shortUrl;
+    }
+
+    public String getOriginalUrl() {
+        return originalUrl;
+    }
+}
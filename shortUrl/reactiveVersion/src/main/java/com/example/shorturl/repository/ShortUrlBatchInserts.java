@@ -0,0 +1,20 @@
+package com.example.shorturl.repository;
+
+import com.example.shorturl.model.ShortUrl;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Bulk inserts sent as batched statements instead of one round trip per row.
+ */
+public interface ShortUrlBatchInserts {
+
+    /**
+     * Inserts each mapping unless its ID is taken. A taken ID is skipped rather than failing the
+     * statement, so a surrounding transaction stays usable (PostgreSQL aborts it on any error).
+     *
+     * @return per mapping, in order, whether it was inserted
+     */
+    Flux<Boolean> insertAllIfAbsent(List<ShortUrl> shortUrls);
+}
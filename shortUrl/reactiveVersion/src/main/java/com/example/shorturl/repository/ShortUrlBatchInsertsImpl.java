@@ -0,0 +1,58 @@
+package com.example.shorturl.repository;
+
+import com.example.shorturl.model.ShortUrl;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Spring Data picks this up as the implementation of {@link ShortUrlBatchInserts}
+ * (by the {@code Impl} suffix), so the methods show up on {@link ShortUrlRepository}.
+ */
+class ShortUrlBatchInsertsImpl implements ShortUrlBatchInserts {
+
+    // Standard SQL MERGE (H2 2.x, PostgreSQL 15+): a taken ID updates no row instead of raising a duplicate key
+    private static final String INSERT_IF_ABSENT_SQL = """
+            merge into short_urls t
+            using (values (cast($1 as varchar(255)), cast($2 as varchar(255)))) as s(short_url, original_url)
+            on t.short_url = s.short_url
+            when not matched then insert (short_url, original_url) values (s.short_url, s.original_url)
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final int batchSize;
+
+    ShortUrlBatchInsertsImpl(DatabaseClient databaseClient,
+            @Value("${shorturl.batch.insert-batch-size:500}") int batchSize) {
+        this.databaseClient = databaseClient;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Flux<Boolean> insertAllIfAbsent(List<ShortUrl> shortUrls) {
+        return Flux.fromIterable(shortUrls)
+                .buffer(batchSize)
+                .concatMap(this::insertChunk);
+    }
+
+    // One statement with a binding per row; the driver reports the update count of each binding in order.
+    // DatabaseClient runs it on the transaction's connection, if there is one.
+    private Flux<Boolean> insertChunk(List<ShortUrl> chunk) {
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(INSERT_IF_ABSENT_SQL);
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                statement.bind(0, chunk.get(i).getShortUrl()).bind(1, chunk.get(i).getOriginalUrl());
+            }
+            return Flux.from(statement.execute())
+                    .concatMap(Result::getRowsUpdated)
+                    .map(rows -> rows > 0);
+        });
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.shorturl.repository;
+
+import com.example.shorturl.model.ShortUrl;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+/**
+ * Inserts go through {@link ShortUrlBatchInserts}: the ID is assigned by us, so {@code save()} cannot tell
+ * a new row from an existing one and would issue an UPDATE.
+ */
+public interface ShortUrlRepository extends ReactiveCrudRepository<ShortUrl, String>, ShortUrlBatchInserts {
+}
@@ -0,0 +1,27 @@
+package com.example.shorturl.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Random UUID-derived IDs, like {@code RandomShortIdGenerator} in the JPA modules, but without the
+ * {@code existsById} check: {@link UrlService} just inserts and draws a new ID in the rare case it was taken.
+ */
+@Component
+public class ShortIdGenerator {
+
+    public String nextId() {
+        UUID uuid = UUID.randomUUID();
+        byte[] uuidBytes = new byte[16];
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        for (int i = 0; i < 8; i++) {
+            uuidBytes[i] = (byte) (msb >>> (8 * (7 - i)));
+            uuidBytes[8 + i] = (byte) (lsb >>> (8 * (7 - i)));
+        }
+        // 9 URL-safe Base64 characters: 64^9 (approx 2.6 x 10^16) values
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(uuidBytes).substring(0, 9);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.shorturl.service;
+
+import com.example.shorturl.cache.ReactiveUrlCache;
+import com.example.shorturl.model.ShortUrl;
+import com.example.shorturl.repository.ShortUrlRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+public class UrlService {
+
+    // A 9-char random ID practically never collides; more than a few in a row means something else is wrong
+    private static final int MAX_ID_ATTEMPTS = 3;
+
+    private final ShortUrlRepository repository;
+    private final ShortIdGenerator idGenerator;
+    private final ReactiveUrlCache cache;
+
+    public UrlService(ShortUrlRepository repository, ShortIdGenerator idGenerator, ReactiveUrlCache cache) {
+        this.repository = repository;
+        this.idGenerator = idGenerator;
+        this.cache = cache;
+    }
+
+    /**
+     * Shortens a given URL.
+     *
+     * @param originalUrl the full URL to shorten
+     * @return the generated short ID
+     */
+    public Mono<String> shorten(String originalUrl) {
+        return insertWithNewId(originalUrl);
+    }
+
+    /**
+     * Shortens many URLs at once, in one transaction, so either all URLs are stored or none are.
+     * Rows are sent as batched statements; the few whose ID turned out to be taken get a new ID
+     * in another round.
+     *
+     * @param originalUrls the full URLs to shorten
+     * @return the generated short IDs, in the same order as the input
+     */
+    @Transactional
+    public Mono<List<String>> shortenAll(List<String> originalUrls) {
+        return Mono.defer(() -> {
+            String[] shortIds = new String[originalUrls.size()];
+            List<Integer> all = new ArrayList<>(originalUrls.size());
+            for (int i = 0; i < originalUrls.size(); i++) {
+                all.add(i);
+            }
+            return insertWithNewIds(originalUrls, shortIds, all, 1).then(Mono.fromSupplier(() -> Arrays.asList(shortIds)));
+        });
+    }
+
+    /**
+     * Resolves a short ID to the original URL.
+     * Checks Redis first; on a miss reads the DB and caches the result.
+     * Nothing blocks: a slow DB read or Redis call holds no thread while it waits.
+     *
+     * @param shortId the ID to look up
+     * @return the URL, or empty if the ID does not exist
+     */
+    public Mono<String> resolve(String shortId) {
+        return cache.get(shortId)
+                .switchIfEmpty(Mono.defer(() -> repository.findById(shortId)
+                        .map(ShortUrl::getOriginalUrl)
+                        .flatMap(url -> cache.put(shortId, url).thenReturn(url))));
+    }
+
+    /**
+     * Deletes a short URL and evicts it from Redis.
+     *
+     * @param shortId the ID to delete
+     */
+    public Mono<Void> delete(String shortId) {
+        return repository.deleteById(shortId)
+                .then(cache.evict(shortId))
+                .then();
+    }
+
+    // Insert first and draw a new ID if it was taken, instead of an existsById round trip per ID.
+    // A taken ID inserts nothing rather than failing, so no retry runs on an aborted transaction.
+    private Mono<String> insertWithNewId(String originalUrl) {
+        return Mono.defer(() -> {
+                    String shortId = idGenerator.nextId();
+                    return repository.insertAllIfAbsent(List.of(new ShortUrl(shortId, originalUrl)))
+                            .next()
+                            .filter(inserted -> inserted)
+                            .map(inserted -> shortId);
+                })
+                .repeatWhenEmpty(MAX_ID_ATTEMPTS - 1, attempts -> attempts);
+    }
+
+    /**
+     * Inserts {@code pending} (indexes into {@code originalUrls}) with new IDs, then again for those whose ID was taken.
+     */
+    private Mono<Void> insertWithNewIds(List<String> originalUrls, String[] shortIds, List<Integer> pending, int attempt) {
+        List<ShortUrl> rows = new ArrayList<>(pending.size());
+        for (int index : pending) {
+            shortIds[index] = idGenerator.nextId();
+            rows.add(new ShortUrl(shortIds[index], originalUrls.get(index)));
+        }
+        return repository.insertAllIfAbsent(rows).collectList().flatMap(inserted -> {
+            List<Integer> taken = new ArrayList<>();
+            for (int i = 0; i < inserted.size(); i++) {
+                if (!inserted.get(i)) {
+                    taken.add(pending.get(i));
+                }
+            }
+            if (taken.isEmpty()) {
+                return Mono.empty();
+            }
+            if (attempt >= MAX_ID_ATTEMPTS) {
+                return Mono.error(new IllegalStateException("No free short ID for " + taken.size() + " URLs after "
+                        + MAX_ID_ATTEMPTS + " attempts"));
+            }
+            return insertWithNewIds(originalUrls, shortIds, taken, attempt + 1);
+        });
+    }
+}
@@ -0,0 +1,5 @@
+-- Same table the JPA modules create with ddl-auto=update; R2DBC has no schema generation
+create table if not exists short_urls (
+    short_url varchar(255) not null primary key,
+    original_url varchar(255)
+);
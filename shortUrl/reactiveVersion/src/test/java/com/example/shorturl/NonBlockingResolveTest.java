@@ -0,0 +1,89 @@
+package com.example.shorturl;
+
+import com.example.shorturl.aop.DelayManager;
+import com.example.shorturl.service.UrlService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Resolves many cold links at once with 50 ms of simulated DB latency. A servlet module needs one thread per
+ * request in flight for that; here the whole burst runs on the few event-loop threads, and the delays overlap
+ * instead of adding up.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+class NonBlockingResolveTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:alpine")
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+    }
+
+    private static final int LINKS = 500;
+    private static final int DELAY_MS = 50;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private DelayManager delayManager;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @AfterEach
+    void resetDelay() {
+        delayManager.setDelayRange(20, 20);
+    }
+
+    @Test
+    void concurrentColdResolvesDoNotQueueOnThreads() {
+        List<String> urls = IntStream.range(0, LINKS).mapToObj(i -> "https://cold.example.com/" + i).toList();
+        // Untimed pass over other links without delay, so JIT warm-up does not count against the delay
+        delayManager.setDelayRange(0, 0);
+        Flux.fromIterable(urlService.shortenAll(urls).block())
+                .flatMap(urlService::resolve, LINKS)
+                .blockLast();
+
+        List<String> shortIds = urlService.shortenAll(urls).block();
+        delayManager.setDelayRange(DELAY_MS, DELAY_MS);
+
+        long start = System.nanoTime();
+        List<String> resolved = Flux.fromIterable(shortIds)
+                .flatMap(urlService::resolve, LINKS)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+        long tookMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.println(LINKS + " concurrent cold resolves at " + DELAY_MS + "ms DB delay took " + tookMs + "ms");
+
+        assertThat(resolved).containsExactlyInAnyOrderElementsOf(urls);
+        // One at a time this is LINKS * DELAY_MS = 25 s; what remains is CPU time, not waiting
+        assertThat(tookMs).isLessThan(LINKS * DELAY_MS / 5);
+
+        // Over HTTP the redirect path behaves the same: the second read of each link is a Redis hit
+        webTestClient.get().uri("/shorturl/" + shortIds.get(0))
+                .exchange()
+                .expectStatus().isFound()
+                .expectHeader().location(urls.get(0));
+    }
+}
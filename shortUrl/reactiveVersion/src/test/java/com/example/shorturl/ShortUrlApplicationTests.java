@@ -0,0 +1,133 @@
+package com.example.shorturl;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+// Tests switch metrics export off by default; needed for /actuator/prometheus
+@AutoConfigureObservability
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@Testcontainers
+class ShortUrlApplicationTests {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:alpine")
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    // Static variable to share state between test methods (simulating external
+    // client knowledge)
+    private static String createdShortUrl;
+
+    @Test
+    @Order(1)
+    void createShortUrl() {
+        Map body = webTestClient.post().uri("/shorturl")
+                .bodyValue(Map.of("url", "https://google.com"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Map.class)
+                .returnResult().getResponseBody();
+
+        assertThat(body).containsKey("shortUrl");
+        createdShortUrl = (String) body.get("shortUrl");
+        System.out.println("Created Short URL: " + createdShortUrl);
+    }
+
+    @Test
+    @Order(2)
+    void resolveShortUrl() {
+        assertThat(createdShortUrl).isNotNull();
+        String shortId = extractShortId(createdShortUrl);
+
+        // First read misses Redis and goes to the DB, second one is a cache hit
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get().uri("/shorturl/" + shortId)
+                    .exchange()
+                    .expectStatus().isFound()
+                    .expectHeader().location("https://google.com");
+        }
+    }
+
+    @Test
+    @Order(3)
+    void prometheusExposesRequestPathMetrics() {
+        String metrics = webTestClient.get().uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        assertThat(metrics).containsPattern("shorturl_service_seconds_bucket\\{.*method=\"resolve\"");
+        assertThat(metrics).containsPattern("shorturl_service_seconds_count\\{.*method=\"shorten\"");
+        assertThat(metrics).containsPattern("shorturl_repository_seconds_count\\{.*method=\"findById\"");
+        assertThat(metrics).contains("shorturl_delay_configured_seconds{");
+        assertThat(metrics).containsPattern("cache_gets_total\\{.*result=\"hit\"");
+        assertThat(metrics).containsPattern("cache_gets_total\\{.*result=\"miss\"");
+    }
+
+    @Test
+    @Order(4)
+    void deleteEvictsFromRedis() {
+        assertThat(createdShortUrl).isNotNull();
+        String shortId = extractShortId(createdShortUrl);
+
+        webTestClient.delete().uri("/shorturl/" + shortId)
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.get().uri("/shorturl/" + shortId)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @Order(5)
+    void batchShortenAndValidation() {
+        Map body = webTestClient.post().uri("/shorturl/batch")
+                .bodyValue(List.of("https://a.example.com", "https://b.example.com"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Map.class)
+                .returnResult().getResponseBody();
+        List<?> shortUrls = (List<?>) body.get("shortUrls");
+        assertThat(shortUrls).hasSize(2);
+        webTestClient.get().uri("/shorturl/" + extractShortId((String) shortUrls.get(1)))
+                .exchange()
+                .expectStatus().isFound()
+                .expectHeader().location("https://b.example.com");
+
+        webTestClient.post().uri("/shorturl")
+                .bodyValue(Map.of("url", ""))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private String extractShortId(String fullUrl) {
+        // Extract the last segment of the URL path
+        return fullUrl.substring(fullUrl.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.shorturl;
+
+import com.example.shorturl.cache.ReactiveUrlCache;
+import com.example.shorturl.model.ShortUrl;
+import com.example.shorturl.repository.ShortUrlRepository;
+import com.example.shorturl.service.ShortIdGenerator;
+import com.example.shorturl.service.UrlService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * The insert path needs no Redis, so this runs against an in-memory H2 only.
+ */
+@DataR2dbcTest(properties = {"spring.r2dbc.url=r2dbc:h2:mem:///batchInserts;DB_CLOSE_DELAY=-1",
+        "shorturl.batch.insert-batch-size=100"})
+@Import(UrlService.class)
+class ShortUrlBatchInsertsTest {
+
+    @MockBean
+    private ReactiveUrlCache cache;
+
+    @MockBean
+    private ShortIdGenerator idGenerator;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private ShortUrlRepository repository;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Test
+    void takenIdsAreReportedWithoutFailingTheTransaction() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        repository.insertAllIfAbsent(List.of(new ShortUrl(run + "-7", "https://first.com"))).blockLast();
+
+        List<ShortUrl> rows = IntStream.range(0, 250)
+                .mapToObj(i -> new ShortUrl(run + "-" + i, "https://batch.com/" + i))
+                .toList();
+        List<Boolean> inserted = repository.insertAllIfAbsent(rows)
+                // A failed statement would abort this transaction on PostgreSQL; the later write must still commit
+                .concatWith(repository.insertAllIfAbsent(List.of(new ShortUrl(run + "-after", "https://after.com"))))
+                .as(transactionalOperator::transactional)
+                .collectList()
+                .block();
+
+        assertThat(inserted).hasSize(251);
+        assertThat(inserted.get(7)).isFalse();
+        assertThat(inserted).filteredOn(Boolean::booleanValue).hasSize(250);
+        assertThat(repository.findById(run + "-7").block().getOriginalUrl()).isEqualTo("https://first.com");
+        assertThat(repository.findById(run + "-249").block().getOriginalUrl()).isEqualTo("https://batch.com/249");
+        assertThat(repository.existsById(run + "-after").block()).isTrue();
+    }
+
+    @Test
+    void batchShortenDrawsNewIdsForTakenOnes() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        repository.insertAllIfAbsent(List.of(new ShortUrl(run + "-taken", "https://first.com"))).blockLast();
+        when(idGenerator.nextId()).thenReturn(run + "-a", run + "-taken", run + "-b");
+
+        List<String> shortIds = urlService.shortenAll(List.of("https://one.com", "https://two.com")).block();
+
+        assertThat(shortIds).containsExactly(run + "-a", run + "-b");
+        assertThat(repository.findById(run + "-b").block().getOriginalUrl()).isEqualTo("https://two.com");
+        assertThat(repository.findById(run + "-taken").block().getOriginalUrl()).isEqualTo("https://first.com");
+    }
+}
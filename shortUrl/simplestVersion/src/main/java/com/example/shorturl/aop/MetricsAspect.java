@@ -0,0 +1,56 @@
+package com.example.shorturl.aop;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Times the request path for {@code /actuator/prometheus}: every public {@code UrlService} method as
+ * {@code shorturl.service} and every call into the {@code UrlStore} as {@code shorturl.repository}, both tagged
+ * with {@code method} and {@code outcome} ({@code success}, {@code not_found} for an empty Optional, {@code error}).
+ *
+ * <p>Ordered before all other advice, so a slow store call is part of the service timing it belongs to.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.example.shorturl.service.UrlService.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("shorturl.service", joinPoint);
+    }
+
+    @Around("execution(* com.example.shorturl.store.UrlStore+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("shorturl.repository", joinPoint);
+    }
+
+    private Object time(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = result instanceof Optional<?> optional && optional.isEmpty() ? "not_found" : "success";
+            return result;
+        } finally {
+            sample.stop(Timer.builder(name)
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.shorturl.config;
+
+import com.example.shorturl.store.InMemoryUrlStore;
+import com.example.shorturl.store.MappedFileUrlStore;
+import com.example.shorturl.store.UrlStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class UrlStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "shorturl.store", havingValue = "memory", matchIfMissing = true)
+    public UrlStore inMemoryUrlStore() {
+        return new InMemoryUrlStore();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "shorturl.store", havingValue = "mapped")
+    public UrlStore mappedFileUrlStore(@Value("${shorturl.store.path}") Path path,
+            @Value("${shorturl.store.expected-entries:1000000}") int expectedEntries) {
+        return new MappedFileUrlStore(path, expectedEntries);
+    }
+}
@@ -1,20 +1,23 @@
 package com.example.shorturl.service;
 
+import com.example.shorturl.store.UrlStore;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class UrlService {
 
-    private final Map<String, String> urlMap = new ConcurrentHashMap<>();
+    private final UrlStore urlStore;
+
+    public UrlService(UrlStore urlStore) {
+        this.urlStore = urlStore;
+    }
 
     /**
      * Shortens a given URL.
-     * If the URL already exists in the map (as a value), we could reuse it,
+     * If the URL already exists in the store (as a value), we could reuse it,
      * but for simplicity and speed (O(1)), we just generate a new ID.
      * 
      * @param originalUrl the full URL to shorten
@@ -24,9 +27,9 @@ public class UrlService {
         String shortId;
         do {
             shortId = generateShortId();
-        } while (urlMap.containsKey(shortId));
+        } while (urlStore.containsKey(shortId));
 
-        urlMap.put(shortId, originalUrl);
+        urlStore.put(shortId, originalUrl);
         return shortId;
     }
 
@@ -37,10 +40,13 @@ public class UrlService {
      * @return Optional containing the URL if found
      */
     public Optional<String> resolve(String shortId) {
-        return Optional.ofNullable(urlMap.get(shortId));
+        return urlStore.get(shortId);
     }
 
-    private String generateShortId() {
+    /**
+     * Public and static so the JMH benchmarks in {@code shortUrl/benchmarks} can call it directly.
+     */
+    public static String generateShortId() {
         UUID uuid = UUID.randomUUID();
         // Convert the UUID to a byte array.
         // A UUID consists of two long values (mostSignificantBits and
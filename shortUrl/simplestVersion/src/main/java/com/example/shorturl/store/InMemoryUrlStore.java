@@ -0,0 +1,35 @@
+package com.example.shorturl.store;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The original store: a plain {@link ConcurrentHashMap}.
+ * Fast and simple, but every mapping costs two String objects plus a map node on the heap,
+ * and everything is lost on restart.
+ */
+public class InMemoryUrlStore implements UrlStore {
+
+    private final Map<String, String> urlMap = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean containsKey(String shortId) {
+        return urlMap.containsKey(shortId);
+    }
+
+    @Override
+    public void put(String shortId, String originalUrl) {
+        urlMap.put(shortId, originalUrl);
+    }
+
+    @Override
+    public Optional<String> get(String shortId) {
+        return Optional.ofNullable(urlMap.get(shortId));
+    }
+
+    @Override
+    public long size() {
+        return urlMap.size();
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.shorturl.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps URLs as UTF-8 bytes in an append-only, memory-mapped file, and the short ID
+ * (packed into a {@code long}) to file offset index off-heap. Heap use does not grow
+ * with the number of entries, and the data survives a restart: the file is re-mapped
+ * and scanned once to rebuild the index.
+ *
+ * <p>Record layout: {@code [int length][long key][length bytes of URL]}.
+ * The length is written last, so a record cut off by a crash is simply not there after restart.
+ * A length of {@code -1} means "rest of this segment is unused", {@code 0} means end of data,
+ * so empty URLs are rejected.
+ *
+ * <p>Writes reach the OS page cache immediately, so they survive a JVM crash but not
+ * necessarily a power loss; {@link #close()} forces them to disk.
+ */
+public class MappedFileUrlStore implements UrlStore, Closeable {
+
+    static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+    private static final int SKIP_TO_NEXT_SEGMENT = -1;
+
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final OffHeapLongIndex index;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long writeOffset;
+
+    public MappedFileUrlStore(Path file, int expectedEntries) {
+        try {
+            this.channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.index = new OffHeapLongIndex(expectedEntries);
+            load();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open URL store " + file, e);
+        }
+    }
+
+    @Override
+    public boolean containsKey(String shortId) {
+        long key = ShortIdCodec.encode(shortId);
+        if (key == ShortIdCodec.INVALID) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return index.get(key) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(String shortId, String originalUrl) {
+        long key = ShortIdCodec.encode(shortId);
+        if (key == ShortIdCodec.INVALID) {
+            throw new IllegalArgumentException("Not a " + ShortIdCodec.LENGTH + "-char URL-safe Base64 ID: " + shortId);
+        }
+        if (originalUrl.isEmpty()) {
+            // Would be written with length 0 and end the data for load(), dropping every later record
+            throw new IllegalArgumentException("URL must not be empty");
+        }
+        byte[] bytes = originalUrl.getBytes(StandardCharsets.UTF_8);
+        int recordBytes = HEADER_BYTES + bytes.length;
+        if (recordBytes > SEGMENT_SIZE) {
+            throw new IllegalArgumentException("URL too long: " + bytes.length + " bytes");
+        }
+
+        lock.writeLock().lock();
+        try {
+            int position = (int) (writeOffset % SEGMENT_SIZE);
+            if (position + recordBytes > SEGMENT_SIZE) {
+                if (position + Integer.BYTES <= SEGMENT_SIZE) {
+                    segment(writeOffset).putInt(position, SKIP_TO_NEXT_SEGMENT);
+                }
+                writeOffset += SEGMENT_SIZE - position;
+                position = 0;
+            }
+            MappedByteBuffer segment = segment(writeOffset);
+            segment.putLong(position + Integer.BYTES, key);
+            segment.put(position + HEADER_BYTES, bytes);
+            segment.putInt(position, bytes.length);
+
+            index.put(key, writeOffset);
+            writeOffset += recordBytes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<String> get(String shortId) {
+        long key = ShortIdCodec.encode(shortId);
+        if (key == ShortIdCodec.INVALID) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            long offset = index.get(key);
+            if (offset < 0) {
+                return Optional.empty();
+            }
+            MappedByteBuffer segment = segments.get((int) (offset / SEGMENT_SIZE));
+            int position = (int) (offset % SEGMENT_SIZE);
+            byte[] bytes = new byte[segment.getInt(position)];
+            segment.get(position + HEADER_BYTES, bytes);
+            return Optional.of(new String(bytes, StandardCharsets.UTF_8));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Re-maps the existing file and rebuilds the index
+    private void load() throws IOException {
+        long fileSize = channel.size();
+        long offset = 0;
+        while (offset < fileSize) {
+            MappedByteBuffer segment = segment(offset);
+            int position = (int) (offset % SEGMENT_SIZE);
+            int length = position + Integer.BYTES <= SEGMENT_SIZE ? segment.getInt(position) : SKIP_TO_NEXT_SEGMENT;
+            if (length == 0) {
+                break;
+            }
+            if (length == SKIP_TO_NEXT_SEGMENT) {
+                offset += SEGMENT_SIZE - position;
+                continue;
+            }
+            index.put(segment.getLong(position + Integer.BYTES), offset);
+            offset += HEADER_BYTES + length;
+        }
+        writeOffset = offset;
+    }
+
+    // Maps segments lazily; mapping past the end grows the file
+    private MappedByteBuffer segment(long offset) {
+        int segmentIndex = (int) (offset / SEGMENT_SIZE);
+        try {
+            while (segments.size() <= segmentIndex) {
+                segments.add(channel.map(FileChannel.MapMode.READ_WRITE, (long) segments.size() * SEGMENT_SIZE, SEGMENT_SIZE));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map URL store segment " + segmentIndex, e);
+        }
+        return segments.get(segmentIndex);
+    }
+}
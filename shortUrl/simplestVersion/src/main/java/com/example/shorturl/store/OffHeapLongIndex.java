@@ -0,0 +1,100 @@
+package com.example.shorturl.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Open-addressing (linear probing) hash map from {@code long} to {@code long}, stored in a
+ * direct buffer so it costs no heap per entry. Keys must be non-negative.
+ * Not thread-safe; {@link MappedFileUrlStore} guards it with its lock.
+ */
+class OffHeapLongIndex {
+
+    private static final int SLOT_BYTES = 16;
+    private static final double MAX_LOAD = 0.7;
+    // Keys are stored +1 so that an all-zero slot means "empty"
+    private static final long EMPTY = 0;
+
+    private ByteBuffer slots;
+    private int capacity;
+    private int size;
+
+    OffHeapLongIndex(int expectedEntries) {
+        allocate(tableSizeFor((int) Math.ceil(Math.max(16, expectedEntries) / MAX_LOAD)));
+    }
+
+    void put(long key, long value) {
+        if (size + 1 > capacity * MAX_LOAD) {
+            resize();
+        }
+        int slot = find(key);
+        if (slots.getLong(slot * SLOT_BYTES) == EMPTY) {
+            size++;
+        }
+        slots.putLong(slot * SLOT_BYTES, key + 1);
+        slots.putLong(slot * SLOT_BYTES + 8, value);
+    }
+
+    /**
+     * @return the value, or -1 if the key is absent
+     */
+    long get(long key) {
+        int slot = find(key);
+        if (slots.getLong(slot * SLOT_BYTES) == EMPTY) {
+            return -1;
+        }
+        return slots.getLong(slot * SLOT_BYTES + 8);
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Slot holding the key, or the empty slot where it would go
+    private int find(long key) {
+        long stored = key + 1;
+        int mask = capacity - 1;
+        int slot = (int) (mix(key) & mask);
+        while (true) {
+            long current = slots.getLong(slot * SLOT_BYTES);
+            if (current == EMPTY || current == stored) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void resize() {
+        ByteBuffer old = slots;
+        int oldCapacity = capacity;
+        allocate(capacity * 2);
+        size = 0;
+        for (int i = 0; i < oldCapacity; i++) {
+            long stored = old.getLong(i * SLOT_BYTES);
+            if (stored != EMPTY) {
+                put(stored - 1, old.getLong(i * SLOT_BYTES + 8));
+            }
+        }
+    }
+
+    private void allocate(int newCapacity) {
+        if ((long) newCapacity * SLOT_BYTES > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Index too large for a single buffer: " + newCapacity + " slots");
+        }
+        capacity = newCapacity;
+        slots = ByteBuffer.allocateDirect(newCapacity * SLOT_BYTES);
+    }
+
+    private static int tableSizeFor(int n) {
+        return Integer.highestOneBit(n - 1) << 1;
+    }
+
+    // MurmurHash3 finalizer: consecutive IDs spread over the table
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.shorturl.store;
+
+/**
+ * Packs a 9-char URL-safe Base64 short ID into a {@code long} (6 bits per char = 54 bits) and back.
+ */
+public final class ShortIdCodec {
+
+    public static final int LENGTH = 9;
+    public static final long INVALID = -1L;
+
+    private static final char[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+    private static final int[] VALUES = new int[128];
+
+    static {
+        java.util.Arrays.fill(VALUES, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = i;
+        }
+    }
+
+    private ShortIdCodec() {
+    }
+
+    /**
+     * @return the packed ID, or {@link #INVALID} if the string is not a 9-char URL-safe Base64 ID
+     */
+    public static long encode(String shortId) {
+        if (shortId.length() != LENGTH) {
+            return INVALID;
+        }
+        long packed = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            char c = shortId.charAt(i);
+            int value = c < 128 ? VALUES[c] : -1;
+            if (value < 0) {
+                return INVALID;
+            }
+            packed = (packed << 6) | value;
+        }
+        return packed;
+    }
+
+    public static String decode(long packed) {
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (packed & 63)];
+            packed >>>= 6;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.shorturl.store;
+
+import java.util.Optional;
+
+/**
+ * Where {@code UrlService} keeps short ID to URL mappings.
+ * Select the implementation with {@code shorturl.store} ({@code memory} or {@code mapped}).
+ */
+public interface UrlStore {
+
+    boolean containsKey(String shortId);
+
+    void put(String shortId, String originalUrl);
+
+    Optional<String> get(String shortId);
+
+    long size();
+}
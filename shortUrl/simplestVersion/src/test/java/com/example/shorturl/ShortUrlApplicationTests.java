@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.HttpStatus;
@@ -17,6 +18,8 @@ import java.util.Map;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+// Tests switch metrics export off by default; needed for /actuator/prometheus
+@AutoConfigureObservability
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class ShortUrlApplicationTests {
 
@@ -56,6 +59,17 @@ class ShortUrlApplicationTests {
 
     @Test
     @Order(3)
+    void prometheusExposesRequestPathMetrics() {
+        String metrics = restTemplate.getForObject("/actuator/prometheus", String.class);
+
+        // Histogram buckets for the service and store calls made by the tests above
+        assertThat(metrics).containsPattern("shorturl_service_seconds_bucket\\{.*method=\"resolve\"");
+        assertThat(metrics).containsPattern("shorturl_service_seconds_count\\{.*method=\"shorten\"");
+        assertThat(metrics).contains("shorturl_repository_seconds_count{");
+    }
+
+    @Test
+    @Order(4)
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
     void verifyDataLossAfterRestart() {
         // @DirtiesContext BEFORE_METHOD forces Spring to reload the context before this
@@ -0,0 +1,110 @@
+package com.example.shorturl.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MappedFileUrlStoreTest {
+
+    // Run the full comparison with: mvn test -Dtest=MappedFileUrlStoreTest -Dfootprint.entries=10000000
+    private static final int FOOTPRINT_ENTRIES = Integer.getInteger("footprint.entries", 1_000_000);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void dataSurvivesReopen() {
+        Path file = tempDir.resolve("urls.dat");
+
+        try (MappedFileUrlStore store = new MappedFileUrlStore(file, 16)) {
+            store.put("abcDEF123", "https://example.com");
+            store.put("-_-_-_-_-", "https://example.com/ünïcode");
+        }
+
+        try (MappedFileUrlStore reopened = new MappedFileUrlStore(file, 16)) {
+            assertThat(reopened.size()).isEqualTo(2);
+            assertThat(reopened.get("abcDEF123")).contains("https://example.com");
+            assertThat(reopened.get("-_-_-_-_-")).contains("https://example.com/ünïcode");
+            assertThat(reopened.get("missing00")).isEmpty();
+            assertThat(reopened.get("not-a-valid-id")).isEmpty();
+
+            // Appends continue after the existing records
+            reopened.put("zzzzzzzzz", "https://after-restart.com");
+            assertThat(reopened.get("zzzzzzzzz")).contains("https://after-restart.com");
+        }
+    }
+
+    @Test
+    void emptyUrlIsRejectedInsteadOfEndingTheData() {
+        Path file = tempDir.resolve("empty.dat");
+
+        try (MappedFileUrlStore store = new MappedFileUrlStore(file, 16)) {
+            store.put("aaaaaaaaa", "https://before.com");
+            assertThatThrownBy(() -> store.put("bbbbbbbbb", "")).isInstanceOf(IllegalArgumentException.class);
+            store.put("ccccccccc", "https://after.com");
+        }
+
+        try (MappedFileUrlStore reopened = new MappedFileUrlStore(file, 16)) {
+            assertThat(reopened.size()).isEqualTo(2);
+            assertThat(reopened.get("ccccccccc")).contains("https://after.com");
+        }
+    }
+
+    @Test
+    void recordsSpanMultipleSegments() {
+        Path file = tempDir.resolve("big.dat");
+        String longUrl = "https://example.com/" + "x".repeat(1_000_000);
+        int count = MappedFileUrlStore.SEGMENT_SIZE / longUrl.length() + 10;
+
+        try (MappedFileUrlStore store = new MappedFileUrlStore(file, count)) {
+            for (int i = 0; i < count; i++) {
+                store.put(ShortIdCodec.decode(i), longUrl);
+            }
+        }
+        try (MappedFileUrlStore reopened = new MappedFileUrlStore(file, count)) {
+            assertThat(reopened.size()).isEqualTo(count);
+            assertThat(reopened.get(ShortIdCodec.decode(count - 1))).contains(longUrl);
+        }
+    }
+
+    @Test
+    void heapFootprintComparedToMap() {
+        long mapBytes = heapGrowth(new InMemoryUrlStore());
+
+        long mappedBytes;
+        try (MappedFileUrlStore mapped = new MappedFileUrlStore(tempDir.resolve("footprint.dat"), FOOTPRINT_ENTRIES)) {
+            mappedBytes = heapGrowth(mapped);
+        }
+
+        double mapPerEntry = (double) mapBytes / FOOTPRINT_ENTRIES;
+        double mappedPerEntry = (double) mappedBytes / FOOTPRINT_ENTRIES;
+        System.out.printf("%,d entries: ConcurrentHashMap %.1f heap bytes/entry, mapped file %.1f heap bytes/entry%n",
+                FOOTPRINT_ENTRIES, mapPerEntry, mappedPerEntry);
+
+        assertThat(mapPerEntry).isGreaterThan(100);
+        assertThat(mappedPerEntry).isLessThan(8);
+    }
+
+    // Heap still in use after filling the store, measured while the store is reachable
+    private long heapGrowth(UrlStore store) {
+        long before = usedHeapAfterGc();
+        for (int i = 0; i < FOOTPRINT_ENTRIES; i++) {
+            store.put(ShortIdCodec.decode(i), "https://example.com/some/page/" + i);
+        }
+        long after = usedHeapAfterGc();
+        assertThat(store.size()).isEqualTo(FOOTPRINT_ENTRIES);
+        return after - before;
+    }
+
+    private long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}